@@ -66,6 +66,27 @@ public abstract class AbstractReportMojo extends AbstractMojo
 	@Parameter
 	String footer;
 
+	/**
+	 * Highlight the syntax of Java and Kotlin source files while the HTML
+	 * report is created. Otherwise source pages are highlighted by a script in
+	 * the browser, which can be slow for large source files.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.html.serverSideHighlighting", defaultValue = "false")
+	boolean serverSideHighlighting;
+
+	/**
+	 * Number of rows above which coverage tables of the HTML report are
+	 * written to a separate data file. Pages of such tables only contain the
+	 * first rows, all rows are displayed with virtual scrolling and sorting in
+	 * the browser. The default <code>0</code> renders all rows into the page.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.html.tableDataThreshold", defaultValue = "0")
+	int tableDataThreshold;
+
 	/**
 	 * Encoding of the source files.
 	 */
@@ -86,6 +107,17 @@ public abstract class AbstractReportMojo extends AbstractMojo
 	@Parameter
 	List<String> excludes;
 
+	/**
+	 * Reuse analysis results of other goals within the same build. If
+	 * enabled, analyzed bundles are stored in the
+	 * <code>jacoco-analysis</code> folder of the project's build directory and
+	 * reused as long as the class files and the execution data are unchanged.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.analysisCache", defaultValue = "false")
+	boolean analysisCache;
+
 	/**
 	 * Flag used to suppress execution.
 	 */
@@ -188,6 +220,7 @@ public abstract class AbstractReportMojo extends AbstractMojo
 			throws MavenReportException {
 		try {
 			final ReportSupport support = new ReportSupport(getLog());
+			support.setAnalysisCache(analysisCache);
 			loadExecutionData(support);
 			addFormatters(support, locale);
 			final IReportVisitor visitor = support.initRootVisitor();
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.maven.project.MavenProject;
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.binary.BinaryFormatter;
+import org.jacoco.report.binary.BinaryReportReader;
+
+/**
+ * Stores analyzed bundles of a project in its build directory so that later
+ * goals of the same build can reuse them instead of analyzing the class files
+ * again. Bundles are stored in the binary report format. The file name is the
+ * bundle name followed by a hash of the bundle name, the class files and the
+ * execution data, therefore a bundle is only reused if none of its inputs has
+ * changed. Storing an entry removes all other entries of the same bundle.
+ */
+final class AnalysisCache {
+
+	private static final String DIRECTORY = "jacoco-analysis";
+
+	private static final String SUFFIX = ".jcrb";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final File directory;
+
+	private final String prefix;
+
+	private final String key;
+
+	/**
+	 * Creates a cache entry for the given inputs.
+	 *
+	 * @param project
+	 *            project whose build directory holds the cache
+	 * @param bundleName
+	 *            name of the bundle
+	 * @param classFiles
+	 *            class files to analyze in analysis order
+	 * @param executionDataDigest
+	 *            digest of the execution data used for the analysis, see
+	 *            {@link #digest(ExecutionDataStore)}
+	 * @throws IOException
+	 *             if the class files can't be read
+	 */
+	AnalysisCache(final MavenProject project, final String bundleName,
+			final List<File> classFiles, final byte[] executionDataDigest)
+			throws IOException {
+		this.directory = new File(project.getBuild().getDirectory(),
+				DIRECTORY);
+		this.prefix = toFileName(bundleName) + "-";
+		this.key = computeKey(bundleName, classFiles, executionDataDigest);
+	}
+
+	/**
+	 * @return file of this cache entry
+	 */
+	File getFile() {
+		return new File(directory, prefix + key + SUFFIX);
+	}
+
+	/**
+	 * Loads the cached bundle.
+	 *
+	 * @param bundleName
+	 *            name of the bundle
+	 * @return cached bundle or <code>null</code> if there is no valid entry
+	 */
+	IBundleCoverage load(final String bundleName) {
+		final File file = getFile();
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			final BinaryReportReader reader = new BinaryReportReader(file);
+			try {
+				return reader.readBundle(bundleName);
+			} finally {
+				reader.close();
+			}
+		} catch (final IOException e) {
+			// Invalid entries are ignored and will be overwritten
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given bundle. The entry is written to a temporary file first
+	 * so that concurrent builds never see incomplete entries.
+	 *
+	 * @param bundle
+	 *            bundle to store
+	 * @throws IOException
+	 *             if the entry can't be written
+	 */
+	void store(final IBundleCoverage bundle) throws IOException {
+		directory.mkdirs();
+		final File temp = File.createTempFile(key, ".tmp", directory);
+		try {
+			final OutputStream out = new BufferedOutputStream(
+					new FileOutputStream(temp));
+			try {
+				final IReportVisitor visitor = new BinaryFormatter()
+						.createVisitor(out);
+				visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+						Collections.<ExecutionData> emptyList());
+				visitor.visitBundle(bundle, null);
+				visitor.visitEnd();
+			} finally {
+				out.close();
+			}
+			final File file = getFile();
+			if (!temp.renameTo(file) && !file.isFile()) {
+				throw new IOException(
+						"Unable to write analysis cache entry " + file);
+			}
+		} finally {
+			temp.delete();
+		}
+		deleteOtherEntries();
+	}
+
+	private void deleteOtherEntries() {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		final String current = getFile().getName();
+		for (final File file : files) {
+			final String name = file.getName();
+			// Entries of bundles whose name starts with this bundle name
+			// have a different length:
+			if (name.length() == current.length() && name.startsWith(prefix)
+					&& name.endsWith(SUFFIX) && !name.equals(current)) {
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Calculates the digest of the given execution data which is part of the
+	 * key of all entries. The digest does not depend on the order of the
+	 * entries in the store.
+	 *
+	 * @param executionData
+	 *            execution data used for the analysis
+	 * @return digest of the execution data
+	 * @throws IOException
+	 *             if a class name can't be encoded
+	 */
+	static byte[] digest(final ExecutionDataStore executionData)
+			throws IOException {
+		final MessageDigest digest = createDigest();
+		final List<ExecutionData> contents = new ArrayList<ExecutionData>(
+				executionData.getContents());
+		Collections.sort(contents, new Comparator<ExecutionData>() {
+			public int compare(final ExecutionData d1, final ExecutionData d2) {
+				return d1.getId() < d2.getId() ? -1
+						: (d1.getId() == d2.getId() ? 0 : 1);
+			}
+		});
+		for (final ExecutionData data : contents) {
+			update(digest, data.getId());
+			update(digest, data.getName());
+			final boolean[] probes = data.getProbes();
+			update(digest, probes.length);
+			for (final boolean p : probes) {
+				digest.update(p ? (byte) 1 : (byte) 0);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static String computeKey(final String bundleName,
+			final List<File> classFiles, final byte[] executionDataDigest)
+			throws IOException {
+		final MessageDigest digest = createDigest();
+		update(digest, JaCoCo.VERSION);
+		update(digest, bundleName);
+		final byte[] buffer = new byte[0x4000];
+		for (final File file : classFiles) {
+			update(digest, file.getPath());
+			update(digest, file.length());
+			final InputStream in = new FileInputStream(file);
+			try {
+				int n;
+				while ((n = in.read(buffer)) != -1) {
+					digest.update(buffer, 0, n);
+				}
+			} finally {
+				in.close();
+			}
+		}
+		digest.update(executionDataDigest);
+		final byte[] hash = digest.digest();
+		final char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+			hex[2 * i + 1] = HEX[hash[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Replaces all characters which may not be allowed in file names.
+	 */
+	private static String toFileName(final String bundleName) {
+		final StringBuilder name = new StringBuilder(bundleName.length());
+		for (int i = 0; i < bundleName.length(); i++) {
+			final char c = bundleName.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+					|| (c >= '0' && c <= '9') || c == '.' || c == '-') {
+				name.append(c);
+			} else {
+				name.append('_');
+			}
+		}
+		return name.toString();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void update(final MessageDigest digest, final String s)
+			throws IOException {
+		final byte[] bytes = s.getBytes("UTF-8");
+		update(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void update(final MessageDigest digest, final long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			digest.update((byte) (value >>> shift));
+		}
+	}
+
+}
@@ -143,6 +143,27 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 	@Parameter
 	private List<String> excludes;
 
+	/**
+	 * Number of threads used to check the rules for the packages of the
+	 * project. Violations are reported in the same order for any number of
+	 * threads.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.check.threads", defaultValue = "1")
+	private int threads;
+
+	/**
+	 * Reuse analysis results of other goals within the same build. If
+	 * enabled, analyzed bundles are stored in the
+	 * <code>jacoco-analysis</code> folder of the project's build directory and
+	 * reused as long as the class files and the execution data are unchanged.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.analysisCache", defaultValue = "false")
+	private boolean analysisCache;
+
 	private boolean violations;
 
 	private boolean canCheckCoverage() {
@@ -173,12 +194,13 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 		violations = false;
 
 		final ReportSupport support = new ReportSupport(getLog());
+		support.setAnalysisCache(analysisCache);
 
 		final List<Rule> checkerrules = new ArrayList<Rule>();
 		for (final RuleConfiguration r : rules) {
 			checkerrules.add(r.rule);
 		}
-		support.addRulesChecker(checkerrules, this);
+		support.addRulesChecker(checkerrules, threads, this);
 
 		try {
 			final IReportVisitor visitor = support.initRootVisitor();
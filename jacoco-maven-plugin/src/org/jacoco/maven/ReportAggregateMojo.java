@@ -91,6 +91,16 @@ public class ReportAggregateMojo extends AbstractReportMojo {
 	@Parameter(defaultValue = "false")
 	private boolean includeCurrentProject;
 
+	/**
+	 * Number of projects whose class files are analyzed concurrently. The
+	 * projects are always reported in the same order for any number of
+	 * threads. The value must be at least 1.
+	 *
+	 * @since 0.8.12
+	 */
+	@Parameter(property = "jacoco.aggregate.threads", defaultValue = "1")
+	private int threads;
+
 	/**
 	 * The projects in the reactor.
 	 */
@@ -140,21 +150,14 @@ public class ReportAggregateMojo extends AbstractReportMojo {
 	void createReport(final IReportGroupVisitor visitor,
 			final ReportSupport support) throws IOException {
 		final IReportGroupVisitor group = visitor.visitGroup(title);
+		final List<MavenProject> projects = new ArrayList<MavenProject>();
 		if (includeCurrentProject) {
-			processProject(support, group, project);
+			projects.add(project);
 		}
-		for (final MavenProject dependency : findDependencies(
-				Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME,
-				Artifact.SCOPE_PROVIDED)) {
-			processProject(support, group, dependency);
-		}
-	}
-
-	private void processProject(final ReportSupport support,
-			final IReportGroupVisitor group, final MavenProject project)
-			throws IOException {
-		support.processProject(group, project.getArtifactId(), project,
-				getIncludes(), getExcludes(), sourceEncoding);
+		projects.addAll(findDependencies(Artifact.SCOPE_COMPILE,
+				Artifact.SCOPE_RUNTIME, Artifact.SCOPE_PROVIDED));
+		support.processProjects(group, projects, getIncludes(), getExcludes(),
+				sourceEncoding, threads);
 	}
 
 	public File getReportOutputDirectory() {
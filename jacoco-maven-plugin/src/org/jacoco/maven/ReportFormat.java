@@ -38,6 +38,9 @@ public enum ReportFormat {
 			final HTMLFormatter htmlFormatter = new HTMLFormatter();
 			htmlFormatter.setOutputEncoding(mojo.outputEncoding);
 			htmlFormatter.setLocale(locale);
+			htmlFormatter.setServerSideHighlighting(
+					mojo.serverSideHighlighting);
+			htmlFormatter.setTableDataThreshold(mojo.tableDataThreshold);
 			if (mojo.footer != null) {
 				htmlFormatter.setFooterText(mojo.footer);
 			}
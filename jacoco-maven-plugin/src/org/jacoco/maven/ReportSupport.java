@@ -16,13 +16,16 @@ package org.jacoco.maven;
 import static java.lang.String.format;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
@@ -30,14 +33,17 @@ import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.tools.ExecFileLoader;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IndexedSourceFileLocator;
 import org.jacoco.report.MultiReportVisitor;
 import org.jacoco.report.check.IViolationsOutput;
 import org.jacoco.report.check.Rule;
 import org.jacoco.report.check.RulesChecker;
+import org.jacoco.report.internal.ConcurrentTasks;
 
 /**
  * Encapsulates the tasks to create reports for Maven projects. Instances are
@@ -57,6 +63,8 @@ final class ReportSupport {
 	private final Log log;
 	private final ExecFileLoader loader;
 	private final List<IReportVisitor> formatters;
+	private boolean analysisCache;
+	private byte[] executionDataDigest;
 
 	/**
 	 * Construct a new instance with the given log output.
@@ -81,16 +89,30 @@ final class ReportSupport {
 	public void loadExecutionData(final File execFile) throws IOException {
 		log.info("Loading execution data file " + execFile);
 		loader.load(execFile);
+		executionDataDigest = null;
+	}
+
+	/**
+	 * Enables reuse of analysis results. Analyzed bundles are stored in the
+	 * build directory of the respective project and reused by later goals
+	 * as long as class files and execution data are unchanged.
+	 *
+	 * @param analysisCache
+	 *            <code>true</code> to enable the cache
+	 */
+	public void setAnalysisCache(final boolean analysisCache) {
+		this.analysisCache = analysisCache;
 	}
 
 	public void addVisitor(final IReportVisitor visitor) {
 		formatters.add(visitor);
 	}
 
-	public void addRulesChecker(final List<Rule> rules,
+	public void addRulesChecker(final List<Rule> rules, final int threads,
 			final IViolationsOutput output) {
 		final RulesChecker checker = new RulesChecker();
 		checker.setRules(rules);
+		checker.setThreads(threads);
 		formatters.add(checker.createVisitor(output));
 	}
 
@@ -146,33 +168,181 @@ final class ReportSupport {
 			final String bundleName, final MavenProject project,
 			final List<String> includes, final List<String> excludes,
 			final String srcEncoding) throws IOException {
-		processProject(visitor, bundleName, project, includes, excludes,
-				new SourceFileCollection(project, srcEncoding));
+		final IndexedSourceFileLocator locator = createLocator(project,
+				srcEncoding);
+		try {
+			processProject(visitor, bundleName, project, includes, excludes,
+					locator);
+		} finally {
+			locator.close();
+		}
+	}
+
+	/**
+	 * Analyzes the given projects and visits their bundles in the order of
+	 * the list. With more than one thread the class files of the projects are
+	 * analyzed concurrently while the bundles are still emitted in order.
+	 *
+	 * @param visitor
+	 *            visitor to emit the bundles to
+	 * @param projects
+	 *            projects in report order, the artifact id is used as bundle
+	 *            name
+	 * @param includes
+	 *            list of includes patterns
+	 * @param excludes
+	 *            list of excludes patterns
+	 * @param srcEncoding
+	 *            encoding of the source files
+	 * @param threads
+	 *            maximum number of projects analyzed concurrently, must be at
+	 *            least 1
+	 * @throws IOException
+	 *             if class files can't be read
+	 */
+	public void processProjects(final IReportGroupVisitor visitor,
+			final List<MavenProject> projects, final List<String> includes,
+			final List<String> excludes, final String srcEncoding,
+			final int threads) throws IOException {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Number of threads must be at least 1: " + threads);
+		}
+		if (threads == 1 || projects.size() <= 1) {
+			for (final MavenProject project : projects) {
+				processProject(visitor, project.getArtifactId(), project,
+						includes, excludes, srcEncoding);
+			}
+			return;
+		}
+		final ExecutorService executor = ConcurrentTasks.newThreadPool(
+				Math.min(threads, projects.size()), "jacoco-report");
+		try {
+			// Limit the number of analyzed but not yet reported projects:
+			final int maxPending = threads * 2;
+			final LinkedList<Future<IBundleCoverage>> pending = new LinkedList<Future<IBundleCoverage>>();
+			int submitted = 0;
+			for (final MavenProject project : projects) {
+				while (submitted < projects.size()
+						&& pending.size() < maxPending) {
+					pending.add(submitAnalysis(executor,
+							projects.get(submitted++), includes, excludes));
+				}
+				final IBundleCoverage bundle = ConcurrentTasks
+						.getResult(pending.removeFirst());
+				final IndexedSourceFileLocator locator = createLocator(
+						project, srcEncoding);
+				try {
+					visitBundle(visitor, bundle, locator);
+				} finally {
+					locator.close();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Future<IBundleCoverage> submitAnalysis(
+			final ExecutorService executor, final MavenProject project,
+			final List<String> includes, final List<String> excludes) {
+		return executor.submit(new Callable<IBundleCoverage>() {
+			public IBundleCoverage call() throws IOException {
+				return analyze(project.getArtifactId(), project, includes,
+						excludes);
+			}
+		});
 	}
 
 	private void processProject(final IReportGroupVisitor visitor,
 			final String bundleName, final MavenProject project,
 			final List<String> includes, final List<String> excludes,
 			final ISourceFileLocator locator) throws IOException {
-		final CoverageBuilder builder = new CoverageBuilder();
+		visitBundle(visitor, analyze(bundleName, project, includes, excludes),
+				locator);
+	}
+
+	private IBundleCoverage analyze(final String bundleName,
+			final MavenProject project, final List<String> includes,
+			final List<String> excludes) throws IOException {
 		final File classesDir = new File(
 				project.getBuild().getOutputDirectory());
-
+		final List<File> classFiles;
 		if (classesDir.isDirectory()) {
-			final Analyzer analyzer = new Analyzer(
-					loader.getExecutionDataStore(), builder);
-			final FileFilter filter = new FileFilter(includes, excludes);
-			for (final File file : filter.getFiles(classesDir)) {
-				analyzer.analyzeAll(file);
+			classFiles = new FileFilter(includes, excludes)
+					.getFiles(classesDir);
+		} else {
+			classFiles = Collections.emptyList();
+		}
+
+		AnalysisCache cache = null;
+		if (analysisCache) {
+			cache = new AnalysisCache(project, bundleName, classFiles,
+					getExecutionDataDigest());
+			final IBundleCoverage bundle = cache.load(bundleName);
+			if (bundle != null) {
+				log.info(format("Reusing analysis of bundle '%s' from %s",
+						bundleName, cache.getFile()));
+				return bundle;
 			}
 		}
 
+		final CoverageBuilder builder = new CoverageBuilder();
+		final Analyzer analyzer = new Analyzer(loader.getExecutionDataStore(),
+				builder);
+		for (final File file : classFiles) {
+			analyzer.analyzeAll(file);
+		}
 		final IBundleCoverage bundle = builder.getBundle(bundleName);
-		logBundleInfo(bundle, builder.getNoMatchClasses());
+		if (cache != null) {
+			cache.store(bundle);
+		}
+		return bundle;
+	}
+
+	/**
+	 * The digest is calculated once for all projects, which may be analyzed
+	 * concurrently.
+	 */
+	private synchronized byte[] getExecutionDataDigest() throws IOException {
+		if (executionDataDigest == null) {
+			executionDataDigest = AnalysisCache
+					.digest(loader.getExecutionDataStore());
+		}
+		return executionDataDigest;
+	}
+
+	private void visitBundle(final IReportGroupVisitor visitor,
+			final IBundleCoverage bundle, final ISourceFileLocator locator)
+			throws IOException {
+		logBundleInfo(bundle, getNoMatchClasses(bundle));
 
 		visitor.visitBundle(bundle, locator);
 	}
 
+	private static Collection<IClassCoverage> getNoMatchClasses(
+			final IBundleCoverage bundle) {
+		final Collection<IClassCoverage> nomatch = new ArrayList<IClassCoverage>();
+		for (final IPackageCoverage p : bundle.getPackages()) {
+			for (final IClassCoverage c : p.getClasses()) {
+				if (c.isNoMatch()) {
+					nomatch.add(c);
+				}
+			}
+		}
+		return nomatch;
+	}
+
+	private static IndexedSourceFileLocator createLocator(
+			final MavenProject project, final String srcEncoding) {
+		final IndexedSourceFileLocator locator = new IndexedSourceFileLocator(
+				srcEncoding, 4, Runtime.getRuntime().availableProcessors());
+		for (final File sourceRoot : getCompileSourceRoots(project)) {
+			locator.add(sourceRoot);
+		}
+		return locator;
+	}
+
 	private void logBundleInfo(final IBundleCoverage bundle,
 			final Collection<IClassCoverage> nomatch) {
 		log.info(format("Analyzed bundle '%s' with %s classes",
@@ -207,40 +377,6 @@ final class ReportSupport {
 		}
 	}
 
-	private class SourceFileCollection implements ISourceFileLocator {
-
-		private final List<File> sourceRoots;
-		private final String encoding;
-
-		public SourceFileCollection(final MavenProject project,
-				final String encoding) {
-			this.sourceRoots = getCompileSourceRoots(project);
-			this.encoding = encoding;
-		}
-
-		public Reader getSourceFile(final String packageName,
-				final String fileName) throws IOException {
-			final String r;
-			if (packageName.length() > 0) {
-				r = packageName + '/' + fileName;
-			} else {
-				r = fileName;
-			}
-			for (final File sourceRoot : sourceRoots) {
-				final File file = new File(sourceRoot, r);
-				if (file.exists() && file.isFile()) {
-					return new InputStreamReader(new FileInputStream(file),
-							encoding);
-				}
-			}
-			return null;
-		}
-
-		public int getTabWidth() {
-			return 4;
-		}
-	}
-
 	private static List<File> getCompileSourceRoots(
 			final MavenProject project) {
 		final List<File> result = new ArrayList<File>();
@@ -29,9 +29,18 @@ public final class Offline {
 		// no instances
 	}
 
-	private static RuntimeData data;
+	private static volatile RuntimeData data;
 
-	private static synchronized RuntimeData getRuntimeData() {
+	private static RuntimeData getRuntimeData() {
+		// Only the first access is synchronized:
+		final RuntimeData d = data;
+		if (d != null) {
+			return d;
+		}
+		return initRuntimeData();
+	}
+
+	private static synchronized RuntimeData initRuntimeData() {
 		if (data == null) {
 			final Properties config = ConfigLoader.load(CONFIG_RESOURCE,
 					System.getProperties());
@@ -58,8 +67,7 @@ public final class Offline {
 	public static boolean[] getProbes(final long classid,
 			final String classname, final int probecount) {
 		return getRuntimeData()
-				.getExecutionData(Long.valueOf(classid), classname, probecount)
-				.getProbes();
+				.getExecutionData(classid, classname, probecount).getProbes();
 	}
 
 }
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.StringTokenizer;
+import java.util.zip.Deflater;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
@@ -40,12 +41,12 @@ import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
 import org.jacoco.core.tools.ExecFileLoader;
+import org.jacoco.report.ConcurrentZipMultiReportOutput;
 import org.jacoco.report.FileMultiReportOutput;
 import org.jacoco.report.IMultiReportOutput;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.MultiReportVisitor;
-import org.jacoco.report.ZipMultiReportOutput;
 import org.jacoco.report.check.IViolationsOutput;
 import org.jacoco.report.check.Limit;
 import org.jacoco.report.check.Rule;
@@ -175,6 +176,10 @@ public class ReportTask extends Task {
 
 		private Locale locale = Locale.getDefault();
 
+		private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+		private int threads = 1;
+
 		/**
 		 * Sets the output directory for the report.
 		 *
@@ -195,6 +200,29 @@ public class ReportTask extends Task {
 			this.destfile = destfile;
 		}
 
+		/**
+		 * Sets the compression level for the Zip output file. Level 0 stores
+		 * files without compression. Default is the default level of the
+		 * deflate algorithm.
+		 *
+		 * @param compressionLevel
+		 *            compression level from 0 to 9 or -1 for the default
+		 */
+		public void setCompressionlevel(final int compressionLevel) {
+			this.compressionLevel = compressionLevel;
+		}
+
+		/**
+		 * Sets the number of threads used to compress files of the Zip output
+		 * file. Default is 1.
+		 *
+		 * @param threads
+		 *            number of threads
+		 */
+		public void setThreads(final int threads) {
+			this.threads = threads;
+		}
+
 		/**
 		 * Sets an optional footer text that will be displayed on every report
 		 * page.
@@ -237,7 +265,13 @@ public class ReportTask extends Task {
 							getLocation());
 				}
 				final FileOutputStream stream = new FileOutputStream(destfile);
-				output = new ZipMultiReportOutput(stream);
+				try {
+					output = new ConcurrentZipMultiReportOutput(stream,
+							compressionLevel, threads);
+				} catch (final IllegalArgumentException e) {
+					stream.close();
+					throw new BuildException(e.getMessage(), getLocation());
+				}
 
 			} else {
 				if (destdir == null) {
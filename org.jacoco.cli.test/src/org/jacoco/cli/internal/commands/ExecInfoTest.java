@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.jacoco.cli.internal.commands;
 
+import static org.junit.Assert.assertEquals;
+
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -29,6 +31,8 @@ import org.junit.rules.TemporaryFolder;
  */
 public class ExecInfoTest extends CommandTestBase {
 
+	private static final String NL = System.getProperty("line.separator");
+
 	@Rule
 	public TemporaryFolder tmp = new TemporaryFolder();
 
@@ -64,6 +68,58 @@ public class ExecInfoTest extends CommandTestBase {
 		assertContains("CLASS ID         HITS/PROBES   CLASS NAME", out);
 		assertContains("Session \"testid\":", out);
 		assertContains("0000000000001234    2 of   3   foo/MyClass", out);
+		assertContains("[INFO] 1 classes, 2 of 3 probes hit.", out);
+	}
+
+	@Test
+	public void should_only_print_totals_when_summary_option_is_provided()
+			throws Exception {
+		File execfile = createExecFile();
+
+		execute("execinfo", "--summary", execfile.getAbsolutePath());
+
+		assertOk();
+		assertContains("Session \"testid\":", out);
+		assertContains("[INFO] 1 classes, 2 of 3 probes hit.", out);
+		assertContainsNot("CLASS ID", out);
+		assertContainsNot("foo/MyClass", out);
+	}
+
+	@Test
+	public void should_print_tab_separated_records_when_tsv_option_is_provided()
+			throws Exception {
+		File execfile = createExecFile();
+		String path = execfile.getPath();
+
+		execute("execinfo", "--tsv", path);
+
+		assertOk();
+		assertEquals("session\t" + path + "\ttestid\t1\t2" + NL + "class\t"
+				+ path + "\t0000000000001234\t2\t3\tfoo/MyClass" + NL
+				+ "total\t" + path + "\t1\t1\t2\t3" + NL, out.toString());
+	}
+
+	@Test
+	public void should_print_tab_separated_totals_when_tsv_and_summary_options_are_provided()
+			throws Exception {
+		File execfile = createExecFile();
+		String path = execfile.getPath();
+
+		execute("execinfo", "--tsv", "--summary", path);
+
+		assertOk();
+		assertEquals("session\t" + path + "\ttestid\t1\t2" + NL + "total\t"
+				+ path + "\t1\t1\t2\t3" + NL, out.toString());
+	}
+
+	@Test
+	public void should_print_warning_to_stderr_when_tsv_option_is_provided_without_exec_files()
+			throws Exception {
+		execute("execinfo", "--tsv");
+
+		assertOk();
+		assertNoOutput(out);
+		assertContains("[WARN] No execution data files provided.", err);
 	}
 
 	private File createExecFile() throws IOException {
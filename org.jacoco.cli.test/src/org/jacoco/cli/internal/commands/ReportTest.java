@@ -12,14 +12,20 @@
  *******************************************************************************/
 package org.jacoco.cli.internal.commands;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 import org.jacoco.cli.internal.CommandTestBase;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.internal.InputStreams;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -127,6 +133,53 @@ public class ReportTest extends CommandTestBase {
 				.isFile());
 	}
 
+	@Test
+	public void should_highlight_source_files_when_htmlhighlight_option_is_provided()
+			throws Exception {
+		File html = new File(tmp.getRoot(), "coverage");
+
+		execute("report", "--classfiles", getClassPath(), "--sourcefiles",
+				"./src", "--html", html.getAbsolutePath(), "--htmlhighlight");
+
+		assertOk();
+		final String page = read(new File(html,
+				"org.jacoco.cli.internal.commands/ReportTest.java.html"));
+		assertFalse(page.contains("prettify.js\""));
+		assertTrue(page.contains("<span class=\"kwd\">public</span>"));
+	}
+
+	@Test
+	public void should_write_table_data_files_when_htmltablethreshold_option_is_provided()
+			throws Exception {
+		File html = new File(tmp.getRoot(), "coverage");
+
+		execute("report", "--classfiles", getClassPath(), "--html",
+				html.getAbsolutePath(), "--htmltablethreshold", "1");
+
+		assertOk();
+		assertTrue(new File(html,
+				"org.jacoco.cli.internal.commands/index.data.js").isFile());
+	}
+
+	@Test
+	public void should_only_rewrite_changed_html_files_when_htmlincremental_option_is_provided()
+			throws Exception {
+		File html = new File(tmp.getRoot(), "coverage");
+		execute("report", "--classfiles", getClassPath(), "--html",
+				html.getAbsolutePath(), "--htmlincremental");
+		assertOk();
+		final File page = new File(html,
+				"org.jacoco.cli.internal.commands/ReportTest.html");
+		page.setLastModified(0);
+
+		execute("report", "--classfiles", getClassPath(), "--html",
+				html.getAbsolutePath(), "--htmlincremental");
+
+		assertOk();
+		assertTrue(new File(html, ".jacoco-manifest").isFile());
+		assertEquals(0, page.lastModified());
+	}
+
 	@Test
 	public void should_use_all_values_when_multiple_classfiles_options_are_provided()
 			throws Exception {
@@ -149,4 +202,13 @@ public class ReportTest extends CommandTestBase {
 						.isFile());
 	}
 
+	private static String read(final File file) throws IOException {
+		final InputStream in = new FileInputStream(file);
+		try {
+			return new String(InputStreams.readFully(in), "UTF-8");
+		} finally {
+			in.close();
+		}
+	}
+
 }
@@ -12,21 +12,23 @@
  *******************************************************************************/
 package org.jacoco.cli.internal.commands;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import org.jacoco.cli.internal.Command;
-import org.jacoco.core.data.ExecutionData;
-import org.jacoco.core.data.ExecutionDataReader;
-import org.jacoco.core.data.IExecutionDataVisitor;
+import org.jacoco.core.data.ExecutionDataStatisticsReader;
+import org.jacoco.core.data.IExecutionDataStatisticsVisitor;
 import org.jacoco.core.data.ISessionInfoVisitor;
 import org.jacoco.core.data.SessionInfo;
 import org.kohsuke.args4j.Argument;
+import org.kohsuke.args4j.Option;
 
 /**
  * The <code>execinfo</code> command.
@@ -36,6 +38,12 @@ public class ExecInfo extends Command {
 	@Argument(usage = "list of JaCoCo *.exec files to read", metaVar = "<execfiles>")
 	List<File> execfiles = new ArrayList<File>();
 
+	@Option(name = "--summary", usage = "only print sessions and totals, no class details")
+	boolean summary = false;
+
+	@Option(name = "--tsv", usage = "print tab separated records for further processing")
+	boolean tsv = false;
+
 	@Override
 	public String description() {
 		return "Print exec file content in human readable format.";
@@ -45,10 +53,16 @@ public class ExecInfo extends Command {
 	public int execute(final PrintWriter out, final PrintWriter err)
 			throws IOException {
 		if (execfiles.isEmpty()) {
-			out.println("[WARN] No execution data files provided.");
+			// Keep machine readable output free from messages:
+			(tsv ? err : out)
+					.println("[WARN] No execution data files provided.");
 		} else {
 			for (final File file : execfiles) {
-				dump(file, out);
+				if (tsv) {
+					dumpTsv(file, out);
+				} else {
+					dump(file, out);
+				}
 			}
 		}
 		return 0;
@@ -57,39 +71,102 @@ public class ExecInfo extends Command {
 	private void dump(final File file, final PrintWriter out)
 			throws IOException {
 		out.printf("[INFO] Loading exec file %s.%n", file);
-		out.println("CLASS ID         HITS/PROBES   CLASS NAME");
+		if (!summary) {
+			out.println("CLASS ID         HITS/PROBES   CLASS NAME");
+		}
 
-		final FileInputStream in = new FileInputStream(file);
-		final ExecutionDataReader reader = new ExecutionDataReader(in);
-		reader.setSessionInfoVisitor(new ISessionInfoVisitor() {
-			public void visitSessionInfo(final SessionInfo info) {
-				out.printf("Session \"%s\": %s - %s%n", info.getId(),
-						new Date(info.getStartTimeStamp()),
-						new Date(info.getDumpTimeStamp()));
+		final InputStream in = new BufferedInputStream(
+				new FileInputStream(file));
+		final ExecutionDataStatisticsReader reader;
+		try {
+			reader = new ExecutionDataStatisticsReader(in);
+			reader.setSessionInfoVisitor(new ISessionInfoVisitor() {
+				public void visitSessionInfo(final SessionInfo info) {
+					out.printf("Session \"%s\": %s - %s%n", info.getId(),
+							new Date(info.getStartTimeStamp()),
+							new Date(info.getDumpTimeStamp()));
+				}
+			});
+			if (!summary) {
+				reader.setStatisticsVisitor(
+						new IExecutionDataStatisticsVisitor() {
+							public void visitClassStatistics(final long id,
+									final String name, final int probeCount,
+									final int hitCount) {
+								out.printf("%016x  %3d of %3d   %s%n",
+										Long.valueOf(id),
+										Integer.valueOf(hitCount),
+										Integer.valueOf(probeCount), name);
+							}
+						});
 			}
-		});
-		reader.setExecutionDataVisitor(new IExecutionDataVisitor() {
-			public void visitClassExecution(final ExecutionData data) {
-				out.printf("%016x  %3d of %3d   %s%n",
-						Long.valueOf(data.getId()),
-						Integer.valueOf(getHitCount(data.getProbes())),
-						Integer.valueOf(data.getProbes().length),
-						data.getName());
-			}
-		});
-		reader.read();
-		in.close();
+			reader.read();
+		} finally {
+			in.close();
+		}
+		out.printf("[INFO] %s classes, %s of %s probes hit.%n",
+				Integer.valueOf(reader.getClassCount()),
+				Long.valueOf(reader.getHitCount()),
+				Long.valueOf(reader.getProbeCount()));
 		out.println();
 	}
 
-	private int getHitCount(final boolean[] data) {
-		int count = 0;
-		for (final boolean hit : data) {
-			if (hit) {
-				count++;
+	/**
+	 * Writes one record per line with tab separated columns. The first column
+	 * is the record type, the second column the exec file:
+	 *
+	 * <pre>
+	 * session  file  id  start  dump
+	 * class    file  id  hits   probes  name
+	 * total    file  sessions  classes  hits  probes
+	 * </pre>
+	 */
+	private void dumpTsv(final File file, final PrintWriter out)
+			throws IOException {
+		final String path = tsvValue(file.getPath());
+		final int[] sessionCount = new int[1];
+
+		final InputStream in = new BufferedInputStream(
+				new FileInputStream(file));
+		final ExecutionDataStatisticsReader reader;
+		try {
+			reader = new ExecutionDataStatisticsReader(in);
+			reader.setSessionInfoVisitor(new ISessionInfoVisitor() {
+				public void visitSessionInfo(final SessionInfo info) {
+					sessionCount[0]++;
+					out.printf("session\t%s\t%s\t%s\t%s%n", path,
+							tsvValue(info.getId()),
+							Long.valueOf(info.getStartTimeStamp()),
+							Long.valueOf(info.getDumpTimeStamp()));
+				}
+			});
+			if (!summary) {
+				reader.setStatisticsVisitor(
+						new IExecutionDataStatisticsVisitor() {
+							public void visitClassStatistics(final long id,
+									final String name, final int probeCount,
+									final int hitCount) {
+								out.printf("class\t%s\t%016x\t%s\t%s\t%s%n",
+										path, Long.valueOf(id),
+										Integer.valueOf(hitCount),
+										Integer.valueOf(probeCount),
+										tsvValue(name));
+							}
+						});
 			}
+			reader.read();
+		} finally {
+			in.close();
 		}
-		return count;
+		out.printf("total\t%s\t%s\t%s\t%s\t%s%n", path,
+				Integer.valueOf(sessionCount[0]),
+				Integer.valueOf(reader.getClassCount()),
+				Long.valueOf(reader.getHitCount()),
+				Long.valueOf(reader.getProbeCount()));
+	}
+
+	private static String tsvValue(final String value) {
+		return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
 	}
 
 }
@@ -30,8 +30,10 @@ import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.tools.ExecFileLoader;
 import org.jacoco.report.DirectorySourceFileLocator;
 import org.jacoco.report.FileMultiReportOutput;
+import org.jacoco.report.IMultiReportOutput;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IncrementalFileMultiReportOutput;
 import org.jacoco.report.MultiReportVisitor;
 import org.jacoco.report.MultiSourceFileLocator;
 import org.jacoco.report.csv.CSVFormatter;
@@ -72,6 +74,15 @@ public class Report extends Command {
 	@Option(name = "--html", usage = "output directory for the HTML report", metaVar = "<dir>")
 	File html;
 
+	@Option(name = "--htmlincremental", usage = "only rewrite HTML report files whose content has changed")
+	boolean htmlincremental;
+
+	@Option(name = "--htmlhighlight", usage = "highlight source files while creating the HTML report instead of in the browser")
+	boolean htmlhighlight;
+
+	@Option(name = "--htmltablethreshold", usage = "number of rows above which HTML coverage tables are loaded from a separate data file (default 0 for no limit)", metaVar = "<n>")
+	int htmltablethreshold = 0;
+
 	@Override
 	public String description() {
 		return "Generate reports in different formats by reading exec and Java class files.";
@@ -155,8 +166,12 @@ public class Report extends Command {
 
 		if (html != null) {
 			final HTMLFormatter formatter = new HTMLFormatter();
-			visitors.add(
-					formatter.createVisitor(new FileMultiReportOutput(html)));
+			formatter.setServerSideHighlighting(htmlhighlight);
+			formatter.setTableDataThreshold(htmltablethreshold);
+			final IMultiReportOutput output = htmlincremental
+					? new IncrementalFileMultiReportOutput(html)
+					: new FileMultiReportOutput(html);
+			visitors.add(formatter.createVisitor(output));
 		}
 
 		return new MultiReportVisitor(visitors);
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -143,6 +144,21 @@ public class AnalyzerTest {
 		}
 	}
 
+	@Test
+	public void analyzeClass_should_throw_exception_when_probe_count_does_not_match() {
+		final byte[] bytes = createClass(Opcodes.V1_5);
+		executionData.get(Long.valueOf(CRC64.classId(bytes)), "Foo", 1);
+		try {
+			analyzer.analyzeClass(bytes, "Mismatch");
+			fail("exception expected");
+		} catch (IOException e) {
+			assertExceptionMessage("Mismatch", e);
+			assertEquals(
+					"Execution data for class Foo has 1 probes instead of 0.",
+					e.getCause().getMessage());
+		}
+	}
+
 	@Test
 	public void testAnalyzeClassFromStream() throws IOException {
 		analyzer.analyzeClass(TargetLoader.getClassData(AnalyzerTest.class),
@@ -160,14 +176,33 @@ public class AnalyzerTest {
 	}
 
 	@Test
-	public void testAnalyzeClassIdMatch() throws IOException {
+	public void should_normalize_strings_with_shared_pool()
+			throws IOException {
+		final ConcurrentStringPool pool = new ConcurrentStringPool();
 		final byte[] bytes = TargetLoader
 				.getClassDataAsBytes(AnalyzerTest.class);
-		executionData.get(Long.valueOf(CRC64.classId(bytes)),
-				"org/jacoco/core/analysis/AnalyzerTest", 400);
+		final CoverageBuilder builder1 = new CoverageBuilder();
+		new Analyzer(executionData, builder1, pool).analyzeClass(bytes,
+				"Test");
+		final CoverageBuilder builder2 = new CoverageBuilder();
+		new Analyzer(executionData, builder2, pool).analyzeClass(bytes,
+				"Test");
+
+		final IClassCoverage c1 = builder1.getClasses().iterator().next();
+		final IClassCoverage c2 = builder2.getClasses().iterator().next();
+		assertEquals("java/lang/Object", c1.getSuperName());
+		assertSame(c1.getSuperName(), c2.getSuperName());
+		assertSame(c1.getMethods().iterator().next().getName(),
+				c2.getMethods().iterator().next().getName());
+		assertTrue(pool.getHitCount() > 0);
+	}
+
+	@Test
+	public void testAnalyzeClassIdMatch() throws IOException {
+		final byte[] bytes = createClass(Opcodes.V1_5);
+		executionData.get(Long.valueOf(CRC64.classId(bytes)), "Foo", 0);
 		analyzer.analyzeClass(bytes, "Test");
-		assertFalse(classes.get("org/jacoco/core/analysis/AnalyzerTest")
-				.isNoMatch());
+		assertFalse(classes.get("Foo").isNoMatch());
 	}
 
 	@Test
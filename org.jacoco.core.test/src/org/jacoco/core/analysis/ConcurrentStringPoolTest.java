@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentStringPool}.
+ */
+public class ConcurrentStringPoolTest {
+
+	private ConcurrentStringPool pool;
+
+	@Before
+	public void setup() {
+		pool = new ConcurrentStringPool(100, 4);
+	}
+
+	@Test
+	public void get_should_return_null_for_null() {
+		assertNull(pool.get(null));
+		assertEquals(0, pool.getMissCount());
+	}
+
+	@Test
+	public void get_should_return_same_instance_for_equal_strings() {
+		final String a = pool.get(new String("JaCoCo"));
+		final String b = pool.get(new String("JaCoCo"));
+
+		assertEquals("JaCoCo", a);
+		assertSame(a, b);
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.getMissCount());
+		assertEquals(1, pool.getHitCount());
+	}
+
+	@Test
+	public void get_should_evict_least_recently_used_strings() {
+		pool = new ConcurrentStringPool(2, 1);
+		final String a = pool.get(new String("a"));
+		pool.get(new String("b"));
+		// a is now more recently used than b
+		pool.get(new String("a"));
+		pool.get(new String("c"));
+
+		assertEquals(2, pool.size());
+		assertEquals(1, pool.getEvictionCount());
+		assertSame(a, pool.get(new String("a")));
+		final String b = new String("b");
+		assertSame(b, pool.get(b));
+	}
+
+	@Test
+	public void size_should_not_exceed_maximum_size() {
+		for (int i = 0; i < 1000; i++) {
+			pool.get(String.valueOf(i));
+		}
+
+		assertEquals(100, pool.size());
+		assertEquals(900, pool.getEvictionCount());
+		assertEquals(1000, pool.getMissCount());
+	}
+
+	@Test
+	public void clear_should_remove_all_strings() {
+		final String a = pool.get(new String("JaCoCo"));
+		pool.clear();
+
+		assertEquals(0, pool.size());
+		assertNotSame(a, pool.get(new String("JaCoCo")));
+		assertEquals(2, pool.getMissCount());
+	}
+
+	@Test
+	public void get_should_return_same_instance_for_concurrent_threads()
+			throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<String[]>> results = new ArrayList<Future<String[]>>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(new Callable<String[]>() {
+					public String[] call() {
+						final String[] result = new String[50];
+						for (int i = 0; i < result.length; i++) {
+							result[i] = pool.get(new String("s" + i));
+						}
+						return result;
+					}
+				}));
+			}
+			final String[] first = results.get(0).get();
+			for (final Future<String[]> f : results) {
+				final String[] result = f.get();
+				for (int i = 0; i < result.length; i++) {
+					assertSame(first[i], result[i]);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(50, pool.getMissCount());
+		assertEquals(150, pool.getHitCount());
+	}
+
+	@Test
+	public void constructor_should_reject_invalid_maximum_size() {
+		try {
+			new ConcurrentStringPool(0, 1);
+			fail("IllegalArgumentException expected");
+		} catch (final IllegalArgumentException e) {
+			assertEquals("Maximum size must be at least 1.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void constructor_should_reject_invalid_concurrency_level() {
+		try {
+			new ConcurrentStringPool(1, 0);
+			fail("IllegalArgumentException expected");
+		} catch (final IllegalArgumentException e) {
+			assertEquals("Concurrency level must be at least 1.",
+					e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.data;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ExecutionDataComparison}.
+ */
+public class ExecutionDataComparisonTest {
+
+	private ExecutionDataStore reference;
+
+	@Before
+	public void setup() {
+		reference = new ExecutionDataStore();
+	}
+
+	@Test
+	public void should_compare_empty_data() {
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		assertCounts(c, 0, 0, 0, 0);
+		assertEquals(1.0, c.getJaccardIndex(), 0.0);
+		assertEquals(1.0, c.getOverlapCoefficient(), 0.0);
+	}
+
+	@Test
+	public void should_count_intersection_union_and_differences() {
+		reference.put(new ExecutionData(1, "A",
+				new boolean[] { true, true, false, false }));
+		reference.put(new ExecutionData(2, "B", new boolean[] { true }));
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		c.visitClassExecution(new ExecutionData(1, "A",
+				new boolean[] { false, true, true, false }));
+		c.visitClassExecution(
+				new ExecutionData(3, "C", new boolean[] { true, true }));
+
+		// A = {A0, A1, B0}, B = {A1, A2, C0, C1}
+		assertCounts(c, 3, 4, 1, 6);
+		assertEquals(2, c.getReferenceOnlyCount());
+		assertEquals(3, c.getOtherOnlyCount());
+		assertEquals(5, c.getSymmetricDifferenceCount());
+		assertEquals(1.0 / 6.0, c.getJaccardIndex(), 0.0);
+		assertEquals(1.0 / 3.0, c.getOverlapCoefficient(), 0.0);
+	}
+
+	@Test
+	public void should_count_probes_of_multiple_records_once() {
+		reference.put(new ExecutionData(1, "A",
+				new boolean[] { true, false, false }));
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		c.visitClassExecution(new ExecutionData(1, "A",
+				new boolean[] { true, true, false }));
+		c.visitClassExecution(new ExecutionData(1, "A",
+				new boolean[] { true, true, true }));
+
+		assertCounts(c, 1, 3, 1, 3);
+	}
+
+	@Test
+	public void should_report_overlap_of_subset_as_one() {
+		reference.put(new ExecutionData(1, "A",
+				new boolean[] { true, true, true }));
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		c.visitClassExecution(
+				new ExecutionData(1, "A", new boolean[] { false, true, true }));
+
+		assertEquals(1.0, c.getOverlapCoefficient(), 0.0);
+		assertEquals(2.0 / 3.0, c.getJaccardIndex(), 0.0);
+	}
+
+	@Test
+	public void should_compare_with_store_through_accept() {
+		reference.put(new ExecutionData(1, "A", new boolean[] { true, false }));
+		final ExecutionDataStore other = new ExecutionDataStore();
+		other.put(new ExecutionData(1, "A", new boolean[] { true, true }));
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		other.accept(c);
+
+		assertCounts(c, 1, 2, 1, 2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void should_throw_IllegalStateException_for_incompatible_data() {
+		reference.put(new ExecutionData(1, "A", new boolean[] { true }));
+		final ExecutionDataComparison c = new ExecutionDataComparison(
+				reference);
+
+		c.visitClassExecution(
+				new ExecutionData(1, "A", new boolean[] { true, true }));
+	}
+
+	private static void assertCounts(final ExecutionDataComparison c,
+			final long referenceCount, final long otherCount,
+			final long intersectionCount, final long unionCount) {
+		assertEquals(referenceCount, c.getReferenceCount());
+		assertEquals(otherCount, c.getOtherCount());
+		assertEquals(intersectionCount, c.getIntersectionCount());
+		assertEquals(unionCount, c.getUnionCount());
+	}
+
+}
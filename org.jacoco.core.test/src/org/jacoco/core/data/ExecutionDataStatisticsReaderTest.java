@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ExecutionDataStatisticsReader}.
+ */
+public class ExecutionDataStatisticsReaderTest {
+
+	private ByteArrayOutputStream buffer;
+
+	private ExecutionDataWriter writer;
+
+	private List<String> records;
+
+	private List<SessionInfo> sessions;
+
+	@Before
+	public void setup() throws IOException {
+		buffer = new ByteArrayOutputStream();
+		writer = new ExecutionDataWriter(buffer);
+		records = new ArrayList<String>();
+		sessions = new ArrayList<SessionInfo>();
+	}
+
+	@Test
+	public void should_report_zero_counts_for_empty_file()
+			throws IOException {
+		final ExecutionDataStatisticsReader reader = read();
+
+		assertEquals(0, reader.getClassCount());
+		assertEquals(0, reader.getProbeCount());
+		assertEquals(0, reader.getHitCount());
+		assertEquals(0, records.size());
+	}
+
+	@Test
+	public void should_count_classes_probes_and_hits() throws IOException {
+		writer.visitClassExecution(new ExecutionData(0x10, "Foo",
+				new boolean[] { true, false, true }));
+		writer.visitClassExecution(new ExecutionData(0x20, "Bar",
+				new boolean[] { false, false, false, false, false, false,
+						false, false, true, true }));
+
+		final ExecutionDataStatisticsReader reader = read();
+
+		assertEquals(2, reader.getClassCount());
+		assertEquals(13, reader.getProbeCount());
+		assertEquals(4, reader.getHitCount());
+		assertEquals("[0000000000000010 Foo 2/3, 0000000000000020 Bar 2/10]",
+				records.toString());
+	}
+
+	@Test
+	public void should_count_every_record_of_a_class() throws IOException {
+		writer.visitSessionInfo(new SessionInfo("s1", 1, 2));
+		writer.visitClassExecution(
+				new ExecutionData(0x10, "Foo", new boolean[] { true, false }));
+		writer.visitSessionInfo(new SessionInfo("s2", 3, 4));
+		writer.visitClassExecution(
+				new ExecutionData(0x10, "Foo", new boolean[] { false, true }));
+
+		final ExecutionDataStatisticsReader reader = read();
+
+		assertEquals(2, reader.getClassCount());
+		assertEquals(4, reader.getProbeCount());
+		assertEquals(2, reader.getHitCount());
+		assertEquals(2, sessions.size());
+		assertEquals("s1", sessions.get(0).getId());
+		assertEquals(1, sessions.get(0).getStartTimeStamp());
+		assertEquals(2, sessions.get(0).getDumpTimeStamp());
+		assertEquals("s2", sessions.get(1).getId());
+	}
+
+	@Test
+	public void should_match_hit_counts_of_execution_data_reader()
+			throws IOException {
+		final boolean[] probes = new boolean[3001];
+		for (int i = 0; i < probes.length; i++) {
+			probes[i] = (i * 7) % 5 < 2;
+		}
+		writer.visitClassExecution(new ExecutionData(0x10, "Foo", probes));
+
+		final ExecutionDataStatisticsReader reader = read();
+
+		final ExecutionDataStore store = new ExecutionDataStore();
+		final ExecutionDataReader dataReader = new ExecutionDataReader(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		dataReader.setExecutionDataVisitor(store);
+		dataReader.read();
+		int hits = 0;
+		for (final boolean p : store.get(0x10).getProbes()) {
+			if (p) {
+				hits++;
+			}
+		}
+		assertEquals(3001, reader.getProbeCount());
+		assertEquals(hits, reader.getHitCount());
+	}
+
+	@Test
+	public void should_not_pass_records_to_execution_data_visitor()
+			throws IOException {
+		writer.visitClassExecution(
+				new ExecutionData(0x10, "Foo", new boolean[] { true }));
+		final ExecutionDataStatisticsReader reader = new ExecutionDataStatisticsReader(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		reader.setExecutionDataVisitor(new IExecutionDataVisitor() {
+			public void visitClassExecution(final ExecutionData data) {
+				fail("No execution data expected.");
+			}
+		});
+
+		assertFalse(reader.read());
+		assertEquals(1, reader.getClassCount());
+	}
+
+	@Test(expected = IOException.class)
+	public void should_throw_IOException_for_invalid_data()
+			throws IOException {
+		final ExecutionDataStatisticsReader reader = new ExecutionDataStatisticsReader(
+				new ByteArrayInputStream(new byte[] { 0x42 }));
+		reader.read();
+	}
+
+	private ExecutionDataStatisticsReader read() throws IOException {
+		final ExecutionDataStatisticsReader reader = new ExecutionDataStatisticsReader(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		reader.setSessionInfoVisitor(new ISessionInfoVisitor() {
+			public void visitSessionInfo(final SessionInfo info) {
+				sessions.add(info);
+			}
+		});
+		reader.setStatisticsVisitor(new IExecutionDataStatisticsVisitor() {
+			public void visitClassStatistics(final long id, final String name,
+					final int probeCount, final int hitCount) {
+				records.add(String.format("%016x %s %s/%s", Long.valueOf(id),
+						name, Integer.valueOf(hitCount),
+						Integer.valueOf(probeCount)));
+			}
+		});
+		assertFalse(reader.read());
+		return reader;
+	}
+
+}
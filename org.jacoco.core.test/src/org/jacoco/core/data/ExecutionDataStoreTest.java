@@ -15,6 +15,7 @@ package org.jacoco.core.data;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -205,6 +206,93 @@ public class ExecutionDataStoreTest implements IExecutionDataVisitor {
 		assertFalse(result[3]);
 	}
 
+	@Test
+	public void testIntersect() {
+		final boolean[] data1 = new boolean[] { false, true, false, true };
+		store.visitClassExecution(new ExecutionData(10, "Sample10", data1));
+		final boolean[] data2 = new boolean[] { true, true };
+		store.visitClassExecution(new ExecutionData(20, "Sample20", data2));
+
+		final ExecutionDataStore other = new ExecutionDataStore();
+		other.visitClassExecution(new ExecutionData(10, "Sample10",
+				new boolean[] { true, true, false, false }));
+		other.visitClassExecution(new ExecutionData(30, "Sample30",
+				new boolean[] { true }));
+
+		store.intersect(other);
+
+		final boolean[] result1 = store.get(10).getProbes();
+		assertFalse(result1[0]);
+		assertTrue(result1[1]);
+		assertFalse(result1[2]);
+		assertFalse(result1[3]);
+		final boolean[] result2 = store.get(20).getProbes();
+		assertFalse(result2[0]);
+		assertFalse(result2[1]);
+		assertNull(store.get(30));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testIntersectNegative() {
+		store.put(new ExecutionData(1000, "Sample", new boolean[] { true }));
+		final ExecutionDataStore other = new ExecutionDataStore();
+		other.put(new ExecutionData(1000, "Sample",
+				new boolean[] { true, true }));
+
+		store.intersect(other);
+	}
+
+	@Test
+	public void testMergeAll() {
+		store.put(new ExecutionData(1000, "Sample1",
+				new boolean[] { true, false, false }));
+		final ExecutionDataStore other = new ExecutionDataStore();
+		other.put(new ExecutionData(1000, "Sample1",
+				new boolean[] { false, false, true }));
+		final boolean[] data2 = new boolean[] { false, true };
+		other.put(new ExecutionData(1001, "Sample2", data2));
+
+		store.mergeAll(other);
+
+		final boolean[] result1 = store.get(1000).getProbes();
+		assertTrue(result1[0]);
+		assertFalse(result1[1]);
+		assertTrue(result1[2]);
+		assertTrue(store.contains("Sample2"));
+		final boolean[] result2 = store.get(1001).getProbes();
+		assertNotSame(data2, result2);
+		assertFalse(result2[0]);
+		assertTrue(result2[1]);
+
+		// other store must not be modified by later merges:
+		store.put(new ExecutionData(1001, "Sample2",
+				new boolean[] { true, false }));
+		assertTrue(store.get(1001).getProbes()[0]);
+		assertFalse(other.get(1001).getProbes()[0]);
+		assertFalse(other.get(1000).getProbes()[0]);
+	}
+
+	@Test
+	public void testMergeAllSelf() {
+		store.put(new ExecutionData(1000, "Sample",
+				new boolean[] { true, false }));
+
+		store.mergeAll(store);
+
+		assertEquals(1, store.getContents().size());
+		assertTrue(store.get(1000).getProbes()[0]);
+		assertFalse(store.get(1000).getProbes()[1]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMergeAllNegative() {
+		store.put(new ExecutionData(1000, "Sample", new boolean[] { true }));
+		final ExecutionDataStore other = new ExecutionDataStore();
+		other.put(new ExecutionData(1000, "Other", new boolean[] { true }));
+
+		store.mergeAll(other);
+	}
+
 	@Test
 	public void testReset()
 			throws InstantiationException, IllegalAccessException {
@@ -112,6 +112,59 @@ public class ExecutionDataTest {
 		assertTrue(b.getProbes()[3]);
 	}
 
+	@Test
+	public void testMergeLarge() {
+		final boolean[] p1 = new boolean[1000];
+		final boolean[] p2 = new boolean[1000];
+		for (int i = 0; i < p1.length; i++) {
+			p1[i] = i % 2 == 0;
+			p2[i] = i % 3 == 0;
+		}
+		final ExecutionData a = new ExecutionData(5, "Example", p1.clone());
+		final ExecutionData b = new ExecutionData(5, "Example", p2);
+		a.merge(b);
+		for (int i = 0; i < p1.length; i++) {
+			assertEquals("Index " + i, Boolean.valueOf(p1[i] || p2[i]),
+					Boolean.valueOf(a.getProbes()[i]));
+		}
+		final ExecutionData c = new ExecutionData(5, "Example", p1.clone());
+		c.merge(b, false);
+		for (int i = 0; i < p1.length; i++) {
+			assertEquals("Index " + i, Boolean.valueOf(p1[i] && !p2[i]),
+					Boolean.valueOf(c.getProbes()[i]));
+		}
+	}
+
+	@Test
+	public void testIntersect() {
+		final ExecutionData a = new ExecutionData(5, "Example",
+				new boolean[] { false, true, false, true });
+		final ExecutionData b = new ExecutionData(5, "Example",
+				new boolean[] { false, false, true, true });
+		a.intersect(b);
+
+		// a is intersected with b:
+		assertFalse(a.getProbes()[0]);
+		assertFalse(a.getProbes()[1]);
+		assertFalse(a.getProbes()[2]);
+		assertTrue(a.getProbes()[3]);
+
+		// b must not be modified:
+		assertFalse(b.getProbes()[0]);
+		assertFalse(b.getProbes()[1]);
+		assertTrue(b.getProbes()[2]);
+		assertTrue(b.getProbes()[3]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testIntersectNegative() {
+		final ExecutionData a = new ExecutionData(5, "Example",
+				new boolean[] { true });
+		final ExecutionData b = new ExecutionData(5, "Example",
+				new boolean[] { true, false });
+		a.intersect(b);
+	}
+
 	@Test
 	public void testAssertCompatibility() {
 		final ExecutionData a = new ExecutionData(5, "Example",
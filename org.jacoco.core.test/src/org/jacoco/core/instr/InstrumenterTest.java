@@ -15,6 +15,7 @@ package org.jacoco.core.instr;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
@@ -25,6 +26,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.zip.CRC32;
 import java.util.zip.GZIPInputStream;
@@ -144,6 +146,26 @@ public class InstrumenterTest {
 		assertEquals("org.jacoco.core.instr.InstrumenterTest", clazz.getName());
 	}
 
+	@Test
+	public void should_add_hit_method_when_conditional_probes_are_enabled()
+			throws Exception {
+		instrumenter.setConditionalProbes(true);
+		byte[] bytes = instrumenter.instrument(
+				TargetLoader.getClassDataAsBytes(InstrumenterTest.class),
+				"Test");
+		TargetLoader loader = new TargetLoader();
+		Class<?> clazz = loader.add(InstrumenterTest.class, bytes);
+
+		final Method hit = clazz.getDeclaredMethod("$jacocoHit",
+				boolean[].class, Integer.TYPE);
+		assertTrue(hit.isSynthetic());
+		hit.setAccessible(true);
+		final boolean[] probes = new boolean[3];
+		hit.invoke(null, probes, Integer.valueOf(1));
+		hit.invoke(null, probes, Integer.valueOf(1));
+		assertArrayEquals(new boolean[] { false, true, false }, probes);
+	}
+
 	/**
 	 * Triggers exception in {@link Instrumenter#instrument(byte[], String)}.
 	 */
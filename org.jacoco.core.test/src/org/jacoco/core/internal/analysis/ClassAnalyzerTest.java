@@ -14,6 +14,7 @@ package org.jacoco.core.internal.analysis;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.jacoco.core.internal.flow.MethodProbesVisitor;
 import org.jacoco.core.internal.instr.InstrSupport;
@@ -60,6 +61,29 @@ public class ClassAnalyzerTest {
 		assertEquals(0, coverage.getMethods().size());
 	}
 
+	@Test
+	public void visitTotalProbeCount_should_accept_matching_probe_count() {
+		analyzer = new ClassAnalyzer(coverage, new boolean[2],
+				new StringPool());
+
+		analyzer.visitTotalProbeCount(2);
+	}
+
+	@Test
+	public void visitTotalProbeCount_should_throw_exception_when_probe_count_does_not_match() {
+		analyzer = new ClassAnalyzer(coverage, new boolean[2],
+				new StringPool());
+
+		try {
+			analyzer.visitTotalProbeCount(3);
+			fail("IllegalStateException expected");
+		} catch (final IllegalStateException e) {
+			assertEquals(
+					"Execution data for class Foo has 2 probes instead of 3.",
+					e.getMessage());
+		}
+	}
+
 	@Test
 	public void should_collect_attributes() {
 		assertTrue(analyzer.getClassAttributes().isEmpty());
@@ -159,6 +159,26 @@ public class InstructionTest {
 				instruction.getBranchCounter());
 	}
 
+	@Test
+	public void merge_should_calculate_superset_of_covered_branches_with_large_branch_numbers() {
+		final Instruction i1 = new Instruction(124);
+		i1.addBranch(false, 1);
+		i1.addBranch(true, 63);
+		i1.addBranch(true, 64);
+		i1.addBranch(false, 100);
+		final Instruction i2 = new Instruction(124);
+		i2.addBranch(true, 1);
+		i2.addBranch(false, 63);
+		i2.addBranch(false, 64);
+		i2.addBranch(true, 100);
+
+		instruction = i1.merge(i2);
+
+		assertEquals(CounterImpl.getInstance(0, 4),
+				instruction.getBranchCounter());
+		assertEquals(CounterImpl.getInstance(2, 2), i1.getBranchCounter());
+	}
+
 	@Test
 	public void replaceBranches_should_calculate_coverage_on_new_branches() {
 		Instruction i1 = new Instruction(1);
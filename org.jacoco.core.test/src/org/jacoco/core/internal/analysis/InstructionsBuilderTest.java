@@ -13,17 +13,13 @@
 package org.jacoco.core.internal.analysis;
 
 import static org.junit.Assert.assertEquals;
-
-import java.util.Map;
+import static org.junit.Assert.assertNull;
 
 import org.jacoco.core.analysis.ISourceNode;
 import org.jacoco.core.internal.flow.LabelInfo;
 import org.junit.Before;
 import org.junit.Test;
 import org.objectweb.asm.Label;
-import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.AbstractInsnNode;
-import org.objectweb.asm.tree.InsnNode;
 
 /**
  * Unit tests for {@link InstructionsBuilder}.
@@ -32,159 +28,239 @@ public class InstructionsBuilderTest {
 
 	private InstructionsBuilder builder;
 
+	/** Index of the next instruction node */
+	private int index;
+
 	@Before
 	public void setup() {
 		builder = new InstructionsBuilder(new boolean[] { false, true });
+		index = 0;
 	}
 
 	@Test
 	public void current_line_number_should_be_applied_to_instructions() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 
 		builder.setCurrentLine(10);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
-		InsnNode i3 = new InsnNode(Opcodes.NOP);
+		int i3 = index++;
 		builder.addInstruction(i3);
 
 		builder.setCurrentLine(20);
-		InsnNode i4 = new InsnNode(Opcodes.NOP);
+		int i4 = index++;
 		builder.addInstruction(i4);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
-		assertEquals(ISourceNode.UNKNOWN_LINE, map.get(i1).getLine());
-		assertEquals(10, map.get(i2).getLine());
-		assertEquals(10, map.get(i3).getLine());
-		assertEquals(20, map.get(i4).getLine());
+		Instruction[] instructions = builder.getInstructions();
+		assertEquals(ISourceNode.UNKNOWN_LINE, instructions[i1].getLine());
+		assertEquals(10, instructions[i2].getLine());
+		assertEquals(10, instructions[i3].getLine());
+		assertEquals(20, instructions[i4].getLine());
 	}
 
 	@Test
 	public void null_probearray_should_not_mark_instruction_as_covered() {
 		builder = new InstructionsBuilder(null);
 
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 		builder.addProbe(5, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void unexecuted_probe_should_not_mark_instruction_as_covered() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 		builder.addProbe(0, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void executed_probe_should_mark_instruction_as_covered() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 		builder.addProbe(1, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_be_linked_by_default() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_not_be_linked_when_noSuccessor_was_called() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 		builder.noSuccessor();
 
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should not be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_be_linked_after_label_marked_as_successor() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 
 		Label l = new Label();
 		LabelInfo.setSuccessor(l);
 		builder.addLabel(l);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_not_be_linked_after_label_not_marked_as_successor() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 
 		builder.addLabel(new Label());
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should not be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[i1].getInstructionCounter());
 	}
 
 	@Test
 	public void jumps_should_propagate_coverage_status() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		int i1 = index++;
 		builder.addInstruction(i1);
 		Label l2 = new Label();
 		builder.addJump(l2, 0);
 
 		builder.addLabel(l2);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		int i2 = index++;
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions();
+		assertEquals(CounterImpl.COUNTER_0_1,
+				instructions[i1].getInstructionCounter());
+	}
+
+	@Test
+	public void derived_probe_should_mark_instruction_as_covered_when_target_probe_is_executed() {
+		Label l1 = new Label();
+		builder.addTargetProbe(l1, 1);
+		builder.addLabel(l1);
+		int i1 = index++;
+		builder.addInstruction(i1);
+		builder.addDerivedProbe(l1, 0);
+
+		Instruction[] instructions = builder.getInstructions();
+		assertEquals(CounterImpl.COUNTER_0_1,
+				instructions[i1].getInstructionCounter());
+	}
+
+	@Test
+	public void derived_probe_should_not_mark_instruction_as_covered_when_target_probe_is_not_executed() {
+		Label l1 = new Label();
+		builder.addTargetProbe(l1, 0);
+		builder.addLabel(l1);
+		int i1 = index++;
+		builder.addInstruction(i1);
+		builder.addDerivedProbe(l1, 0);
+
+		Instruction[] instructions = builder.getInstructions();
+		assertEquals(CounterImpl.COUNTER_1_0,
+				instructions[i1].getInstructionCounter());
+	}
+
+	@Test
+	public void derived_probe_should_mark_instruction_as_covered_when_derived_target_is_reached() {
+		Label l1 = new Label();
+		Label l2 = new Label();
+		builder.addLabel(l2);
+		int i1 = index++;
+		builder.addInstruction(i1);
+		builder.addDerivedProbe(l2, 0);
+		// path l1 -> l2 is only known after l2
+		builder.addDerivedTarget(l2, l1);
+		builder.addTargetProbe(l1, 1);
+
+		Instruction[] instructions = builder.getInstructions();
+		assertEquals(CounterImpl.COUNTER_0_1,
+				instructions[i1].getInstructionCounter());
+	}
+
+	@Test
+	public void instructions_should_be_stored_at_node_index() {
+		builder.addInstruction(1);
+		builder.setCurrentLine(42);
+		builder.addInstruction(100);
+
+		Instruction[] instructions = builder.getInstructions();
+		assertNull(instructions[0]);
+		assertEquals(ISourceNode.UNKNOWN_LINE, instructions[1].getLine());
+		assertNull(instructions[50]);
+		assertEquals(42, instructions[100].getLine());
+	}
+
+	@Test
+	public void reset_should_discard_state_of_previous_method() {
+		builder.setCurrentLine(42);
+		builder.addInstruction(0);
+		builder.addJump(new Label(), 0);
+		builder.addLabel(new Label());
+
+		builder.reset(new boolean[] { true });
+		builder.addInstruction(1);
+		builder.addProbe(0, 0);
+
+		Instruction[] instructions = builder.getInstructions();
+		assertNull(instructions[0]);
+		assertEquals(ISourceNode.UNKNOWN_LINE, instructions[1].getLine());
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[1].getInstructionCounter());
 	}
 
 }
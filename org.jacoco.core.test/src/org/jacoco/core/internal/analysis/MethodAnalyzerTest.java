@@ -47,6 +47,8 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 
 	private boolean[] probes;
 
+	private boolean optimized;
+
 	private MethodNode method;
 
 	private IMethodCoverage result;
@@ -57,6 +59,7 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 		method = new MethodNode();
 		method.tryCatchBlocks = new ArrayList<TryCatchBlockNode>();
 		probes = new boolean[32];
+		optimized = false;
 	}
 
 	public int nextId() {
@@ -416,6 +419,26 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 		assertLine(1003, 0, 1, 0, 0);
 	}
 
+	@Test
+	public void if_branch_merge_with_optimized_probes_should_create_2_probes() {
+		createIfBranchMerge();
+		optimized = true;
+		runMethodAnalzer();
+		assertEquals(2, nextProbeId);
+	}
+
+	@Test
+	public void if_branch_merge_with_optimized_probes_should_derive_coverage_of_return() {
+		createIfBranchMerge();
+		optimized = true;
+		probes[0] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 0, 2, 1, 1);
+		assertLine(1002, 1, 0, 0, 0);
+		assertLine(1003, 0, 1, 0, 0);
+	}
+
 	// === Scenario: branch which jumps backwards ===
 
 	private void createJumpBackwards() {
@@ -766,6 +789,85 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 		assertLine(1005, 0, 2, 0, 0);
 	}
 
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_create_3_probes() {
+		createTableSwitchMerge();
+		optimized = true;
+		runMethodAnalzer();
+		assertEquals(3, nextProbeId);
+	}
+
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_show_missed_when_no_probes_are_executed() {
+		createTableSwitchMerge();
+		optimized = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 2, 0, 0, 0);
+		assertLine(1002, 2, 0, 3, 0);
+		assertLine(1003, 1, 0, 0, 0);
+		assertLine(1004, 1, 0, 0, 0);
+		assertLine(1005, 2, 0, 0, 0);
+	}
+
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_show_two_missed_cases_when_probes_for_these_branches_are_not_executed() {
+		createTableSwitchMerge();
+		optimized = true;
+		probes[0] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 0, 2, 0, 0);
+		assertLine(1002, 0, 2, 2, 1);
+		assertLine(1003, 1, 0, 0, 0);
+		assertLine(1004, 1, 0, 0, 0);
+		assertLine(1005, 0, 2, 0, 0);
+	}
+
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_derive_coverage_from_previous_case() {
+		createTableSwitchMerge();
+		optimized = true;
+		probes[1] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 0, 2, 0, 0);
+		assertLine(1002, 0, 2, 2, 1);
+		assertLine(1003, 1, 0, 0, 0);
+		assertLine(1004, 0, 1, 0, 0);
+		assertLine(1005, 0, 2, 0, 0);
+	}
+
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_derive_coverage_from_first_case() {
+		createTableSwitchMerge();
+		optimized = true;
+		probes[2] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 0, 2, 0, 0);
+		assertLine(1002, 0, 2, 2, 1);
+		assertLine(1003, 0, 1, 0, 0);
+		assertLine(1004, 0, 1, 0, 0);
+		assertLine(1005, 0, 2, 0, 0);
+	}
+
+	@Test
+	public void table_switch_with_merge_with_optimized_probes_should_show_full_branch_coverage_when_all_probes_are_executed() {
+		createTableSwitchMerge();
+		optimized = true;
+		probes[0] = true;
+		probes[1] = true;
+		probes[2] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 0, 2, 0, 0);
+		assertLine(1002, 0, 2, 0, 3);
+		assertLine(1003, 0, 1, 0, 0);
+		assertLine(1004, 0, 1, 0, 0);
+		assertLine(1005, 0, 2, 0, 0);
+	}
+
 	// === Scenario: try/catch block ===
 
 	private void createTryCatchBlock() {
@@ -831,6 +933,26 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 		assertLine(1003, 0, 1, 0, 0);
 	}
 
+	@Test
+	public void try_catch_with_optimized_probes_should_create_2_probes() {
+		createTryCatchBlock();
+		optimized = true;
+		runMethodAnalzer();
+		assertEquals(2, nextProbeId);
+	}
+
+	@Test
+	public void try_catch_with_optimized_probes_should_derive_coverage_of_return_from_exception_handler() {
+		createTryCatchBlock();
+		optimized = true;
+		probes[1] = true;
+		runMethodAnalzer();
+
+		assertLine(1001, 3, 0, 0, 0);
+		assertLine(1002, 0, 1, 0, 0);
+		assertLine(1003, 0, 1, 0, 0);
+	}
+
 	// === Scenario: try/finally with and without merge filtering ===
 
 	private void createTryFinally() {
@@ -951,13 +1073,14 @@ public class MethodAnalyzerTest implements IProbeIdGenerator {
 
 		final MethodProbesAdapter probesAdapter = new MethodProbesAdapter(
 				analyzer, this);
+		probesAdapter.setOptimized(optimized);
 		// note that CheckMethodAdapter verifies that this test does not violate
 		// contracts of ASM API
 		analyzer.accept(method, new CheckMethodAdapter(probesAdapter));
 
 		MethodCoverageImpl mc = new MethodCoverageImpl("doit", "V()", null);
 		MethodCoverageCalculator mcc = new MethodCoverageCalculator(
-				builder.getInstructions());
+				builder.getInstructions(), method.instructions);
 		filter.filter(method, new FilterContextMock(), mcc);
 		mcc.calculate(mc);
 		result = mc;
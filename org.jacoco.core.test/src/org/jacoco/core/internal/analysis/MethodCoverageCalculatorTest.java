@@ -14,10 +14,10 @@ package org.jacoco.core.internal.analysis;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 
 import org.jacoco.core.analysis.ISourceNode;
 import org.junit.Before;
@@ -26,22 +26,23 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.LabelNode;
 
 /**
  * Unit tests for {@link MethodCoverageCalculator}.
  */
 public class MethodCoverageCalculatorTest {
 
-	private Map<AbstractInsnNode, Instruction> instructions;
+	private List<Instruction> instructions;
 
-	// The purpose of this list is to link instruction nodes
+	// The purpose of this list is to link and index instruction nodes
 	private InsnList list;
 
 	private MethodCoverageImpl coverage;
 
 	@Before
 	public void setup() {
-		instructions = new HashMap<AbstractInsnNode, Instruction>();
+		instructions = new ArrayList<Instruction>();
 		coverage = new MethodCoverageImpl("run", "()V", null);
 		list = new InsnList();
 	}
@@ -53,7 +54,7 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false);
 		addInsn(3, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.calculate(coverage);
 
 		assertLine(1, 0, 1, 0, 0);
@@ -67,7 +68,7 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false, false, true);
 		addInsn(3, false, true, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.calculate(coverage);
 
 		assertLine(1, 1, 0, 2, 0);
@@ -81,7 +82,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i1 = addInsn(1, false);
 		addInsn(2, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.ignore(i1, i1);
 		c.calculate(coverage);
 
@@ -99,7 +100,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.ignore(i1, i2);
 		c.calculate(coverage);
 
@@ -114,7 +115,7 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false);
 		InsnNode i3 = addInsn(3, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.ignore(i1, i1);
 		c.ignore(i3, i3);
 		c.calculate(coverage);
@@ -130,7 +131,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, true, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.merge(i1, i2);
 		c.calculate(coverage);
 
@@ -145,7 +146,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(1, false, true, false);
 		InsnNode i3 = addInsn(1, false, false, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.merge(i1, i2);
 		c.merge(i2, i3);
 		c.calculate(coverage);
@@ -160,7 +161,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, true, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.merge(i1, i2);
 		c.merge(i2, i1);
 		c.calculate(coverage);
@@ -177,7 +178,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i3 = addInsn(2, true);
 		InsnNode i4 = addInsn(2, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.replaceBranches(i1,
 				new HashSet<AbstractInsnNode>(Arrays.asList(i2, i3, i4)));
 		c.calculate(coverage);
@@ -193,7 +194,7 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i3 = addInsn(2, false);
 		InsnNode i4 = addInsn(2, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.merge(i4, i3);
 		c.merge(i3, i2);
 		c.replaceBranches(i1,
@@ -203,13 +204,28 @@ public class MethodCoverageCalculatorTest {
 		assertLine(1, 0, 1, 0, 3);
 	}
 
+	@Test
+	public void should_ignore_nodes_after_last_instruction() {
+		addInsn(1, true);
+		InsnNode i2 = addInsn(2, false);
+		LabelNode label = new LabelNode();
+		list.add(label);
+
+		MethodCoverageCalculator c = createCalculator();
+		c.ignore(i2, label);
+		c.calculate(coverage);
+
+		assertLine(1, 0, 1, 0, 0);
+		assertLine(2, 0, 0, 0, 0);
+	}
+
 	@Test
 	public void should_work_without_lines() {
 		addInsn(ISourceNode.UNKNOWN_LINE, false);
 		addInsn(ISourceNode.UNKNOWN_LINE, false);
 		addInsn(ISourceNode.UNKNOWN_LINE, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = createCalculator();
 		c.calculate(coverage);
 
 		assertEquals(ISourceNode.UNKNOWN_LINE, coverage.getFirstLine());
@@ -233,8 +249,14 @@ public class MethodCoverageCalculatorTest {
 		}
 		InsnNode node = new InsnNode(Opcodes.NOP);
 		list.add(node);
-		instructions.put(node, i);
+		instructions.add(i);
 		return node;
 	}
 
+	private MethodCoverageCalculator createCalculator() {
+		return new MethodCoverageCalculator(
+				instructions.toArray(new Instruction[instructions.size()]),
+				list);
+	}
+
 }
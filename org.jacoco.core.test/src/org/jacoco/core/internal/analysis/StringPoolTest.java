@@ -16,6 +16,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import org.jacoco.core.analysis.ConcurrentStringPool;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -70,4 +71,14 @@ public class StringPoolTest {
 		assertSame(arr1[0], arr2[0]);
 	}
 
+	@Test
+	public void should_delegate_to_shared_pool() {
+		final ConcurrentStringPool shared = new ConcurrentStringPool();
+		final String a = new StringPool(shared).get(new String("JaCoCo"));
+		final String b = new StringPool(shared).get(new String("JaCoCo"));
+
+		assertSame(a, b);
+		assertEquals(1, shared.size());
+	}
+
 }
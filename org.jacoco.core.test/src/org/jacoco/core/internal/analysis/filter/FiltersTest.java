@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.jacoco.core.internal.instr.InstrSupport;
+import org.junit.Test;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Unit tests for {@link Filters}.
+ */
+public class FiltersTest extends FilterTestBase {
+
+	private final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+			"name", "()V", null, null);
+
+	private final List<String> applied = new ArrayList<String>();
+
+	private IFilter recording(final String name) {
+		return new IFilter() {
+			public void filter(final MethodNode methodNode,
+					final IFilterContext context, final IFilterOutput output) {
+				applied.add(name);
+			}
+		};
+	}
+
+	@Test
+	public void getFeatures_should_return_ANY_for_plain_method() {
+		m.visitInsn(Opcodes.RETURN);
+
+		assertEquals(Filters.ANY, Filters.getFeatures(m, context));
+	}
+
+	@Test
+	public void getFeatures_should_detect_kotlin_class() {
+		context.classAnnotations
+				.add(KotlinGeneratedFilter.KOTLIN_METADATA_DESC);
+
+		assertEquals(Filters.KOTLIN, Filters.getFeatures(m, context));
+	}
+
+	@Test
+	public void getFeatures_should_detect_try_catch_blocks() {
+		final Label l = new Label();
+		m.visitTryCatchBlock(l, l, l, null);
+		m.visitLabel(l);
+
+		assertEquals(Filters.TRY_CATCH, Filters.getFeatures(m, context));
+	}
+
+	@Test
+	public void getFeatures_should_detect_switches() {
+		final Label l = new Label();
+		m.visitLookupSwitchInsn(l, new int[0], new Label[0]);
+		m.visitLabel(l);
+		assertEquals(Filters.SWITCH, Filters.getFeatures(m, context));
+
+		final MethodNode t = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"name", "()V", null, null);
+		t.visitTableSwitchInsn(0, 0, l, l);
+		assertEquals(Filters.SWITCH, Filters.getFeatures(t, context));
+	}
+
+	@Test
+	public void getFeatures_should_detect_monitor() {
+		m.visitInsn(Opcodes.MONITOREXIT);
+
+		assertEquals(Filters.MONITOR, Filters.getFeatures(m, context));
+	}
+
+	@Test
+	public void getFeatures_should_detect_assertions() {
+		m.visitFieldInsn(Opcodes.GETSTATIC, "Foo", "$assertionsDisabled", "Z");
+		m.visitFieldInsn(Opcodes.GETSTATIC, "Foo", "other", "Z");
+		assertEquals(Filters.ASSERTIONS, Filters.getFeatures(m, context));
+
+		final MethodNode c = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"<clinit>", "()V", null, null);
+		c.visitFieldInsn(Opcodes.PUTSTATIC, "Foo", "$assertionsDisabled", "Z");
+		assertEquals(Filters.ASSERTIONS, Filters.getFeatures(c, context));
+	}
+
+	@Test
+	public void filter_should_only_apply_filters_with_present_features() {
+		final Filters filters = new Filters(false);
+		filters.add(recording("any"), Filters.ANY);
+		filters.add(recording("switch"), Filters.SWITCH);
+		filters.add(recording("monitor"), Filters.MONITOR);
+		filters.add(recording("switch+monitor"),
+				Filters.SWITCH | Filters.MONITOR);
+		final Label l = new Label();
+		m.visitLookupSwitchInsn(l, new int[0], new Label[0]);
+		m.visitLabel(l);
+
+		filters.filter(m, context, output);
+
+		assertEquals(Arrays.asList("any", "switch"), applied);
+	}
+
+	@Test
+	public void all_should_apply_kotlin_filters_without_kotlin_metadata() {
+		final Label label = new Label();
+		m.visitInsn(Opcodes.DUP);
+		m.visitJumpInsn(Opcodes.IFNONNULL, label);
+		final AbstractInsnNode expectedFrom = m.instructions.getLast();
+		m.visitLdcInsn("member");
+		m.visitMethodInsn(Opcodes.INVOKESTATIC,
+				"kotlin/jvm/internal/Intrinsics",
+				"throwUninitializedPropertyAccessException",
+				"(Ljava/lang/String;)V", false);
+		final AbstractInsnNode expectedTo = m.instructions.getLast();
+		m.visitLabel(label);
+
+		Filters.all().filter(m, context, output);
+
+		assertIgnored(new Range(expectedFrom, expectedTo));
+	}
+
+	@Test
+	public void timed_should_record_time_per_filter() {
+		final Filters filters = Filters.timed();
+		m.visitInsn(Opcodes.RETURN);
+
+		filters.filter(m, context, output);
+
+		final Map<String, Long> times = filters.getTimes();
+		assertEquals(27, times.size());
+		assertTrue(times.containsKey("EnumFilter"));
+		assertTrue(times.containsKey("KotlinDefaultMethodsFilter"));
+		assertEquals(Long.valueOf(0), times.get("KotlinInlineFilter"));
+	}
+
+	@Test
+	public void getTimes_should_throw_exception_when_not_timed() {
+		final Filters filters = new Filters(false);
+		try {
+			filters.getTimes();
+			fail("IllegalStateException expected");
+		} catch (final IllegalStateException e) {
+			assertEquals("Timing not enabled.", e.getMessage());
+		}
+	}
+
+}
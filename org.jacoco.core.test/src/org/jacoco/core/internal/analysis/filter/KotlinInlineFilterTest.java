@@ -93,6 +93,49 @@ public class KotlinInlineFilterTest extends FilterTestBase {
 		filter.filter(m, context, output);
 	}
 
+	@Test
+	public void should_parse_again_for_other_class() {
+		final FilterContextMock other = new FilterContextMock();
+		other.sourceFileName = "other.kt";
+		other.sourceDebugExtension = smap("other.kt", 2);
+		other.classAnnotations.add(KotlinGeneratedFilter.KOTLIN_METADATA_DESC);
+		final MethodNode o = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"other", "()V", null, null);
+		o.visitLineNumber(1, new Label());
+		o.visitInsn(Opcodes.RETURN);
+		filter.filter(o, other, output);
+
+		context.sourceFileName = "callsite.kt";
+		context.sourceDebugExtension = smap("callsite.kt", 8);
+		context.classAnnotations
+				.add(KotlinGeneratedFilter.KOTLIN_METADATA_DESC);
+		m.visitLineNumber(5, new Label());
+		m.visitInsn(Opcodes.NOP);
+		m.visitLineNumber(9, new Label());
+		shouldIgnorePrevious(m);
+		m.visitInsn(Opcodes.RETURN);
+		shouldIgnorePrevious(m);
+		filter.filter(m, context, output);
+
+		assertIgnored(expectedRanges.toArray(new Range[0]));
+	}
+
+	private static String smap(final String fileName, final int lines) {
+		return "SMAP\n" //
+				+ fileName + "\n" //
+				+ "Kotlin\n" //
+				+ "*S Kotlin\n" //
+				+ "*F\n" //
+				+ "+ 1 " + fileName + "\n" //
+				+ "CallsiteKt\n" //
+				+ "+ 2 a.kt\n" //
+				+ "AKt\n" //
+				+ "*L\n" //
+				+ "1#1," + lines + ":1\n" //
+				+ "2#2,2:" + (lines + 1) + "\n" //
+				+ "*E\n";
+	}
+
 	/**
 	 * <pre>
 	 *     inline fun inlined_top_level() {
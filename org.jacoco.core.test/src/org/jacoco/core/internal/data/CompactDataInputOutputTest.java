@@ -116,4 +116,54 @@ public class CompactDataInputOutputTest {
 		}
 	}
 
+	@Test
+	public void testBooleanArrayHitCountEmpty() throws IOException {
+		testBooleanArrayHitCount();
+	}
+
+	@Test
+	public void testBooleanArrayHitCount3() throws IOException {
+		testBooleanArrayHitCount(false, true, true);
+	}
+
+	@Test
+	public void testBooleanArrayHitCount9() throws IOException {
+		testBooleanArrayHitCount(true, true, false, true, false, false, true,
+				true, true);
+	}
+
+	@Test
+	public void testBooleanArrayHitCountLarge() throws IOException {
+		// More bytes than the internal buffer:
+		final boolean[] values = new boolean[4001];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i % 3 == 0;
+		}
+		testBooleanArrayHitCount(values);
+	}
+
+	@Test
+	public void testBooleanArrayHitCountShouldIgnorePaddingBits()
+			throws IOException {
+		out.writeVarInt(3);
+		out.writeByte(0xFF);
+		out.close();
+		assertEquals(3, in.readBooleanArrayHitCount(in.readVarInt()));
+		assertEquals(-1, in.read());
+	}
+
+	private void testBooleanArrayHitCount(boolean... values)
+			throws IOException {
+		out.writeBooleanArray(values);
+		out.close();
+		int expected = 0;
+		for (final boolean v : values) {
+			if (v) {
+				expected++;
+			}
+		}
+		assertEquals(expected, in.readBooleanArrayHitCount(in.readVarInt()));
+		assertEquals(-1, in.read());
+	}
+
 }
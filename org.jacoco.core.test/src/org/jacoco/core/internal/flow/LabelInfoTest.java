@@ -166,4 +166,11 @@ public class LabelInfoTest {
 		assertSame(instruction, LabelInfo.getInstruction(label));
 	}
 
+	@Test
+	public void testSetReached() {
+		assertFalse(LabelInfo.isReached(label));
+		LabelInfo.setReached(label);
+		assertTrue(LabelInfo.isReached(label));
+	}
+
 }
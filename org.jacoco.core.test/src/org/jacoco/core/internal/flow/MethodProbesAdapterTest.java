@@ -39,6 +39,8 @@ public class MethodProbesAdapterTest implements IProbeIdGenerator {
 
 	private MethodProbesVisitor expectedVisitor;
 
+	private MethodProbesAdapter probesAdapter;
+
 	private MethodVisitor adapter;
 
 	private IFrame frame;
@@ -86,6 +88,23 @@ public class MethodProbesAdapterTest implements IProbeIdGenerator {
 			frame.accept(this);
 		}
 
+		@Override
+		public void visitDerivedProbe(Label entry) {
+			rec("visitDerivedProbe", entry);
+		}
+
+		@Override
+		public void visitInsnWithDerivedProbe(int opcode, Label entry) {
+			rec("visitInsnWithDerivedProbe", Integer.valueOf(opcode), entry);
+		}
+
+		@Override
+		public void visitJumpInsnWithDerivedProbe(int opcode, Label label,
+				Label entry) {
+			rec("visitJumpInsnWithDerivedProbe", Integer.valueOf(opcode),
+					label, entry);
+		}
+
 		private void rec(String name, Object... args) {
 			printer.text.add(name + Arrays.asList(args));
 		}
@@ -100,8 +119,7 @@ public class MethodProbesAdapterTest implements IProbeIdGenerator {
 		expectedVisitor = new TraceAdapter(expected);
 		actual = new MethodRecorder();
 		MethodProbesVisitor actualVisitor = new TraceAdapter(actual);
-		MethodProbesAdapter probesAdapter = new MethodProbesAdapter(
-				actualVisitor, this);
+		probesAdapter = new MethodProbesAdapter(actualVisitor, this);
 		final AnalyzerAdapter analyzer = new AnalyzerAdapter("Foo", 0, "doit",
 				"()V", probesAdapter);
 		probesAdapter.setAnalyzer(analyzer);
@@ -449,6 +467,170 @@ public class MethodProbesAdapterTest implements IProbeIdGenerator {
 		expectedVisitor.visitLabel(after);
 	}
 
+	@Test
+	public void testOptimizedInsnAfterMultiTarget() {
+		probesAdapter.setOptimized(true);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.ICONST_0);
+		adapter.visitVarInsn(Opcodes.ISTORE, 1);
+		adapter.visitIincInsn(1, 1);
+		adapter.visitInsn(Opcodes.RETURN);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsn(Opcodes.ICONST_0);
+		expectedVisitor.visitVarInsn(Opcodes.ISTORE, 1);
+		expectedVisitor.visitIincInsn(1, 1);
+		expectedVisitor.visitInsnWithDerivedProbe(Opcodes.RETURN, label);
+	}
+
+	@Test
+	public void testOptimizedInsnAfterMultiTargetWithoutOptimization() {
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.RETURN);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsnWithProbe(Opcodes.RETURN, 1000);
+	}
+
+	@Test
+	public void testOptimizedInsnAfterMethodStart() {
+		probesAdapter.setOptimized(true);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.RETURN);
+
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsnWithProbe(Opcodes.RETURN, 1000);
+	}
+
+	@Test
+	public void testOptimizedInsnAfterInstructionWhichMayThrow() {
+		probesAdapter.setOptimized(true);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.ICONST_1);
+		adapter.visitInsn(Opcodes.ICONST_1);
+		adapter.visitInsn(Opcodes.IDIV);
+		adapter.visitInsn(Opcodes.IRETURN);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsn(Opcodes.ICONST_1);
+		expectedVisitor.visitInsn(Opcodes.ICONST_1);
+		expectedVisitor.visitInsn(Opcodes.IDIV);
+		expectedVisitor.visitInsnWithProbe(Opcodes.IRETURN, 1000);
+	}
+
+	@Test
+	public void testOptimizedInsnAfterExceptionHandler() {
+		probesAdapter.setOptimized(true);
+		final Label start = new Label();
+		final Label end = new Label();
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+
+		adapter.visitTryCatchBlock(start, end, label, null);
+		adapter.visitLabel(start);
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(end);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.RETURN);
+
+		expectedVisitor.visitTryCatchBlock(start, end, label, null);
+		expectedVisitor.visitLabel(start);
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(end);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsnWithProbe(Opcodes.RETURN, 1000);
+	}
+
+	@Test
+	public void testOptimizedJumpAndSuccessor() {
+		probesAdapter.setOptimized(true);
+		final Label target = new Label();
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(target);
+		LabelInfo.setSuccessor(target);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitJumpInsn(Opcodes.GOTO, target);
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(target);
+		adapter.visitInsn(Opcodes.RETURN);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitJumpInsnWithDerivedProbe(Opcodes.GOTO, target,
+				label);
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitProbe(1000);
+		expectedVisitor.visitLabel(target);
+		expectedVisitor.visitInsnWithDerivedProbe(Opcodes.RETURN, target);
+	}
+
+	@Test
+	public void testOptimizedSuccessor() {
+		probesAdapter.setOptimized(true);
+		final Label next = new Label();
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(next);
+		LabelInfo.setSuccessor(next);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(next);
+		adapter.visitInsn(Opcodes.NOP);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitDerivedProbe(label);
+		expectedVisitor.visitLabel(next);
+		expectedVisitor.visitInsn(Opcodes.NOP);
+	}
+
+	@Test
+	public void testOptimizedConditionalJump() {
+		probesAdapter.setOptimized(true);
+		final Label target = new Label();
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(label);
+		LabelInfo.setTarget(target);
+		LabelInfo.setTarget(target);
+
+		adapter.visitInsn(Opcodes.NOP);
+		adapter.visitLabel(label);
+		adapter.visitInsn(Opcodes.ICONST_0);
+		adapter.visitJumpInsn(Opcodes.IFEQ, target);
+
+		expectedVisitor.visitInsn(Opcodes.NOP);
+		expectedVisitor.visitLabel(label);
+		expectedVisitor.visitInsn(Opcodes.ICONST_0);
+		expectedVisitor.visitJumpInsnWithProbe(Opcodes.IFEQ, target, 1000,
+				frame);
+		expectedVisitor.visitFrame(Opcodes.F_FULL, 1, new Object[] { "Foo" },
+				0, null);
+	}
+
 	// === IProbeIdGenerator ===
 
 	public int nextId() {
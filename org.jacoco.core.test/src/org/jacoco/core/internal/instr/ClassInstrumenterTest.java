@@ -12,12 +12,19 @@
  *******************************************************************************/
 package org.jacoco.core.internal.instr;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
 /**
  * Unit tests for {@link ClassInstrumenter}.
@@ -61,6 +68,51 @@ public class ClassInstrumenterTest implements IProbeArrayStrategy {
 		assertNull(instrumenter.visitMethod(0, "foo", "()V", null, null));
 	}
 
+	@Test
+	public void should_add_hit_method_for_conditional_probes() {
+		assertEquals(Arrays.asList("$jacocoHit([ZI)V"),
+				instrumentWithConditionalProbes(Opcodes.V1_5, 0, 1));
+	}
+
+	@Test
+	public void should_add_hit_method_for_conditional_probes_in_java8_interfaces() {
+		assertEquals(Arrays.asList("$jacocoHit([ZI)V"),
+				instrumentWithConditionalProbes(Opcodes.V1_8,
+						Opcodes.ACC_INTERFACE, 1));
+	}
+
+	@Test
+	public void should_not_add_hit_method_for_conditional_probes_in_java7_interfaces() {
+		assertEquals(Collections.emptyList(), instrumentWithConditionalProbes(
+				Opcodes.V1_7, Opcodes.ACC_INTERFACE, 1));
+	}
+
+	@Test
+	public void should_not_add_hit_method_without_probes() {
+		assertEquals(Collections.emptyList(),
+				instrumentWithConditionalProbes(Opcodes.V1_8, 0, 0));
+	}
+
+	private List<String> instrumentWithConditionalProbes(final int version,
+			final int classAccess, final int probeCount) {
+		final List<String> methods = new ArrayList<String>();
+		instrumenter = new ClassInstrumenter(this,
+				new ClassVisitor(InstrSupport.ASM_API_VERSION) {
+					@Override
+					public MethodVisitor visitMethod(int access, String name,
+							String desc, String signature,
+							String[] exceptions) {
+						methods.add(name + desc);
+						return new MethodVisitor(InstrSupport.ASM_API_VERSION) {
+						};
+					}
+				}, true);
+		instrumenter.visit(version, classAccess, "Foo", null,
+				"java/lang/Object", null);
+		instrumenter.visitTotalProbeCount(probeCount);
+		return methods;
+	}
+
 	// === IProbeArrayStrategy ===
 
 	public int storeInstance(MethodVisitor mv, boolean clinit, int variable) {
@@ -70,6 +70,30 @@ public class ProbeInserterTest {
 		expectedVisitor.visitInsn(Opcodes.BASTORE);
 	}
 
+	@Test
+	public void conditional_probe_should_call_hit_method() {
+		ProbeInserter pi = new ProbeInserter(Opcodes.ACC_STATIC, "m", "()V",
+				actualVisitor, arrayStrategy, "Foo", false);
+		pi.insertProbe(3);
+
+		expectedVisitor.visitVarInsn(Opcodes.ALOAD, 1);
+		expectedVisitor.visitInsn(Opcodes.ICONST_3);
+		expectedVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "Foo",
+				"$jacocoHit", "([ZI)V", false);
+	}
+
+	@Test
+	public void conditional_probe_should_call_hit_method_of_interface() {
+		ProbeInserter pi = new ProbeInserter(Opcodes.ACC_STATIC, "m", "()V",
+				actualVisitor, arrayStrategy, "Foo", true);
+		pi.insertProbe(0);
+
+		expectedVisitor.visitVarInsn(Opcodes.ALOAD, 1);
+		expectedVisitor.visitInsn(Opcodes.ICONST_0);
+		expectedVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "Foo",
+				"$jacocoHit", "([ZI)V", true);
+	}
+
 	@Test
 	public void probevar_should_be_at_position_2_for_instance_method_without_parameters() {
 		ProbeInserter pi = new ProbeInserter(0, "m", "()V", actualVisitor,
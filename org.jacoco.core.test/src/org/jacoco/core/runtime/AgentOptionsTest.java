@@ -53,6 +53,7 @@ public class AgentOptionsTest {
 		assertEquals(AgentOptions.DEFAULT_PORT, options.getPort());
 		assertNull(options.getClassDumpDir());
 		assertFalse(options.getJmx());
+		assertFalse(options.getConditionalProbes());
 
 		assertEquals("", options.toString());
 	}
@@ -86,6 +87,7 @@ public class AgentOptionsTest {
 		properties.put("port", "1234");
 		properties.put("classdumpdir", "target/dump");
 		properties.put("jmx", "true");
+		properties.put("conditionalprobes", "true");
 
 		AgentOptions options = new AgentOptions(properties);
 
@@ -104,6 +106,7 @@ public class AgentOptionsTest {
 		assertEquals(1234, options.getPort());
 		assertEquals("target/dump", options.getClassDumpDir());
 		assertTrue(options.getJmx());
+		assertTrue(options.getConditionalProbes());
 	}
 
 	@Test
@@ -401,6 +404,20 @@ public class AgentOptionsTest {
 		assertTrue(options.getJmx());
 	}
 
+	@Test
+	public void testGetConditionalProbes() {
+		AgentOptions options = new AgentOptions("conditionalprobes=true");
+		assertTrue(options.getConditionalProbes());
+	}
+
+	@Test
+	public void testSetConditionalProbes() {
+		AgentOptions options = new AgentOptions();
+		options.setConditionalProbes(true);
+		assertTrue(options.getConditionalProbes());
+		assertEquals("conditionalprobes=true", options.toString());
+	}
+
 	@Test
 	public void testGetVMArgumentWithNoOptions() {
 		AgentOptions options = new AgentOptions();
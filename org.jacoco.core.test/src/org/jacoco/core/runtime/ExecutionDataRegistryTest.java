@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ExecutionDataRegistry}.
+ */
+public class ExecutionDataRegistryTest {
+
+	private ExecutionDataRegistry registry;
+
+	private ExecutionDataStore store;
+
+	@Before
+	public void setup() {
+		registry = new ExecutionDataRegistry(4);
+		store = new ExecutionDataStore();
+	}
+
+	@Test
+	public void get_should_create_new_entry() {
+		final ExecutionData data = registry.get(42, "Foo", 3);
+
+		assertEquals(42, data.getId());
+		assertEquals("Foo", data.getName());
+		assertEquals(3, data.getProbes().length);
+	}
+
+	@Test
+	public void get_should_return_existing_entry() {
+		final ExecutionData data = registry.get(42, "Foo", 3);
+
+		assertSame(data, registry.get(42, "Foo", 3));
+	}
+
+	@Test
+	public void get_should_resolve_collisions() {
+		registry = new ExecutionDataRegistry(16);
+		final ExecutionData data1 = registry.get(0, "A", 1);
+		final ExecutionData data2 = registry.get(16, "B", 1);
+		final ExecutionData data3 = registry.get(32, "C", 1);
+
+		assertSame(data1, registry.get(0, "A", 1));
+		assertSame(data2, registry.get(16, "B", 1));
+		assertSame(data3, registry.get(32, "C", 1));
+	}
+
+	@Test
+	public void get_should_return_null_when_registry_is_full() {
+		for (int i = 0; i < 2; i++) {
+			assertNotNull(registry.get(i, "C" + i, 1));
+		}
+
+		assertNull(registry.get(2, "C2", 1));
+		assertNull(registry.get(2, "C2", 1));
+		assertNotNull(registry.get(1, "C1", 1));
+	}
+
+	@Test
+	public void get_should_accept_more_classes_than_capacity() {
+		registry = new ExecutionDataRegistry(16);
+		final ExecutionData[] data = new ExecutionData[100];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = registry.get(i * 7, "C" + i, 1);
+		}
+
+		for (int i = 0; i < data.length; i++) {
+			if (i < 8) {
+				assertSame(data[i], registry.get(i * 7, "C" + i, 1));
+			} else {
+				assertNull(data[i]);
+				assertNull(registry.get(i * 7, "C" + i, 1));
+			}
+		}
+		registry.drainTo(store);
+		assertEquals(8, store.getContents().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void get_should_check_compatibility() {
+		registry.get(42, "Foo", 3);
+		registry.get(42, "Foo", 4);
+	}
+
+	@Test
+	public void drainTo_should_add_new_entries_to_store() {
+		final ExecutionData data1 = registry.get(1, "A", 1);
+		registry.drainTo(store);
+		final ExecutionData data2 = registry.get(2, "B", 1);
+		registry.get(1, "A", 1);
+		registry.drainTo(store);
+
+		assertSame(data1, store.get(1));
+		assertSame(data2, store.get(2));
+		assertEquals(2, store.getContents().size());
+	}
+
+	@Test
+	public void get_should_return_same_entry_for_concurrent_threads()
+			throws Exception {
+		registry = new ExecutionDataRegistry(64);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<ExecutionData[]>> results = new ArrayList<Future<ExecutionData[]>>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(new Callable<ExecutionData[]>() {
+					public ExecutionData[] call() {
+						final ExecutionData[] result = new ExecutionData[32];
+						for (int i = 0; i < result.length; i++) {
+							result[i] = registry.get(i * 64, "C" + i, 1);
+						}
+						return result;
+					}
+				}));
+			}
+			final ExecutionData[] first = results.get(0).get();
+			for (final Future<ExecutionData[]> f : results) {
+				final ExecutionData[] result = f.get();
+				for (int i = 0; i < result.length; i++) {
+					assertSame(first[i], result[i]);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		registry.drainTo(store);
+		assertEquals(32, store.getContents().size());
+	}
+
+	@Test
+	public void constructor_should_reject_invalid_capacity() {
+		try {
+			new ExecutionDataRegistry(3);
+			fail("IllegalArgumentException expected");
+		} catch (final IllegalArgumentException e) {
+			assertEquals("Capacity must be a power of two.", e.getMessage());
+		}
+	}
+
+}
@@ -12,16 +12,20 @@
  *******************************************************************************/
 package org.jacoco.core.runtime;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.InvocationTargetException;
 
+import org.jacoco.core.internal.instr.InstrSupport;
 import org.junit.AssumptionViolatedException;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
 /**
  * Unit test for {@link InjectedClassRuntime}.
@@ -60,4 +64,31 @@ public class InjectedClassRuntimeTest extends RuntimeTestBase {
 		}
 	}
 
+	@Test
+	public void generateDataAccessor_should_invoke_method_handle_without_allocation() {
+		final StringBuilder calls = new StringBuilder();
+		final int maxStack = createRuntime().generateDataAccessor(1001,
+				"Target", 5, new MethodVisitor(InstrSupport.ASM_API_VERSION) {
+					@Override
+					public void visitTypeInsn(final int opcode,
+							final String type) {
+						fail("No allocation allowed.");
+					}
+
+					@Override
+					public void visitMethodInsn(final int opcode,
+							final String owner, final String name,
+							final String descriptor, final boolean isInterface) {
+						assertEquals(Opcodes.INVOKEVIRTUAL, opcode);
+						calls.append(owner).append('.').append(name)
+								.append(descriptor);
+					}
+				});
+
+		assertEquals(
+				"java/lang/invoke/MethodHandle.invokeExact(JLjava/lang/String;I)[Z",
+				calls.toString());
+		assertEquals(5, maxStack);
+	}
+
 }
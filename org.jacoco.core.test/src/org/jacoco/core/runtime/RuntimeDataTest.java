@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.Callable;
 
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.test.TargetLoader;
 import org.junit.Before;
 import org.junit.Test;
@@ -100,6 +101,43 @@ public class RuntimeDataTest {
 		assertEquals("testsession", storage.getSessionInfo().getId());
 	}
 
+	@Test
+	public void getExecutionData_should_return_same_instance_for_boxed_and_primitive_id() {
+		final ExecutionData executionData = data.getExecutionData(123, "Foo",
+				2);
+
+		assertSame(executionData,
+				data.getExecutionData(Long.valueOf(123), "Foo", 2));
+	}
+
+	@Test
+	public void collect_should_include_data_of_more_classes_than_registry_capacity() {
+		final int count = 0x10000 + 1;
+		for (int i = 0; i < count; i++) {
+			data.getProbes(i, "C" + i, 1)[0] = true;
+		}
+		for (int i = 0; i < count; i++) {
+			assertTrue(data.getProbes(i, "C" + i, 1)[0]);
+		}
+
+		data.collect(storage, storage, false);
+
+		storage.assertSize(count);
+		assertTrue(storage.getData(count - 1).getProbes()[0]);
+	}
+
+	@Test
+	public void collect_should_include_data_created_without_synchronization() {
+		final boolean[] probes = data.getExecutionData(123, "Foo", 1)
+				.getProbes();
+		probes[0] = true;
+
+		data.collect(storage, storage, true);
+
+		assertSame(probes, storage.getData(123).getProbes());
+		assertFalse(probes[0]);
+	}
+
 	@Test
 	public void testEquals() {
 		assertTrue(data.equals(data));
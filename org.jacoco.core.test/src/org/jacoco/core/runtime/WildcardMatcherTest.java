@@ -68,6 +68,42 @@ public class WildcardMatcherTest {
 		assertFalse(new WildcardMatcher("foo:bar").matches("foo:bar"));
 	}
 
+	@Test
+	public void should_match_prefix_expressions() {
+		final WildcardMatcher matcher = new WildcardMatcher(
+				"org/jacoco/*:org/example/app/*:com/*");
+		assertTrue(matcher.matches("org/jacoco/Foo"));
+		assertTrue(matcher.matches("org/example/app/Bar"));
+		assertTrue(matcher.matches("com/"));
+		assertFalse(matcher.matches("org/example/App"));
+		assertFalse(matcher.matches("com"));
+		assertFalse(matcher.matches("org/"));
+	}
+
+	@Test
+	public void should_match_segments_in_order() {
+		assertTrue(new WildcardMatcher("a*b?d*e").matches("axxbcdyye"));
+		assertTrue(new WildcardMatcher("*ab*ab*").matches("abab"));
+		assertFalse(new WildcardMatcher("*ab*ab*").matches("aba"));
+		assertTrue(new WildcardMatcher("a**b").matches("ab"));
+		assertFalse(new WildcardMatcher("ab*ba").matches("aba"));
+		assertTrue(new WildcardMatcher("?*").matches("x"));
+		assertFalse(new WildcardMatcher("?*").matches(""));
+	}
+
+	@Test
+	public void should_match_mixed_expressions() {
+		final WildcardMatcher matcher = new WildcardMatcher(
+				"java/lang/Object:org/*:*Test:*$$*:?");
+		assertTrue(matcher.matches("java/lang/Object"));
+		assertTrue(matcher.matches("org/Foo"));
+		assertTrue(matcher.matches("com/FooTest"));
+		assertTrue(matcher.matches("com/Foo$$Proxy"));
+		assertTrue(matcher.matches("X"));
+		assertFalse(matcher.matches("java/lang/String"));
+		assertFalse(matcher.matches("com/Foo$Inner"));
+	}
+
 	@Test
 	public void should_match_dollar_sign() {
 		assertTrue(new WildcardMatcher("*$*").matches("java/util/Map$Entry"));
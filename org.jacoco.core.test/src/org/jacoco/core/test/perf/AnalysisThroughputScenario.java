@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+/**
+ * Scenario to measure the analysis throughput for all classes of the given
+ * JAR files. Every second probe is reported as executed so that coverage is
+ * propagated through the control flow graph of every method.
+ */
+public class AnalysisThroughputScenario extends TimedScenario {
+
+	private final List<byte[]> classes;
+
+	protected AnalysisThroughputScenario(final Class<?>... libraries)
+			throws IOException {
+		this(loadClasses(libraries));
+	}
+
+	private AnalysisThroughputScenario(final List<byte[]> classes) {
+		super(String.format("analysing %s library classes",
+				Integer.valueOf(classes.size())));
+		this.classes = classes;
+	}
+
+	static List<byte[]> loadClasses(final Class<?>... libraries)
+			throws IOException {
+		final List<byte[]> classes = new ArrayList<byte[]>();
+		for (final Class<?> c : libraries) {
+			final File jar = new File(c.getProtectionDomain().getCodeSource()
+					.getLocation().getPath());
+			final ZipInputStream zip = new ZipInputStream(
+					new FileInputStream(jar));
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				final String name = entry.getName();
+				if (name.endsWith(".class") && !name.endsWith("-info.class")) {
+					classes.add(readFully(zip));
+				}
+			}
+			zip.close();
+		}
+		return classes;
+	}
+
+	private static byte[] readFully(final InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		int len;
+		while ((len = in.read(buffer)) != -1) {
+			out.write(buffer, 0, len);
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		final Analyzer analyzer = new Analyzer(createExecutionData(),
+				new ICoverageVisitor() {
+					public void visitCoverage(final IClassCoverage coverage) {
+					}
+				});
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (final byte[] bytes : classes) {
+					analyzer.analyzeClass(bytes, "");
+				}
+				return null;
+			}
+		};
+	}
+
+	private ExecutionDataStore createExecutionData() throws IOException {
+		final boolean[] probes = new boolean[0x10000];
+		for (int i = 0; i < probes.length; i += 2) {
+			probes[i] = true;
+		}
+		final ExecutionDataStore store = new ExecutionDataStore();
+		final Analyzer analyzer = new Analyzer(new ExecutionDataStore(),
+				new ICoverageVisitor() {
+					public void visitCoverage(final IClassCoverage coverage) {
+						store.put(new ExecutionData(coverage.getId(),
+								coverage.getName(), probes));
+					}
+				});
+		for (final byte[] bytes : classes) {
+			analyzer.analyzeClass(bytes, "");
+		}
+		return store;
+	}
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.jacoco.core.test.TargetLoader;
+
+/**
+ * This scenario runs a given target on several threads in parallel and reports
+ * the execution time: Once on its original version, once in a instrumented
+ * version. All threads execute the same instrumented class and therefore
+ * write to the same probe array.
+ */
+public class ConcurrentExecutionScenario extends TimedScenario {
+
+	private final Class<? extends Callable<Void>> target;
+
+	private final int threads;
+
+	private final boolean conditionalProbes;
+
+	protected ConcurrentExecutionScenario(String description,
+			Class<? extends Callable<Void>> target, int threads,
+			boolean conditionalProbes) {
+		super(String.format("%s, %s threads", description,
+				Integer.valueOf(threads)));
+		this.target = target;
+		this.threads = threads;
+		this.conditionalProbes = conditionalProbes;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		IRuntime runtime = new LoggerRuntime();
+		runtime.startup(new RuntimeData());
+		final Instrumenter instr = new Instrumenter(runtime);
+		instr.setConditionalProbes(conditionalProbes);
+		final byte[] original = TargetLoader.getClassDataAsBytes(target);
+		final byte[] instrumentedBuffer = instr.instrument(original, "");
+		final TargetLoader loader = new TargetLoader();
+
+		return parallel(loader.add(target, instrumentedBuffer));
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		return parallel(target);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Callable<Void> parallel(final Class<?> type) throws Exception {
+		final List<Callable<Void>> subjects = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < threads; i++) {
+			subjects.add((Callable<Void>) type.newInstance());
+		}
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				final ExecutorService executor = Executors
+						.newFixedThreadPool(threads);
+				try {
+					for (final Future<Void> f : executor.invokeAll(subjects)) {
+						f.get();
+					}
+				} finally {
+					executor.shutdown();
+				}
+				return null;
+			}
+		};
+	}
+
+}
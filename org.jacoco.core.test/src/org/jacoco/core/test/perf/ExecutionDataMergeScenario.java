@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+/**
+ * Scenario to measure merging of many execution data stores with
+ * {@link ExecutionDataStore#mergeAll(ExecutionDataStore)}. The reference
+ * merges every probe with a conditional assignment as done before.
+ */
+public class ExecutionDataMergeScenario extends TimedScenario {
+
+	private final ExecutionDataStore[] stores;
+
+	protected ExecutionDataMergeScenario(final int storeCount,
+			final int classCount, final int probeCount) {
+		super(String.format("merging %s stores with %s classes of %s probes",
+				Integer.valueOf(storeCount), Integer.valueOf(classCount),
+				Integer.valueOf(probeCount)));
+		final Random random = new Random(42);
+		stores = new ExecutionDataStore[storeCount];
+		for (int s = 0; s < storeCount; s++) {
+			stores[s] = new ExecutionDataStore();
+			for (int c = 0; c < classCount; c++) {
+				final boolean[] probes = new boolean[probeCount];
+				for (int p = 0; p < probeCount; p++) {
+					probes[p] = random.nextInt(4) == 0;
+				}
+				stores[s].put(new ExecutionData(c, "Class" + c, probes));
+			}
+		}
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				final ExecutionDataStore target = new ExecutionDataStore();
+				for (final ExecutionDataStore store : stores) {
+					target.mergeAll(store);
+				}
+				return null;
+			}
+		};
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				final ExecutionDataStore target = new ExecutionDataStore();
+				for (final ExecutionDataStore store : stores) {
+					for (final ExecutionData data : store.getContents()) {
+						final ExecutionData entry = target.get(
+								Long.valueOf(data.getId()), data.getName(),
+								data.getProbes().length);
+						final boolean[] probes = entry.getProbes();
+						final boolean[] other = data.getProbes();
+						for (int i = 0; i < probes.length; i++) {
+							if (other[i]) {
+								probes[i] = true;
+							}
+						}
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+}
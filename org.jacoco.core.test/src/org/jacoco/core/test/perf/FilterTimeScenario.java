@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.jacoco.core.internal.analysis.AnalysisContext;
+import org.jacoco.core.internal.analysis.ClassAnalyzer;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.StringPool;
+import org.jacoco.core.internal.analysis.filter.Filters;
+import org.jacoco.core.internal.flow.ClassProbesAdapter;
+import org.jacoco.core.internal.instr.InstrSupport;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Scenario to measure the time spent in every filter while all classes of the
+ * given JAR files are analyzed.
+ */
+public class FilterTimeScenario implements IPerfScenario {
+
+	private static final int RUNS = 10;
+
+	private final List<byte[]> classes;
+
+	protected FilterTimeScenario(final Class<?>... libraries)
+			throws IOException {
+		this.classes = AnalysisThroughputScenario.loadClasses(libraries);
+	}
+
+	public void run(final IPerfOutput output) throws Exception {
+		final Filters filters = Filters.timed();
+		final AnalysisContext context = new AnalysisContext(new StringPool(),
+				filters);
+		for (int i = 0; i < RUNS; i++) {
+			for (final byte[] bytes : classes) {
+				final ClassReader reader = InstrSupport.classReaderFor(bytes);
+				final ClassCoverageImpl coverage = new ClassCoverageImpl(
+						reader.getClassName(), 0, false);
+				reader.accept(new ClassProbesAdapter(
+						new ClassAnalyzer(coverage, null, context), false), 0);
+			}
+		}
+		for (final Map.Entry<String, Long> e : filters.getTimes()
+				.entrySet()) {
+			output.writeTimeResult(
+					String.format("%s for %s classes", e.getKey(),
+							Integer.valueOf(classes.size())),
+					e.getValue().longValue() / RUNS, IPerfOutput.NO_REFERENCE);
+		}
+	}
+
+}
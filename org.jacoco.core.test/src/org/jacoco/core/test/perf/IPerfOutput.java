@@ -46,4 +46,17 @@ public interface IPerfOutput {
 	 */
 	void writeByteResult(String description, long size, long reference);
 
+	/**
+	 * Reports the result of a count with a optional reference count for
+	 * comparison.
+	 *
+	 * @param description
+	 *            textual description of the test case
+	 * @param count
+	 *            counted number of items
+	 * @param reference
+	 *            optional reference count
+	 */
+	void writeCountResult(String description, long count, long reference);
+
 }
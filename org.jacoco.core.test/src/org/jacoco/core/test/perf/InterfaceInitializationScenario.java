@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.jacoco.core.test.TargetLoader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * This scenario loads and initializes a number of Java 5 interfaces with
+ * static initializers, once in their original version and once instrumented.
+ * For such interfaces the probe array is obtained from the runtime within the
+ * static initializer.
+ */
+public class InterfaceInitializationScenario extends TimedScenario {
+
+	private final int count;
+
+	private final byte[][] originals;
+
+	private final byte[][] instrumented;
+
+	protected InterfaceInitializationScenario(final int count)
+			throws Exception {
+		super(String.format("initialization of %s Java 5 interfaces",
+				Integer.valueOf(count)));
+		this.count = count;
+		final IRuntime runtime = new LoggerRuntime();
+		runtime.startup(new RuntimeData());
+		final Instrumenter instr = new Instrumenter(runtime);
+		originals = new byte[count][];
+		instrumented = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			originals[i] = createInterface(getName(i));
+			instrumented[i] = instr.instrument(originals[i], "");
+		}
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		return new Initializer(instrumented);
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		return new Initializer(originals);
+	}
+
+	private class Initializer implements Callable<Void> {
+
+		private final byte[][] definitions;
+
+		Initializer(final byte[][] definitions) {
+			this.definitions = definitions;
+		}
+
+		public Void call() throws Exception {
+			final TargetLoader loader = new TargetLoader();
+			for (int i = 0; i < count; i++) {
+				final Class<?> c = loader.add(getName(i), definitions[i]);
+				Class.forName(c.getName(), true, loader);
+			}
+			return null;
+		}
+
+	}
+
+	private static String getName(final int i) {
+		return "org.jacoco.core.test.perf.targets.Interface" + i;
+	}
+
+	private static byte[] createInterface(final String name) {
+		final String vmName = name.replace('.', '/');
+		final ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V1_5,
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT
+						| Opcodes.ACC_INTERFACE,
+				vmName, null, "java/lang/Object", null);
+		cw.visitField(
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+				"VALUE", "Ljava/lang/Object;", null, null).visitEnd();
+		final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_STATIC,
+				"<clinit>", "()V", null, null);
+		mv.visitCode();
+		mv.visitTypeInsn(Opcodes.NEW, "java/lang/Object");
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object",
+				"<init>", "()V", false);
+		mv.visitFieldInsn(Opcodes.PUTSTATIC, vmName, "VALUE",
+				"Ljava/lang/Object;");
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(2, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+}
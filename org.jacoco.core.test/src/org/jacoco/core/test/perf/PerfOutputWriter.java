@@ -65,6 +65,15 @@ public class PerfOutputWriter implements IPerfOutput {
 		}
 	}
 
+	public void writeCountResult(String description, long count,
+			long reference) {
+		if (reference == NO_REFERENCE) {
+			writeResult(description, count, "%.0f", "");
+		} else {
+			writeResult(description, count, reference, "%.0f", "");
+		}
+	}
+
 	private void writeResult(final String description, final double subject,
 			String fmt, String unit) {
 		writer.printf("%-30s%8s         %-6s%n", description,
@@ -17,6 +17,11 @@ import java.io.PrintWriter;
 import org.jacoco.core.test.perf.targets.Target01;
 import org.jacoco.core.test.perf.targets.Target02;
 import org.jacoco.core.test.perf.targets.Target03;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.commons.Method;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.util.CheckClassAdapter;
 
 /**
  * The main test suite.
@@ -28,11 +33,29 @@ public class PerformanceSuite implements IPerfScenario {
 				Target01.class).run(output);
 		new ExecuteInstrumentedCodeScenario("loop only", Target02.class)
 				.run(output);
+		new ConcurrentExecutionScenario("loop only", Target02.class, 4, false)
+				.run(output);
+		new ConcurrentExecutionScenario("loop only, conditional probes",
+				Target02.class, 4, true).run(output);
 		new ExecuteInstrumentedCodeScenario("game of life", Target03.class)
 				.run(output);
+		new ExecuteInstrumentedCodeScenario("game of life, optimized probes",
+				Target03.class, true).run(output);
+		new ProbeCountScenario(ClassReader.class, ClassNode.class,
+				Method.class, Frame.class, CheckClassAdapter.class,
+				Target03.class).run(output);
 		new InstrumentationSizeSzenario(Target03.class).run(output);
 		new InstrumentationTimeScenario(Target03.class, 1000).run(output);
 		new AnalysisTimeScenario(Target03.class, 1000).run(output);
+		new AnalysisThroughputScenario(ClassReader.class, ClassNode.class,
+				Method.class, Frame.class, CheckClassAdapter.class)
+				.run(output);
+		new FilterTimeScenario(ClassReader.class, ClassNode.class,
+				Method.class, Frame.class, CheckClassAdapter.class)
+				.run(output);
+		new InterfaceInitializationScenario(1000).run(output);
+		new WildcardMatcherScenario(500, 10000).run(output);
+		new ExecutionDataMergeScenario(100, 1000, 100).run(output);
 	}
 
 	public static void main(String[] args) throws Exception {
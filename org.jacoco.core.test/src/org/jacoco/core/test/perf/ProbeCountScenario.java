@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import org.jacoco.core.internal.flow.ClassProbesAdapter;
+import org.jacoco.core.internal.flow.ClassProbesVisitor;
+import org.jacoco.core.internal.flow.MethodProbesVisitor;
+import org.jacoco.core.internal.instr.InstrSupport;
+import org.jacoco.core.test.TargetLoader;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Scenario to measure the number of probes inserted with optimized probes
+ * compared to the default probe placement.
+ */
+public class ProbeCountScenario implements IPerfScenario {
+
+	private final Class<?>[] classes;
+
+	public ProbeCountScenario(Class<?>... classes) {
+		this.classes = classes;
+	}
+
+	public void run(IPerfOutput output) throws Exception {
+		long optimized = 0;
+		long reference = 0;
+		for (final Class<?> c : classes) {
+			final ClassReader reader = InstrSupport
+					.classReaderFor(TargetLoader.getClassDataAsBytes(c));
+			optimized += countProbes(reader, true);
+			reference += countProbes(reader, false);
+		}
+		output.writeCountResult(
+				String.format("optimized probes in %s classes",
+						Integer.valueOf(classes.length)),
+				optimized, reference);
+	}
+
+	private static int countProbes(final ClassReader reader,
+			final boolean optimized) {
+		final int[] count = new int[1];
+		final ClassProbesVisitor counter = new ClassProbesVisitor() {
+			@Override
+			public MethodProbesVisitor visitMethod(int access, String name,
+					String desc, String signature, String[] exceptions) {
+				return null;
+			}
+
+			@Override
+			public void visitTotalProbeCount(int total) {
+				count[0] = total;
+			}
+		};
+		reader.accept(new ClassProbesAdapter(counter, false, optimized), 0);
+		return count[0];
+	}
+
+}
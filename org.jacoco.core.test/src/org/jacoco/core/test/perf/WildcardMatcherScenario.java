@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+import org.jacoco.core.runtime.WildcardMatcher;
+
+/**
+ * Scenario to compare the {@link WildcardMatcher} with the equivalent regular
+ * expression for a large number of expressions.
+ */
+public class WildcardMatcherScenario extends TimedScenario {
+
+	private final int expressionCount;
+
+	private final String expression;
+
+	private final String[] classNames;
+
+	protected WildcardMatcherScenario(final int expressionCount,
+			final int classCount) {
+		super(String.format("matching %s names to %s patterns",
+				Integer.valueOf(classCount), Integer.valueOf(expressionCount)));
+		this.expressionCount = expressionCount;
+		this.expression = createExpression();
+		this.classNames = createClassNames(classCount);
+	}
+
+	private String createExpression() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < expressionCount; i++) {
+			if (i > 0) {
+				sb.append(':');
+			}
+			switch (i % 4) {
+			case 0:
+				sb.append("com/example/module").append(i).append("/*");
+				break;
+			case 1:
+				sb.append("*Generated").append(i).append("$*");
+				break;
+			case 2:
+				sb.append("org/example/Service").append(i);
+				break;
+			default:
+				sb.append("net/example/*/Impl?").append(i);
+				break;
+			}
+		}
+		return sb.toString();
+	}
+
+	private String[] createClassNames(final int count) {
+		final String[] names = new String[count];
+		for (int i = 0; i < count; i++) {
+			names[i] = "org/example/package" + (i % 100) + "/SomeClass" + i
+					+ "$Inner";
+		}
+		return names;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		final WildcardMatcher matcher = new WildcardMatcher(expression);
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (final String name : classNames) {
+					matcher.matches(name);
+				}
+				return null;
+			}
+		};
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		final Pattern pattern = Pattern.compile(toRegex(expression));
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (final String name : classNames) {
+					pattern.matcher(name).matches();
+				}
+				return null;
+			}
+		};
+	}
+
+	private static String toRegex(final String expression) {
+		final StringBuilder regex = new StringBuilder();
+		boolean next = false;
+		for (final String part : expression.split("\\:")) {
+			if (next) {
+				regex.append('|');
+			}
+			regex.append('(');
+			for (final char c : part.toCharArray()) {
+				switch (c) {
+				case '?':
+					regex.append(".");
+					break;
+				case '*':
+					regex.append(".*");
+					break;
+				default:
+					regex.append(Pattern.quote(String.valueOf(c)));
+					break;
+				}
+			}
+			regex.append(')');
+			next = true;
+		}
+		return regex.toString();
+	}
+
+}
@@ -27,6 +27,7 @@ import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.internal.ContentTypeDetector;
 import org.jacoco.core.internal.InputStreams;
 import org.jacoco.core.internal.Pack200Streams;
+import org.jacoco.core.internal.analysis.AnalysisContext;
 import org.jacoco.core.internal.analysis.ClassAnalyzer;
 import org.jacoco.core.internal.analysis.ClassCoverageImpl;
 import org.jacoco.core.internal.analysis.StringPool;
@@ -44,6 +45,9 @@ import org.objectweb.asm.Opcodes;
  * {@link Analyzer} requires a {@link ExecutionDataStore} instance that holds
  * the execution data for the classes to analyze. The {@link Analyzer} offers
  * several methods to analyze classes from a variety of sources.
+ *
+ * Internal structures are reused for subsequent classes, therefore an
+ * {@link Analyzer} instance must only be used by one thread at a time.
  */
 public class Analyzer {
 
@@ -51,7 +55,9 @@ public class Analyzer {
 
 	private final ICoverageVisitor coverageVisitor;
 
-	private final StringPool stringPool;
+	private final AnalysisContext context;
+
+	private boolean optimizedProbes;
 
 	/**
 	 * Creates a new analyzer reporting to the given output.
@@ -66,7 +72,44 @@ public class Analyzer {
 			final ICoverageVisitor coverageVisitor) {
 		this.executionData = executionData;
 		this.coverageVisitor = coverageVisitor;
-		this.stringPool = new StringPool();
+		this.context = new AnalysisContext();
+	}
+
+	/**
+	 * Creates a new analyzer reporting to the given output. Names of the
+	 * analyzed classes and their members are normalized with the given pool
+	 * which may be shared with other {@link Analyzer} instances.
+	 *
+	 * @param executionData
+	 *            execution data
+	 * @param coverageVisitor
+	 *            the output instance that will coverage data for every analyzed
+	 *            class
+	 * @param stringPool
+	 *            pool to normalize strings of the coverage data
+	 */
+	public Analyzer(final ExecutionDataStore executionData,
+			final ICoverageVisitor coverageVisitor,
+			final ConcurrentStringPool stringPool) {
+		this.executionData = executionData;
+		this.coverageVisitor = coverageVisitor;
+		this.context = new AnalysisContext(new StringPool(stringPool));
+	}
+
+	/**
+	 * Determines whether the classes have been instrumented with optimized
+	 * probes, see
+	 * {@link org.jacoco.core.instr.Instrumenter#setOptimizedProbes(boolean)}.
+	 * The setting must match the setting used for instrumentation. If the
+	 * number of probes differs from the execution data of a class the analysis
+	 * of this class fails. Default is <code>false</code>.
+	 *
+	 * @param flag
+	 *            <code>true</code> if classes have been instrumented with
+	 *            optimized probes
+	 */
+	public void setOptimizedProbes(final boolean flag) {
+		this.optimizedProbes = flag;
 	}
 
 	/**
@@ -93,14 +136,14 @@ public class Analyzer {
 		final ClassCoverageImpl coverage = new ClassCoverageImpl(className,
 				classid, noMatch);
 		final ClassAnalyzer analyzer = new ClassAnalyzer(coverage, probes,
-				stringPool) {
+				context) {
 			@Override
 			public void visitEnd() {
 				super.visitEnd();
 				coverageVisitor.visitCoverage(coverage);
 			}
 		};
-		return new ClassProbesAdapter(analyzer, false);
+		return new ClassProbesAdapter(analyzer, false, optimizedProbes);
 	}
 
 	private void analyzeClass(final byte[] source) {
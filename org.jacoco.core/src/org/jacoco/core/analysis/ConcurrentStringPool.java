@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread safe pool to normalize {@link String} instances which can be shared by
+ * multiple {@link Analyzer} instances, e.g. across several report runs in a
+ * long running process. The pool is split into shards which are locked
+ * independently. If a shard exceeds its share of the maximum size the least
+ * recently used entries are evicted.
+ */
+public final class ConcurrentStringPool {
+
+	/**
+	 * Default maximum number of strings in a pool.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1 << 20;
+
+	private final Shard[] shards;
+
+	private final int mask;
+
+	/**
+	 * Creates a new pool with {@link #DEFAULT_MAXIMUM_SIZE} and one shard per
+	 * available processor.
+	 */
+	public ConcurrentStringPool() {
+		this(DEFAULT_MAXIMUM_SIZE,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param maximumSize
+	 *            maximum number of strings kept in the pool
+	 * @param concurrencyLevel
+	 *            expected number of threads using the pool concurrently, the
+	 *            number of shards is the next power of two
+	 */
+	public ConcurrentStringPool(final int maximumSize,
+			final int concurrencyLevel) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException(
+					"Maximum size must be at least 1.");
+		}
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException(
+					"Concurrency level must be at least 1.");
+		}
+		int count = 1;
+		while (count < concurrencyLevel && count < maximumSize) {
+			count <<= 1;
+		}
+		shards = new Shard[count];
+		for (int i = 0; i < count; i++) {
+			// Distribute the remainder so that the total is exact:
+			final int shardSize = maximumSize / count
+					+ (i < maximumSize % count ? 1 : 0);
+			shards[i] = new Shard(shardSize);
+		}
+		mask = count - 1;
+	}
+
+	/**
+	 * Returns a normalized instance that is equal to the given {@link String}.
+	 *
+	 * @param s
+	 *            any string or <code>null</code>
+	 * @return normalized instance or <code>null</code>
+	 */
+	public String get(final String s) {
+		if (s == null) {
+			return null;
+		}
+		final int h = s.hashCode();
+		return shards[(h ^ (h >>> 16)) & mask].intern(s);
+	}
+
+	/**
+	 * @return current number of strings in the pool
+	 */
+	public int size() {
+		int size = 0;
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				size += shard.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return number of lookups which returned an instance from the pool
+	 */
+	public long getHitCount() {
+		long count = 0;
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				count += shard.hits;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return number of lookups which added a new instance to the pool
+	 */
+	public long getMissCount() {
+		long count = 0;
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				count += shard.misses;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return number of strings removed from the pool because the maximum
+	 *         size was exceeded
+	 */
+	public long getEvictionCount() {
+		long count = 0;
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				count += shard.evictions;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all strings from the pool. The metrics are not reset.
+	 */
+	public void clear() {
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				shard.clear();
+			}
+		}
+	}
+
+	private static final class Shard extends LinkedHashMap<String, String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maximumSize;
+
+		long hits;
+
+		long misses;
+
+		long evictions;
+
+		Shard(final int maximumSize) {
+			super(Math.min(maximumSize, 1024), 0.75f, true);
+			this.maximumSize = maximumSize;
+		}
+
+		synchronized String intern(final String s) {
+			final String norm = super.get(s);
+			if (norm == null) {
+				misses++;
+				put(s, s);
+				return s;
+			}
+			hits++;
+			return norm;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<String, String> eldest) {
+			if (size() > maximumSize) {
+				evictions++;
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -159,11 +159,42 @@ public final class ExecutionData {
 	public void merge(final ExecutionData other, final boolean flag) {
 		assertCompatibility(other.getId(), other.getName(),
 				other.getProbes().length);
+		final boolean[] p = probes;
 		final boolean[] otherData = other.getProbes();
-		for (int i = 0; i < probes.length; i++) {
-			if (otherData[i]) {
-				probes[i] = flag;
+		// Branch free loops which can be vectorized by the JIT compiler:
+		if (flag) {
+			for (int i = 0; i < p.length; i++) {
+				p[i] |= otherData[i];
 			}
+		} else {
+			for (int i = 0; i < p.length; i++) {
+				p[i] &= !otherData[i];
+			}
+		}
+	}
+
+	/**
+	 * Intersects the probe data of this object with the given execution data.
+	 * I.e. a probe entry in this object stays marked as executed
+	 * (<code>true</code>) only if the corresponding other probe was executed as
+	 * well. So the result is
+	 *
+	 * <pre>
+	 * A and B
+	 * </pre>
+	 *
+	 * The probe array of the other object is not modified.
+	 *
+	 * @param other
+	 *            execution data to intersect with
+	 */
+	public void intersect(final ExecutionData other) {
+		assertCompatibility(other.getId(), other.getName(),
+				other.getProbes().length);
+		final boolean[] p = probes;
+		final boolean[] otherData = other.getProbes();
+		for (int i = 0; i < p.length; i++) {
+			p[i] &= otherData[i];
 		}
 	}
 
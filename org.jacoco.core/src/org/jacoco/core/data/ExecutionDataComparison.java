@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.data;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the executed probes of a reference store with execution data
+ * provided through the {@link IExecutionDataVisitor} interface, e.g. directly
+ * from an {@link ExecutionDataReader}. The compared execution data is not
+ * materialized as {@link ExecutionData} objects, only the probes seen so far
+ * are kept as a packed bit set per class. Therefore the compared data may
+ * contain multiple records for the same class, every executed probe is
+ * counted once.
+ * <p>
+ * In the following the executed probes of the reference store are called
+ * <code>A</code>, the executed probes of the compared data <code>B</code>.
+ * All counts are probe counts. The reference store must not be modified
+ * while execution data is compared. An instance of this class is not thread
+ * safe.
+ */
+public final class ExecutionDataComparison implements IExecutionDataVisitor {
+
+	private final ExecutionDataStore reference;
+
+	private final Map<Long, BitSet> seen = new HashMap<Long, BitSet>();
+
+	private final long referenceCount;
+
+	private long intersectionCount;
+
+	private long otherOnlyCount;
+
+	/**
+	 * Creates a new comparison with the given reference store.
+	 *
+	 * @param reference
+	 *            store to compare execution data with
+	 */
+	public ExecutionDataComparison(final ExecutionDataStore reference) {
+		this.reference = reference;
+		long count = 0;
+		for (final ExecutionData data : reference.getContents()) {
+			for (final boolean p : data.getProbes()) {
+				if (p) {
+					count++;
+				}
+			}
+		}
+		this.referenceCount = count;
+	}
+
+	/**
+	 * Adds the given execution data to the compared probes <code>B</code>.
+	 *
+	 * @param data
+	 *            execution data to compare
+	 * @throws IllegalStateException
+	 *             if the given {@link ExecutionData} object is not compatible
+	 *             to the corresponding one of the reference store
+	 * @see ExecutionData#assertCompatibility(long, String, int)
+	 */
+	public void visitClassExecution(final ExecutionData data)
+			throws IllegalStateException {
+		final boolean[] probes = data.getProbes();
+		final ExecutionData ref = reference.get(data.getId());
+		final boolean[] refProbes;
+		if (ref == null) {
+			refProbes = null;
+		} else {
+			ref.assertCompatibility(data.getId(), data.getName(),
+					probes.length);
+			refProbes = ref.getProbes();
+		}
+		final Long id = Long.valueOf(data.getId());
+		BitSet bits = seen.get(id);
+		if (bits == null) {
+			bits = new BitSet(probes.length);
+			seen.put(id, bits);
+		}
+		for (int i = 0; i < probes.length; i++) {
+			if (probes[i] && !bits.get(i)) {
+				bits.set(i);
+				if (refProbes != null && refProbes[i]) {
+					intersectionCount++;
+				} else {
+					otherOnlyCount++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return number of executed probes of the reference store,
+	 *         <code>|A|</code>
+	 */
+	public long getReferenceCount() {
+		return referenceCount;
+	}
+
+	/**
+	 * @return number of executed probes of the compared data,
+	 *         <code>|B|</code>
+	 */
+	public long getOtherCount() {
+		return intersectionCount + otherOnlyCount;
+	}
+
+	/**
+	 * @return number of probes executed in both,
+	 *         <code>|A &#x2229; B|</code>
+	 */
+	public long getIntersectionCount() {
+		return intersectionCount;
+	}
+
+	/**
+	 * @return number of probes executed in any of both,
+	 *         <code>|A &#x222A; B|</code>
+	 */
+	public long getUnionCount() {
+		return referenceCount + otherOnlyCount;
+	}
+
+	/**
+	 * @return number of probes only executed in the reference store,
+	 *         <code>|A \ B|</code>
+	 */
+	public long getReferenceOnlyCount() {
+		return referenceCount - intersectionCount;
+	}
+
+	/**
+	 * @return number of probes only executed in the compared data,
+	 *         <code>|B \ A|</code>
+	 */
+	public long getOtherOnlyCount() {
+		return otherOnlyCount;
+	}
+
+	/**
+	 * @return number of probes executed in exactly one of both
+	 */
+	public long getSymmetricDifferenceCount() {
+		return getReferenceOnlyCount() + otherOnlyCount;
+	}
+
+	/**
+	 * Calculates the Jaccard index <code>|A &#x2229; B| / |A &#x222A; B|</code>
+	 * of the executed probes.
+	 *
+	 * @return Jaccard index between 0.0 and 1.0, 1.0 if both are empty
+	 */
+	public double getJaccardIndex() {
+		final long union = getUnionCount();
+		if (union == 0) {
+			return 1.0;
+		}
+		return (double) intersectionCount / union;
+	}
+
+	/**
+	 * Calculates the overlap coefficient
+	 * <code>|A &#x2229; B| / min(|A|, |B|)</code> of the executed probes. The
+	 * coefficient is 1.0 if one is a subset of the other.
+	 *
+	 * @return overlap coefficient between 0.0 and 1.0, 1.0 if one of both is
+	 *         empty
+	 */
+	public double getOverlapCoefficient() {
+		final long min = Math.min(referenceCount, getOtherCount());
+		if (min == 0) {
+			return 1.0;
+		}
+		return (double) intersectionCount / min;
+	}
+
+}
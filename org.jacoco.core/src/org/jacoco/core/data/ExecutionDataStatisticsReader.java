@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reader that only calculates statistics of execution data. The probes of the
+ * execution data records are counted directly in their serialized form, no
+ * {@link ExecutionData} instances are created. Therefore execution data
+ * records are never passed to an execution data visitor, statistics of every
+ * record can be retrieved with an {@link IExecutionDataStatisticsVisitor}
+ * instead. Session infos are reported as with {@link ExecutionDataReader}.
+ * <p>
+ * All statistics refer to the records of the stream: If a class is contained
+ * in multiple records, e.g. for multiple sessions, it is counted for every
+ * record.
+ */
+public class ExecutionDataStatisticsReader extends ExecutionDataReader {
+
+	private IExecutionDataStatisticsVisitor statisticsVisitor = null;
+
+	private int classCount;
+
+	private long probeCount;
+
+	private long hitCount;
+
+	/**
+	 * Creates a new reader based on the given input stream input. Depending on
+	 * the nature of the underlying stream input should be buffered.
+	 *
+	 * @param input
+	 *            input stream to read execution data from
+	 */
+	public ExecutionDataStatisticsReader(final InputStream input) {
+		super(input);
+	}
+
+	/**
+	 * Sets an optional listener for statistics of single execution data
+	 * records.
+	 *
+	 * @param visitor
+	 *            visitor to retrieve statistics events
+	 */
+	public void setStatisticsVisitor(
+			final IExecutionDataStatisticsVisitor visitor) {
+		this.statisticsVisitor = visitor;
+	}
+
+	@Override
+	protected boolean readBlock(final byte blocktype) throws IOException {
+		if (blocktype != ExecutionDataWriter.BLOCK_EXECUTIONDATA) {
+			return super.readBlock(blocktype);
+		}
+		final long id = in.readLong();
+		final String name = in.readUTF();
+		final int probes = in.readVarInt();
+		final int hits = in.readBooleanArrayHitCount(probes);
+		classCount++;
+		probeCount += probes;
+		hitCount += hits;
+		if (statisticsVisitor != null) {
+			statisticsVisitor.visitClassStatistics(id, name, probes, hits);
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of execution data records read so far
+	 */
+	public int getClassCount() {
+		return classCount;
+	}
+
+	/**
+	 * @return total number of probes of all records read so far
+	 */
+	public long getProbeCount() {
+		return probeCount;
+	}
+
+	/**
+	 * @return total number of executed probes of all records read so far
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+}
@@ -86,11 +86,70 @@ public final class ExecutionDataStore implements IExecutionDataVisitor {
 	 * @see #subtract(ExecutionData)
 	 */
 	public void subtract(final ExecutionDataStore store) {
-		for (final ExecutionData data : store.getContents()) {
+		for (final ExecutionData data : store.entries.values()) {
 			subtract(data);
 		}
 	}
 
+	/**
+	 * Intersects this store with the given execution data store. I.e. a probe
+	 * in this store stays marked as executed only if the corresponding probe
+	 * in the given store is executed as well. Probes of classes which are not
+	 * contained in the given store are unset. As with subtraction the
+	 * execution data objects itself are not removed.
+	 *
+	 * @param store
+	 *            execution data store to intersect with
+	 * @throws IllegalStateException
+	 *             if execution data of the given store is not compatible to a
+	 *             corresponding one, that is already contained
+	 * @see ExecutionData#intersect(ExecutionData)
+	 */
+	public void intersect(final ExecutionDataStore store)
+			throws IllegalStateException {
+		for (final Map.Entry<Long, ExecutionData> e : entries.entrySet()) {
+			final ExecutionData other = store.entries.get(e.getKey());
+			if (other == null) {
+				e.getValue().reset();
+			} else {
+				e.getValue().intersect(other);
+			}
+		}
+	}
+
+	/**
+	 * Merges all execution data of the given store into this store. In
+	 * contrast to {@link #put(ExecutionData)} execution data objects which are
+	 * not contained in this store yet are copied, so the given store is not
+	 * modified by subsequent operations on this store.
+	 *
+	 * @param store
+	 *            execution data store to merge
+	 * @throws IllegalStateException
+	 *             if execution data of the given store is not compatible to a
+	 *             corresponding one, that is already contained
+	 * @see ExecutionData#assertCompatibility(long, String, int)
+	 */
+	public void mergeAll(final ExecutionDataStore store)
+			throws IllegalStateException {
+		if (store == this) {
+			return;
+		}
+		for (final Map.Entry<Long, ExecutionData> e : store.entries
+				.entrySet()) {
+			final ExecutionData data = e.getValue();
+			final ExecutionData entry = entries.get(e.getKey());
+			if (entry == null) {
+				entries.put(e.getKey(),
+						new ExecutionData(data.getId(), data.getName(),
+								data.getProbes().clone()));
+				names.add(data.getName());
+			} else {
+				entry.merge(data);
+			}
+		}
+	}
+
 	/**
 	 * Returns the {@link ExecutionData} entry with the given id if it exists in
 	 * this store.
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.data;
+
+/**
+ * Interface for statistics of execution data records as provided by
+ * {@link ExecutionDataStatisticsReader}.
+ */
+public interface IExecutionDataStatisticsVisitor {
+
+	/**
+	 * Provides the statistics of a single execution data record.
+	 *
+	 * @param id
+	 *            class identifier
+	 * @param name
+	 *            VM name of the class
+	 * @param probeCount
+	 *            number of probes of the class
+	 * @param hitCount
+	 *            number of executed probes
+	 */
+	void visitClassStatistics(long id, String name, int probeCount,
+			int hitCount);
+
+}
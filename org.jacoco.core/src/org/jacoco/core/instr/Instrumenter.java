@@ -48,6 +48,10 @@ public class Instrumenter {
 
 	private final SignatureRemover signatureRemover;
 
+	private boolean optimizedProbes;
+
+	private boolean conditionalProbes;
+
 	/**
 	 * Creates a new instance based on the given runtime.
 	 *
@@ -72,6 +76,38 @@ public class Instrumenter {
 		signatureRemover.setActive(flag);
 	}
 
+	/**
+	 * Determines whether probes should be optimized. With optimized probes
+	 * method exits which are reached from a single point of the control flow
+	 * get no separate probe as their execution status can be derived from the
+	 * other probes of the method. The execution data of such classes can only
+	 * be analyzed with an {@link org.jacoco.core.analysis.Analyzer} where
+	 * optimized probes are enabled too. As the class id does not depend on this
+	 * setting the analyzer detects a mismatch by the number of probes only.
+	 * This option is not available for the agent, Ant tasks and Maven goals.
+	 * Default is <code>false</code>.
+	 *
+	 * @param flag
+	 *            <code>true</code> if probes should be optimized
+	 */
+	public void setOptimizedProbes(final boolean flag) {
+		this.optimizedProbes = flag;
+	}
+
+	/**
+	 * Determines whether probes should only be set if they are not set
+	 * already. This avoids repeated writes to the probe array from frequently
+	 * executed code which otherwise can cause contention between threads
+	 * running the same code on different processors. The execution data is
+	 * the same in both modes. Default is <code>false</code>.
+	 *
+	 * @param flag
+	 *            <code>true</code> if probes should be set conditionally
+	 */
+	public void setConditionalProbes(final boolean flag) {
+		this.conditionalProbes = flag;
+	}
+
 	private byte[] instrument(final byte[] source) {
 		final long classId = CRC64.classId(source);
 		final ClassReader reader = InstrSupport.classReaderFor(source);
@@ -83,11 +119,12 @@ public class Instrumenter {
 			}
 		};
 		final IProbeArrayStrategy strategy = ProbeArrayStrategyFactory
-				.createFor(classId, reader, accessorGenerator);
+				.createFor(classId, reader, accessorGenerator,
+						optimizedProbes);
 		final int version = InstrSupport.getMajorVersion(reader);
 		final ClassVisitor visitor = new ClassProbesAdapter(
-				new ClassInstrumenter(strategy, writer),
-				InstrSupport.needsFrames(version));
+				new ClassInstrumenter(strategy, writer, conditionalProbes),
+				InstrSupport.needsFrames(version), optimizedProbes);
 		reader.accept(visitor, ClassReader.EXPAND_FRAMES);
 		return writer.toByteArray();
 	}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis;
+
+import org.jacoco.core.internal.analysis.filter.Filters;
+import org.jacoco.core.internal.analysis.filter.IFilter;
+
+/**
+ * Structures which are reused for the analysis of subsequent classes and
+ * methods to minimize allocations. A context must only be used by a single
+ * thread and for a single class at a time.
+ */
+public final class AnalysisContext {
+
+	private final StringPool stringPool;
+
+	private final IFilter filter;
+
+	private final InstructionsBuilder builder;
+
+	/**
+	 * Creates a new context with a new {@link StringPool}.
+	 */
+	public AnalysisContext() {
+		this(new StringPool());
+	}
+
+	/**
+	 * Creates a new context with the given {@link StringPool}.
+	 *
+	 * @param stringPool
+	 *            pool to minimize the number of {@link String} instances
+	 */
+	public AnalysisContext(final StringPool stringPool) {
+		this(stringPool, Filters.all());
+	}
+
+	/**
+	 * Creates a new context with the given {@link StringPool} and filter.
+	 *
+	 * @param stringPool
+	 *            pool to minimize the number of {@link String} instances
+	 * @param filter
+	 *            filter for all methods analyzed with this context
+	 */
+	public AnalysisContext(final StringPool stringPool, final IFilter filter) {
+		this.stringPool = stringPool;
+		this.filter = filter;
+		this.builder = new InstructionsBuilder(null);
+	}
+
+	/**
+	 * @return pool to minimize the number of {@link String} instances
+	 */
+	public StringPool getStringPool() {
+		return stringPool;
+	}
+
+	/**
+	 * @return filter for all methods analyzed with this context
+	 */
+	IFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Returns the builder for the next method. Instructions of the previous
+	 * method must not be used any more.
+	 *
+	 * @param probes
+	 *            probe array of the class the method belongs to or
+	 *            <code>null</code>
+	 * @return builder reset for the next method
+	 */
+	InstructionsBuilder getInstructionsBuilder(final boolean[] probes) {
+		builder.reset(probes);
+		return builder;
+	}
+
+}
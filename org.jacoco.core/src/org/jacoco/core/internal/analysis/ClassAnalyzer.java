@@ -15,7 +15,6 @@ package org.jacoco.core.internal.analysis;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.jacoco.core.internal.analysis.filter.Filters;
 import org.jacoco.core.internal.analysis.filter.IFilter;
 import org.jacoco.core.internal.analysis.filter.IFilterContext;
 import org.jacoco.core.internal.flow.ClassProbesVisitor;
@@ -45,6 +44,8 @@ public class ClassAnalyzer extends ClassProbesVisitor
 
 	private final IFilter filter;
 
+	private final AnalysisContext context;
+
 	/**
 	 * Creates a new analyzer that builds coverage data for a class.
 	 *
@@ -57,10 +58,27 @@ public class ClassAnalyzer extends ClassProbesVisitor
 	 */
 	public ClassAnalyzer(final ClassCoverageImpl coverage,
 			final boolean[] probes, final StringPool stringPool) {
+		this(coverage, probes, new AnalysisContext(stringPool));
+	}
+
+	/**
+	 * Creates a new analyzer that builds coverage data for a class and reuses
+	 * the structures of the given context.
+	 *
+	 * @param coverage
+	 *            coverage node for the analyzed class data
+	 * @param probes
+	 *            execution data for this class or <code>null</code>
+	 * @param context
+	 *            context which is not used for other classes at the same time
+	 */
+	public ClassAnalyzer(final ClassCoverageImpl coverage,
+			final boolean[] probes, final AnalysisContext context) {
 		this.coverage = coverage;
 		this.probes = probes;
-		this.stringPool = stringPool;
-		this.filter = Filters.all();
+		this.stringPool = context.getStringPool();
+		this.filter = context.getFilter();
+		this.context = context;
 	}
 
 	@Override
@@ -97,7 +115,8 @@ public class ClassAnalyzer extends ClassProbesVisitor
 
 		InstrSupport.assertNotInstrumented(name, coverage.getName());
 
-		final InstructionsBuilder builder = new InstructionsBuilder(probes);
+		final InstructionsBuilder builder = context
+				.getInstructionsBuilder(probes);
 
 		return new MethodAnalyzer(builder) {
 
@@ -115,7 +134,7 @@ public class ClassAnalyzer extends ClassProbesVisitor
 			final String signature, final InstructionsBuilder icc,
 			final MethodNode methodNode) {
 		final MethodCoverageCalculator mcc = new MethodCoverageCalculator(
-				icc.getInstructions());
+				icc.getInstructions(), methodNode.instructions);
 		filter.filter(methodNode, this, mcc);
 
 		final MethodCoverageImpl mc = new MethodCoverageImpl(name, desc,
@@ -138,7 +157,12 @@ public class ClassAnalyzer extends ClassProbesVisitor
 
 	@Override
 	public void visitTotalProbeCount(final int count) {
-		// nothing to do
+		if (probes != null && probes.length != count) {
+			throw new IllegalStateException(String.format(
+					"Execution data for class %s has %s probes instead of %s.",
+					coverage.getName(), Integer.valueOf(probes.length),
+					Integer.valueOf(count)));
+		}
 	}
 
 	// IFilterContext implementation
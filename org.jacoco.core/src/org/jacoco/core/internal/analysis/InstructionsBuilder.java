@@ -13,25 +13,29 @@
 package org.jacoco.core.internal.analysis;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.jacoco.core.analysis.ISourceNode;
 import org.jacoco.core.internal.flow.LabelInfo;
 import org.objectweb.asm.Label;
-import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
 
 /**
  * Stateful builder for the {@link Instruction}s of a method. All instructions
  * of a method must be added in their original sequence along with additional
  * information like line numbers. Afterwards the instructions can be obtained
  * with the <code>getInstructions()</code> method.
+ *
+ * Instructions are identified by the index of the corresponding ASM node within
+ * the {@link InsnList} of the method and stored in an array with this index.
+ * The builder can be reused for subsequent methods with {@link #reset(boolean[])}
+ * which keeps the allocated arrays.
  */
 class InstructionsBuilder {
 
 	/** Probe array of the class the analyzed method belongs to. */
-	private final boolean[] probes;
+	private boolean[] probes;
 
 	/** The line which belong to subsequently added instructions. */
 	private int currentLine;
@@ -40,10 +44,13 @@ class InstructionsBuilder {
 	private Instruction currentInsn;
 
 	/**
-	 * All instructions of a method mapped from the ASM node to the
-	 * corresponding {@link Instruction} instance.
+	 * All instructions of a method indexed by the index of the corresponding
+	 * ASM node. Entries for other nodes like labels are <code>null</code>.
 	 */
-	private final Map<AbstractInsnNode, Instruction> instructions;
+	private Instruction[] instructions;
+
+	/** Highest index of an added instruction plus one */
+	private int instructionsLimit;
 
 	/**
 	 * The labels which mark the subsequent instructions.
@@ -53,10 +60,40 @@ class InstructionsBuilder {
 	private final List<Label> currentLabel;
 
 	/**
-	 * List of all jumps within the control flow. We need to store jumps
+	 * Sources of all jumps within the control flow. We need to store jumps
 	 * temporarily as the target {@link Instruction} may not been known yet.
 	 */
-	private final List<Jump> jumps;
+	private Instruction[] jumpSources;
+
+	/** Targets of the jumps, same order as {@link #jumpSources} */
+	private Label[] jumpTargets;
+
+	/** Branch numbers of the jumps, same order as {@link #jumpSources} */
+	private int[] jumpBranches;
+
+	/** Number of jumps */
+	private int jumpCount;
+
+	/**
+	 * Instructions with coverage derived from the probes to a label, see
+	 * {@link #addDerivedProbe(Label, int)}
+	 */
+	private final List<Instruction> derivedSources;
+
+	/** Entry labels of the derived probes */
+	private final List<Label> derivedEntries;
+
+	/** Branch numbers of the derived probes */
+	private final List<Integer> derivedBranches;
+
+	/**
+	 * Targets of control flow paths with derived probes, see
+	 * {@link #addDerivedTarget(Label, Label)}
+	 */
+	private final List<Label> derivedTargets;
+
+	/** Entry labels of the derived targets */
+	private final List<Label> derivedTargetEntries;
 
 	/**
 	 * Creates a new builder instance which can be used to analyze a single
@@ -70,9 +107,42 @@ class InstructionsBuilder {
 		this.probes = probes;
 		this.currentLine = ISourceNode.UNKNOWN_LINE;
 		this.currentInsn = null;
-		this.instructions = new HashMap<AbstractInsnNode, Instruction>();
+		this.instructions = new Instruction[32];
+		this.instructionsLimit = 0;
 		this.currentLabel = new ArrayList<Label>(2);
-		this.jumps = new ArrayList<Jump>();
+		this.jumpSources = new Instruction[16];
+		this.jumpTargets = new Label[16];
+		this.jumpBranches = new int[16];
+		this.jumpCount = 0;
+		this.derivedSources = new ArrayList<Instruction>();
+		this.derivedEntries = new ArrayList<Label>();
+		this.derivedBranches = new ArrayList<Integer>();
+		this.derivedTargets = new ArrayList<Label>();
+		this.derivedTargetEntries = new ArrayList<Label>();
+	}
+
+	/**
+	 * Resets this builder to analyze another method. Previously returned
+	 * instructions must not be used any more.
+	 *
+	 * @param probes
+	 *            probe array of the class the next method belongs to
+	 */
+	void reset(final boolean[] probes) {
+		this.probes = probes;
+		currentLine = ISourceNode.UNKNOWN_LINE;
+		currentInsn = null;
+		Arrays.fill(instructions, 0, instructionsLimit, null);
+		instructionsLimit = 0;
+		currentLabel.clear();
+		Arrays.fill(jumpSources, 0, jumpCount, null);
+		Arrays.fill(jumpTargets, 0, jumpCount, null);
+		jumpCount = 0;
+		derivedSources.clear();
+		derivedEntries.clear();
+		derivedBranches.clear();
+		derivedTargets.clear();
+		derivedTargetEntries.clear();
 	}
 
 	/**
@@ -99,8 +169,12 @@ class InstructionsBuilder {
 	/**
 	 * Adds a new instruction. Instructions are by default linked with the
 	 * previous instruction unless specified otherwise.
+	 *
+	 * @param index
+	 *            index of the corresponding node in the {@link InsnList} of
+	 *            the method
 	 */
-	void addInstruction(final AbstractInsnNode node) {
+	void addInstruction(final int index) {
 		final Instruction insn = new Instruction(currentLine);
 		final int labelCount = currentLabel.size();
 		if (labelCount > 0) {
@@ -113,7 +187,17 @@ class InstructionsBuilder {
 			currentInsn.addBranch(insn, 0);
 		}
 		currentInsn = insn;
-		instructions.put(node, insn);
+		if (index >= instructions.length) {
+			final Instruction[] newInstructions = new Instruction[Math
+					.max(instructions.length * 2, index + 1)];
+			System.arraycopy(instructions, 0, newInstructions, 0,
+					instructions.length);
+			instructions = newInstructions;
+		}
+		instructions[index] = insn;
+		if (index >= instructionsLimit) {
+			instructionsLimit = index + 1;
+		}
 	}
 
 	/**
@@ -134,7 +218,22 @@ class InstructionsBuilder {
 	 *            unique branch number
 	 */
 	void addJump(final Label target, final int branch) {
-		jumps.add(new Jump(currentInsn, target, branch));
+		if (jumpCount == jumpSources.length) {
+			final int newLength = jumpCount * 2;
+			final Instruction[] newSources = new Instruction[newLength];
+			System.arraycopy(jumpSources, 0, newSources, 0, jumpCount);
+			jumpSources = newSources;
+			final Label[] newTargets = new Label[newLength];
+			System.arraycopy(jumpTargets, 0, newTargets, 0, jumpCount);
+			jumpTargets = newTargets;
+			final int[] newBranches = new int[newLength];
+			System.arraycopy(jumpBranches, 0, newBranches, 0, jumpCount);
+			jumpBranches = newBranches;
+		}
+		jumpSources[jumpCount] = currentInsn;
+		jumpTargets[jumpCount] = target;
+		jumpBranches[jumpCount] = branch;
+		jumpCount++;
 	}
 
 	/**
@@ -146,42 +245,100 @@ class InstructionsBuilder {
 	 *            unique branch number for the last instruction
 	 */
 	void addProbe(final int probeId, final int branch) {
-		final boolean executed = probes != null && probes[probeId];
-		currentInsn.addBranch(executed, branch);
+		currentInsn.addBranch(isExecuted(probeId), branch);
 	}
 
 	/**
-	 * Returns the status for all instructions of this method. This method must
-	 * be called exactly once after the instructions have been added.
+	 * Adds the probe of a control flow path to the given label. Such probes
+	 * determine the status of derived probes, see
+	 * {@link #addDerivedProbe(Label, int)}.
 	 *
-	 * @return map of ASM instruction nodes to corresponding {@link Instruction}
-	 *         instances
+	 * @param target
+	 *            label the probe leads to
+	 * @param probeId
+	 *            index in the probe array
 	 */
-	Map<AbstractInsnNode, Instruction> getInstructions() {
-		// Wire jumps:
-		for (final Jump j : jumps) {
-			j.wire();
+	void addTargetProbe(final Label target, final int probeId) {
+		if (isExecuted(probeId)) {
+			LabelInfo.setReached(target);
 		}
+	}
 
-		return instructions;
+	/**
+	 * Probe ids beyond the probe array may occur if the execution data does
+	 * not match the probe placement, this is reported by the
+	 * {@link ClassAnalyzer} after all methods have been analyzed.
+	 */
+	private boolean isExecuted(final int probeId) {
+		return probes != null && probeId < probes.length && probes[probeId];
 	}
 
-	private static class Jump {
+	/**
+	 * Adds a control flow path to the given target label which has been
+	 * executed if the given entry label has been reached.
+	 *
+	 * @param target
+	 *            label the path leads to
+	 * @param entry
+	 *            label which is always passed before
+	 */
+	void addDerivedTarget(final Label target, final Label entry) {
+		derivedTargets.add(target);
+		derivedTargetEntries.add(entry);
+	}
 
-		private final Instruction source;
-		private final Label target;
-		private final int branch;
+	/**
+	 * Adds a branch for the last instruction which has been executed if the
+	 * given label has been reached through an executed probe.
+	 *
+	 * @param entry
+	 *            label which is always passed before the last instruction
+	 * @param branch
+	 *            unique branch number for the last instruction
+	 */
+	void addDerivedProbe(final Label entry, final int branch) {
+		derivedSources.add(currentInsn);
+		derivedEntries.add(entry);
+		derivedBranches.add(Integer.valueOf(branch));
+	}
 
-		Jump(final Instruction source, final Label target, final int branch) {
-			this.source = source;
-			this.target = target;
-			this.branch = branch;
+	/**
+	 * Returns the status for all instructions of this method. This method must
+	 * be called exactly once after the instructions have been added.
+	 *
+	 * @return {@link Instruction} instances indexed by the index of the
+	 *         corresponding ASM nodes, the length of the array may exceed the
+	 *         number of nodes
+	 */
+	Instruction[] getInstructions() {
+		// Derived probes are known after all probes have been added. Derived
+		// targets may depend on each other, e.g. in loops:
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 0; i < derivedTargets.size(); i++) {
+				final Label target = derivedTargets.get(i);
+				if (!LabelInfo.isReached(target)
+						&& LabelInfo.isReached(derivedTargetEntries.get(i))) {
+					LabelInfo.setReached(target);
+					changed = true;
+				}
+			}
+		}
+		for (int i = 0; i < derivedSources.size(); i++) {
+			derivedSources.get(i).addBranch(
+					LabelInfo.isReached(derivedEntries.get(i)),
+					derivedBranches.get(i).intValue());
 		}
 
-		void wire() {
-			source.addBranch(LabelInfo.getInstruction(target), branch);
+		// Wire jumps:
+		for (int i = 0; i < jumpCount; i++) {
+			jumpSources[i].addBranch(
+					LabelInfo.getInstruction(jumpTargets[i]),
+					jumpBranches[i]);
 		}
 
+		return instructions;
 	}
 
 }
@@ -30,8 +30,14 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 
 	private final InstructionsBuilder builder;
 
-	/** Current node of the ASM tree API */
-	private AbstractInsnNode currentNode;
+	/** Index of the current node of the ASM tree API */
+	private int currentIndex;
+
+	/** Probe of the control flow path to the next label */
+	private int successorProbe = LabelInfo.NO_PROBE;
+
+	/** Entry label of the derived probe of the path to the next label */
+	private Label successorEntry;
 
 	/**
 	 * New instance that uses the given builder.
@@ -47,8 +53,9 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 		for (final TryCatchBlockNode n : methodNode.tryCatchBlocks) {
 			n.accept(methodVisitor);
 		}
+		int index = 0;
 		for (final AbstractInsnNode i : methodNode.instructions) {
-			currentNode = i;
+			currentIndex = index++;
 			i.accept(methodVisitor);
 		}
 		methodVisitor.visitEnd();
@@ -56,6 +63,14 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 
 	@Override
 	public void visitLabel(final Label label) {
+		if (successorProbe != LabelInfo.NO_PROBE) {
+			builder.addTargetProbe(label, successorProbe);
+			successorProbe = LabelInfo.NO_PROBE;
+		}
+		if (successorEntry != null) {
+			builder.addDerivedTarget(label, successorEntry);
+			successorEntry = null;
+		}
 		builder.addLabel(label);
 	}
 
@@ -66,56 +81,56 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 
 	@Override
 	public void visitInsn(final int opcode) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitIntInsn(final int opcode, final int operand) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitVarInsn(final int opcode, final int var) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitTypeInsn(final int opcode, final String type) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitFieldInsn(final int opcode, final String owner,
 			final String name, final String desc) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitMethodInsn(final int opcode, final String owner,
 			final String name, final String desc, final boolean itf) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitInvokeDynamicInsn(final String name, final String desc,
 			final Handle bsm, final Object... bsmArgs) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitJumpInsn(final int opcode, final Label label) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 		builder.addJump(label, 1);
 	}
 
 	@Override
 	public void visitLdcInsn(final Object cst) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitIincInsn(final int var, final int increment) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
@@ -131,7 +146,7 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 	}
 
 	private void visitSwitchInsn(final Label dflt, final Label[] labels) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 		LabelInfo.resetDone(labels);
 		int branch = 0;
 		builder.addJump(dflt, branch);
@@ -147,28 +162,52 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 
 	@Override
 	public void visitMultiANewArrayInsn(final String desc, final int dims) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 	}
 
 	@Override
 	public void visitProbe(final int probeId) {
 		builder.addProbe(probeId, 0);
 		builder.noSuccessor();
+		successorProbe = probeId;
 	}
 
 	@Override
 	public void visitJumpInsnWithProbe(final int opcode, final Label label,
 			final int probeId, final IFrame frame) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 		builder.addProbe(probeId, 1);
+		builder.addTargetProbe(label, probeId);
 	}
 
 	@Override
 	public void visitInsnWithProbe(final int opcode, final int probeId) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 		builder.addProbe(probeId, 0);
 	}
 
+	@Override
+	public void visitDerivedProbe(final Label entry) {
+		builder.addDerivedProbe(entry, 0);
+		builder.noSuccessor();
+		successorEntry = entry;
+	}
+
+	@Override
+	public void visitJumpInsnWithDerivedProbe(final int opcode,
+			final Label label, final Label entry) {
+		builder.addInstruction(currentIndex);
+		builder.addDerivedProbe(entry, 1);
+		builder.addDerivedTarget(label, entry);
+	}
+
+	@Override
+	public void visitInsnWithDerivedProbe(final int opcode,
+			final Label entry) {
+		builder.addInstruction(currentIndex);
+		builder.addDerivedProbe(entry, 0);
+	}
+
 	@Override
 	public void visitTableSwitchInsnWithProbes(final int min, final int max,
 			final Label dflt, final Label[] labels, final IFrame frame) {
@@ -183,7 +222,7 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 
 	private void visitSwitchInsnWithProbes(final Label dflt,
 			final Label[] labels) {
-		builder.addInstruction(currentNode);
+		builder.addInstruction(currentIndex);
 		LabelInfo.resetDone(dflt);
 		LabelInfo.resetDone(labels);
 		int branch = 0;
@@ -201,6 +240,7 @@ public class MethodAnalyzer extends MethodProbesVisitor {
 				builder.addJump(label, branch);
 			} else {
 				builder.addProbe(id, branch);
+				builder.addTargetProbe(label, id);
 			}
 			LabelInfo.setDone(label);
 		}
@@ -13,27 +13,36 @@
 package org.jacoco.core.internal.analysis;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.jacoco.core.analysis.ISourceNode;
 import org.jacoco.core.internal.analysis.filter.IFilterOutput;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
 
 /**
  * Calculates the filtered coverage of a single method. A instance of this class
  * can be first used as {@link IFilterOutput} before the coverage result is
  * calculated.
+ *
+ * All information is stored in arrays indexed by the index of the
+ * corresponding ASM node within the {@link InsnList} of the method.
  */
 class MethodCoverageCalculator implements IFilterOutput {
 
-	private final Map<AbstractInsnNode, Instruction> instructions;
+	private static final int NONE = -1;
+
+	private final Instruction[] instructions;
+
+	/** Number of array entries which may hold instructions of the method */
+	private final int length;
 
-	private final Set<AbstractInsnNode> ignored;
+	private final InsnList nodes;
+
+	/** Ignored instructions, created on demand */
+	private boolean[] ignored;
 
 	/**
 	 * Instructions that should be merged form disjoint sets. Coverage
@@ -44,18 +53,29 @@ class MethodCoverageCalculator implements IFilterOutput {
 	 * one references another element from the same set, element without
 	 * reference - is a representative of this set.
 	 *
-	 * This map stores reference (value) for elements of sets (key).
+	 * This array stores the index of the referenced element or {@link #NONE}.
+	 * It is created on demand.
 	 */
-	private final Map<AbstractInsnNode, AbstractInsnNode> merged;
+	private int[] merged;
 
-	private final Map<AbstractInsnNode, Set<AbstractInsnNode>> replacements;
+	/** New branch targets per instruction, created on demand */
+	private AbstractInsnNode[][] replacements;
 
-	MethodCoverageCalculator(
-			final Map<AbstractInsnNode, Instruction> instructions) {
+	/**
+	 * Creates a new calculator for the given instructions.
+	 *
+	 * @param instructions
+	 *            instructions indexed by the index of the corresponding ASM
+	 *            nodes, entries for other nodes are <code>null</code>, the
+	 *            array may be longer than the list of nodes
+	 * @param nodes
+	 *            ASM nodes of the method
+	 */
+	MethodCoverageCalculator(final Instruction[] instructions,
+			final InsnList nodes) {
 		this.instructions = instructions;
-		this.ignored = new HashSet<AbstractInsnNode>();
-		this.merged = new HashMap<AbstractInsnNode, AbstractInsnNode>();
-		this.replacements = new HashMap<AbstractInsnNode, Set<AbstractInsnNode>>();
+		this.length = Math.min(instructions.length, nodes.size());
+		this.nodes = nodes;
 	}
 
 	/**
@@ -66,14 +86,17 @@ class MethodCoverageCalculator implements IFilterOutput {
 	 *            the result is added to this coverage node
 	 */
 	void calculate(final MethodCoverageImpl coverage) {
-		applyMerges();
-		applyReplacements();
+		if (merged != null) {
+			applyMerges();
+		}
+		if (replacements != null) {
+			applyReplacements();
+		}
 		ensureCapacity(coverage);
 
-		for (final Entry<AbstractInsnNode, Instruction> entry : instructions
-				.entrySet()) {
-			if (!ignored.contains(entry.getKey())) {
-				final Instruction instruction = entry.getValue();
+		for (int i = 0; i < length; i++) {
+			final Instruction instruction = instructions[i];
+			if (instruction != null && !isIgnored(i)) {
 				coverage.increment(instruction.getInstructionCounter(),
 						instruction.getBranchCounter(), instruction.getLine());
 			}
@@ -84,38 +107,35 @@ class MethodCoverageCalculator implements IFilterOutput {
 
 	private void applyMerges() {
 		// Merge to the representative:
-		for (final Entry<AbstractInsnNode, AbstractInsnNode> entry : merged
-				.entrySet()) {
-			final AbstractInsnNode node = entry.getKey();
-			final Instruction instruction = instructions.get(node);
-			final AbstractInsnNode representativeNode = findRepresentative(
-					node);
-			ignored.add(node);
-			instructions.put(representativeNode,
-					instructions.get(representativeNode).merge(instruction));
-			entry.setValue(representativeNode);
+		for (int i = 0; i < merged.length; i++) {
+			if (merged[i] != NONE) {
+				final int representative = findRepresentative(i);
+				setIgnored(i);
+				instructions[representative] = instructions[representative]
+						.merge(instructions[i]);
+				merged[i] = representative;
+			}
 		}
 
 		// Get merged value back from representative
-		for (final Entry<AbstractInsnNode, AbstractInsnNode> entry : merged
-				.entrySet()) {
-			instructions.put(entry.getKey(),
-					instructions.get(entry.getValue()));
+		for (int i = 0; i < merged.length; i++) {
+			if (merged[i] != NONE) {
+				instructions[i] = instructions[merged[i]];
+			}
 		}
 	}
 
 	private void applyReplacements() {
-		for (final Entry<AbstractInsnNode, Set<AbstractInsnNode>> entry : replacements
-				.entrySet()) {
-			final Set<AbstractInsnNode> replacements = entry.getValue();
-			final List<Instruction> newBranches = new ArrayList<Instruction>(
-					replacements.size());
-			for (final AbstractInsnNode b : replacements) {
-				newBranches.add(instructions.get(b));
+		for (int i = 0; i < replacements.length; i++) {
+			final AbstractInsnNode[] targets = replacements[i];
+			if (targets != null) {
+				final List<Instruction> newBranches = new ArrayList<Instruction>(
+						targets.length);
+				for (final AbstractInsnNode b : targets) {
+					newBranches.add(instructions[nodes.indexOf(b)]);
+				}
+				instructions[i] = instructions[i].replaceBranches(newBranches);
 			}
-			final AbstractInsnNode node = entry.getKey();
-			instructions.put(node,
-					instructions.get(node).replaceBranches(newBranches));
 		}
 	}
 
@@ -123,10 +143,9 @@ class MethodCoverageCalculator implements IFilterOutput {
 		// Determine line range:
 		int firstLine = ISourceNode.UNKNOWN_LINE;
 		int lastLine = ISourceNode.UNKNOWN_LINE;
-		for (final Entry<AbstractInsnNode, Instruction> entry : instructions
-				.entrySet()) {
-			if (!ignored.contains(entry.getKey())) {
-				final int line = entry.getValue().getLine();
+		for (int i = 0; i < length; i++) {
+			if (instructions[i] != null && !isIgnored(i)) {
+				final int line = instructions[i].getLine();
 				if (line != ISourceNode.UNKNOWN_LINE) {
 					if (firstLine > line
 							|| lastLine == ISourceNode.UNKNOWN_LINE) {
@@ -143,9 +162,23 @@ class MethodCoverageCalculator implements IFilterOutput {
 		coverage.ensureCapacity(firstLine, lastLine);
 	}
 
-	private AbstractInsnNode findRepresentative(AbstractInsnNode i) {
-		AbstractInsnNode r;
-		while ((r = merged.get(i)) != null) {
+	private boolean isIgnored(final int index) {
+		return ignored != null && ignored[index];
+	}
+
+	private void setIgnored(final int index) {
+		if (ignored == null) {
+			ignored = new boolean[length];
+		}
+		ignored[index] = true;
+	}
+
+	private int findRepresentative(int i) {
+		if (merged == null) {
+			return i;
+		}
+		int r;
+		while ((r = merged[i]) != NONE) {
 			i = r;
 		}
 		return i;
@@ -157,22 +190,38 @@ class MethodCoverageCalculator implements IFilterOutput {
 			final AbstractInsnNode toInclusive) {
 		for (AbstractInsnNode i = fromInclusive; i != toInclusive; i = i
 				.getNext()) {
-			ignored.add(i);
+			ignore(i);
 		}
-		ignored.add(toInclusive);
+		ignore(toInclusive);
 	}
 
-	public void merge(AbstractInsnNode i1, AbstractInsnNode i2) {
-		i1 = findRepresentative(i1);
-		i2 = findRepresentative(i2);
-		if (i1 != i2) {
-			merged.put(i2, i1);
+	private void ignore(final AbstractInsnNode node) {
+		final int index = nodes.indexOf(node);
+		// Nodes after the last instruction are not covered by the arrays:
+		if (index < length) {
+			setIgnored(index);
+		}
+	}
+
+	public void merge(final AbstractInsnNode i1, final AbstractInsnNode i2) {
+		final int r1 = findRepresentative(nodes.indexOf(i1));
+		final int r2 = findRepresentative(nodes.indexOf(i2));
+		if (r1 != r2) {
+			if (merged == null) {
+				merged = new int[length];
+				Arrays.fill(merged, NONE);
+			}
+			merged[r2] = r1;
 		}
 	}
 
 	public void replaceBranches(final AbstractInsnNode source,
 			final Set<AbstractInsnNode> newTargets) {
-		replacements.put(source, newTargets);
+		if (replacements == null) {
+			replacements = new AbstractInsnNode[length][];
+		}
+		replacements[nodes.indexOf(source)] = newTargets
+				.toArray(new AbstractInsnNode[newTargets.size()]);
 	}
 
 }
@@ -16,6 +16,8 @@ package org.jacoco.core.internal.analysis;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.jacoco.core.analysis.ConcurrentStringPool;
+
 /**
  * Utility to normalize {@link String} instances in a way that if
  * <code>equals()</code> is <code>true</code> for two strings they will be
@@ -23,12 +25,36 @@ import java.util.Map;
  * {@link String#intern()} does, this implementation avoids VM specific side
  * effects and is supposed to be faster, as neither native code is called nor
  * synchronization is required for concurrent lookup.
+ *
+ * Optionally all lookups can be delegated to a {@link ConcurrentStringPool}
+ * which is shared with other instances.
  */
 public final class StringPool {
 
 	private static final String[] EMPTY_ARRAY = new String[0];
 
-	private final Map<String, String> pool = new HashMap<String, String>(1024);
+	private final Map<String, String> pool;
+
+	private final ConcurrentStringPool shared;
+
+	/**
+	 * Creates a new pool which is only used by a single thread.
+	 */
+	public StringPool() {
+		this.pool = new HashMap<String, String>(1024);
+		this.shared = null;
+	}
+
+	/**
+	 * Creates a new pool which delegates to the given shared pool.
+	 *
+	 * @param shared
+	 *            pool shared with other instances
+	 */
+	public StringPool(final ConcurrentStringPool shared) {
+		this.pool = null;
+		this.shared = shared;
+	}
 
 	/**
 	 * Returns a normalized instance that is equal to the given {@link String} .
@@ -41,6 +67,9 @@ public final class StringPool {
 		if (s == null) {
 			return null;
 		}
+		if (shared != null) {
+			return shared.get(s);
+		}
 		final String norm = pool.get(s);
 		if (norm == null) {
 			pool.put(s, s);
@@ -12,19 +12,56 @@
  *******************************************************************************/
 package org.jacoco.core.internal.analysis.filter;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
 /**
- * Filter that combines other filters.
+ * Filter that combines other filters. Before the filters are applied the
+ * features of the method are determined in a single pass over its
+ * instructions, filters which require features not present in the method are
+ * skipped. Optionally the time spent in every filter is measured.
  */
 public final class Filters implements IFilter {
 
+	/** Filter requires no specific feature */
+	static final int ANY = 0;
+
+	/** Filter requires a class compiled from Kotlin */
+	static final int KOTLIN = 1;
+
+	/** Filter requires try/catch blocks */
+	static final int TRY_CATCH = 1 << 1;
+
+	/** Filter requires a <code>TABLESWITCH</code> or <code>LOOKUPSWITCH</code> */
+	static final int SWITCH = 1 << 2;
+
+	/** Filter requires a <code>MONITOREXIT</code> instruction */
+	static final int MONITOR = 1 << 3;
+
+	/** Filter requires an access to the <code>$assertionsDisabled</code> field */
+	static final int ASSERTIONS = 1 << 4;
+
+	private static final String ASSERTIONS_DISABLED_FIELD = "$assertionsDisabled";
+
 	/**
 	 * Filter that does nothing.
 	 */
-	public static final IFilter NONE = new Filters();
+	public static final IFilter NONE = new Filters(false);
+
+	private final boolean timed;
+
+	private IFilter[] filters;
 
-	private final IFilter[] filters;
+	private int[] requirements;
+
+	private long[] times;
+
+	private int count;
 
 	/**
 	 * Creates filter that combines all other filters.
@@ -32,34 +69,149 @@ public final class Filters implements IFilter {
 	 * @return filter that combines all other filters
 	 */
 	public static IFilter all() {
-		return new Filters(new EnumFilter(), new SyntheticFilter(),
-				new BridgeFilter(), new SynchronizedFilter(),
-				new TryWithResourcesJavac11Filter(),
-				new TryWithResourcesJavacFilter(),
-				new TryWithResourcesEcjFilter(), new FinallyFilter(),
-				new PrivateEmptyNoArgConstructorFilter(), new AssertFilter(),
-				new StringSwitchJavacFilter(), new StringSwitchFilter(),
-				new EnumEmptyConstructorFilter(), new RecordsFilter(),
-				new ExhaustiveSwitchFilter(), //
-				new RecordPatternFilter(), //
-				new AnnotationGeneratedFilter(), new KotlinGeneratedFilter(),
-				new KotlinLateinitFilter(), new KotlinWhenFilter(),
-				new KotlinWhenStringFilter(),
-				new KotlinUnsafeCastOperatorFilter(),
-				new KotlinNotNullOperatorFilter(),
-				new KotlinDefaultArgumentsFilter(), new KotlinInlineFilter(),
-				new KotlinCoroutineFilter(), new KotlinDefaultMethodsFilter());
+		return create(false);
+	}
+
+	/**
+	 * Creates filter that combines all other filters and measures the time
+	 * spent in every filter.
+	 *
+	 * @return filter that combines all other filters
+	 * @see #getTimes()
+	 */
+	public static Filters timed() {
+		return create(true);
+	}
+
+	private static Filters create(final boolean timed) {
+		final Filters f = new Filters(timed);
+		f.add(new EnumFilter(), ANY);
+		f.add(new SyntheticFilter(), ANY);
+		f.add(new BridgeFilter(), ANY);
+		f.add(new SynchronizedFilter(), TRY_CATCH | MONITOR);
+		f.add(new TryWithResourcesJavac11Filter(), TRY_CATCH);
+		f.add(new TryWithResourcesJavacFilter(), TRY_CATCH);
+		f.add(new TryWithResourcesEcjFilter(), TRY_CATCH);
+		f.add(new FinallyFilter(), TRY_CATCH);
+		f.add(new PrivateEmptyNoArgConstructorFilter(), ANY);
+		f.add(new AssertFilter(), ASSERTIONS);
+		f.add(new StringSwitchJavacFilter(), SWITCH);
+		f.add(new StringSwitchFilter(), SWITCH);
+		f.add(new EnumEmptyConstructorFilter(), ANY);
+		f.add(new RecordsFilter(), ANY);
+		f.add(new ExhaustiveSwitchFilter(), SWITCH);
+		f.add(new RecordPatternFilter(), TRY_CATCH);
+		f.add(new AnnotationGeneratedFilter(), ANY);
+		f.add(new KotlinGeneratedFilter(), KOTLIN);
+		f.add(new KotlinLateinitFilter(), ANY);
+		f.add(new KotlinWhenFilter(), ANY);
+		f.add(new KotlinWhenStringFilter(), SWITCH);
+		f.add(new KotlinUnsafeCastOperatorFilter(), KOTLIN);
+		f.add(new KotlinNotNullOperatorFilter(), ANY);
+		f.add(new KotlinDefaultArgumentsFilter(), KOTLIN);
+		f.add(new KotlinInlineFilter(), KOTLIN);
+		f.add(new KotlinCoroutineFilter(), KOTLIN);
+		f.add(new KotlinDefaultMethodsFilter(), KOTLIN);
+		return f;
 	}
 
-	private Filters(final IFilter... filters) {
-		this.filters = filters;
+	Filters(final boolean timed) {
+		this.timed = timed;
+		this.filters = new IFilter[0];
+		this.requirements = new int[0];
+		this.times = new long[0];
+		this.count = 0;
+	}
+
+	/**
+	 * Adds a filter which is only applied to methods with all given features.
+	 */
+	void add(final IFilter filter, final int required) {
+		if (count == filters.length) {
+			final int newLength = Math.max(2 * count, 32);
+			final IFilter[] newFilters = new IFilter[newLength];
+			System.arraycopy(filters, 0, newFilters, 0, count);
+			filters = newFilters;
+			final int[] newRequirements = new int[newLength];
+			System.arraycopy(requirements, 0, newRequirements, 0, count);
+			requirements = newRequirements;
+			times = new long[newLength];
+		}
+		filters[count] = filter;
+		requirements[count] = required;
+		count++;
 	}
 
 	public void filter(final MethodNode methodNode,
 			final IFilterContext context, final IFilterOutput output) {
-		for (final IFilter filter : filters) {
-			filter.filter(methodNode, context, output);
+		final int features = getFeatures(methodNode, context);
+		for (int i = 0; i < count; i++) {
+			if ((requirements[i] & features) != requirements[i]) {
+				continue;
+			}
+			if (!timed) {
+				filters[i].filter(methodNode, context, output);
+			} else {
+				final long start = System.nanoTime();
+				filters[i].filter(methodNode, context, output);
+				times[i] += System.nanoTime() - start;
+			}
+		}
+	}
+
+	/**
+	 * Determines the features of the given method which are relevant for the
+	 * applicability of filters.
+	 */
+	static int getFeatures(final MethodNode methodNode,
+			final IFilterContext context) {
+		int features = ANY;
+		if (KotlinGeneratedFilter.isKotlinClass(context)) {
+			features |= KOTLIN;
+		}
+		if (!methodNode.tryCatchBlocks.isEmpty()) {
+			features |= TRY_CATCH;
+		}
+		for (final AbstractInsnNode i : methodNode.instructions) {
+			switch (i.getOpcode()) {
+			case Opcodes.TABLESWITCH:
+			case Opcodes.LOOKUPSWITCH:
+				features |= SWITCH;
+				break;
+			case Opcodes.MONITOREXIT:
+				features |= MONITOR;
+				break;
+			case Opcodes.GETSTATIC:
+			case Opcodes.PUTSTATIC:
+				if (ASSERTIONS_DISABLED_FIELD
+						.equals(((FieldInsnNode) i).name)) {
+					features |= ASSERTIONS;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return features;
+	}
+
+	/**
+	 * Returns the accumulated time spent in every filter. Only available for
+	 * filters created with {@link #timed()}.
+	 *
+	 * @return time in nanoseconds per simple class name of the filter in the
+	 *         order of application
+	 */
+	public Map<String, Long> getTimes() {
+		if (!timed) {
+			throw new IllegalStateException("Timing not enabled.");
+		}
+		final Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < count; i++) {
+			result.put(filters[i].getClass().getSimpleName(),
+					Long.valueOf(times[i]));
 		}
+		return result;
 	}
 
 }
@@ -28,7 +28,10 @@ import org.objectweb.asm.tree.MethodNode;
  */
 public final class KotlinInlineFilter implements IFilter {
 
-	private int firstGeneratedLineNumber = -1;
+	/** Class the cached line number has been calculated for */
+	private IFilterContext currentContext;
+
+	private int firstGeneratedLineNumber;
 
 	public void filter(final MethodNode methodNode,
 			final IFilterContext context, final IFilterOutput output) {
@@ -40,7 +43,9 @@ public final class KotlinInlineFilter implements IFilter {
 			return;
 		}
 
-		if (firstGeneratedLineNumber == -1) {
+		// The same filter instance may be used for subsequent classes:
+		if (currentContext != context) {
+			currentContext = context;
 			firstGeneratedLineNumber = getFirstGeneratedLineNumber(
 					context.getSourceFileName(),
 					context.getSourceDebugExtension());
@@ -23,6 +23,10 @@ import java.io.InputStream;
  */
 public class CompactDataInput extends DataInputStream {
 
+	private static final int COUNT_BUFFER_SIZE = 256;
+
+	private byte[] countBuffer;
+
 	/**
 	 * Creates a new {@link CompactDataInput} that uses the specified underlying
 	 * input stream.
@@ -69,4 +73,40 @@ public class CompactDataInput extends DataInputStream {
 		return value;
 	}
 
+	/**
+	 * Reads the content of a boolean array and counts its <code>true</code>
+	 * values. In contrast to {@link #readBooleanArray()} the length has to be
+	 * read before and no array is created, the packed bytes are counted
+	 * directly.
+	 *
+	 * @param length
+	 *            length of the boolean array
+	 * @return number of <code>true</code> values
+	 * @throws IOException
+	 *             if thrown by the underlying stream
+	 */
+	public int readBooleanArrayHitCount(final int length) throws IOException {
+		int remaining = length >>> 3;
+		int count = 0;
+		if (remaining > 0) {
+			if (countBuffer == null) {
+				countBuffer = new byte[COUNT_BUFFER_SIZE];
+			}
+			final byte[] buffer = countBuffer;
+			while (remaining > 0) {
+				final int n = Math.min(remaining, buffer.length);
+				readFully(buffer, 0, n);
+				for (int i = 0; i < n; i++) {
+					count += Integer.bitCount(buffer[i] & 0xFF);
+				}
+				remaining -= n;
+			}
+		}
+		final int rest = length & 0x07;
+		if (rest != 0) {
+			count += Integer.bitCount(readByte() & ((1 << rest) - 1));
+		}
+		return count;
+	}
+
 }
@@ -31,6 +31,8 @@ public class ClassProbesAdapter extends ClassVisitor
 
 	private final boolean trackFrames;
 
+	private final boolean optimized;
+
 	private int counter = 0;
 
 	private String name;
@@ -45,9 +47,26 @@ public class ClassProbesAdapter extends ClassVisitor
 	 */
 	public ClassProbesAdapter(final ClassProbesVisitor cv,
 			final boolean trackFrames) {
+		this(cv, trackFrames, false);
+	}
+
+	/**
+	 * Creates a new adapter that delegates to the given visitor.
+	 *
+	 * @param cv
+	 *            instance to delegate to
+	 * @param trackFrames
+	 *            if <code>true</code> stackmap frames are tracked and provided
+	 * @param optimized
+	 *            if <code>true</code> probes are optimized, see
+	 *            {@link MethodProbesAdapter#setOptimized(boolean)}
+	 */
+	public ClassProbesAdapter(final ClassProbesVisitor cv,
+			final boolean trackFrames, final boolean optimized) {
 		super(InstrSupport.ASM_API_VERSION, cv);
 		this.cv = cv;
 		this.trackFrames = trackFrames;
+		this.optimized = optimized;
 	}
 
 	@Override
@@ -81,6 +100,7 @@ public class ClassProbesAdapter extends ClassVisitor
 				LabelFlowAnalyzer.markLabels(this);
 				final MethodProbesAdapter probesAdapter = new MethodProbesAdapter(
 						methodProbes, ClassProbesAdapter.this);
+				probesAdapter.setOptimized(optimized);
 				if (trackFrames) {
 					final AnalyzerAdapter analyzer = new AnalyzerAdapter(
 							ClassProbesAdapter.this.name, access, name, desc,
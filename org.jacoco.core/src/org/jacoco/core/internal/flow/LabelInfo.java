@@ -43,6 +43,8 @@ public final class LabelInfo {
 
 	private Instruction instruction = null;
 
+	private boolean reached = false;
+
 	// instances are only created within this class
 	private LabelInfo() {
 	}
@@ -270,6 +272,29 @@ public final class LabelInfo {
 		return info == null ? null : info.instruction;
 	}
 
+	/**
+	 * Marks the given label as reached, i.e. an executed probe has been found
+	 * on at least one of the control flow paths to this label.
+	 *
+	 * @param label
+	 *            label to mark
+	 */
+	public static void setReached(final Label label) {
+		create(label).reached = true;
+	}
+
+	/**
+	 * Checks whether the given label has been marked as reached.
+	 *
+	 * @param label
+	 *            label to check
+	 * @return <code>true</code> if an executed probe leads to this label
+	 */
+	public static boolean isReached(final Label label) {
+		final LabelInfo info = get(label);
+		return info == null ? false : info.reached;
+	}
+
 	private static LabelInfo get(final Label label) {
 		final Object info = label.info;
 		return info instanceof LabelInfo ? (LabelInfo) info : null;
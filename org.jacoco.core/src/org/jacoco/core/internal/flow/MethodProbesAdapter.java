@@ -13,9 +13,12 @@
 package org.jacoco.core.internal.flow;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.jacoco.core.internal.instr.InstrSupport;
+import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -35,6 +38,22 @@ public final class MethodProbesAdapter extends MethodVisitor {
 
 	private final Map<Label, Label> tryCatchProbeLabels;
 
+	private boolean optimized;
+
+	/** Exception handlers, only collected for optimized probes */
+	private Set<Label> handlers;
+
+	/** <code>true</code> after the first instruction has been visited */
+	private boolean started;
+
+	/**
+	 * Label which is passed by all control flow paths to the current position
+	 * without any instruction in between which may throw an exception. Only
+	 * set for optimized probes if all control flow paths to the label have
+	 * probes.
+	 */
+	private Label entry;
+
 	/**
 	 * Create a new adapter instance.
 	 *
@@ -62,9 +81,31 @@ public final class MethodProbesAdapter extends MethodVisitor {
 		this.analyzer = analyzer;
 	}
 
+	/**
+	 * If probes are optimized no probes are inserted at positions which can
+	 * only be reached from a label where all incoming control flow paths have
+	 * probes, provided that no instruction in between may throw an exception.
+	 * Instead the corresponding <code>Derived</code> events of
+	 * {@link MethodProbesVisitor} are emitted. Instrumentation and analysis
+	 * must use the same setting.
+	 *
+	 * @param optimized
+	 *            <code>true</code> if probes should be optimized
+	 */
+	public void setOptimized(final boolean optimized) {
+		this.optimized = optimized;
+	}
+
 	@Override
 	public void visitTryCatchBlock(final Label start, final Label end,
 			final Label handler, final String type) {
+		if (optimized) {
+			// Exceptions are control flow paths without probes
+			if (handlers == null) {
+				handlers = new HashSet<Label>();
+			}
+			handlers.add(handler);
+		}
 		probesVisitor.visitTryCatchBlock(getTryCatchLabel(start),
 				getTryCatchLabel(end), handler, type);
 	}
@@ -89,9 +130,22 @@ public final class MethodProbesAdapter extends MethodVisitor {
 			if (tryCatchProbeLabels.containsKey(label)) {
 				probesVisitor.visitLabel(tryCatchProbeLabels.get(label));
 			}
-			probesVisitor.visitProbe(idGenerator.nextId());
+			if (entry == null) {
+				probesVisitor.visitProbe(idGenerator.nextId());
+			} else {
+				probesVisitor.visitDerivedProbe(entry);
+			}
 		}
 		probesVisitor.visitLabel(label);
+		if (optimized) {
+			if (LabelInfo.isMultiTarget(label)) {
+				final boolean handler = handlers != null
+						&& handlers.contains(label);
+				entry = started && !handler ? label : null;
+			} else if (!LabelInfo.isSuccessor(label)) {
+				entry = null;
+			}
+		}
 	}
 
 	@Override
@@ -104,22 +158,115 @@ public final class MethodProbesAdapter extends MethodVisitor {
 		case Opcodes.ARETURN:
 		case Opcodes.RETURN:
 		case Opcodes.ATHROW:
-			probesVisitor.visitInsnWithProbe(opcode, idGenerator.nextId());
+			if (entry == null) {
+				probesVisitor.visitInsnWithProbe(opcode,
+						idGenerator.nextId());
+			} else {
+				probesVisitor.visitInsnWithDerivedProbe(opcode, entry);
+			}
+			instruction(false);
+			break;
+		case Opcodes.IDIV:
+		case Opcodes.LDIV:
+		case Opcodes.IREM:
+		case Opcodes.LREM:
+			probesVisitor.visitInsn(opcode);
+			instruction(false);
 			break;
 		default:
 			probesVisitor.visitInsn(opcode);
+			// Constants, stack manipulation, arithmetic and conversions:
+			instruction(opcode <= Opcodes.DCONST_1 || (opcode >= Opcodes.POP
+					&& opcode <= Opcodes.DCMPG));
 			break;
 		}
 	}
 
+	@Override
+	public void visitIntInsn(final int opcode, final int operand) {
+		probesVisitor.visitIntInsn(opcode, operand);
+		instruction(opcode != Opcodes.NEWARRAY);
+	}
+
+	@Override
+	public void visitVarInsn(final int opcode, final int var) {
+		probesVisitor.visitVarInsn(opcode, var);
+		instruction(true);
+	}
+
+	@Override
+	public void visitTypeInsn(final int opcode, final String type) {
+		probesVisitor.visitTypeInsn(opcode, type);
+		instruction(false);
+	}
+
+	@Override
+	public void visitFieldInsn(final int opcode, final String owner,
+			final String name, final String desc) {
+		probesVisitor.visitFieldInsn(opcode, owner, name, desc);
+		instruction(false);
+	}
+
+	@Override
+	public void visitMethodInsn(final int opcode, final String owner,
+			final String name, final String desc, final boolean itf) {
+		probesVisitor.visitMethodInsn(opcode, owner, name, desc, itf);
+		instruction(false);
+	}
+
+	@Override
+	public void visitInvokeDynamicInsn(final String name, final String desc,
+			final Handle bsm, final Object... bsmArgs) {
+		probesVisitor.visitInvokeDynamicInsn(name, desc, bsm, bsmArgs);
+		instruction(false);
+	}
+
+	@Override
+	public void visitLdcInsn(final Object cst) {
+		probesVisitor.visitLdcInsn(cst);
+		instruction(false);
+	}
+
+	@Override
+	public void visitIincInsn(final int var, final int increment) {
+		probesVisitor.visitIincInsn(var, increment);
+		instruction(true);
+	}
+
+	@Override
+	public void visitMultiANewArrayInsn(final String desc, final int dims) {
+		probesVisitor.visitMultiANewArrayInsn(desc, dims);
+		instruction(false);
+	}
+
+	/**
+	 * Updates the state after an instruction has been visited.
+	 *
+	 * @param safe
+	 *            <code>true</code> if the instruction can not throw an
+	 *            exception and always continues with the next instruction
+	 */
+	private void instruction(final boolean safe) {
+		started = true;
+		if (!safe) {
+			entry = null;
+		}
+	}
+
 	@Override
 	public void visitJumpInsn(final int opcode, final Label label) {
 		if (LabelInfo.isMultiTarget(label)) {
-			probesVisitor.visitJumpInsnWithProbe(opcode, label,
-					idGenerator.nextId(), frame(jumpPopCount(opcode)));
+			if (opcode == Opcodes.GOTO && entry != null) {
+				probesVisitor.visitJumpInsnWithDerivedProbe(opcode, label,
+						entry);
+			} else {
+				probesVisitor.visitJumpInsnWithProbe(opcode, label,
+						idGenerator.nextId(), frame(jumpPopCount(opcode)));
+			}
 		} else {
 			probesVisitor.visitJumpInsn(opcode, label);
 		}
+		instruction(false);
 	}
 
 	private int jumpPopCount(final int opcode) {
@@ -149,6 +296,7 @@ public final class MethodProbesAdapter extends MethodVisitor {
 		} else {
 			probesVisitor.visitLookupSwitchInsn(dflt, keys, labels);
 		}
+		instruction(false);
 	}
 
 	@Override
@@ -160,6 +308,7 @@ public final class MethodProbesAdapter extends MethodVisitor {
 		} else {
 			probesVisitor.visitTableSwitchInsn(min, max, dflt, labels);
 		}
+		instruction(false);
 	}
 
 	private boolean markLabels(final Label dflt, final Label[] labels) {
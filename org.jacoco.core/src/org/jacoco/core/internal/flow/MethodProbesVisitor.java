@@ -95,6 +95,58 @@ public abstract class MethodProbesVisitor extends MethodVisitor {
 	public void visitInsnWithProbe(final int opcode, final int probeId) {
 	}
 
+	/**
+	 * Visits a position where a probe would be required before a label, but
+	 * its execution status can be derived from the probes of all control flow
+	 * paths to the given entry label. This event is used only with optimized
+	 * probes, see {@link MethodProbesAdapter#setOptimized(boolean)}.
+	 *
+	 * @param entry
+	 *            label from which the position is reached
+	 */
+	@SuppressWarnings("unused")
+	public void visitDerivedProbe(final Label entry) {
+	}
+
+	/**
+	 * Visits a GOTO instruction which would require a probe, but its
+	 * execution status can be derived from the probes of all control flow
+	 * paths to the given entry label. This event is used only with optimized
+	 * probes, see {@link MethodProbesAdapter#setOptimized(boolean)}.
+	 *
+	 * @param opcode
+	 *            the opcode of the instruction, always GOTO
+	 * @param label
+	 *            the operand of the instruction to be visited
+	 * @param entry
+	 *            label from which the instruction is reached
+	 * @see MethodVisitor#visitJumpInsn(int, Label)
+	 */
+	@SuppressWarnings("unused")
+	public void visitJumpInsnWithDerivedProbe(final int opcode,
+			final Label label, final Label entry) {
+	}
+
+	/**
+	 * Visits a zero operand instruction which terminates the method and would
+	 * require a probe, but its execution status can be derived from the
+	 * probes of all control flow paths to the given entry label. This event is
+	 * used only with optimized probes, see
+	 * {@link MethodProbesAdapter#setOptimized(boolean)}.
+	 *
+	 * @param opcode
+	 *            the opcode of the instruction to be visited. This opcode is
+	 *            either IRETURN, LRETURN, FRETURN, DRETURN, ARETURN, RETURN or
+	 *            ATHROW.
+	 * @param entry
+	 *            label from which the instruction is reached
+	 * @see MethodVisitor#visitInsn(int)
+	 */
+	@SuppressWarnings("unused")
+	public void visitInsnWithDerivedProbe(final int opcode,
+			final Label entry) {
+	}
+
 	/**
 	 * Visits a TABLESWITCH instruction with optional probes for each target
 	 * label. Implementations can be optimized based on the fact that the same
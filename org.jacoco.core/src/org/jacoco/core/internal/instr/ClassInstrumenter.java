@@ -16,17 +16,39 @@ import org.jacoco.core.internal.flow.ClassProbesVisitor;
 import org.jacoco.core.internal.flow.MethodProbesVisitor;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
 /**
  * Adapter that instruments a class for coverage tracing.
  */
 public class ClassInstrumenter extends ClassProbesVisitor {
 
+	/**
+	 * Frame locals of the hit method: the probe array and the probe id.
+	 */
+	private static final Object[] FRAME_LOCALS_HIT = new Object[] {
+			InstrSupport.DATAFIELD_DESC, Opcodes.INTEGER };
+
+	/**
+	 * Empty frame stack.
+	 */
+	private static final Object[] FRAME_STACK_EMPTY = new Object[0];
+
 	private final IProbeArrayStrategy probeArrayStrategy;
 
+	private final boolean conditionalProbes;
+
 	private String className;
 
+	private boolean isInterface;
+
+	private boolean withFrames;
+
+	/** <code>true</code> if probes are set with a call to the hit method. */
+	private boolean hitMethod;
+
 	/**
 	 * Emits a instrumented version of this class to the given class visitor.
 	 *
@@ -38,8 +60,30 @@ public class ClassInstrumenter extends ClassProbesVisitor {
 	 */
 	public ClassInstrumenter(final IProbeArrayStrategy probeArrayStrategy,
 			final ClassVisitor cv) {
+		this(probeArrayStrategy, cv, false);
+	}
+
+	/**
+	 * Emits a instrumented version of this class to the given class visitor.
+	 * With conditional probes the probe array is only written if a probe is
+	 * not set already. For this a static hit method is added to the class.
+	 * Interfaces before Java 8 can not declare such a method, their probes
+	 * are always set unconditionally.
+	 *
+	 * @param probeArrayStrategy
+	 *            this strategy will be used to access the probe array
+	 * @param cv
+	 *            next delegate in the visitor chain will receive the
+	 *            instrumented class
+	 * @param conditionalProbes
+	 *            <code>true</code> if probes should only be set when they are
+	 *            not set already
+	 */
+	public ClassInstrumenter(final IProbeArrayStrategy probeArrayStrategy,
+			final ClassVisitor cv, final boolean conditionalProbes) {
 		super(cv);
 		this.probeArrayStrategy = probeArrayStrategy;
+		this.conditionalProbes = conditionalProbes;
 	}
 
 	@Override
@@ -47,6 +91,10 @@ public class ClassInstrumenter extends ClassProbesVisitor {
 			final String signature, final String superName,
 			final String[] interfaces) {
 		this.className = name;
+		this.isInterface = (access & Opcodes.ACC_INTERFACE) != 0;
+		this.withFrames = InstrSupport.needsFrames(version);
+		this.hitMethod = conditionalProbes
+				&& (!isInterface || (version & 0xFFFF) >= Opcodes.V1_8);
 		super.visit(version, access, name, signature, superName, interfaces);
 	}
 
@@ -72,7 +120,8 @@ public class ClassInstrumenter extends ClassProbesVisitor {
 		}
 		final MethodVisitor frameEliminator = new DuplicateFrameEliminator(mv);
 		final ProbeInserter probeVariableInserter = new ProbeInserter(access,
-				name, desc, frameEliminator, probeArrayStrategy);
+				name, desc, frameEliminator, probeArrayStrategy,
+				hitMethod ? className : null, isInterface);
 		return new MethodInstrumenter(probeVariableInserter,
 				probeVariableInserter);
 	}
@@ -80,6 +129,38 @@ public class ClassInstrumenter extends ClassProbesVisitor {
 	@Override
 	public void visitTotalProbeCount(final int count) {
 		probeArrayStrategy.addMembers(cv, count);
+		if (hitMethod && count > 0) {
+			createHitMethod();
+		}
+	}
+
+	private void createHitMethod() {
+		final MethodVisitor mv = cv.visitMethod(InstrSupport.HITMETHOD_ACC,
+				InstrSupport.HITMETHOD_NAME, InstrSupport.HITMETHOD_DESC, null,
+				null);
+		mv.visitCode();
+
+		// Skip the store if the probe is already set:
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ILOAD, 1);
+		mv.visitInsn(Opcodes.BALOAD);
+		final Label alreadySet = new Label();
+		mv.visitJumpInsn(Opcodes.IFNE, alreadySet);
+
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ILOAD, 1);
+		mv.visitInsn(Opcodes.ICONST_1);
+		mv.visitInsn(Opcodes.BASTORE);
+
+		mv.visitLabel(alreadySet);
+		if (withFrames) {
+			mv.visitFrame(Opcodes.F_NEW, 2, FRAME_LOCALS_HIT, 0,
+					FRAME_STACK_EMPTY);
+		}
+		mv.visitInsn(Opcodes.RETURN);
+
+		mv.visitMaxs(3, 2);
+		mv.visitEnd();
 	}
 
 }
@@ -98,6 +98,24 @@ public final class InstrSupport {
 	public static final int INITMETHOD_ACC = Opcodes.ACC_SYNTHETIC
 			| Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC;
 
+	// === Hit Method ===
+
+	/**
+	 * Name of the method which sets a probe only if it is not set already.
+	 */
+	public static final String HITMETHOD_NAME = "$jacocoHit";
+
+	/**
+	 * Descriptor of the hit method.
+	 */
+	public static final String HITMETHOD_DESC = "([ZI)V";
+
+	/**
+	 * Access modifiers of the hit method.
+	 */
+	public static final int HITMETHOD_ACC = Opcodes.ACC_SYNTHETIC
+			| Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC;
+
 	/**
 	 * Name of the interface initialization method.
 	 *
@@ -234,7 +252,8 @@ public final class InstrSupport {
 	 */
 	public static void assertNotInstrumented(final String member,
 			final String owner) throws IllegalStateException {
-		if (member.equals(DATAFIELD_NAME) || member.equals(INITMETHOD_NAME)) {
+		if (member.equals(DATAFIELD_NAME) || member.equals(INITMETHOD_NAME)
+				|| member.equals(HITMETHOD_NAME)) {
 			throw new IllegalStateException(format(
 					"Cannot process instrumented class %s. Please supply original non-instrumented classes.",
 					owner));
@@ -21,7 +21,9 @@ import org.objectweb.asm.Opcodes;
 /**
  * This strategy for Java 8 interfaces adds a static method requesting the probe
  * array from the runtime, a static field to hold the probe array and adds code
- * for its initialization into interface initialization method.
+ * for its initialization into interface initialization method. The static
+ * initializer obtains the probe array from the added method, therefore the
+ * number of probes is not required before all methods have been instrumented.
  */
 class InterfaceFieldProbeArrayStrategy implements IProbeArrayStrategy {
 
@@ -38,25 +40,23 @@ class InterfaceFieldProbeArrayStrategy implements IProbeArrayStrategy {
 
 	private final String className;
 	private final long classId;
-	private final int probeCount;
 	private final IExecutionDataAccessorGenerator accessorGenerator;
 
 	private boolean seenClinit = false;
 
 	InterfaceFieldProbeArrayStrategy(final String className, final long classId,
-			final int probeCount,
 			final IExecutionDataAccessorGenerator accessorGenerator) {
 		this.className = className;
 		this.classId = classId;
-		this.probeCount = probeCount;
 		this.accessorGenerator = accessorGenerator;
 	}
 
 	public int storeInstance(final MethodVisitor mv, final boolean clinit,
 			final int variable) {
 		if (clinit) {
-			final int maxStack = accessorGenerator.generateDataAccessor(classId,
-					className, probeCount, mv);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, className,
+					InstrSupport.INITMETHOD_NAME, InstrSupport.INITMETHOD_DESC,
+					true);
 
 			// Stack[0]: [Z
 
@@ -73,7 +73,7 @@ class InterfaceFieldProbeArrayStrategy implements IProbeArrayStrategy {
 			mv.visitVarInsn(Opcodes.ASTORE, variable);
 
 			seenClinit = true;
-			return Math.max(maxStack, 2);
+			return 2;
 		} else {
 			mv.visitMethodInsn(Opcodes.INVOKESTATIC, className,
 					InstrSupport.INITMETHOD_NAME, InstrSupport.INITMETHOD_DESC,
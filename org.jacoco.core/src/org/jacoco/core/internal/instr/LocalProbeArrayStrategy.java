@@ -22,6 +22,9 @@ import org.objectweb.asm.Opcodes;
  * methods as this is the only method without keeping reference within this
  * class. This is very inefficient as the runtime is contacted for every method
  * invocation and therefore only used for static initializers in interfaces.
+ * Before Java 8 the static initializer is the only interface method with code,
+ * hence the runtime is contacted exactly once per class initialization and
+ * caching the probe array in a separate holder class would not save anything.
  */
 class LocalProbeArrayStrategy implements IProbeArrayStrategy {
 
@@ -54,6 +54,18 @@ class MethodInstrumenter extends MethodProbesVisitor {
 		mv.visitInsn(opcode);
 	}
 
+	@Override
+	public void visitInsnWithDerivedProbe(final int opcode,
+			final Label entry) {
+		mv.visitInsn(opcode);
+	}
+
+	@Override
+	public void visitJumpInsnWithDerivedProbe(final int opcode,
+			final Label label, final Label entry) {
+		mv.visitJumpInsn(opcode, label);
+	}
+
 	@Override
 	public void visitJumpInsnWithProbe(final int opcode, final Label label,
 			final int probeId, final IFrame frame) {
@@ -42,13 +42,39 @@ public final class ProbeArrayStrategyFactory {
 	public static IProbeArrayStrategy createFor(final long classId,
 			final ClassReader reader,
 			final IExecutionDataAccessorGenerator accessorGenerator) {
+		return createFor(classId, reader, accessorGenerator, false);
+	}
+
+	/**
+	 * Creates a suitable strategy instance for the class described by the given
+	 * reader. Created instance must be used only to process a class or
+	 * interface for which it has been created and must be used only once.
+	 *
+	 * @param classId
+	 *            class identifier
+	 * @param reader
+	 *            reader to get information about the class
+	 * @param accessorGenerator
+	 *            accessor to the coverage runtime
+	 * @param optimizedProbes
+	 *            <code>true</code> if the class is instrumented with optimized
+	 *            probes
+	 * @return strategy instance
+	 */
+	public static IProbeArrayStrategy createFor(final long classId,
+			final ClassReader reader,
+			final IExecutionDataAccessorGenerator accessorGenerator,
+			final boolean optimizedProbes) {
 
 		final String className = reader.getClassName();
 		final int version = InstrSupport.getMajorVersion(reader);
 
 		if (isInterfaceOrModule(reader)) {
-			final ProbeCounter counter = getProbeCounter(reader);
-			if (counter.getCount() == 0) {
+			final ProbeCounter counter = new ProbeCounter();
+			// The declared methods are sufficient to select most strategies:
+			reader.accept(counter, ClassReader.SKIP_CODE
+					| ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+			if (!counter.hasCode()) {
 				return new NoneProbeArrayStrategy();
 			}
 			if (version >= Opcodes.V11 && counter.hasMethods()) {
@@ -57,11 +83,16 @@ public final class ProbeArrayStrategyFactory {
 			}
 			if (version >= Opcodes.V1_8 && counter.hasMethods()) {
 				return new InterfaceFieldProbeArrayStrategy(className, classId,
-						counter.getCount(), accessorGenerator);
-			} else {
-				return new LocalProbeArrayStrategy(className, classId,
-						counter.getCount(), accessorGenerator);
+						accessorGenerator);
+			}
+			// The probe array is created locally, so the number of probes is
+			// required before the class is instrumented:
+			countProbes(reader, counter, optimizedProbes);
+			if (counter.getCount() == 0) {
+				return new NoneProbeArrayStrategy();
 			}
+			return new LocalProbeArrayStrategy(className, classId,
+					counter.getCount(), accessorGenerator);
 		} else {
 			if (version >= Opcodes.V11) {
 				return new CondyProbeArrayStrategy(className, false, classId,
@@ -77,10 +108,10 @@ public final class ProbeArrayStrategyFactory {
 				& (Opcodes.ACC_INTERFACE | Opcodes.ACC_MODULE)) != 0;
 	}
 
-	private static ProbeCounter getProbeCounter(final ClassReader reader) {
-		final ProbeCounter counter = new ProbeCounter();
-		reader.accept(new ClassProbesAdapter(counter, false), 0);
-		return counter;
+	private static void countProbes(final ClassReader reader,
+			final ProbeCounter counter, final boolean optimizedProbes) {
+		reader.accept(new ClassProbesAdapter(counter, false, optimizedProbes),
+				0);
 	}
 
 }
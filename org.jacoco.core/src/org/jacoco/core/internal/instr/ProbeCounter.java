@@ -18,21 +18,29 @@ import org.objectweb.asm.Opcodes;
 
 /**
  * Internal class to remember the total number of probes required for a class.
+ * Information about the declared methods is also collected if this visitor is
+ * directly applied to a class without counting probes, e.g. with
+ * {@link org.objectweb.asm.ClassReader#SKIP_CODE}.
  */
 class ProbeCounter extends ClassProbesVisitor {
 
 	private int count;
 	private boolean methods;
+	private boolean code;
 
 	ProbeCounter() {
 		count = 0;
 		methods = false;
+		code = false;
 	}
 
 	@Override
 	public MethodProbesVisitor visitMethod(final int access, final String name,
 			final String desc, final String signature,
 			final String[] exceptions) {
+		if ((access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) == 0) {
+			code = true;
+		}
 		if (!InstrSupport.CLINIT_NAME.equals(name)
 				&& (access & Opcodes.ACC_ABSTRACT) == 0) {
 			methods = true;
@@ -57,4 +65,12 @@ class ProbeCounter extends ClassProbesVisitor {
 		return methods;
 	}
 
+	/**
+	 * @return <code>true</code> if the class has methods with code including
+	 *         a static initializer
+	 */
+	boolean hasCode() {
+		return code;
+	}
+
 }
@@ -47,6 +47,15 @@ class ProbeInserter extends MethodVisitor implements IProbeInserter {
 	/** Label for the new beginning of the method */
 	private final Label beginLabel;
 
+	/**
+	 * Owner of the hit method or <code>null</code> if probes are set
+	 * unconditionally.
+	 */
+	private final String hitMethodOwner;
+
+	/** <code>true</code> if the owner of the hit method is an interface. */
+	private final boolean hitMethodInterface;
+
 	/** Maximum stack usage of the code to access the probe array. */
 	private int accessorStackSize;
 
@@ -67,7 +76,38 @@ class ProbeInserter extends MethodVisitor implements IProbeInserter {
 	 */
 	ProbeInserter(final int access, final String name, final String desc,
 			final MethodVisitor mv, final IProbeArrayStrategy arrayStrategy) {
+		this(access, name, desc, mv, arrayStrategy, null, false);
+	}
+
+	/**
+	 * Creates a new {@link ProbeInserter} which sets probes with a call to the
+	 * hit method {@link InstrSupport#HITMETHOD_NAME} of the given owner. The
+	 * hit method only writes to the probe array if the probe is not set
+	 * already.
+	 *
+	 * @param access
+	 *            access flags of the adapted method
+	 * @param name
+	 *            the method's name
+	 * @param desc
+	 *            the method's descriptor
+	 * @param mv
+	 *            the method visitor to which this adapter delegates calls
+	 * @param arrayStrategy
+	 *            callback to create the code that retrieves the reference to
+	 *            the probe array
+	 * @param hitMethodOwner
+	 *            class declaring the hit method or <code>null</code> if
+	 *            probes should be set unconditionally
+	 * @param hitMethodInterface
+	 *            <code>true</code> if the owner is an interface
+	 */
+	ProbeInserter(final int access, final String name, final String desc,
+			final MethodVisitor mv, final IProbeArrayStrategy arrayStrategy,
+			final String hitMethodOwner, final boolean hitMethodInterface) {
 		super(InstrSupport.ASM_API_VERSION, mv);
+		this.hitMethodOwner = hitMethodOwner;
+		this.hitMethodInterface = hitMethodInterface;
 		this.clinit = InstrSupport.CLINIT_NAME.equals(name);
 		this.arrayStrategy = arrayStrategy;
 		int pos = (Opcodes.ACC_STATIC & access) == 0 ? 1 : 0;
@@ -92,6 +132,15 @@ class ProbeInserter extends MethodVisitor implements IProbeInserter {
 		// Stack[1]: I
 		// Stack[0]: [Z
 
+		if (hitMethodOwner != null) {
+			// The store is skipped for probes which are already set to avoid
+			// contention on the probe array for frequently executed code:
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, hitMethodOwner,
+					InstrSupport.HITMETHOD_NAME, InstrSupport.HITMETHOD_DESC,
+					hitMethodInterface);
+			return;
+		}
+
 		mv.visitInsn(Opcodes.ICONST_1);
 
 		// Stack[2]: I
@@ -189,10 +189,18 @@ public final class AgentOptions {
 	 */
 	public static final String JMX = "jmx";
 
+	/**
+	 * Specifies whether probes should only be written if they are not set
+	 * already. This avoids contention on the probe arrays when the same code
+	 * is executed concurrently on multiple processors. Default is
+	 * <code>false</code>.
+	 */
+	public static final String CONDITIONALPROBES = "conditionalprobes";
+
 	private static final Collection<String> VALID_OPTIONS = Arrays.asList(
 			DESTFILE, APPEND, INCLUDES, EXCLUDES, EXCLCLASSLOADER,
 			INCLBOOTSTRAPCLASSES, INCLNOLOCATIONCLASSES, SESSIONID, DUMPONEXIT,
-			OUTPUT, ADDRESS, PORT, CLASSDUMPDIR, JMX);
+			OUTPUT, ADDRESS, PORT, CLASSDUMPDIR, JMX, CONDITIONALPROBES);
 
 	private final Map<String, String> options;
 
@@ -557,6 +565,25 @@ public final class AgentOptions {
 		setOption(JMX, jmx);
 	}
 
+	/**
+	 * Returns whether probes are only written if they are not set already.
+	 *
+	 * @return <code>true</code>, when probes are written conditionally
+	 */
+	public boolean getConditionalProbes() {
+		return getOption(CONDITIONALPROBES, false);
+	}
+
+	/**
+	 * Sets whether probes should only be written if they are not set already.
+	 *
+	 * @param conditional
+	 *            <code>true</code> if probes should be written conditionally
+	 */
+	public void setConditionalProbes(final boolean conditional) {
+		setOption(CONDITIONALPROBES, conditional);
+	}
+
 	private void setOption(final String key, final int value) {
 		setOption(key, Integer.toString(value));
 	}
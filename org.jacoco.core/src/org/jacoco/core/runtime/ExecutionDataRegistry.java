@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.runtime;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+/**
+ * Lock-free registry of {@link ExecutionData} instances with a fixed number of
+ * slots. Entries are looked up and created without synchronization and without
+ * boxing of the class id. New entries are queued and must be transferred to an
+ * {@link ExecutionDataStore} with {@link #drainTo(ExecutionDataStore)} before
+ * the store is accessed.
+ * <p>
+ * To keep probe sequences short at most half of the slots are filled with
+ * entries. Once this limit is reached free slots visited by a lookup are
+ * closed with a marker, so later lookups for the same class stop there and
+ * consistently report the class as not registered.
+ */
+final class ExecutionDataRegistry {
+
+	/** Marker for slots which must not be used for new entries */
+	private static final ExecutionData CLOSED = new ExecutionData(0, "", 0);
+
+	private final AtomicReferenceArray<ExecutionData> slots;
+
+	private final int mask;
+
+	private final int limit;
+
+	private final AtomicInteger size;
+
+	private final ConcurrentLinkedQueue<ExecutionData> created;
+
+	/**
+	 * Creates a new registry.
+	 *
+	 * @param capacity
+	 *            number of slots, must be a power of two
+	 */
+	ExecutionDataRegistry(final int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be a power of two.");
+		}
+		slots = new AtomicReferenceArray<ExecutionData>(capacity);
+		mask = capacity - 1;
+		limit = capacity / 2;
+		size = new AtomicInteger();
+		created = new ConcurrentLinkedQueue<ExecutionData>();
+	}
+
+	/**
+	 * Returns the entry for the given class. If there is no entry a new one is
+	 * created unless half of the slots are used.
+	 *
+	 * @param id
+	 *            class identifier
+	 * @param name
+	 *            VM name of the class
+	 * @param probecount
+	 *            probe data length
+	 * @return execution data or <code>null</code> if the registry is full
+	 */
+	ExecutionData get(final long id, final String name, final int probecount) {
+		final int hash = (int) (id ^ (id >>> 32));
+		int index = (hash ^ (hash >>> 16)) & mask;
+		ExecutionData newEntry = null;
+		for (int i = 0; i <= mask; i++) {
+			final ExecutionData entry = slots.get(index);
+			if (entry == CLOSED) {
+				return null;
+			}
+			if (entry == null) {
+				if (size.get() >= limit) {
+					if (slots.compareAndSet(index, null, CLOSED)) {
+						return null;
+					}
+				} else {
+					if (newEntry == null) {
+						newEntry = new ExecutionData(id, name, probecount);
+					}
+					if (slots.compareAndSet(index, null, newEntry)) {
+						size.incrementAndGet();
+						created.add(newEntry);
+						return newEntry;
+					}
+				}
+				// Slot has been taken concurrently, check it again:
+				i--;
+				continue;
+			}
+			if (entry.getId() == id) {
+				entry.assertCompatibility(id, name, probecount);
+				return entry;
+			}
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Transfers all entries created since the last call to the given store.
+	 * Must be called with exclusive access to the store.
+	 *
+	 * @param store
+	 *            store to add new entries to
+	 */
+	void drainTo(final ExecutionDataStore store) {
+		ExecutionData entry;
+		while ((entry = created.poll()) != null) {
+			store.put(entry);
+		}
+	}
+
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.jacoco.core.runtime;
 
+import org.jacoco.core.internal.instr.InstrSupport;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -21,12 +22,21 @@ import org.objectweb.asm.Opcodes;
  * {@code java.lang.invoke.MethodHandles.Lookup.defineClass} introduced in Java
  * 9. Module where class will be defined must be opened to at least module of
  * this class.
+ *
+ * The defined class holds a {@code java.lang.invoke.MethodHandle} bound to
+ * {@link RuntimeData#getProbes(long, String, int)}. Instrumented classes invoke
+ * it with {@code invokeExact()} so that the probe array is obtained without
+ * allocating an argument array or boxing the parameters.
  */
 public class InjectedClassRuntime extends AbstractRuntime {
 
-	private static final String FIELD_NAME = "data";
+	private static final String FIELD_NAME = "probes";
+
+	private static final String FIELD_TYPE = "Ljava/lang/invoke/MethodHandle;";
 
-	private static final String FIELD_TYPE = "Ljava/lang/Object;";
+	private static final String HANDLE_TYPE = "java/lang/invoke/MethodHandle";
+
+	private static final String INVOKE_DESC = "(JLjava/lang/String;I)[Z";
 
 	private final Class<?> locator;
 
@@ -51,11 +61,12 @@ public class InjectedClassRuntime extends AbstractRuntime {
 	@Override
 	public void startup(final RuntimeData data) throws Exception {
 		super.startup(data);
-		Lookup //
-				.privateLookupIn(locator, Lookup.lookup()) //
-				.defineClass(createClass(injectedClassName)) //
-				.getField(FIELD_NAME) //
-				.set(null, data);
+		final Lookup lookup = Lookup.lookup();
+		final Class<?> injectedClass = Lookup //
+				.privateLookupIn(locator, lookup) //
+				.defineClass(createClass(injectedClassName));
+		injectedClass.getField(FIELD_NAME).set(null,
+				lookup.findGetProbes(data));
 	}
 
 	public void shutdown() {
@@ -67,9 +78,23 @@ public class InjectedClassRuntime extends AbstractRuntime {
 		mv.visitFieldInsn(Opcodes.GETSTATIC, injectedClassName, FIELD_NAME,
 				FIELD_TYPE);
 
-		RuntimeData.generateAccessCall(classid, classname, probecount, mv);
+		// stack[0]: Ljava/lang/invoke/MethodHandle;
+
+		mv.visitLdcInsn(Long.valueOf(classid));
+		mv.visitLdcInsn(classname);
+		InstrSupport.push(mv, probecount);
+
+		// stack[3]: I
+		// stack[2]: Ljava/lang/String;
+		// stack[1]: J
+		// stack[0]: Ljava/lang/invoke/MethodHandle;
+
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, HANDLE_TYPE, "invokeExact",
+				INVOKE_DESC, false);
+
+		// stack[0]: [Z
 
-		return 6;
+		return 5;
 	}
 
 	private static byte[] createClass(final String name) {
@@ -123,6 +148,34 @@ public class InjectedClassRuntime extends AbstractRuntime {
 					.invoke(null, targetClass, lookup.instance));
 		}
 
+		/**
+		 * Creates a method handle for
+		 * {@link RuntimeData#getProbes(long, String, int)} bound to the
+		 * given instance.
+		 *
+		 * @param data
+		 *            runtime data to bind
+		 * @return bound method handle
+		 */
+		Object findGetProbes(final RuntimeData data) throws Exception {
+			final Class<?> methodHandle = Class
+					.forName("java.lang.invoke.MethodHandle");
+			final Class<?> methodType = Class
+					.forName("java.lang.invoke.MethodType");
+			final Object type = methodType
+					.getMethod("methodType", Class.class, Class[].class)
+					.invoke(null, boolean[].class, new Class<?>[] {
+							Long.TYPE, String.class, Integer.TYPE });
+			final Object handle = Class
+					.forName("java.lang.invoke.MethodHandles$Lookup")
+					.getMethod("findVirtual", Class.class, String.class,
+							methodType)
+					.invoke(this.instance, RuntimeData.class, "getProbes",
+							type);
+			return methodHandle.getMethod("bindTo", Object.class)
+					.invoke(handle, data);
+		}
+
 		/**
 		 * See corresponding method introduced in Java 9.
 		 *
@@ -27,9 +27,24 @@ import org.objectweb.asm.Opcodes;
  */
 public class RuntimeData {
 
-	/** store for execution data */
+	/**
+	 * Number of classes whose execution data can be obtained without
+	 * synchronization.
+	 */
+	private static final int REGISTRY_CAPACITY = 0x8000;
+
+	/**
+	 * store for execution data, entries which have been created without
+	 * synchronization are only added when data is collected or reset
+	 */
 	protected final ExecutionDataStore store;
 
+	/**
+	 * created with the first execution data entry, so instances which never
+	 * record data do not allocate the slots
+	 */
+	private volatile ExecutionDataRegistry registry;
+
 	private long startTimeStamp;
 
 	private String sessionId;
@@ -82,6 +97,7 @@ public class RuntimeData {
 	public final void collect(final IExecutionDataVisitor executionDataVisitor,
 			final ISessionInfoVisitor sessionInfoVisitor, final boolean reset) {
 		synchronized (store) {
+			drainRegistry();
 			final SessionInfo info = new SessionInfo(sessionId, startTimeStamp,
 					System.currentTimeMillis());
 			sessionInfoVisitor.visitSessionInfo(info);
@@ -97,6 +113,7 @@ public class RuntimeData {
 	 */
 	public final void reset() {
 		synchronized (store) {
+			drainRegistry();
 			store.reset();
 			startTimeStamp = System.currentTimeMillis();
 		}
@@ -105,7 +122,6 @@ public class RuntimeData {
 	/**
 	 * Returns the coverage data for the class with the given identifier. If
 	 * there is no data available under the given id a new entry is created.
-	 * This is a synchronized access to the underlying store.
 	 *
 	 * @param id
 	 *            class identifier
@@ -117,11 +133,68 @@ public class RuntimeData {
 	 */
 	public ExecutionData getExecutionData(final Long id, final String name,
 			final int probecount) {
+		return getExecutionData(id.longValue(), name, probecount);
+	}
+
+	/**
+	 * Returns the coverage data for the class with the given identifier. If
+	 * there is no data available under the given id a new entry is created.
+	 * Entries are created without synchronization unless the number of
+	 * classes exceeds an internal limit.
+	 *
+	 * @param id
+	 *            class identifier
+	 * @param name
+	 *            VM name of the class
+	 * @param probecount
+	 *            probe data length
+	 * @return execution data
+	 */
+	public ExecutionData getExecutionData(final long id, final String name,
+			final int probecount) {
+		ExecutionDataRegistry r = registry;
+		if (r == null) {
+			synchronized (store) {
+				r = registry;
+				if (r == null) {
+					r = new ExecutionDataRegistry(REGISTRY_CAPACITY);
+					registry = r;
+				}
+			}
+		}
+		final ExecutionData data = r.get(id, name, probecount);
+		if (data != null) {
+			return data;
+		}
 		synchronized (store) {
-			return store.get(id, name, probecount);
+			return store.get(Long.valueOf(id), name, probecount);
 		}
 	}
 
+	private void drainRegistry() {
+		final ExecutionDataRegistry r = registry;
+		if (r != null) {
+			r.drainTo(store);
+		}
+	}
+
+	/**
+	 * Retrieves the execution probe array for a given class. In contrast to
+	 * {@link #getProbes(Object[])} no parameters need to be boxed.
+	 *
+	 * @param classid
+	 *            class identifier
+	 * @param name
+	 *            VM name of the class
+	 * @param probecount
+	 *            probe data length
+	 * @return probe array of the class
+	 */
+	public boolean[] getProbes(final long classid, final String name,
+			final int probecount) {
+		return getExecutionData(classid, name, probecount).getProbes();
+	}
+
 	/**
 	 * Retrieves the execution probe array for a given class. The passed
 	 * {@link Object} array instance is used for parameters and the return value
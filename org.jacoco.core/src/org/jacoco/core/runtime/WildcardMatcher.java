@@ -12,17 +12,33 @@
  *******************************************************************************/
 package org.jacoco.core.runtime;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Matches strings against glob like wildcard expressions where <code>?</code>
  * matches any single character and <code>*</code> matches any number of any
  * character. Multiple expressions can be separated with a colon (:). In this
  * case the expression matches if at least one part matches.
+ * <p>
+ * Expressions are not translated to regular expressions. Instead plain
+ * strings are looked up in a hash set, expressions of the form
+ * <code>prefix*</code> are collected in a prefix tree and all other
+ * expressions are matched segment by segment without backtracking. The
+ * matching time therefore only grows moderately with the number of
+ * expressions.
  */
 public class WildcardMatcher {
 
-	private final Pattern pattern;
+	private final boolean matchAll;
+
+	private final Set<String> literals;
+
+	private final PrefixNode prefixes;
+
+	private final Glob[] globs;
 
 	/**
 	 * Creates a new matcher with the given expression.
@@ -31,35 +47,27 @@ public class WildcardMatcher {
 	 *            wildcard expressions
 	 */
 	public WildcardMatcher(final String expression) {
-		final String[] parts = expression.split("\\:");
-		final StringBuilder regex = new StringBuilder(expression.length() * 2);
-		boolean next = false;
-		for (final String part : parts) {
-			if (next) {
-				regex.append('|');
-			}
-			regex.append('(').append(toRegex(part)).append(')');
-			next = true;
-		}
-		pattern = Pattern.compile(regex.toString());
-	}
-
-	private static CharSequence toRegex(final String expression) {
-		final StringBuilder regex = new StringBuilder(expression.length() * 2);
-		for (final char c : expression.toCharArray()) {
-			switch (c) {
-			case '?':
-				regex.append(".");
-				break;
-			case '*':
-				regex.append(".*");
-				break;
-			default:
-				regex.append(Pattern.quote(String.valueOf(c)));
-				break;
+		boolean all = false;
+		literals = new HashSet<String>();
+		prefixes = new PrefixNode();
+		final List<Glob> globList = new ArrayList<Glob>();
+		for (final String part : expression.split("\\:")) {
+			final int star = part.indexOf('*');
+			if (star == -1 && part.indexOf('?') == -1) {
+				literals.add(part);
+			} else if (star == part.length() - 1
+					&& part.indexOf('?') == -1) {
+				if (star == 0) {
+					all = true;
+				} else {
+					prefixes.add(part, star);
+				}
+			} else {
+				globList.add(new Glob(part));
 			}
 		}
-		return regex;
+		matchAll = all;
+		globs = globList.toArray(new Glob[globList.size()]);
 	}
 
 	/**
@@ -70,7 +78,160 @@ public class WildcardMatcher {
 	 * @return <code>true</code>, if the expression matches
 	 */
 	public boolean matches(final String s) {
-		return pattern.matcher(s).matches();
+		if (matchAll || literals.contains(s) || prefixes.matchesPrefixOf(s)) {
+			return true;
+		}
+		for (final Glob glob : globs) {
+			if (glob.matches(s)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Node of a prefix tree. A node is terminal if the path to this node is a
+	 * complete prefix expression.
+	 */
+	private static class PrefixNode {
+
+		private char[] keys = new char[0];
+
+		private PrefixNode[] children = new PrefixNode[0];
+
+		private boolean terminal;
+
+		void add(final String prefix, final int length) {
+			PrefixNode node = this;
+			for (int i = 0; i < length; i++) {
+				node = node.getOrCreateChild(prefix.charAt(i));
+			}
+			node.terminal = true;
+		}
+
+		boolean matchesPrefixOf(final String s) {
+			PrefixNode node = this;
+			final int length = s.length();
+			for (int i = 0; i < length; i++) {
+				node = node.getChild(s.charAt(i));
+				if (node == null) {
+					return false;
+				}
+				if (node.terminal) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private PrefixNode getChild(final char c) {
+			final char[] k = keys;
+			for (int i = 0; i < k.length; i++) {
+				if (k[i] == c) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private PrefixNode getOrCreateChild(final char c) {
+			PrefixNode child = getChild(c);
+			if (child == null) {
+				final int size = keys.length;
+				final char[] newKeys = new char[size + 1];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				newKeys[size] = c;
+				final PrefixNode[] newChildren = new PrefixNode[size + 1];
+				System.arraycopy(children, 0, newChildren, 0, size);
+				child = new PrefixNode();
+				newChildren[size] = child;
+				keys = newKeys;
+				children = newChildren;
+			}
+			return child;
+		}
+
+	}
+
+	/**
+	 * A single expression split into the segments between <code>*</code>
+	 * characters. The first segment is anchored at the start, the last
+	 * segment at the end of the string. All segments in between are searched
+	 * left to right at their first occurrence, which is always sufficient for
+	 * glob expressions and avoids any backtracking.
+	 */
+	private static class Glob {
+
+		private final char[][] segments;
+
+		private final boolean anchoredEnd;
+
+		private final int minLength;
+
+		Glob(final String expression) {
+			final String[] parts = expression.split("\\*", -1);
+			segments = new char[parts.length][];
+			int min = 0;
+			for (int i = 0; i < parts.length; i++) {
+				segments[i] = parts[i].toCharArray();
+				min += segments[i].length;
+			}
+			anchoredEnd = parts.length == 1;
+			minLength = min;
+		}
+
+		boolean matches(final String s) {
+			final int length = s.length();
+			if (anchoredEnd) {
+				return length == minLength && matchesAt(segments[0], s, 0);
+			}
+			if (length < minLength) {
+				return false;
+			}
+			final char[] first = segments[0];
+			if (!matchesAt(first, s, 0)) {
+				return false;
+			}
+			final int lastIdx = segments.length - 1;
+			final char[] last = segments[lastIdx];
+			final int end = length - last.length;
+			if (!matchesAt(last, s, end)) {
+				return false;
+			}
+			int pos = first.length;
+			for (int i = 1; i < lastIdx; i++) {
+				final char[] segment = segments[i];
+				pos = indexOf(segment, s, pos, end);
+				if (pos == -1) {
+					return false;
+				}
+				pos += segment.length;
+			}
+			return true;
+		}
+
+		private static int indexOf(final char[] segment, final String s,
+				final int from, final int end) {
+			final int limit = end - segment.length;
+			for (int pos = from; pos <= limit; pos++) {
+				if (matchesAt(segment, s, pos)) {
+					return pos;
+				}
+			}
+			return -1;
+		}
+
+		private static boolean matchesAt(final char[] segment, final String s,
+				final int offset) {
+			for (int i = 0; i < segment.length; i++) {
+				final char c = segment[i];
+				if (c != '?' && c != s.charAt(offset + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 	}
 
 }
@@ -0,0 +1,379 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ConcurrentZipMultiReportOutput}.
+ */
+public class ConcurrentZipMultiReportOutputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ByteArrayOutputStream buffer;
+
+	private ConcurrentZipMultiReportOutput zipOutput;
+
+	@Before
+	public void setup() throws Exception {
+		buffer = new ByteArrayOutputStream();
+		zipOutput = new ConcurrentZipMultiReportOutput(buffer,
+				Deflater.DEFAULT_COMPRESSION, 2);
+	}
+
+	@Test
+	public void testWrite1() throws IOException {
+		final byte[] content1 = "HelloZip".getBytes();
+
+		OutputStream out = zipOutput.createFile("a.txt");
+		out.write(content1);
+		out.close();
+
+		zipOutput.close();
+
+		final Map<String, byte[]> entries = readEntries();
+		assertEquals(Collections.singleton("a.txt"), entries.keySet());
+		assertArrayEquals(content1, entries.get("a.txt"));
+	}
+
+	@Test
+	public void testWrite2() throws IOException {
+		final byte[] content1 = "HelloZip".getBytes("ISO-8859-1");
+
+		OutputStream out = zipOutput.createFile("b.txt");
+		out.write(content1, 5, 3);
+		out.close();
+
+		zipOutput.close();
+
+		final Map<String, byte[]> entries = readEntries();
+		assertEquals(Collections.singleton("b.txt"), entries.keySet());
+		assertArrayEquals("Zip".getBytes("ISO-8859-1"), entries.get("b.txt"));
+	}
+
+	@Test
+	public void testWrite3() throws IOException {
+
+		OutputStream out = zipOutput.createFile("b.txt");
+		out.write(40);
+		out.flush();
+		out.close();
+
+		zipOutput.close();
+
+		final Map<String, byte[]> entries = readEntries();
+		assertEquals(Collections.singleton("b.txt"), entries.keySet());
+		assertArrayEquals(new byte[] { 40 }, entries.get("b.txt"));
+	}
+
+	@Test
+	public void testCreateFiles() throws IOException {
+		final byte[] content1 = "HelloZip".getBytes();
+
+		OutputStream out = zipOutput.createFile("dir/index.html");
+		out.write(content1);
+		out.close();
+
+		final byte[] content2 = "HelloWorld".getBytes();
+
+		out = zipOutput.createFile("readme.txt");
+		out.write(content2);
+		out.close();
+
+		zipOutput.close();
+
+		final Map<String, byte[]> entries = readEntries();
+		assertEquals(
+				new HashSet<String>(
+						Arrays.asList("dir/index.html", "readme.txt")),
+				entries.keySet());
+		assertArrayEquals(content1, entries.get("dir/index.html"));
+		assertArrayEquals(content2, entries.get("readme.txt"));
+	}
+
+	@Test
+	public void testCreateFilesWithoutClose() throws IOException {
+		final byte[] content1 = "HelloZip".getBytes();
+
+		OutputStream out = zipOutput.createFile("dir/index.html");
+		out.write(content1);
+
+		final byte[] content2 = "HelloWorld".getBytes();
+
+		out = zipOutput.createFile("readme.txt");
+		out.write(content2);
+
+		zipOutput.close();
+
+		final Map<String, byte[]> entries = readEntries();
+		assertEquals(
+				new HashSet<String>(
+						Arrays.asList("dir/index.html", "readme.txt")),
+				entries.keySet());
+		assertArrayEquals(content1, entries.get("dir/index.html"));
+		assertArrayEquals(content2, entries.get("readme.txt"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteToClosedStream1() throws IOException {
+		OutputStream out = zipOutput.createFile("index.html");
+		out.close();
+		out.write("HelloZip".getBytes());
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteToClosedStream2() throws IOException {
+		OutputStream out = zipOutput.createFile("index.html");
+		out.close();
+		out.write("HelloZip".getBytes(), 2, 3);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteToClosedStream3() throws IOException {
+		OutputStream out = zipOutput.createFile("index.html");
+		out.close();
+		out.write(32);
+	}
+
+	@Test(expected = IOException.class)
+	public void testFlushToClosedStream3() throws IOException {
+		OutputStream out = zipOutput.createFile("index.html");
+		out.close();
+		out.flush();
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteToObsoleteStream() throws IOException {
+		final OutputStream out1 = zipOutput.createFile("a.txt");
+		zipOutput.createFile("b.txt");
+		out1.write(32);
+	}
+
+	@Test
+	public void should_keep_order_of_entries() throws IOException {
+		final File file = folder.newFile("report.zip");
+		final ConcurrentZipMultiReportOutput output = new ConcurrentZipMultiReportOutput(
+				new FileOutputStream(file), Deflater.BEST_SPEED, 4);
+		final List<String> expected = new ArrayList<String>();
+		for (int i = 0; i < 200; i++) {
+			final String name = "dir" + (i % 7) + "/file" + i + ".html";
+			expected.add(name);
+			final OutputStream out = output.createFile(name);
+			for (int j = 0; j < i * 10; j++) {
+				out.write(("line " + j + "\n").getBytes());
+			}
+			out.close();
+		}
+		output.close();
+
+		final ZipFile zip = new ZipFile(file);
+		final List<String> actual = new ArrayList<String>();
+		final Enumeration<? extends ZipEntry> e = zip.entries();
+		while (e.hasMoreElements()) {
+			final ZipEntry entry = e.nextElement();
+			assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+			actual.add(entry.getName());
+		}
+		zip.close();
+		assertEquals(expected, actual);
+		assertEquals(expected.size(), readEntries(file).size());
+	}
+
+	@Test
+	public void should_store_entries_without_compression()
+			throws IOException {
+		final File file = folder.newFile("report.zip");
+		final ConcurrentZipMultiReportOutput output = new ConcurrentZipMultiReportOutput(
+				new FileOutputStream(file),
+				ConcurrentZipMultiReportOutput.STORE, 1);
+		final byte[] content = "HelloZipHelloZipHelloZip".getBytes();
+		final OutputStream out = output.createFile("a.txt");
+		out.write(content);
+		out.close();
+		output.close();
+
+		final ZipFile zip = new ZipFile(file);
+		final ZipEntry entry = zip.getEntry("a.txt");
+		assertEquals(ZipEntry.STORED, entry.getMethod());
+		assertEquals(content.length, entry.getCompressedSize());
+		zip.close();
+		assertArrayEquals(content, readEntries(file).get("a.txt"));
+	}
+
+	@Test
+	public void should_encode_names_in_UTF8() throws IOException {
+		final OutputStream out = zipOutput.createFile("d\u00e9j\u00e0/vu.html");
+		out.write(1);
+		out.close();
+		zipOutput.close();
+
+		assertEquals(Collections.singleton("d\u00e9j\u00e0/vu.html"),
+				readEntries().keySet());
+	}
+
+	@Test
+	public void should_create_empty_archive() throws IOException {
+		zipOutput.close();
+
+		assertEquals(Collections.emptySet(), readEntries().keySet());
+	}
+
+	@Test
+	public void should_write_zip64_records_for_more_than_65535_entries()
+			throws IOException {
+		final File file = folder.newFile("report.zip");
+		final ConcurrentZipMultiReportOutput output = new ConcurrentZipMultiReportOutput(
+				new FileOutputStream(file),
+				ConcurrentZipMultiReportOutput.STORE, 2);
+		final int count = 0x10000 + 10;
+		for (int i = 0; i < count; i++) {
+			final OutputStream out = output.createFile("f" + i);
+			out.write(i);
+			out.close();
+		}
+		output.close();
+
+		final ZipFile zip = new ZipFile(file);
+		assertEquals(count, zip.size());
+		final ZipEntry entry = zip.getEntry("f" + (count - 1));
+		final InputStream in = zip.getInputStream(entry);
+		assertEquals((count - 1) & 0xFF, in.read());
+		in.close();
+		zip.close();
+		final ZipInputStream in2 = new ZipInputStream(
+				new FileInputStream(file));
+		int streamed = 0;
+		while (in2.getNextEntry() != null) {
+			streamed++;
+		}
+		in2.close();
+		assertEquals(count, streamed);
+	}
+
+	@Test
+	public void should_close_stream_when_writing_entry_fails()
+			throws IOException {
+		final boolean[] closed = new boolean[1];
+		final OutputStream failing = new OutputStream() {
+			@Override
+			public void write(final int b) throws IOException {
+				throw new IOException("failed");
+			}
+
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		final ConcurrentZipMultiReportOutput output = new ConcurrentZipMultiReportOutput(
+				failing, Deflater.DEFAULT_COMPRESSION, 1);
+		try {
+			final OutputStream out = output.createFile("a.txt");
+			out.write(1);
+			// Finished entries may already be appended here:
+			out.close();
+		} catch (final IOException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		try {
+			output.close();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		assertTrue(closed[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_invalid_level() {
+		new ConcurrentZipMultiReportOutput(buffer, 10, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void should_reject_invalid_number_of_threads() {
+		new ConcurrentZipMultiReportOutput(buffer,
+				Deflater.DEFAULT_COMPRESSION, 0);
+	}
+
+	private Map<String, byte[]> readEntries(final File file)
+			throws IOException {
+		final Map<String, byte[]> entries = new HashMap<String, byte[]>();
+		final ZipFile zip = new ZipFile(file);
+		final Enumeration<? extends ZipEntry> e = zip.entries();
+		while (e.hasMoreElements()) {
+			final ZipEntry entry = e.nextElement();
+			final InputStream in = zip.getInputStream(entry);
+			final ByteArrayOutputStream entryBuffer = new ByteArrayOutputStream();
+			int b;
+			while ((b = in.read()) != -1) {
+				entryBuffer.write(b);
+			}
+			in.close();
+			entries.put(entry.getName(), entryBuffer.toByteArray());
+		}
+		zip.close();
+		return entries;
+	}
+
+	private Map<String, byte[]> readEntries() throws IOException {
+		final Map<String, byte[]> entries = new HashMap<String, byte[]>();
+		final byte[] bytes = buffer.toByteArray();
+		final ZipInputStream input = new ZipInputStream(
+				new ByteArrayInputStream(bytes));
+		ZipEntry entry;
+		while ((entry = input.getNextEntry()) != null) {
+			final ByteArrayOutputStream entryBuffer = new ByteArrayOutputStream();
+			int b;
+			while ((b = input.read()) != -1) {
+				entryBuffer.write(b);
+			}
+			byte[] old = entries.put(entry.getName(),
+					entryBuffer.toByteArray());
+			assertNull("Duplicate entry " + entry.getName(), old);
+		}
+		return entries;
+	}
+
+}
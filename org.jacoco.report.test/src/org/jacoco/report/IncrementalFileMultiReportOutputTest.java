@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jacoco.report.html.HTMLFormatter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link IncrementalFileMultiReportOutput}.
+ */
+public class IncrementalFileMultiReportOutputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void should_create_files_and_manifest() throws IOException {
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				3);
+
+		assertEquals(1, output.getWrittenFileCount());
+		assertContent("a/b/test", 1, 2, 3);
+		assertTrue(new File(folder.getRoot(),
+				IncrementalFileMultiReportOutput.MANIFEST).isFile());
+	}
+
+	@Test
+	public void should_not_rewrite_unchanged_files() throws IOException {
+		run("a/b/test", 1, 2, 3);
+		final File file = new File(folder.getRoot(), "a/b/test");
+		file.setLastModified(0);
+
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				3);
+
+		assertEquals(0, output.getWrittenFileCount());
+		assertEquals(0, file.lastModified());
+	}
+
+	@Test
+	public void should_rewrite_changed_files() throws IOException {
+		run("a/b/test", 1, 2, 3);
+
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				4);
+
+		assertEquals(1, output.getWrittenFileCount());
+		assertContent("a/b/test", 1, 2, 4);
+	}
+
+	@Test
+	public void should_rewrite_files_which_have_been_deleted()
+			throws IOException {
+		run("a/b/test", 1, 2, 3);
+		new File(folder.getRoot(), "a/b/test").delete();
+
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				3);
+
+		assertEquals(1, output.getWrittenFileCount());
+		assertContent("a/b/test", 1, 2, 3);
+	}
+
+	@Test
+	public void should_rewrite_files_which_have_been_modified()
+			throws IOException {
+		run("a/b/test", 1, 2, 3);
+		final OutputStream out = new FileOutputStream(
+				new File(folder.getRoot(), "a/b/test"));
+		out.write(5);
+		out.close();
+
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				3);
+
+		assertEquals(1, output.getWrittenFileCount());
+		assertContent("a/b/test", 1, 2, 3);
+	}
+
+	@Test
+	public void should_rewrite_files_of_interrupted_run() throws IOException {
+		run("a/b/test", 1, 2, 3);
+		final IncrementalFileMultiReportOutput interrupted = new IncrementalFileMultiReportOutput(
+				folder.getRoot());
+		final OutputStream stream = interrupted.createFile("a/b/test");
+		stream.write(new byte[] { 1, 2, 4 });
+		stream.close();
+
+		final IncrementalFileMultiReportOutput output = run("a/b/test", 1, 2,
+				3);
+
+		assertEquals(1, output.getWrittenFileCount());
+		assertContent("a/b/test", 1, 2, 3);
+	}
+
+	@Test
+	public void should_delete_files_of_previous_run() throws IOException {
+		run("a/b/test", 1, 2, 3);
+
+		run("a/b/other", 1, 2, 3);
+
+		assertFalse(new File(folder.getRoot(), "a/b/test").exists());
+		assertContent("a/b/other", 1, 2, 3);
+	}
+
+	@Test
+	public void should_ignore_multiple_close_calls_on_file()
+			throws IOException {
+		final IncrementalFileMultiReportOutput output = new IncrementalFileMultiReportOutput(
+				folder.getRoot());
+		final OutputStream stream = output.createFile("test");
+		stream.write(1);
+		stream.close();
+		stream.close();
+		output.close();
+
+		assertEquals(1, output.getWrittenFileCount());
+	}
+
+	@Test(expected = IOException.class)
+	public void should_throw_IOException_when_directory_can_not_be_created()
+			throws IOException {
+		folder.newFile("a");
+		run("a/b/c/test", 1);
+	}
+
+	@Test(expected = IOException.class)
+	public void should_throw_IOException_when_manifest_is_invalid()
+			throws IOException {
+		final OutputStream out = new FileOutputStream(new File(
+				folder.getRoot(), IncrementalFileMultiReportOutput.MANIFEST));
+		out.write("invalid".getBytes("UTF-8"));
+		out.close();
+
+		new IncrementalFileMultiReportOutput(folder.getRoot());
+	}
+
+	@Test
+	public void should_not_rewrite_unchanged_html_report() throws IOException {
+		final ReportStructureTestDriver driver = new ReportStructureTestDriver();
+		final HTMLFormatter formatter = new HTMLFormatter();
+		driver.sendGroup(formatter.createVisitor(
+				new IncrementalFileMultiReportOutput(folder.getRoot())));
+
+		final IncrementalFileMultiReportOutput output = new IncrementalFileMultiReportOutput(
+				folder.getRoot());
+		driver.sendGroup(formatter.createVisitor(output));
+
+		assertEquals(0, output.getWrittenFileCount());
+		assertTrue(new File(folder.getRoot(), "index.html").isFile());
+	}
+
+	private IncrementalFileMultiReportOutput run(final String path,
+			final int... content) throws IOException {
+		final IncrementalFileMultiReportOutput output = new IncrementalFileMultiReportOutput(
+				folder.getRoot());
+		final OutputStream stream = output.createFile(path);
+		for (final int b : content) {
+			stream.write(b);
+		}
+		stream.close();
+		output.close();
+		return output;
+	}
+
+	private void assertContent(final String path, final int... expected)
+			throws IOException {
+		final InputStream actual = new FileInputStream(
+				new File(folder.getRoot(), path));
+		for (final int b : expected) {
+			assertEquals(b, actual.read());
+		}
+		assertEquals(-1, actual.read());
+		actual.close();
+	}
+
+}
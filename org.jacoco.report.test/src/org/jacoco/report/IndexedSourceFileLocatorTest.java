@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link IndexedSourceFileLocator}.
+ */
+public class IndexedSourceFileLocatorTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private IndexedSourceFileLocator locator;
+
+	@Before
+	public void setup() {
+		locator = new IndexedSourceFileLocator("UTF-8", 4, 2);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		locator.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_should_throw_exception_for_invalid_thread_count() {
+		new IndexedSourceFileLocator("UTF-8", 4, 0);
+	}
+
+	@Test
+	public void getTabWidth_should_return_configured_value() {
+		assertEquals(4, locator.getTabWidth());
+	}
+
+	@Test
+	public void getSourceFile_should_return_null_when_source_does_not_exist()
+			throws IOException {
+		locator.add(folder.getRoot());
+		assertNull(locator.getSourceFile("org/jacoco/example",
+				"DoesNotExist.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_return_null_when_source_is_folder()
+			throws IOException {
+		new File(folder.getRoot(), "src/org/jacoco/example").mkdirs();
+		locator.add(new File(folder.getRoot(), "src"));
+		assertNull(locator.getSourceFile("org/jacoco", "example"));
+	}
+
+	@Test
+	public void getSourceFile_should_ignore_missing_roots() throws IOException {
+		locator.add(new File(folder.getRoot(), "doesnotexist"));
+		assertNull(locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_return_content_from_directory()
+			throws IOException {
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		locator.add(new File(folder.getRoot(), "src"));
+		assertContent("Source",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_return_content_from_default_package()
+			throws IOException {
+		createFile("src/Test.java", "Source");
+		locator.add(new File(folder.getRoot(), "src"));
+		assertContent("Source", locator.getSourceFile("", "Test.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_return_content_from_archive()
+			throws IOException {
+		final File archive = folder.newFile("sources.jar");
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(archive));
+		zip.putNextEntry(new ZipEntry("org/jacoco/example/"));
+		zip.putNextEntry(new ZipEntry("org/jacoco/example/Test.java"));
+		zip.write("Source".getBytes("UTF-8"));
+		zip.close();
+		locator.add(archive);
+
+		assertContent("Source",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+		assertNull(locator.getSourceFile("org/jacoco", "example"));
+	}
+
+	@Test
+	public void getSourceFile_should_prefer_roots_added_first()
+			throws IOException {
+		for (int i = 0; i < 5; i++) {
+			createFile("src" + i + "/org/jacoco/example/Test.java",
+					"Source" + i);
+			locator.add(new File(folder.getRoot(), "src" + i));
+		}
+		assertContent("Source0",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_not_follow_symbolic_link_loops()
+			throws Exception {
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		final File link = new File(folder.getRoot(),
+				"src/org/jacoco/example/loop");
+		final Process process = new ProcessBuilder("ln", "-s",
+				new File(folder.getRoot(), "src/org").getAbsolutePath(),
+				link.getAbsolutePath()).start();
+		assumeTrue(process.waitFor() == 0 && link.isDirectory());
+		locator.add(new File(folder.getRoot(), "src"));
+
+		assertContent("Source",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+		assertNull(locator.getSourceFile(
+				"org/jacoco/example/loop/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void getSourceFile_should_throw_exception_for_invalid_archive()
+			throws IOException {
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		locator.add(new File(folder.getRoot(), "src"));
+		createFile("invalid.jar", "Invalid");
+		locator.add(new File(folder.getRoot(), "invalid.jar"));
+
+		try {
+			locator.getSourceFile("org/jacoco/example", "Test.java");
+			fail("exception expected");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void getSourceFile_should_not_find_files_created_after_first_request()
+			throws IOException {
+		locator.add(new File(folder.getRoot(), "src"));
+		assertNull(locator.getSourceFile("org/jacoco/example", "Test.java"));
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		assertNull(locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void add_should_throw_exception_after_first_request()
+			throws IOException {
+		locator.getSourceFile("org/jacoco/example", "Test.java");
+		try {
+			locator.add(folder.getRoot());
+			fail("exception expected");
+		} catch (IllegalStateException e) {
+			assertEquals("Index already created.", e.getMessage());
+		}
+	}
+
+	private void createFile(String path, String content) throws IOException {
+		final File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+				"UTF-8");
+		writer.write(content);
+		writer.close();
+	}
+
+	private void assertContent(String expected, Reader source)
+			throws IOException {
+		assertNotNull(source);
+		final BufferedReader buffer = new BufferedReader(source);
+		assertEquals(expected, buffer.readLine());
+		assertNull(buffer.readLine());
+		buffer.close();
+	}
+
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.ReportStructureTestDriver;
+import org.jacoco.report.internal.xml.ReportElement;
+import org.jacoco.report.internal.xml.XMLCoverageWriter;
+import org.jacoco.report.test.perf.BundleGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link BinaryFormatter} and {@link BinaryReportReader}.
+ */
+public class BinaryFormatterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private BinaryFormatter formatter;
+
+	private File file;
+
+	private List<SessionInfo> infos;
+
+	private Collection<ExecutionData> data;
+
+	private BinaryReportReader reader;
+
+	@Before
+	public void setup() throws IOException {
+		formatter = new BinaryFormatter();
+		file = folder.newFile("report.bin");
+		infos = new ArrayList<SessionInfo>();
+		data = Collections.emptyList();
+	}
+
+	@After
+	public void teardown() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void should_store_session_infos() throws IOException {
+		infos.add(new SessionInfo("session-1", 12345, 67890));
+		infos.add(new SessionInfo("session-2", 1, 2));
+		final IReportVisitor visitor = createVisitor();
+		visitor.visitInfo(infos, data);
+		visitor.visitGroup("foo");
+		visitor.visitEnd();
+
+		reader = new BinaryReportReader(file);
+		assertEquals(2, reader.getSessionInfos().size());
+		final SessionInfo info = reader.getSessionInfos().get(0);
+		assertEquals("session-1", info.getId());
+		assertEquals(12345, info.getStartTimeStamp());
+		assertEquals(67890, info.getDumpTimeStamp());
+		assertEquals(Collections.emptyList(), reader.getBundles());
+	}
+
+	@Test
+	public void should_restore_bundle() throws IOException {
+		final IBundleCoverage bundle = BundleGenerator.create(3, 4, 5, 6);
+		final IReportVisitor visitor = createVisitor();
+		visitor.visitInfo(infos, data);
+		visitor.visitBundle(bundle, null);
+		visitor.visitEnd();
+
+		reader = new BinaryReportReader(file);
+		assertEquals(toXML(bundle), toXML(reader.readBundle("bundle")));
+	}
+
+	@Test
+	public void should_restore_test_structure() throws IOException {
+		new ReportStructureTestDriver().sendBundle(createVisitor());
+
+		reader = new BinaryReportReader(file);
+		final IBundleCoverage bundle = reader.readBundle("bundle");
+		final IPackageCoverage p = bundle.getPackages().iterator().next();
+		assertEquals("org/jacoco/example", p.getName());
+		assertEquals("org/jacoco/example",
+				p.getClasses().iterator().next().getPackageName());
+		assertEquals("()V", p.getClasses().iterator().next().getMethods()
+				.iterator().next().getDesc());
+		assertEquals(3, p.getSourceFiles().iterator().next()
+				.getLine(2).getBranchCounter().getTotalCount());
+	}
+
+	@Test
+	public void should_provide_totals_without_reading_packages()
+			throws IOException {
+		final IBundleCoverage bundle = BundleGenerator.create(3, 4, 5, 6);
+		final IReportVisitor visitor = createVisitor();
+		visitor.visitInfo(infos, data);
+		visitor.visitBundle(bundle, null);
+		visitor.visitEnd();
+
+		reader = new BinaryReportReader(file);
+		final ICoverageNode totals = reader.getBundles().get(0);
+		assertEquals("bundle", totals.getName());
+		assertEquals(ICoverageNode.ElementType.BUNDLE,
+				totals.getElementType());
+		assertEquals(bundle.getInstructionCounter(),
+				totals.getInstructionCounter());
+		assertEquals(bundle.getComplexityCounter(),
+				totals.getComplexityCounter());
+
+		final List<ICoverageNode> packages = reader.getPackages("bundle");
+		assertEquals(3, packages.size());
+		final IPackageCoverage expected = bundle.getPackages().iterator()
+				.next();
+		assertEquals(expected.getName(), packages.get(0).getName());
+		assertEquals(expected.getLineCounter(),
+				packages.get(0).getLineCounter());
+	}
+
+	@Test
+	public void should_read_single_package() throws IOException {
+		final IBundleCoverage bundle = BundleGenerator.create(3, 4, 5, 6);
+		final IReportVisitor visitor = createVisitor();
+		visitor.visitInfo(infos, data);
+		visitor.visitBundle(bundle, null);
+		visitor.visitEnd();
+
+		reader = new BinaryReportReader(file);
+		final IPackageCoverage p = reader.readPackage("bundle",
+				"org/jacoco/example/p1");
+		assertEquals(4, p.getClasses().size());
+		assertEquals(toXML(new BundleCoverageImpl("bundle",
+				Collections.singleton(
+						getPackage(bundle, "org/jacoco/example/p1")))),
+				toXML(new BundleCoverageImpl("bundle",
+						Collections.singleton(p))));
+	}
+
+	@Test
+	public void should_return_null_for_unknown_elements() throws IOException {
+		new ReportStructureTestDriver().sendBundle(createVisitor());
+
+		reader = new BinaryReportReader(file);
+		assertNull(reader.getPackages("other"));
+		assertNull(reader.readBundle("other"));
+		assertNull(reader.readPackage("other", "org/jacoco/example"));
+		assertNull(reader.readPackage("bundle", "org/jacoco/other"));
+	}
+
+	@Test
+	public void should_flatten_groups() throws IOException {
+		new ReportStructureTestDriver().sendNestedGroups(createVisitor());
+
+		reader = new BinaryReportReader(file);
+		final List<String> names = new ArrayList<String>();
+		for (final ICoverageNode b : reader.getBundles()) {
+			names.add(b.getName());
+		}
+		assertEquals(Arrays.asList("group1/group/bundle", "bundle"), names);
+	}
+
+	@Test
+	public void should_reject_duplicate_bundle_names() throws IOException {
+		final IBundleCoverage bundle = BundleGenerator.create(1, 1, 1, 1);
+		final IReportVisitor visitor = createVisitor();
+		visitor.visitInfo(infos, data);
+		visitor.visitBundle(bundle, null);
+		try {
+			visitor.visitBundle(bundle, null);
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals("Duplicate bundle name bundle.", e.getMessage());
+		}
+		visitor.visitEnd();
+	}
+
+	@Test(expected = IOException.class)
+	public void should_reject_invalid_file() throws IOException {
+		final FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[100]);
+		out.close();
+		new BinaryReportReader(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void should_reject_incompatible_version() throws IOException {
+		new ReportStructureTestDriver().sendBundle(createVisitor());
+		final RandomAccessFile raf = new RandomAccessFile(file,
+				"rw");
+		raf.seek(4);
+		raf.write(0x7F);
+		raf.close();
+		new BinaryReportReader(file);
+	}
+
+	private IReportVisitor createVisitor() throws IOException {
+		return formatter.createVisitor(new FileOutputStream(file));
+	}
+
+	private static IPackageCoverage getPackage(final IBundleCoverage bundle,
+			final String name) {
+		for (final IPackageCoverage p : bundle.getPackages()) {
+			if (p.getName().equals(name)) {
+				return p;
+			}
+		}
+		return null;
+	}
+
+	private static String toXML(final IBundleCoverage bundle)
+			throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final ReportElement root = new ReportElement(bundle.getName(), buffer,
+				"UTF-8");
+		XMLCoverageWriter.writeBundle(bundle, root);
+		root.close();
+		return buffer.toString("UTF-8");
+	}
+
+}
@@ -14,6 +14,7 @@ package org.jacoco.report.check;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -52,7 +53,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testBundleLimit() {
+	public void testBundleLimit() throws IOException {
 		addRule(ElementType.BUNDLE);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -61,7 +62,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testPackageLimit() {
+	public void testPackageLimit() throws IOException {
 		addRule(ElementType.PACKAGE);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -70,7 +71,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testSourceFileLimit() {
+	public void testSourceFileLimit() throws IOException {
 		addRule(ElementType.SOURCEFILE);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -79,7 +80,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testClassLimit() {
+	public void testClassLimit() throws IOException {
 		addRule(ElementType.CLASS);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -88,7 +89,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testMethodLimit() {
+	public void testMethodLimit() throws IOException {
 		addRule(ElementType.METHOD);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -97,7 +98,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testGroupLimitNotSupported() {
+	public void testGroupLimitNotSupported() throws IOException {
 		addRule(ElementType.GROUP);
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
@@ -105,7 +106,7 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testLimitOk() {
+	public void testLimitOk() throws IOException {
 		final Rule rule = new Rule();
 		rule.setElement(ElementType.BUNDLE);
 		final Limit limit = rule.createLimit();
@@ -117,13 +118,77 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	@Test
-	public void testBundleNoMatch() {
+	public void testBundleNoMatch() throws IOException {
 		addRule(ElementType.BUNDLE).setExcludes("*");
 		final BundleChecker checker = new BundleChecker(rules, names, this);
 		checker.checkBundle(createBundle());
 		assertEquals(Collections.emptyList(), messages);
 	}
 
+	@Test
+	public void testIncludesWithMultiplePrefixes() throws IOException {
+		addRule(ElementType.CLASS)
+				.setIncludes("org.jacoco.*:org.jacoco.example.Foo*:*Class");
+		final BundleChecker checker = new BundleChecker(rules, names, this);
+		checker.checkBundle(createBundle());
+		assertMessage(
+				"Rule violated for class org.jacoco.example.FooClass: instructions covered ratio is 0.50, but expected minimum is 0.75");
+	}
+
+	@Test
+	public void testIncludesPrefixNoMatch() throws IOException {
+		addRule(ElementType.CLASS).setIncludes("org.jacoco.other.*");
+		final BundleChecker checker = new BundleChecker(rules, names, this);
+		checker.checkBundle(createBundle());
+		assertEquals(Collections.emptyList(), messages);
+	}
+
+	@Test
+	public void testConcurrentCheckKeepsOrder() throws IOException {
+		addRule(ElementType.METHOD).setIncludes("*.method2*");
+		addRule(ElementType.CLASS);
+		addRule(ElementType.PACKAGE);
+		addRule(ElementType.METHOD).setIncludes("org.jacoco.p1*");
+
+		final List<IPackageCoverage> packages = new ArrayList<IPackageCoverage>();
+		for (int i = 0; i < 20; i++) {
+			packages.add(createPackage("org/jacoco/p" + i));
+		}
+		final IBundleCoverage bundle = new BundleCoverageImpl("Test",
+				packages);
+
+		new BundleChecker(rules, names, this).checkBundle(bundle);
+		final List<String> expected = new ArrayList<String>(messages);
+		assertEquals(20 * 3 + 11 * 3, expected.size());
+
+		messages.clear();
+		final BundleChecker checker = new BundleChecker(rules, names, this,
+				4);
+		checker.checkBundle(bundle);
+		assertEquals(expected, messages);
+
+		messages.clear();
+		checker.checkBundle(bundle);
+		checker.shutdown();
+		assertEquals(expected, messages);
+	}
+
+	private IPackageCoverage createPackage(String name) {
+		final ClassCoverageImpl c = new ClassCoverageImpl(name + "/FooClass",
+				1001, false);
+		for (int i = 0; i < 3; i++) {
+			final MethodCoverageImpl m = new MethodCoverageImpl("method" + i,
+					"()V", null);
+			m.increment(CounterImpl.getInstance(5, 5), CounterImpl.COUNTER_0_0,
+					1);
+			m.incrementMethodCounter();
+			c.addMethod(m);
+		}
+		return new PackageCoverageImpl(name,
+				Collections.singleton((IClassCoverage) c),
+				Collections.<ISourceFileCoverage> emptySet());
+	}
+
 	private Rule addRule(ElementType elementType) {
 		final Rule rule = new Rule();
 		rule.setElement(elementType);
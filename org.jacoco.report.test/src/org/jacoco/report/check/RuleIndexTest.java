@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.check;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RuleIndex}.
+ */
+public class RuleIndexTest {
+
+	private List<Rule> rules;
+
+	@Before
+	public void setup() {
+		rules = new ArrayList<Rule>();
+	}
+
+	@Test
+	public void should_return_no_rules_when_empty() {
+		final RuleIndex index = new RuleIndex(rules);
+		assertTrue(index.isEmpty());
+		assertEquals(Collections.emptyList(),
+				index.getMatchingRules("org.example.Foo"));
+	}
+
+	@Test
+	public void should_return_matching_rules_in_original_order() {
+		final Rule r1 = addRule("org.example.sub.*");
+		final Rule r2 = addRule("*");
+		final Rule r3 = addRule("org.example.*");
+		final Rule r4 = addRule("org.other.*");
+		final Rule r5 = addRule("org.example.sub.Foo");
+		final RuleIndex index = new RuleIndex(rules);
+
+		assertFalse(index.isEmpty());
+		assertEquals(Arrays.asList(r1, r2, r3, r5),
+				index.getMatchingRules("org.example.sub.Foo"));
+		assertEquals(Arrays.asList(r2, r3),
+				index.getMatchingRules("org.example.Bar"));
+		assertEquals(Arrays.asList(r2, r4),
+				index.getMatchingRules("org.other.Bar"));
+	}
+
+	@Test
+	public void should_return_rule_with_multiple_includes_only_once() {
+		final Rule r1 = addRule("org.*:org.example.*:*Foo");
+		final RuleIndex index = new RuleIndex(rules);
+
+		assertEquals(Arrays.asList(r1),
+				index.getMatchingRules("org.example.Foo"));
+	}
+
+	@Test
+	public void should_consider_excludes() {
+		final Rule r1 = addRule("org.*");
+		r1.setExcludes("*Test");
+		final RuleIndex index = new RuleIndex(rules);
+
+		assertEquals(Arrays.asList(r1), index.getMatchingRules("org.Foo"));
+		assertEquals(Collections.emptyList(),
+				index.getMatchingRules("org.FooTest"));
+	}
+
+	@Test
+	public void should_match_question_mark_in_prefix() {
+		final Rule r1 = addRule("org.ex?mple.*");
+		final RuleIndex index = new RuleIndex(rules);
+
+		assertEquals(Arrays.asList(r1),
+				index.getMatchingRules("org.example.Foo"));
+		assertEquals(Collections.emptyList(),
+				index.getMatchingRules("org.Foo"));
+	}
+
+	private Rule addRule(final String includes) {
+		final Rule rule = new Rule();
+		rule.setIncludes(includes);
+		rules.add(rule);
+		return rule;
+	}
+
+}
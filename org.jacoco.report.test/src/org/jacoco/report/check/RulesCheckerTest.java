@@ -96,6 +96,27 @@ public class RulesCheckerTest implements IViolationsOutput {
 				messages);
 	}
 
+	@Test
+	public void testSetThreads() throws IOException {
+		Rule rule = new Rule();
+		rule.setElement(ElementType.CLASS);
+		Limit limit = rule.createLimit();
+		limit.setValue(CounterValue.MISSEDCOUNT.name());
+		limit.setMaximum("5");
+		checker.setRules(Arrays.asList(rule));
+		checker.setThreads(4);
+
+		driver.sendGroup(checker.createVisitor(this));
+		assertEquals(Arrays.asList(
+				"Rule violated for class org.jacoco.example.FooClass: instructions missed count is 10, but expected maximum is 5"),
+				messages);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetThreadsInvalid() {
+		checker.setThreads(0);
+	}
+
 	public void onViolation(ICoverageNode node, Rule rule, Limit limit,
 			String message) {
 		messages.add(message);
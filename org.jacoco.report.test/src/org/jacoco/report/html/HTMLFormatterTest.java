@@ -17,13 +17,33 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
-
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
 import org.jacoco.report.ILanguageNames;
+import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.MemoryMultiReportOutput;
 import org.jacoco.report.ReportStructureTestDriver;
+import org.jacoco.report.ZipMultiReportOutput;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -119,6 +139,41 @@ public class HTMLFormatterTest {
 				line.startsWith("<?xml version=\"1.0\" encoding=\"UTF-16\""));
 	}
 
+	@Test
+	public void testTableDataThresholdWithZipOutput() throws Exception {
+		final List<IClassCoverage> classes = new ArrayList<IClassCoverage>();
+		for (int i = 0; i < 5; i++) {
+			final ClassCoverageImpl c = new ClassCoverageImpl(
+					"org/jacoco/example/Class" + i, i, false);
+			final MethodCoverageImpl m = new MethodCoverageImpl("m", "()V",
+					null);
+			m.increment(CounterImpl.COUNTER_1_0, CounterImpl.COUNTER_0_0, 1);
+			c.addMethod(m);
+			classes.add(c);
+		}
+		final IBundleCoverage bundle = new BundleCoverageImpl("bundle",
+				classes, Collections.<ISourceFileCoverage> emptyList());
+		formatter.setTableDataThreshold(2);
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final IReportVisitor visitor = formatter
+				.createVisitor(new ZipMultiReportOutput(buffer));
+		visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+				Collections.<ExecutionData> emptyList());
+		visitor.visitBundle(bundle, driver.sourceFileLocator);
+		visitor.visitEnd();
+
+		final Set<String> entries = new HashSet<String>();
+		final ZipInputStream zip = new ZipInputStream(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null) {
+			entries.add(entry.getName());
+		}
+		assertTrue(entries.contains("org.jacoco.example/index.html"));
+		assertTrue(entries.contains("org.jacoco.example/index.data.js"));
+		output.close();
+	}
+
 	@Test
 	public void testGetLanguageNames() throws Exception {
 		ILanguageNames names = new ILanguageNames() {
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentTasks}.
+ */
+public class ConcurrentTasksTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		executor = ConcurrentTasks.newThreadPool(1, "test-pool");
+	}
+
+	@After
+	public void teardown() {
+		executor.shutdownNow();
+		Thread.interrupted();
+	}
+
+	@Test
+	public void newThreadPool_should_create_named_daemon_threads()
+			throws IOException {
+		final Thread thread = ConcurrentTasks
+				.getResult(executor.submit(new Callable<Thread>() {
+					public Thread call() {
+						return Thread.currentThread();
+					}
+				}));
+		assertEquals("test-pool", thread.getName());
+		assertTrue(thread.isDaemon());
+	}
+
+	@Test
+	public void getResult_should_return_result() throws IOException {
+		assertEquals("result", ConcurrentTasks.getResult(task("result")));
+	}
+
+	@Test
+	public void getResult_should_rethrow_IOException() {
+		final IOException exception = new IOException();
+		try {
+			ConcurrentTasks.getResult(task(exception));
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void getResult_should_rethrow_RuntimeException()
+			throws IOException {
+		final RuntimeException exception = new RuntimeException();
+		try {
+			ConcurrentTasks.getResult(task(exception));
+			fail("RuntimeException expected");
+		} catch (final RuntimeException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void getResult_should_rethrow_Error() throws IOException {
+		final Error error = new Error();
+		try {
+			ConcurrentTasks.getResult(task(error));
+			fail("Error expected");
+		} catch (final Error e) {
+			assertSame(error, e);
+		}
+	}
+
+	@Test
+	public void getResult_should_wrap_checked_exceptions() throws IOException {
+		final Exception exception = new Exception();
+		try {
+			ConcurrentTasks.getResult(task(exception));
+			fail("IllegalStateException expected");
+		} catch (final IllegalStateException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void getResult_should_throw_InterruptedIOException_when_interrupted()
+			throws IOException {
+		Thread.currentThread().interrupt();
+		try {
+			ConcurrentTasks.getResult(new FutureTask<Object>(
+					new Callable<Object>() {
+						public Object call() {
+							return null;
+						}
+					}));
+			fail("InterruptedIOException expected");
+		} catch (final InterruptedIOException e) {
+			assertTrue(Thread.interrupted());
+		}
+	}
+
+	private static Future<Object> task(final Object result) {
+		final FutureTask<Object> task = new FutureTask<Object>(
+				new Callable<Object>() {
+					public Object call() throws Exception {
+						if (result instanceof Exception) {
+							throw (Exception) result;
+						}
+						if (result instanceof Error) {
+							throw (Error) result;
+						}
+						return result;
+					}
+				});
+		task.run();
+		return task;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BinaryInput} and {@link BinaryOutput}.
+ */
+public class BinaryInputTest {
+
+	@Test
+	public void should_read_values_written_by_BinaryOutput()
+			throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final BinaryOutput out = new BinaryOutput(buffer);
+		out.writeByte(0xAB);
+		out.writeVarInt(0);
+		out.writeVarInt(127);
+		out.writeVarInt(128);
+		out.writeVarInt(Integer.MAX_VALUE);
+		out.writeVarInt(-1);
+		out.writeVarLong(Long.MAX_VALUE);
+		out.writeLong(Long.MIN_VALUE);
+		out.writeString("äbc€");
+		assertEquals(1 + 1 + 1 + 2 + 5 + 5 + 9 + 8 + 1 + 7,
+				out.getPosition());
+		out.close();
+
+		final BinaryInput in = new BinaryInput(buffer.toByteArray());
+		assertEquals(0xAB, in.readByte());
+		assertEquals(0, in.readVarInt());
+		assertEquals(127, in.readVarInt());
+		assertEquals(128, in.readVarInt());
+		assertEquals(Integer.MAX_VALUE, in.readVarInt());
+		assertEquals(-1, in.readVarInt());
+		assertEquals(Long.MAX_VALUE, in.readVarLong());
+		assertEquals(Long.MIN_VALUE, in.readLong());
+		assertEquals("äbc€", in.readString());
+	}
+
+	@Test
+	public void getPosition_should_count_flushed_bytes() throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final BinaryOutput out = new BinaryOutput(buffer);
+		for (int i = 0; i < 100000; i++) {
+			out.writeByte(i);
+		}
+		assertEquals(100000, out.getPosition());
+		out.close();
+		assertEquals(100000, buffer.size());
+	}
+
+	@Test(expected = IOException.class)
+	public void readByte_should_throw_exception_at_end_of_buffer()
+			throws IOException {
+		new BinaryInput(new byte[0]).readByte();
+	}
+
+	@Test(expected = IOException.class)
+	public void readBytes_should_throw_exception_at_end_of_buffer()
+			throws IOException {
+		new BinaryInput(new byte[2]).readBytes(3);
+	}
+
+}
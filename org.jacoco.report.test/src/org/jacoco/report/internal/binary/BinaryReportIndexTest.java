@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BinaryReportIndex}.
+ */
+public class BinaryReportIndexTest {
+
+	private ByteArrayOutputStream buffer;
+
+	private BinaryOutput out;
+
+	@Before
+	public void setup() throws IOException {
+		buffer = new ByteArrayOutputStream();
+		out = new BinaryOutput(buffer);
+		// string table
+		out.writeVarInt(1);
+		out.writeString("bundle");
+		// session infos
+		out.writeVarInt(0);
+	}
+
+	@Test
+	public void should_read_bundle() throws IOException {
+		out.writeVarInt(1);
+		writeBundle(1);
+
+		final BinaryReportIndex index = read();
+
+		assertEquals("bundle", index.getBundles().get(0).getName());
+	}
+
+	@Test
+	public void should_reject_string_reference_beyond_table()
+			throws IOException {
+		out.writeVarInt(1);
+		writeBundle(2);
+
+		assertInvalid("Invalid string reference 2.");
+	}
+
+	@Test
+	public void should_reject_negative_string_reference() throws IOException {
+		out.writeVarInt(1);
+		writeBundle(-1);
+
+		assertInvalid("Invalid string reference -1.");
+	}
+
+	@Test
+	public void should_reject_negative_count() throws IOException {
+		out.writeVarInt(-1);
+
+		assertInvalid("Invalid count -1.");
+	}
+
+	@Test
+	public void should_reject_duplicate_bundle_names() throws IOException {
+		out.writeVarInt(2);
+		writeBundle(1);
+		writeBundle(1);
+
+		assertInvalid("Duplicate bundle name bundle.");
+	}
+
+	private void writeBundle(final int nameRef) throws IOException {
+		out.writeVarInt(nameRef);
+		for (int i = 0; i < BinaryReportWriter.COUNTER_ENTITIES.length; i++) {
+			out.writeVarInt(0);
+			out.writeVarInt(0);
+		}
+		// packages
+		out.writeVarInt(0);
+	}
+
+	private BinaryReportIndex read() throws IOException {
+		out.close();
+		return new BinaryReportIndex(buffer.toByteArray());
+	}
+
+	private void assertInvalid(final String message) {
+		try {
+			read();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+
+}
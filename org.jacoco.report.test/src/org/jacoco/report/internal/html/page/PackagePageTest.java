@@ -85,6 +85,35 @@ public class PackagePageTest extends PageTestBase {
 				support.findStr(doc, "count(/html/body/table[1]/tbody/tr)"));
 	}
 
+	@Test
+	public void should_write_data_file_when_threshold_is_exceeded()
+			throws Exception {
+		final ClassCoverageImpl class1 = new ClassCoverageImpl(
+				"example/Foo1", 0x1000, false);
+		final MethodCoverageImpl method1 = new MethodCoverageImpl("m", "()V",
+				null);
+		method1.increment(CounterImpl.COUNTER_1_0, CounterImpl.COUNTER_0_0,
+				42);
+		class1.addMethod(method1);
+		final ClassCoverageImpl class2 = new ClassCoverageImpl(
+				"example/Foo2", 0x2000, false);
+		class2.addMethod(method1);
+		node = new PackageCoverageImpl("example",
+				Arrays.<IClassCoverage> asList(class1, class2),
+				Collections.<ISourceFileCoverage> emptySet());
+		context.getTable().setDataThreshold(1);
+
+		page = new PackagePage(node, null, sourceLocator, rootFolder, context);
+		page.render();
+
+		final Document doc = support.parse(output.getFile("index.html"));
+		assertEquals("index.data.js",
+				support.findStr(doc, "/html/head/script[2]/@src"));
+		assertEquals("1",
+				support.findStr(doc, "count(/html/body/table[1]/tbody/tr)"));
+		output.assertFile("index.data.js");
+	}
+
 	@Test
 	public void testContentsWithSource() throws Exception {
 		ClassCoverageImpl class1 = new ClassCoverageImpl(
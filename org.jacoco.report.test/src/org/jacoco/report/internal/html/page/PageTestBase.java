@@ -43,6 +43,8 @@ public abstract class PageTestBase {
 
 	protected HTMLSupport support;
 
+	protected boolean serverSideHighlighting;
+
 	protected void setup() throws Exception {
 		output = new MemoryMultiReportOutput();
 		rootFolder = new ReportOutputFolder(output);
@@ -87,6 +89,10 @@ public abstract class PageTestBase {
 				return Locale.ENGLISH;
 			}
 
+			public boolean isServerSideHighlighting() {
+				return serverSideHighlighting;
+			}
+
 		};
 		support = new HTMLSupport();
 	}
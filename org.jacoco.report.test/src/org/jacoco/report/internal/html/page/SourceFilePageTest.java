@@ -68,4 +68,30 @@ public class SourceFilePageTest extends PageTestBase {
 		// source code
 		assertNotNull(support.findStr(result, "/html/body/pre"));
 	}
+
+	@Test
+	public void testContentsWithServerSideHighlighting() throws Exception {
+		serverSideHighlighting = true;
+		final SourceFileCoverageImpl node = new SourceFileCoverageImpl(
+				"SourceFilePageTest.java", "org/jacoco/report/internal/html");
+		final SourceFilePage page = new SourceFilePage(node, sourceReader, 4,
+				null, rootFolder, context);
+		page.render();
+
+		final Document result = support
+				.parse(output.getFile("SourceFilePageTest.java.html"));
+
+		// token styles
+		assertEquals("jacoco-resources/prettify.css", support.findStr(result,
+				"/html/head/link[@rel='stylesheet'][2]/@href"));
+
+		// no highlighting script
+		assertEquals("", support.findStr(result, "/html/head/script/@src"));
+		assertEquals("", support.findStr(result, "/html/body/@onload"));
+
+		// source code
+		assertEquals("package", support.findStr(result,
+				"/html/body/pre/span[13]/span[@class='kwd']"));
+	}
+
 }
@@ -102,6 +102,27 @@ public class SourceHighlighterTest {
 				htmlSupport.findStr(doc, "//pre/span[text() = 'D']/@class"));
 	}
 
+	@Test
+	public void testTokenizer() throws Exception {
+		final String src = "int a;\n\n\tb";
+		source.increment(CounterImpl.COUNTER_1_0, CounterImpl.COUNTER_0_0, 1);
+		sourceHighlighter.setTokenizer(new SourceTokenizer(false), 4);
+		sourceHighlighter.render(parent, source, new StringReader(src));
+		final Document doc = parseDoc();
+		assertEquals("source lang-java",
+				htmlSupport.findStr(doc, "//pre/@class"));
+		assertEquals("3", htmlSupport.findStr(doc,
+				"count(//pre/span[@class='" + Styles.NR + "'])"));
+		assertEquals(Styles.NOT_COVERED,
+				htmlSupport.findStr(doc, "//pre/span[1]/span/@class"));
+		assertEquals("L1", htmlSupport.findStr(doc, "//pre/span[1]/span/@id"));
+		assertEquals("int", htmlSupport.findStr(doc,
+				"//pre/span[1]/span/span[@class='kwd']"));
+		assertEquals("", htmlSupport.findStr(doc, "//pre/span[2]"));
+		assertEquals("    b", htmlSupport.findStr(doc, "//pre/span[3]"));
+		assertEquals("int a;\n\n    b\n", htmlSupport.findStr(doc, "//pre"));
+	}
+
 	@Test
 	public void testHighlightNone() throws Exception {
 		sourceHighlighter.highlight(parent, source.getLine(1), 1);
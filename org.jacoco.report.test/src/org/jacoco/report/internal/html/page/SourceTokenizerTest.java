@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.page;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.jacoco.report.internal.html.HTMLElement;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SourceTokenizer}.
+ */
+public class SourceTokenizerTest {
+
+	@Test
+	public void should_highlight_keywords_types_and_punctuation()
+			throws Exception {
+		assertEquals("<span class=\"kwd\">public</span> "
+				+ "<span class=\"kwd\">class</span> "
+				+ "<span class=\"typ\">Foo</span>"
+				+ "<span class=\"pun\">&lt;</span>"
+				+ "<span class=\"typ\">T</span>"
+				+ "<span class=\"pun\">&gt;</span> "
+				+ "<span class=\"pun\">{</span>",
+				render(false, "public class Foo<T> {"));
+	}
+
+	@Test
+	public void should_not_highlight_plain_identifiers() throws Exception {
+		assertEquals("x<span class=\"pun\">.</span>y",
+				render(false, "x.y"));
+	}
+
+	@Test
+	public void should_highlight_annotations() throws Exception {
+		assertEquals("<span class=\"typ\">@Override</span>",
+				render(false, "@Override"));
+	}
+
+	@Test
+	public void should_highlight_numbers() throws Exception {
+		assertEquals("<span class=\"lit\">0x1F</span>"
+				+ "<span class=\"pun\">+</span>"
+				+ "<span class=\"lit\">1.5e-3f</span>"
+				+ "<span class=\"pun\">+</span>"
+				+ "<span class=\"lit\">.5</span>",
+				render(false, "0x1F+1.5e-3f+.5"));
+	}
+
+	@Test
+	public void should_highlight_kotlin_ranges() throws Exception {
+		assertEquals("<span class=\"lit\">1</span>"
+				+ "<span class=\"pun\">..</span>"
+				+ "<span class=\"lit\">10</span>", render(true, "1..10"));
+	}
+
+	@Test
+	public void should_highlight_strings_with_escapes() throws Exception {
+		assertEquals("<span class=\"str\">\"a\\\"b\"</span>"
+				+ "<span class=\"pun\">+</span>"
+				+ "<span class=\"str\">'\\''</span>",
+				render(false, "\"a\\\"b\"+'\\''"));
+	}
+
+	@Test
+	public void should_highlight_line_comments() throws Exception {
+		assertEquals("x <span class=\"com\">// \"comment\"</span>",
+				render(false, "x // \"comment\""));
+	}
+
+	@Test
+	public void should_highlight_block_comments_across_lines()
+			throws Exception {
+		assertEquals("x <span class=\"com\">/* a</span>\n"
+				+ "<span class=\"com\">b */</span> y",
+				render(false, "x /* a", "b */ y"));
+	}
+
+	@Test
+	public void should_highlight_nested_block_comments_in_kotlin()
+			throws Exception {
+		assertEquals("<span class=\"com\">/* /* */ */</span> y",
+				render(true, "/* /* */ */ y"));
+	}
+
+	@Test
+	public void should_not_nest_block_comments_in_java() throws Exception {
+		assertEquals("<span class=\"com\">/* /* */</span> "
+				+ "<span class=\"pun\">*/</span>",
+				render(false, "/* /* */ */"));
+	}
+
+	@Test
+	public void should_highlight_text_blocks_across_lines() throws Exception {
+		assertEquals("<span class=\"str\">\"\"\"</span>\n"
+				+ "<span class=\"str\">  a \\\"\"\" b</span>\n"
+				+ "<span class=\"str\">\"\"\"</span>"
+				+ "<span class=\"pun\">;</span>",
+				render(false, "\"\"\"", "  a \\\"\"\" b", "\"\"\";"));
+	}
+
+	@Test
+	public void should_highlight_raw_strings_in_kotlin() throws Exception {
+		assertEquals("<span class=\"str\">\"\"\"a\\\"\"\"\"</span>",
+				render(true, "\"\"\"a\\\"\"\"\""));
+	}
+
+	@Test
+	public void should_highlight_kotlin_keywords() throws Exception {
+		assertEquals("<span class=\"kwd\">fun</span> "
+				+ "<span class=\"kwd\">val</span> fun",
+				render(true, "fun val `fun`").replace("`", ""));
+	}
+
+	@Test
+	public void should_not_highlight_kotlin_keywords_in_java()
+			throws Exception {
+		assertEquals("fun", render(false, "fun"));
+	}
+
+	@Test
+	public void forFile_should_select_language_by_extension()
+			throws Exception {
+		assertEquals("<span class=\"kwd\">fun</span>",
+				render(SourceTokenizer.forFile("Foo.kt"), "fun"));
+		assertEquals("<span class=\"kwd\">fun</span>",
+				render(SourceTokenizer.forFile("Foo.kts"), "fun"));
+		assertEquals("fun", render(SourceTokenizer.forFile("Foo.java"), "fun"));
+	}
+
+	private static String render(final boolean kotlin, final String... lines)
+			throws Exception {
+		return render(new SourceTokenizer(kotlin), lines);
+	}
+
+	private static String render(final SourceTokenizer tokenizer,
+			final String... lines) throws Exception {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final HTMLElement html = new HTMLElement(buffer, "UTF-8");
+		final HTMLElement pre = html.body().pre(null);
+		for (int i = 0; i < lines.length; i++) {
+			if (i > 0) {
+				pre.text("\n");
+			}
+			tokenizer.render(pre, lines[i]);
+		}
+		html.close();
+		final String result = buffer.toString("UTF-8");
+		// Unescape quotes for readability of the expected values:
+		return result.substring(result.indexOf("<pre>") + 5,
+				result.indexOf("</pre>")).replace("&quot;", "\"");
+	}
+
+}
@@ -15,6 +15,7 @@ package org.jacoco.report.internal.html.table;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -115,6 +116,21 @@ public class BarColumnTest {
 				"/html/body/table/tr[1]/td/img[2]/@width"));
 	}
 
+	@Test
+	public void testData() throws Exception {
+		final ITableItem i1 = createItem(15, 5);
+		final ITableItem i2 = createItem(6, 24);
+		column.init(Arrays.asList(i1, i2), createNode(21, 29));
+		assertEquals("{\"bar\":[60,\"15\",20,\"5\"]}", data(column, i1));
+	}
+
+	@Test
+	public void testDataNoBars() throws Exception {
+		final ITableItem i1 = createItem(0, 0);
+		column.init(Arrays.asList(i1), createNode(0, 0));
+		assertEquals("{\"bar\":[]}", data(column, i1));
+	}
+
 	@Test
 	public void testRedBarOnly() throws Exception {
 		final ITableItem i1 = createItem(20, 0);
@@ -230,6 +246,16 @@ public class BarColumnTest {
 		};
 	}
 
+	private String data(final IColumnRenderer column, final ITableItem item)
+			throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final TableDataWriter writer = new TableDataWriter(out);
+		column.data(writer, item, resources, root);
+		writer.close();
+		html.close();
+		return new String(out.toByteArray(), "UTF-8");
+	}
+
 	private Document parseDoc() throws Exception {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -104,6 +105,15 @@ public class CounterColumnTest {
 				support.findStr(doc, "/html/body/table/tr/td[1]/text()"));
 	}
 
+	@Test
+	public void testData() throws Exception {
+		IColumnRenderer column = CounterColumn.newTotal(CounterEntity.LINE,
+				locale);
+		final ITableItem item = createItem(1000, 50);
+		column.init(Collections.singletonList(item), item.getNode());
+		assertEquals("\"1,050\"", data(column, item));
+	}
+
 	@Test
 	public void testItemMissed() throws Exception {
 		IColumnRenderer column = CounterColumn.newMissed(CounterEntity.LINE,
@@ -220,6 +230,16 @@ public class CounterColumnTest {
 		};
 	}
 
+	private String data(final IColumnRenderer column, final ITableItem item)
+			throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final TableDataWriter writer = new TableDataWriter(out);
+		column.data(writer, item, resources, root);
+		writer.close();
+		html.close();
+		return new String(out.toByteArray(), "UTF-8");
+	}
+
 	private Document parseDoc() throws Exception {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
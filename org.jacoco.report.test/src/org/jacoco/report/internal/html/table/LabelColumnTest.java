@@ -15,6 +15,7 @@ package org.jacoco.report.internal.html.table;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.jacoco.core.analysis.CoverageNodeImpl;
@@ -104,6 +105,18 @@ public class LabelColumnTest {
 				support.findStr(doc, "/html/body/table/tr/td/a/@class"));
 	}
 
+	@Test
+	public void testDataWithoutLink() throws Exception {
+		assertEquals("[\"Abc\",\"el_group\"]",
+				data(column, createItem("Abc", null)));
+	}
+
+	@Test
+	public void testDataWithLink() throws Exception {
+		assertEquals("[\"Def\",\"el_group\",\"def.html\"]",
+				data(column, createItem("Def", "def.html")));
+	}
+
 	@Test
 	public void testComparator1() throws Exception {
 		final ITableItem i1 = createItem("abcdef", null);
@@ -143,6 +156,16 @@ public class LabelColumnTest {
 		};
 	}
 
+	private String data(final IColumnRenderer column, final ITableItem item)
+			throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final TableDataWriter writer = new TableDataWriter(out);
+		column.data(writer, item, resources, root);
+		writer.close();
+		html.close();
+		return new String(out.toByteArray(), "UTF-8");
+	}
+
 	private Document parseDoc() throws Exception {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
@@ -15,6 +15,7 @@ package org.jacoco.report.internal.html.table;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Comparator;
 import java.util.Locale;
@@ -95,6 +96,16 @@ public class PercentageColumnTest {
 				support.findStr(doc, "/html/body/table/tr/td[1]/text()"));
 	}
 
+	@Test
+	public void testData() throws Exception {
+		assertEquals("\"33%\"", data(column, createItem(100, 50)));
+	}
+
+	@Test
+	public void testDataNotAvailable() throws Exception {
+		assertEquals("\"n/a\"", data(column, createItem(0, 0)));
+	}
+
 	@Test
 	public void testRounding() throws Exception {
 		final ITableItem item = createItem(1, 199);
@@ -174,6 +185,16 @@ public class PercentageColumnTest {
 		};
 	}
 
+	private String data(final IColumnRenderer column, final ITableItem item)
+			throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final TableDataWriter writer = new TableDataWriter(out);
+		column.data(writer, item, resources, root);
+		writer.close();
+		html.close();
+		return new String(out.toByteArray(), "UTF-8");
+	}
+
 	private Document parseDoc() throws Exception {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
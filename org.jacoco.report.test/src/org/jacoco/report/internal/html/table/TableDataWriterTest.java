@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.table;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TableDataWriter}.
+ */
+public class TableDataWriterTest {
+
+	private ByteArrayOutputStream buffer;
+
+	private TableDataWriter writer;
+
+	@Before
+	public void setup() throws IOException {
+		buffer = new ByteArrayOutputStream();
+		writer = new TableDataWriter(buffer);
+	}
+
+	@Test
+	public void should_separate_array_values() throws IOException {
+		writer.startArray();
+		writer.number(1);
+		writer.string("a");
+		writer.startArray();
+		writer.endArray();
+		writer.string(null);
+		writer.endArray();
+
+		assertEquals("[1,\"a\",[],null]", getContent());
+	}
+
+	@Test
+	public void should_separate_object_members() throws IOException {
+		writer.raw("x=");
+		writer.startObject();
+		writer.key("a");
+		writer.number(1);
+		writer.key("b");
+		writer.startObject();
+		writer.key("c");
+		writer.string("d");
+		writer.endObject();
+		writer.endObject();
+
+		assertEquals("x={\"a\":1,\"b\":{\"c\":\"d\"}}", getContent());
+	}
+
+	@Test
+	public void should_escape_strings() throws IOException {
+		writer.string("\"\\\n\r\t\u0001\u2028\u2029</\u00e4");
+
+		assertEquals("\"\\\"\\\\\\n\\r\\t\\u0001\\u2028\\u2029</\u00e4\"",
+				getContent());
+	}
+
+	@Test
+	public void should_support_deep_nesting() throws IOException {
+		for (int i = 0; i < 20; i++) {
+			writer.startArray();
+		}
+		for (int i = 0; i < 20; i++) {
+			writer.endArray();
+		}
+
+		assertEquals("[[[[[[[[[[[[[[[[[[[[]]]]]]]]]]]]]]]]]]]]", getContent());
+	}
+
+	@Test(expected = IOException.class)
+	public void should_throw_IOException_when_no_array_is_open()
+			throws IOException {
+		writer.endArray();
+	}
+
+	private String getContent() throws IOException {
+		writer.close();
+		return new String(buffer.toByteArray(), "UTF-8");
+	}
+
+}
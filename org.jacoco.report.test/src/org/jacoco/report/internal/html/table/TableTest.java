@@ -13,6 +13,8 @@
 package org.jacoco.report.internal.html.table;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -227,6 +229,68 @@ public class TableTest {
 				support.findStr(doc, "/html/body/table/tbody/tr[5]/td[1]"));
 	}
 
+	@Test
+	public void testDataFile() throws Exception {
+		final List<ITableItem> items = Arrays.asList(createItem("C", 3),
+				createItem("E", 5), createItem("A", 1), createItem("D", 4),
+				createItem("B", 2));
+		table.add("Forward", null,
+				new StubRenderer(
+						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
+				true);
+		table.add("Reverse", null, new StubRenderer(
+				CounterComparator.TOTALITEMS.reverse().on(CounterEntity.CLASS)),
+				false);
+		table.setDataThreshold(2);
+		assertTrue(table.isDataTable(items.size()));
+		table.render(body, items, createTotal("Sum", 15), resources, root);
+		html.close();
+		table.renderData(root.createFile("Test.data.js"), items, resources,
+				root);
+
+		final HTMLSupport support = new HTMLSupport();
+		final Document doc = support.parse(output.getFile("Test.html"));
+		assertEquals("2",
+				support.findStr(doc, "count(/html/body/table/tbody/tr)"));
+		assertEquals("A",
+				support.findStr(doc, "/html/body/table/tbody/tr[1]/td[1]"));
+		assertEquals("B",
+				support.findStr(doc, "/html/body/table/tbody/tr[2]/td[1]"));
+
+		assertEquals("window['jacocoTableData']={"
+				+ "\"redbar\":\"jacoco-resources/redbar.gif\","
+				+ "\"greenbar\":\"jacoco-resources/greenbar.gif\","
+				+ "\"rows\":[[\"A\",\"A\"],[\"B\",\"B\"],[\"C\",\"C\"],"
+				+ "[\"D\",\"D\"],[\"E\",\"E\"]],"
+				+ "\"sort\":[[0,1,2,3,4],[4,3,2,1,0]]};",
+				new String(output.getFile("Test.data.js"), "UTF-8"));
+	}
+
+	@Test
+	public void testNoDataTableBelowThreshold() throws Exception {
+		final List<ITableItem> items = Arrays.asList(createItem("A", 1),
+				createItem("B", 2));
+		table.add("Forward", null,
+				new StubRenderer(
+						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
+				true);
+		table.setDataThreshold(2);
+		assertFalse(table.isDataTable(items.size()));
+		table.render(body, items, createTotal("Sum", 3), resources, root);
+		html.close();
+
+		final HTMLSupport support = new HTMLSupport();
+		final Document doc = support.parse(output.getFile("Test.html"));
+		assertEquals("2",
+				support.findStr(doc, "count(/html/body/table/tbody/tr)"));
+	}
+
+	@Test
+	public void testNoDataTableByDefault() throws Exception {
+		assertFalse(table.isDataTable(100000));
+		html.close();
+	}
+
 	private ITableItem createItem(final String name, final int count) {
 		final ICoverageNode node = new CoverageNodeImpl(ElementType.GROUP,
 				name) {
@@ -283,6 +347,12 @@ public class TableTest {
 			td.text(item.getLinkLabel());
 		}
 
+		public void data(TableDataWriter data, ITableItem item,
+				Resources resources, ReportOutputFolder base)
+				throws IOException {
+			data.string(item.getLinkLabel());
+		}
+
 		public Comparator<ITableItem> getComparator() {
 			return comparator;
 		}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CharBufferWriter}.
+ */
+public class CharBufferWriterTest {
+
+	private StringWriter target;
+
+	private boolean closed;
+
+	private CharBufferWriter writer;
+
+	@Before
+	public void setup() {
+		target = new StringWriter() {
+			@Override
+			public void close() throws IOException {
+				closed = true;
+			}
+		};
+		writer = new CharBufferWriter(target);
+	}
+
+	@Test
+	public void should_buffer_content_until_flush() throws IOException {
+		writer.write('a');
+		writer.write("bcd", 1, 2);
+		writer.write(new char[] { 'e', 'f' }, 0, 2);
+		writer.write("g");
+		assertEquals("", target.toString());
+
+		writer.flush();
+
+		assertEquals("acdefg", target.toString());
+	}
+
+	@Test
+	public void should_flush_content_and_close_target() throws IOException {
+		writer.write("abc");
+
+		writer.close();
+
+		assertEquals("abc", target.toString());
+		assertTrue(closed);
+	}
+
+	@Test
+	public void should_write_large_strings() throws IOException {
+		final String large = createString(0x5000);
+		writer.write('x');
+		writer.write(large);
+		writer.write(large.toCharArray(), 0, large.length());
+		writer.close();
+
+		assertEquals("x" + large + large, target.toString());
+	}
+
+	@Test
+	public void should_fill_buffer_completely() throws IOException {
+		final String content = createString(0x2000 * 3 + 5);
+		for (int i = 0; i < content.length(); i += 7) {
+			writer.write(content, i, Math.min(7, content.length() - i));
+		}
+		for (int i = 0; i < content.length(); i++) {
+			writer.write(content.charAt(i));
+		}
+		writer.close();
+
+		assertEquals(content + content, target.toString());
+	}
+
+	private static String createString(final int length) {
+		final StringBuilder s = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			s.append((char) ('a' + i % 26));
+		}
+		return s.toString();
+	}
+
+}
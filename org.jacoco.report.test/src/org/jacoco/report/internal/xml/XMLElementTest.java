@@ -120,6 +120,27 @@ public class XMLElementTest {
 		assertContent("<root>&lt;black&amp;white&quot;&gt;</root>");
 	}
 
+	@Test
+	public void text_should_quote_mixed_content() throws IOException {
+		root.text("a<b>c&&d\"");
+		root.text("plain");
+		root.text("");
+		assertContent("<root>a&lt;b&gt;c&amp;&amp;d&quot;plain</root>");
+	}
+
+	@Test
+	public void text_should_emit_large_and_non_ascii_content()
+			throws IOException {
+		final StringBuilder text = new StringBuilder();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append("\u00e4<\u20ac");
+			expected.append("\u00e4&lt;\u20ac");
+		}
+		root.text(text.toString());
+		assertContent("<root>" + expected + "</root>");
+	}
+
 	@Test
 	public void attr_should_ignore_call_when_value_is_null()
 			throws IOException {
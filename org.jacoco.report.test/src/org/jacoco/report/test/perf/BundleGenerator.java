@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.test.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
+import org.jacoco.core.internal.analysis.SourceFileCoverageImpl;
+
+/**
+ * Creates synthetic bundles of arbitrary size for report performance
+ * scenarios.
+ */
+public final class BundleGenerator {
+
+	/**
+	 * Creates a bundle where every class has its own source file with line
+	 * coverage details.
+	 *
+	 * @param packages
+	 *            number of packages
+	 * @param classes
+	 *            number of classes per package
+	 * @param methods
+	 *            number of methods per class
+	 * @param lines
+	 *            number of lines per method
+	 * @return generated bundle
+	 */
+	public static IBundleCoverage create(final int packages, final int classes,
+			final int methods, final int lines) {
+		final List<IPackageCoverage> packageList = new ArrayList<IPackageCoverage>();
+		for (int p = 0; p < packages; p++) {
+			final String packageName = "org/jacoco/example/p" + p;
+			final List<IClassCoverage> classList = new ArrayList<IClassCoverage>();
+			final List<ISourceFileCoverage> sourceList = new ArrayList<ISourceFileCoverage>();
+			for (int c = 0; c < classes; c++) {
+				final ClassCoverageImpl classCoverage = new ClassCoverageImpl(
+						packageName + "/Class" + c, p * classes + c, false);
+				classCoverage.setSourceFileName("Class" + c + ".java");
+				for (int m = 0; m < methods; m++) {
+					final MethodCoverageImpl method = new MethodCoverageImpl(
+							"method" + m, "(ILjava/lang/String;)V", null);
+					for (int l = 0; l < lines; l++) {
+						final int line = 1 + m * lines + l;
+						final int covered = (line + c) % 3;
+						method.increment(
+								CounterImpl.getInstance(3 - covered, covered),
+								l % 4 == 0 ? CounterImpl.getInstance(1, 1)
+										: CounterImpl.COUNTER_0_0,
+								line);
+					}
+					method.incrementMethodCounter();
+					classCoverage.addMethod(method);
+				}
+				final SourceFileCoverageImpl source = new SourceFileCoverageImpl(
+						"Class" + c + ".java", packageName);
+				source.increment(classCoverage);
+				classList.add(classCoverage);
+				sourceList.add(source);
+			}
+			packageList.add(
+					new PackageCoverageImpl(packageName, classList, sourceList));
+		}
+		return new BundleCoverageImpl("bundle", packageList);
+	}
+
+	private BundleGenerator() {
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.test.perf;
+
+import java.io.PrintWriter;
+import java.util.zip.Deflater;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.test.perf.IPerfOutput;
+import org.jacoco.core.test.perf.IPerfScenario;
+import org.jacoco.core.test.perf.PerfOutputWriter;
+import org.jacoco.report.ConcurrentZipMultiReportOutput;
+
+/**
+ * Performance suite for report generation.
+ */
+public class ReportPerformanceSuite implements IPerfScenario {
+
+	public void run(IPerfOutput output) throws Exception {
+		final IBundleCoverage bundle = BundleGenerator.create(100, 100, 10,
+				5);
+		new XMLReportScenario(bundle).run(output);
+		final IBundleCoverage small = BundleGenerator.create(20, 50, 10, 5);
+		new ZipReportScenario(small, Deflater.DEFAULT_COMPRESSION, 4)
+				.run(output);
+		new ZipReportScenario(small, ConcurrentZipMultiReportOutput.STORE, 4)
+				.run(output);
+		new SourcePageScenario(100000, false).run(output);
+		new SourcePageScenario(100000, true).run(output);
+	}
+
+	public static void main(String[] args) throws Exception {
+		final PrintWriter writer;
+		if (args.length == 0) {
+			writer = new PrintWriter(System.out, true);
+		} else {
+			writer = new PrintWriter(args[0]);
+		}
+		IPerfOutput output = new PerfOutputWriter(writer);
+		new ReportPerformanceSuite().run(output);
+		writer.close();
+	}
+
+}
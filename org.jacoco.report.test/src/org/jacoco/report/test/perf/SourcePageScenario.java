@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.test.perf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.test.perf.TimedScenario;
+import org.jacoco.report.IMultiReportOutput;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.test.perf.XMLReportScenario.NullOutputStream;
+
+/**
+ * Renders a HTML report for a single class with a large source file to
+ * measure the performance of the HTML writer.
+ */
+public class SourcePageScenario extends TimedScenario {
+
+	private final IBundleCoverage bundle;
+
+	private final String source;
+
+	private final boolean serverSideHighlighting;
+
+	protected SourcePageScenario(final int lines,
+			final boolean serverSideHighlighting) {
+		super(String.format("HTML source page with %s lines%s",
+				Integer.valueOf(lines),
+				serverSideHighlighting ? " (highlighted)" : ""));
+		this.bundle = BundleGenerator.create(1, 1, lines / 10, 10);
+		final StringBuilder s = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			s.append("\t\tif (a < b && c > d) { s = \"x\" + i; } // line ")
+					.append(i).append('\n');
+		}
+		this.source = s.toString();
+		this.serverSideHighlighting = serverSideHighlighting;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				final HTMLFormatter formatter = new HTMLFormatter();
+				formatter.setServerSideHighlighting(serverSideHighlighting);
+				final IReportVisitor visitor = formatter
+						.createVisitor(new NullMultiReportOutput());
+				visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+						Collections.<ExecutionData> emptyList());
+				visitor.visitBundle(bundle, new ISourceFileLocator() {
+					public Reader getSourceFile(final String packageName,
+							final String fileName) throws IOException {
+						return new StringReader(source);
+					}
+
+					public int getTabWidth() {
+						return 4;
+					}
+				});
+				visitor.visitEnd();
+				return null;
+			}
+		};
+	}
+
+	private static class NullMultiReportOutput implements IMultiReportOutput {
+
+		public OutputStream createFile(final String path) {
+			return new NullOutputStream();
+		}
+
+		public void close() {
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.test.perf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.test.perf.TimedScenario;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.xml.XMLFormatter;
+
+/**
+ * Scenario to measure the time to write a XML report with the
+ * {@link XMLFormatter}.
+ */
+public class XMLReportScenario extends TimedScenario {
+
+	private final IBundleCoverage bundle;
+
+	protected XMLReportScenario(final IBundleCoverage bundle) {
+		super(String.format("XML report for %s classes",
+				Integer.valueOf(bundle.getClassCounter().getTotalCount())));
+		this.bundle = bundle;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				final IReportVisitor visitor = new XMLFormatter()
+						.createVisitor(new NullOutputStream());
+				visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+						Collections.<ExecutionData> emptyList());
+				visitor.visitBundle(bundle, null);
+				visitor.visitEnd();
+				return null;
+			}
+		};
+	}
+
+	static class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(final int b) throws IOException {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+				throws IOException {
+		}
+
+	}
+
+}
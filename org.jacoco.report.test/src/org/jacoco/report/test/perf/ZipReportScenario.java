@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.test.perf;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.test.perf.TimedScenario;
+import org.jacoco.report.ConcurrentZipMultiReportOutput;
+import org.jacoco.report.IMultiReportOutput;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.ZipMultiReportOutput;
+import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.test.perf.XMLReportScenario.NullOutputStream;
+
+/**
+ * Scenario to compare the time to write a HTML report into a Zip file with
+ * {@link ConcurrentZipMultiReportOutput} to the time taken by
+ * {@link ZipMultiReportOutput}.
+ */
+public class ZipReportScenario extends TimedScenario {
+
+	private static final ISourceFileLocator NO_SOURCES = new ISourceFileLocator() {
+		public Reader getSourceFile(final String packageName,
+				final String fileName) throws IOException {
+			return null;
+		}
+
+		public int getTabWidth() {
+			return 4;
+		}
+	};
+
+	private final IBundleCoverage bundle;
+
+	private final int level;
+
+	private final int threads;
+
+	protected ZipReportScenario(final IBundleCoverage bundle, final int level,
+			final int threads) {
+		super(String.format(
+				"HTML report for %s classes as Zip (level %s, %s threads)",
+				Integer.valueOf(bundle.getClassCounter().getTotalCount()),
+				Integer.valueOf(level), Integer.valueOf(threads)));
+		this.bundle = bundle;
+		this.level = level;
+		this.threads = threads;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				writeReport(new ConcurrentZipMultiReportOutput(
+						new NullOutputStream(), level, threads));
+				return null;
+			}
+		};
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				writeReport(new ZipMultiReportOutput(new NullOutputStream()));
+				return null;
+			}
+		};
+	}
+
+	private void writeReport(final IMultiReportOutput output)
+			throws IOException {
+		final IReportVisitor visitor = new HTMLFormatter()
+				.createVisitor(output);
+		visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+				Collections.<ExecutionData> emptyList());
+		visitor.visitBundle(bundle, NO_SOURCES);
+		visitor.visitEnd();
+	}
+
+}
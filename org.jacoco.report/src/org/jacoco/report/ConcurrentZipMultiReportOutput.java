@@ -0,0 +1,438 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jacoco.report.internal.ConcurrentTasks;
+
+/**
+ * Implementation of {@link IMultiReportOutput} that writes files into a ZIP
+ * archive. In contrast to {@link ZipMultiReportOutput} the content of every
+ * file is buffered and compressed on a pool of worker threads. Compressed
+ * entries are appended to the archive in the order the files have been
+ * created. ZIP64 records are added if the archive exceeds the limits of the
+ * standard format, i.e. for more than 65535 entries or more than 4 GB.
+ */
+public class ConcurrentZipMultiReportOutput implements IMultiReportOutput {
+
+	/**
+	 * Compression level to store entries without compression.
+	 */
+	public static final int STORE = Deflater.NO_COMPRESSION;
+
+	private static final int MAX_PENDING_PER_THREAD = 4;
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+	private static final int END_SIGNATURE = 0x06054b50;
+
+	private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+	private static final int ZIP64_EXTRA_ID = 0x0001;
+
+	private static final int ZIP64_VERSION = 45;
+
+	private static final long MAX_32 = 0xFFFFFFFFL;
+
+	private static final int MAX_16 = 0xFFFF;
+
+	private static final int METHOD_STORED = 0;
+
+	private static final int METHOD_DEFLATED = 8;
+
+	/** General purpose flag for UTF-8 encoded names */
+	private static final int FLAG_UTF8 = 0x0800;
+
+	private final OutputStream out;
+
+	private final int level;
+
+	private final ExecutorService executor;
+
+	private final int maxPending;
+
+	private final int dosTime;
+
+	private final LinkedList<Future<Entry>> pending;
+
+	private final List<Entry> entries;
+
+	private final byte[] header;
+
+	private long offset;
+
+	private EntryOutput currentEntry;
+
+	/**
+	 * Creates a new instance which writes the ZIP archive to the given stream.
+	 *
+	 * @param out
+	 *            stream to write the archive to, will be closed if this
+	 *            output is closed
+	 * @param level
+	 *            compression level from {@link Deflater#BEST_SPEED} to
+	 *            {@link Deflater#BEST_COMPRESSION},
+	 *            {@link Deflater#DEFAULT_COMPRESSION} or {@link #STORE}
+	 * @param threads
+	 *            number of threads used to compress entries
+	 */
+	public ConcurrentZipMultiReportOutput(final OutputStream out,
+			final int level, final int threads) {
+		if (level < Deflater.DEFAULT_COMPRESSION
+				|| level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException(
+					"Invalid compression level " + level + ".");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Number of threads must be at least 1.");
+		}
+		this.out = out;
+		this.level = level;
+		this.executor = ConcurrentTasks.newThreadPool(threads,
+				"jacoco-zip-output");
+		this.maxPending = threads * MAX_PENDING_PER_THREAD;
+		this.dosTime = toDosTime(System.currentTimeMillis());
+		this.pending = new LinkedList<Future<Entry>>();
+		this.entries = new ArrayList<Entry>();
+		this.header = new byte[56];
+		this.offset = 0;
+	}
+
+	/**
+	 * Creates a new instance with default compression and one thread per
+	 * available processor.
+	 *
+	 * @param out
+	 *            stream to write the archive to, will be closed if this
+	 *            output is closed
+	 */
+	public ConcurrentZipMultiReportOutput(final OutputStream out) {
+		this(out, Deflater.DEFAULT_COMPRESSION,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		if (currentEntry != null) {
+			currentEntry.close();
+		}
+		currentEntry = new EntryOutput(path);
+		return currentEntry;
+	}
+
+	public void close() throws IOException {
+		try {
+			if (currentEntry != null) {
+				currentEntry.close();
+				currentEntry = null;
+			}
+			while (!pending.isEmpty()) {
+				writeNextEntry();
+			}
+			writeCentralDirectory();
+		} finally {
+			try {
+				out.close();
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private void submit(final String path, final EntryBuffer content)
+			throws IOException {
+		pending.add(executor.submit(new Callable<Entry>() {
+			public Entry call() throws Exception {
+				return compress(path, content);
+			}
+		}));
+		// Append finished entries early to limit memory consumption:
+		while (!pending.isEmpty()
+				&& (pending.size() > maxPending || pending.getFirst().isDone())) {
+			writeNextEntry();
+		}
+	}
+
+	private Entry compress(final String path, final EntryBuffer content)
+			throws IOException {
+		final Entry entry = new Entry(path.getBytes("UTF-8"));
+		final CRC32 crc = new CRC32();
+		crc.update(content.array(), 0, content.size());
+		entry.crc = crc.getValue();
+		entry.size = content.size();
+		if (level == STORE) {
+			entry.method = METHOD_STORED;
+			entry.data = content.array();
+			entry.compressedSize = content.size();
+		} else {
+			entry.method = METHOD_DEFLATED;
+			final Deflater deflater = new Deflater(level, true);
+			try {
+				deflater.setInput(content.array(), 0, content.size());
+				deflater.finish();
+				byte[] data = new byte[content.size() / 2 + 64];
+				int length = 0;
+				while (!deflater.finished()) {
+					if (length == data.length) {
+						final byte[] newData = new byte[data.length * 2];
+						System.arraycopy(data, 0, newData, 0, length);
+						data = newData;
+					}
+					length += deflater.deflate(data, length,
+							data.length - length);
+				}
+				entry.data = data;
+				entry.compressedSize = length;
+			} finally {
+				deflater.end();
+			}
+		}
+		return entry;
+	}
+
+	private void writeNextEntry() throws IOException {
+		// Entries are buffered in arrays, so only the offset may exceed 32 bit
+		// which is recorded in the central directory:
+		final Entry entry = ConcurrentTasks.getResult(pending.removeFirst());
+		entry.offset = offset;
+		putInt(0, LOCAL_HEADER_SIGNATURE);
+		putShort(4, entry.getVersion());
+		putShort(6, FLAG_UTF8);
+		putShort(8, entry.method);
+		putInt(10, dosTime);
+		putInt(14, (int) entry.crc);
+		putInt(18, (int) entry.compressedSize);
+		putInt(22, (int) entry.size);
+		putShort(26, entry.name.length);
+		putShort(28, 0);
+		out.write(header, 0, 30);
+		out.write(entry.name);
+		out.write(entry.data, 0, (int) entry.compressedSize);
+		offset += 30 + entry.name.length + entry.compressedSize;
+		// Release content, only the header information is required later:
+		entry.data = null;
+		entries.add(entry);
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		final long start = offset;
+		for (final Entry entry : entries) {
+			final boolean zip64 = entry.offset >= MAX_32;
+			final int version = zip64 ? ZIP64_VERSION : entry.getVersion();
+			putInt(0, CENTRAL_HEADER_SIGNATURE);
+			putShort(4, version);
+			putShort(6, version);
+			putShort(8, FLAG_UTF8);
+			putShort(10, entry.method);
+			putInt(12, dosTime);
+			putInt(16, (int) entry.crc);
+			putInt(20, (int) entry.compressedSize);
+			putInt(24, (int) entry.size);
+			putShort(28, entry.name.length);
+			putShort(30, zip64 ? 12 : 0);
+			putShort(32, 0);
+			putShort(34, 0);
+			putShort(36, 0);
+			putInt(38, 0);
+			putInt(42, zip64 ? (int) MAX_32 : (int) entry.offset);
+			out.write(header, 0, 46);
+			out.write(entry.name);
+			offset += 46 + entry.name.length;
+			if (zip64) {
+				putShort(0, ZIP64_EXTRA_ID);
+				putShort(2, 8);
+				putLong(4, entry.offset);
+				out.write(header, 0, 12);
+				offset += 12;
+			}
+		}
+		final long size = offset - start;
+		final int count = entries.size();
+		final boolean zip64 = count >= MAX_16 || start >= MAX_32
+				|| size >= MAX_32;
+		if (zip64) {
+			writeZip64End(start, size, count);
+		}
+		putInt(0, END_SIGNATURE);
+		putShort(4, 0);
+		putShort(6, 0);
+		putShort(8, zip64 ? MAX_16 : count);
+		putShort(10, zip64 ? MAX_16 : count);
+		putInt(12, zip64 ? (int) MAX_32 : (int) size);
+		putInt(16, zip64 ? (int) MAX_32 : (int) start);
+		putShort(20, 0);
+		out.write(header, 0, 22);
+	}
+
+	private void writeZip64End(final long start, final long size,
+			final int count) throws IOException {
+		final long endOffset = offset;
+		putInt(0, ZIP64_END_SIGNATURE);
+		// Size of the remaining record:
+		putLong(4, 44);
+		putShort(12, ZIP64_VERSION);
+		putShort(14, ZIP64_VERSION);
+		putInt(16, 0);
+		putInt(20, 0);
+		putLong(24, count);
+		putLong(32, count);
+		putLong(40, size);
+		putLong(48, start);
+		out.write(header, 0, 56);
+		offset += 56;
+		putInt(0, ZIP64_LOCATOR_SIGNATURE);
+		putInt(4, 0);
+		putLong(8, endOffset);
+		putInt(16, 1);
+		out.write(header, 0, 20);
+		offset += 20;
+	}
+
+	private void putShort(final int pos, final int value) {
+		header[pos] = (byte) value;
+		header[pos + 1] = (byte) (value >>> 8);
+	}
+
+	private void putInt(final int pos, final int value) {
+		putShort(pos, value);
+		putShort(pos + 2, value >>> 16);
+	}
+
+	private void putLong(final int pos, final long value) {
+		putInt(pos, (int) value);
+		putInt(pos + 4, (int) (value >>> 32));
+	}
+
+	private static int toDosTime(final long time) {
+		final Calendar c = Calendar.getInstance();
+		c.setTimeInMillis(time);
+		final int year = c.get(Calendar.YEAR);
+		if (year < 1980) {
+			// Earliest date which can be represented: 1980-01-01
+			return (1 << 21) | (1 << 16);
+		}
+		return (year - 1980) << 25 | (c.get(Calendar.MONTH) + 1) << 21
+				| c.get(Calendar.DAY_OF_MONTH) << 16
+				| c.get(Calendar.HOUR_OF_DAY) << 11
+				| c.get(Calendar.MINUTE) << 5 | c.get(Calendar.SECOND) >> 1;
+	}
+
+	private static final class Entry {
+
+		final byte[] name;
+
+		int method;
+
+		long crc;
+
+		long size;
+
+		long compressedSize;
+
+		byte[] data;
+
+		long offset;
+
+		Entry(final byte[] name) {
+			this.name = name;
+		}
+
+		int getVersion() {
+			return method == METHOD_DEFLATED ? 20 : 10;
+		}
+
+	}
+
+	private static final class EntryBuffer extends ByteArrayOutputStream {
+
+		EntryBuffer() {
+			super(4096);
+		}
+
+		/**
+		 * @return internal buffer, valid up to {@link #size()}
+		 */
+		byte[] array() {
+			return buf;
+		}
+
+	}
+
+	private final class EntryOutput extends OutputStream {
+
+		private final String path;
+
+		private EntryBuffer buffer = new EntryBuffer();
+
+		EntryOutput(final String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+				throws IOException {
+			ensureNotClosed();
+			buffer.write(b, off, len);
+		}
+
+		@Override
+		public void write(final byte[] b) throws IOException {
+			ensureNotClosed();
+			buffer.write(b, 0, b.length);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			ensureNotClosed();
+			buffer.write(b);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			ensureNotClosed();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (buffer != null) {
+				final EntryBuffer content = buffer;
+				buffer = null;
+				submit(path, content);
+			}
+		}
+
+		private void ensureNotClosed() throws IOException {
+			if (buffer == null) {
+				throw new IOException("Zip entry already closed.");
+			}
+		}
+
+	}
+
+}
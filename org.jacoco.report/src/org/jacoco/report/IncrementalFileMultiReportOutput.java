@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static java.lang.String.format;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementation of {@link IMultiReportOutput} that writes files into a local
+ * directory and only rewrites files whose content has changed since the last
+ * report run. The content hashes of all created files are kept in a manifest
+ * file in the output directory. Files which have been created by the previous
+ * run but not by the current run are deleted.
+ *
+ * As the content of a report page depends on the coverage data, the source
+ * file and all links to other pages an unchanged page hash implies that none
+ * of these inputs has changed. Index pages of packages and groups are only
+ * rewritten when the totals of their children have changed.
+ */
+public class IncrementalFileMultiReportOutput implements IMultiReportOutput {
+
+	/**
+	 * Name of the manifest file in the output directory.
+	 */
+	public static final String MANIFEST = ".jacoco-manifest";
+
+	private static final String CHARSET = "UTF-8";
+
+	private final File basedir;
+
+	private final Map<String, String> previous;
+
+	private final Map<String, String> current;
+
+	private int written;
+
+	/**
+	 * Creates a new instance for document output in the given base directory.
+	 * An existing manifest in this directory is read and deleted immediately,
+	 * so that files of an interrupted run are never trusted by a later run.
+	 *
+	 * @param basedir
+	 *            base directory
+	 * @throws IOException
+	 *             if an existing manifest can't be read or deleted
+	 */
+	public IncrementalFileMultiReportOutput(final File basedir)
+			throws IOException {
+		this.basedir = basedir;
+		this.previous = readManifest(new File(basedir, MANIFEST));
+		this.current = new LinkedHashMap<String, String>();
+		this.written = 0;
+	}
+
+	/**
+	 * Returns the number of files which have actually been written so far.
+	 * Files with unchanged content are not counted.
+	 *
+	 * @return number of written files
+	 */
+	public int getWrittenFileCount() {
+		return written;
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		return new ByteArrayOutputStream() {
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					store(path, buf, count);
+				}
+			}
+		};
+	}
+
+	private void store(final String path, final byte[] content,
+			final int length) throws IOException {
+		final String hash = hash(content, length);
+		current.put(path, hash);
+		final File file = new File(basedir, path);
+		if (hash.equals(previous.get(path)) && file.isFile()
+				&& file.length() == length) {
+			return;
+		}
+		final File parent = file.getParentFile();
+		parent.mkdirs();
+		if (!parent.isDirectory()) {
+			throw new IOException(format("Can't create directory %s.", parent));
+		}
+		final OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content, 0, length);
+		} finally {
+			out.close();
+		}
+		written++;
+	}
+
+	/**
+	 * Deletes all files of the previous run which have not been created by
+	 * this run and writes the new manifest.
+	 */
+	public void close() throws IOException {
+		for (final String path : previous.keySet()) {
+			if (!current.containsKey(path)) {
+				new File(basedir, path).delete();
+			}
+		}
+		basedir.mkdirs();
+		final Writer writer = new OutputStreamWriter(
+				new FileOutputStream(new File(basedir, MANIFEST)), CHARSET);
+		try {
+			for (final Map.Entry<String, String> e : current.entrySet()) {
+				writer.write(e.getValue());
+				writer.write(' ');
+				writer.write(e.getKey());
+				writer.write('\n');
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static String hash(final byte[] content, final int length) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("MD5");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(content, 0, length);
+		final StringBuilder hex = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+			hex.append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	private static Map<String, String> readManifest(final File file)
+			throws IOException {
+		final Map<String, String> manifest = new HashMap<String, String>();
+		if (!file.isFile()) {
+			return manifest;
+		}
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), CHARSET));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int sep = line.indexOf(' ');
+				if (sep == -1) {
+					throw new IOException(
+							format("Invalid manifest entry %s.", line));
+				}
+				manifest.put(line.substring(sep + 1), line.substring(0, sep));
+			}
+		} finally {
+			reader.close();
+		}
+		if (!file.delete()) {
+			throw new IOException(format("Can't delete manifest %s.", file));
+		}
+		return manifest;
+	}
+
+}
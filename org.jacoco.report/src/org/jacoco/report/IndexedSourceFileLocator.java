@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jacoco.report.internal.ConcurrentTasks;
+
+/**
+ * Locator for source files in multiple directories and source archives. In
+ * contrast to a {@link MultiSourceFileLocator} with a
+ * {@link DirectorySourceFileLocator} per directory, all roots are scanned only
+ * once on the first request into an index of relative paths. Subsequent
+ * lookups do not access the file system for missing files. Roots are scanned
+ * on a pool of worker threads. If the same path exists in multiple roots the
+ * root added first wins. Every directory is scanned only once per root, so
+ * symbolic links to directories which have already been scanned are ignored.
+ * <p>
+ * Files created after the first request are not found. Source archives are
+ * kept open until the locator is closed.
+ */
+public class IndexedSourceFileLocator extends InputStreamSourceFileLocator
+		implements Closeable {
+
+	private final int threads;
+
+	private final List<File> roots;
+
+	private final List<ZipFile> archives;
+
+	private Map<String, Source> index;
+
+	/**
+	 * Creates a new empty locator.
+	 *
+	 * @param encoding
+	 *            encoding of the source files, <code>null</code> for platform
+	 *            default encoding
+	 * @param tabWidth
+	 *            tab width in source files as number of blanks
+	 * @param threads
+	 *            number of threads used to scan the roots
+	 */
+	public IndexedSourceFileLocator(final String encoding, final int tabWidth,
+			final int threads) {
+		super(encoding, tabWidth);
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Number of threads must be at least 1.");
+		}
+		this.threads = threads;
+		this.roots = new ArrayList<File>();
+		this.archives = new ArrayList<ZipFile>();
+	}
+
+	/**
+	 * Adds a source directory or a source archive like a ZIP or JAR file.
+	 * Roots which do not exist are ignored. Roots must be added before the
+	 * first source file is requested.
+	 *
+	 * @param root
+	 *            directory or archive containing source files with their fully
+	 *            qualified path
+	 */
+	public void add(final File root) {
+		if (index != null) {
+			throw new IllegalStateException("Index already created.");
+		}
+		roots.add(root);
+	}
+
+	@Override
+	protected InputStream getSourceStream(final String path)
+			throws IOException {
+		if (index == null) {
+			index = createIndex();
+		}
+		final Source source = index.get(path);
+		return source == null ? null : source.open();
+	}
+
+	/**
+	 * Closes all source archives.
+	 *
+	 * @throws IOException
+	 *             if an archive can't be closed
+	 */
+	public void close() throws IOException {
+		for (final ZipFile archive : archives) {
+			archive.close();
+		}
+		archives.clear();
+	}
+
+	private Map<String, Source> createIndex() throws IOException {
+		final ExecutorService executor = ConcurrentTasks.newThreadPool(threads,
+				"jacoco-source-index");
+		try {
+			return scan(executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Map<String, Source> scan(final ExecutorService executor)
+			throws IOException {
+		final List<Map<String, Source>> rootIndexes = new ArrayList<Map<String, Source>>();
+		final List<Set<File>> visited = new ArrayList<Set<File>>();
+		final LinkedList<Future<Listing>> pending = new LinkedList<Future<Listing>>();
+		boolean complete = false;
+		try {
+			for (int i = 0; i < roots.size(); i++) {
+				rootIndexes.add(new HashMap<String, Source>());
+				visited.add(new HashSet<File>());
+				final File root = roots.get(i);
+				if (root.isDirectory()) {
+					final File dir = root.getCanonicalFile();
+					visited.get(i).add(dir);
+					pending.add(executor.submit(new DirectoryScan(i, dir, "")));
+				} else if (root.isFile()) {
+					pending.add(executor.submit(new ArchiveScan(i, root)));
+				}
+			}
+			// Sub-directories are scanned as separate tasks, so large roots
+			// are distributed over all threads as well:
+			while (!pending.isEmpty()) {
+				final Listing listing = ConcurrentTasks
+						.getResult(pending.removeFirst());
+				if (listing.archive != null) {
+					archives.add(listing.archive);
+				}
+				rootIndexes.get(listing.root).putAll(listing.sources);
+				for (final Map.Entry<String, File> dir : listing.directories
+						.entrySet()) {
+					if (visited.get(listing.root).add(dir.getValue())) {
+						pending.add(executor.submit(new DirectoryScan(
+								listing.root, dir.getValue(), dir.getKey())));
+					}
+				}
+			}
+			complete = true;
+		} finally {
+			if (!complete) {
+				closeArchives(pending);
+			}
+		}
+		final Map<String, Source> result = new HashMap<String, Source>();
+		for (int i = rootIndexes.size(); --i >= 0;) {
+			result.putAll(rootIndexes.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Waits for the given scans and closes the archives opened by them.
+	 * Failures are ignored as the first failure of the scan is reported.
+	 */
+	private static void closeArchives(final List<Future<Listing>> scans) {
+		for (final Future<Listing> scan : scans) {
+			try {
+				final ZipFile archive = scan.get().archive;
+				if (archive != null) {
+					archive.close();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final ExecutionException e) {
+				// ignore
+			} catch (final IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Content of a directory or archive. Sub-directories are stored with their
+	 * canonical file.
+	 */
+	private static class Listing {
+
+		final int root;
+
+		final Map<String, Source> sources = new HashMap<String, Source>();
+
+		final Map<String, File> directories = new HashMap<String, File>();
+
+		ZipFile archive;
+
+		Listing(final int root) {
+			this.root = root;
+		}
+
+	}
+
+	private static class DirectoryScan implements Callable<Listing> {
+
+		private final int root;
+
+		private final File directory;
+
+		private final String prefix;
+
+		DirectoryScan(final int root, final File directory,
+				final String prefix) {
+			this.root = root;
+			this.directory = directory;
+			this.prefix = prefix;
+		}
+
+		public Listing call() throws IOException {
+			final Listing listing = new Listing(root);
+			final File[] files = directory.listFiles();
+			if (files != null) {
+				for (final File file : files) {
+					final String path = prefix + file.getName();
+					if (file.isDirectory()) {
+						listing.directories.put(path + "/",
+								file.getCanonicalFile());
+					} else {
+						listing.sources.put(path, new FileSource(file));
+					}
+				}
+			}
+			return listing;
+		}
+
+	}
+
+	private static class ArchiveScan implements Callable<Listing> {
+
+		private final int root;
+
+		private final File file;
+
+		ArchiveScan(final int root, final File file) {
+			this.root = root;
+			this.file = file;
+		}
+
+		public Listing call() throws IOException {
+			final Listing listing = new Listing(root);
+			final ZipFile archive = new ZipFile(file);
+			try {
+				final Enumeration<? extends ZipEntry> entries = archive
+						.entries();
+				while (entries.hasMoreElements()) {
+					final ZipEntry entry = entries.nextElement();
+					if (!entry.isDirectory()) {
+						listing.sources.put(entry.getName(),
+								new ArchiveSource(archive, entry));
+					}
+				}
+			} catch (final RuntimeException e) {
+				archive.close();
+				throw e;
+			}
+			listing.archive = archive;
+			return listing;
+		}
+
+	}
+
+	private interface Source {
+
+		InputStream open() throws IOException;
+
+	}
+
+	private static class FileSource implements Source {
+
+		private final File file;
+
+		FileSource(final File file) {
+			this.file = file;
+		}
+
+		public InputStream open() throws IOException {
+			return new FileInputStream(file);
+		}
+
+	}
+
+	private static class ArchiveSource implements Source {
+
+		private final ZipFile archive;
+
+		private final ZipEntry entry;
+
+		ArchiveSource(final ZipFile archive, final ZipEntry entry) {
+			this.archive = archive;
+			this.entry = entry;
+		}
+
+		public InputStream open() throws IOException {
+			return archive.getInputStream(entry);
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.report.IReportGroupVisitor;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.internal.binary.BinaryGroupVisitor;
+import org.jacoco.report.internal.binary.BinaryReportWriter;
+
+/**
+ * Report formatter that creates a single compact binary file which can be
+ * read with {@link BinaryReportReader}. The file contains a string table for
+ * all names, variable length encoded counters and line details for all source
+ * files. An index at the end of the file allows to load bundle and package
+ * totals or single packages without reading the whole file. Bundles within
+ * groups are stored with the group names as a slash separated prefix.
+ */
+public class BinaryFormatter {
+
+	/**
+	 * Creates a new visitor to write a report to the given stream.
+	 *
+	 * @param output
+	 *            output stream to write the report to
+	 * @return visitor to emit the report data to
+	 * @throws IOException
+	 *             in case of problems with the output stream
+	 */
+	public IReportVisitor createVisitor(final OutputStream output)
+			throws IOException {
+		final BinaryReportWriter writer = new BinaryReportWriter(output);
+		class RootVisitor implements IReportVisitor {
+
+			private BinaryGroupVisitor groupVisitor;
+
+			public void visitInfo(final List<SessionInfo> sessionInfos,
+					final Collection<ExecutionData> executionData)
+					throws IOException {
+				writer.sessionInfos(sessionInfos);
+			}
+
+			public void visitBundle(final IBundleCoverage bundle,
+					final ISourceFileLocator locator) throws IOException {
+				writer.bundle(bundle.getName(), bundle);
+			}
+
+			public IReportGroupVisitor visitGroup(final String name)
+					throws IOException {
+				groupVisitor = new BinaryGroupVisitor(writer, name, "");
+				return groupVisitor;
+			}
+
+			public void visitEnd() throws IOException {
+				if (groupVisitor != null) {
+					groupVisitor.visitEnd();
+				}
+				writer.close();
+			}
+		}
+		return new RootVisitor();
+	}
+
+}
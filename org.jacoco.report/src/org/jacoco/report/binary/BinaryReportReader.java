@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.report.internal.binary.BinaryInput;
+import org.jacoco.report.internal.binary.BinaryReportIndex;
+import org.jacoco.report.internal.binary.BinaryReportIndex.PackageEntry;
+import org.jacoco.report.internal.binary.BinaryReportWriter;
+
+/**
+ * Reader for reports created with {@link BinaryFormatter}. When the reader is
+ * opened only the index at the end of the file is loaded. Bundle and package
+ * totals are directly available from the index, the details of a package are
+ * loaded on request.
+ */
+public class BinaryReportReader {
+
+	private final RandomAccessFile file;
+
+	private final BinaryReportIndex index;
+
+	/**
+	 * Opens the given binary report and reads its index.
+	 *
+	 * @param file
+	 *            binary report file
+	 * @throws IOException
+	 *             if the file can't be read or is not a valid binary report
+	 */
+	public BinaryReportReader(final File file) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		try {
+			this.index = readIndex();
+		} catch (final IOException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	private BinaryReportIndex readIndex() throws IOException {
+		final int magicLength = BinaryReportWriter.MAGIC.length;
+		final long length = file.length();
+		if (length < magicLength + 1 + BinaryReportWriter.TRAILER_LENGTH) {
+			throw new IOException("Invalid binary report.");
+		}
+		final BinaryInput header = new BinaryInput(read(0, magicLength + 1));
+		checkMagic(header.readBytes(magicLength));
+		final int version = header.readVarInt();
+		if (version != BinaryReportWriter.FORMAT_VERSION) {
+			throw new IOException(String.format(
+					"Incompatible version %s of binary report.",
+					Integer.valueOf(version)));
+		}
+		final long trailerOffset = length - BinaryReportWriter.TRAILER_LENGTH;
+		final BinaryInput trailer = new BinaryInput(
+				read(trailerOffset, BinaryReportWriter.TRAILER_LENGTH));
+		final long indexOffset = trailer.readLong();
+		checkMagic(trailer.readBytes(magicLength));
+		if (indexOffset < magicLength || indexOffset > trailerOffset) {
+			throw new IOException("Invalid binary report.");
+		}
+		return new BinaryReportIndex(
+				read(indexOffset, trailerOffset - indexOffset));
+	}
+
+	private static void checkMagic(final byte[] magic) throws IOException {
+		if (!Arrays.equals(BinaryReportWriter.MAGIC, magic)) {
+			throw new IOException("Invalid binary report.");
+		}
+	}
+
+	private byte[] read(final long offset, final long length)
+			throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Invalid binary report.");
+		}
+		final byte[] buffer = new byte[(int) length];
+		file.seek(offset);
+		file.readFully(buffer);
+		return buffer;
+	}
+
+	/**
+	 * @return session infos stored in the report
+	 */
+	public List<SessionInfo> getSessionInfos() {
+		return index.getSessionInfos();
+	}
+
+	/**
+	 * Returns the totals of all bundles without reading any package details.
+	 *
+	 * @return bundle totals in the order of the report
+	 */
+	public List<ICoverageNode> getBundles() {
+		return index.getBundles();
+	}
+
+	/**
+	 * Returns the totals of all packages of the given bundle without reading
+	 * any package details.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @return package totals in the order of the report or <code>null</code>
+	 *         if there is no such bundle
+	 */
+	public List<ICoverageNode> getPackages(final String bundle) {
+		return index.getPackages(bundle);
+	}
+
+	/**
+	 * Reads the details of a single package.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @param packageName
+	 *            package name in VM notation
+	 * @return package coverage or <code>null</code> if there is no such
+	 *         package
+	 * @throws IOException
+	 *             if the file can't be read or is not a valid binary report
+	 */
+	public IPackageCoverage readPackage(final String bundle,
+			final String packageName) throws IOException {
+		final PackageEntry entry = index.getPackage(bundle, packageName);
+		if (entry == null) {
+			return null;
+		}
+		return index.readPackage(entry,
+				read(entry.getOffset(), entry.getLength()));
+	}
+
+	/**
+	 * Reads the details of all packages of a bundle.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @return bundle coverage or <code>null</code> if there is no such bundle
+	 * @throws IOException
+	 *             if the file can't be read or is not a valid binary report
+	 */
+	public IBundleCoverage readBundle(final String bundle) throws IOException {
+		final List<ICoverageNode> packages = index.getPackages(bundle);
+		if (packages == null) {
+			return null;
+		}
+		final List<IPackageCoverage> result = new ArrayList<IPackageCoverage>();
+		for (final ICoverageNode p : packages) {
+			result.add(readPackage(bundle, p.getName()));
+		}
+		return index.createBundle(bundle, result);
+	}
+
+	/**
+	 * Closes the underlying file.
+	 *
+	 * @throws IOException
+	 *             if the file can't be closed
+	 */
+	public void close() throws IOException {
+		file.close();
+	}
+
+}
@@ -12,8 +12,13 @@
  *******************************************************************************/
 package org.jacoco.report.check;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
@@ -22,36 +27,50 @@ import org.jacoco.core.analysis.IMethodCoverage;
 import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.report.ILanguageNames;
+import org.jacoco.report.internal.ConcurrentTasks;
 
 /**
  * Internal class to check a list of rules against a {@link IBundleCoverage}
- * instance.
+ * instance. With more than one thread packages are checked concurrently, but
+ * violations are always reported in the same order as for a sequential check.
+ * The thread pool is created on demand and used for all bundles until
+ * {@link #shutdown()} is called.
  */
 class BundleChecker {
 
 	private final ILanguageNames names;
 	private final IViolationsOutput output;
+	private final int threads;
 
-	private final Collection<Rule> bundleRules;
-	private final Collection<Rule> packageRules;
-	private final Collection<Rule> classRules;
-	private final Collection<Rule> sourceFileRules;
-	private final Collection<Rule> methodRules;
+	private final RuleIndex bundleRules;
+	private final RuleIndex packageRules;
+	private final RuleIndex classRules;
+	private final RuleIndex sourceFileRules;
+	private final RuleIndex methodRules;
 
 	private final boolean traversePackages;
 	private final boolean traverseClasses;
 	private final boolean traverseSourceFiles;
 	private final boolean traverseMethods;
 
+	private ExecutorService executor;
+
 	public BundleChecker(final Collection<Rule> rules,
 			final ILanguageNames names, final IViolationsOutput output) {
+		this(rules, names, output, 1);
+	}
+
+	public BundleChecker(final Collection<Rule> rules,
+			final ILanguageNames names, final IViolationsOutput output,
+			final int threads) {
 		this.names = names;
 		this.output = output;
-		this.bundleRules = new ArrayList<Rule>();
-		this.packageRules = new ArrayList<Rule>();
-		this.classRules = new ArrayList<Rule>();
-		this.sourceFileRules = new ArrayList<Rule>();
-		this.methodRules = new ArrayList<Rule>();
+		this.threads = threads;
+		final Collection<Rule> bundleRules = new ArrayList<Rule>();
+		final Collection<Rule> packageRules = new ArrayList<Rule>();
+		final Collection<Rule> classRules = new ArrayList<Rule>();
+		final Collection<Rule> sourceFileRules = new ArrayList<Rule>();
+		final Collection<Rule> methodRules = new ArrayList<Rule>();
 		for (final Rule rule : rules) {
 			switch (rule.getElement()) {
 			case BUNDLE:
@@ -71,6 +90,11 @@ class BundleChecker {
 				break;
 			}
 		}
+		this.bundleRules = new RuleIndex(bundleRules);
+		this.packageRules = new RuleIndex(packageRules);
+		this.classRules = new RuleIndex(classRules);
+		this.sourceFileRules = new RuleIndex(sourceFileRules);
+		this.methodRules = new RuleIndex(methodRules);
 		traverseMethods = !methodRules.isEmpty();
 		traverseClasses = !classRules.isEmpty() || traverseMethods;
 		traverseSourceFiles = !sourceFileRules.isEmpty();
@@ -78,75 +102,162 @@ class BundleChecker {
 				|| traverseSourceFiles;
 	}
 
-	public void checkBundle(final IBundleCoverage bundleCoverage) {
+	public void checkBundle(final IBundleCoverage bundleCoverage)
+			throws IOException {
 		final String name = bundleCoverage.getName();
-		checkRules(bundleCoverage, bundleRules, "bundle", name);
+		checkRules(bundleCoverage, bundleRules, "bundle", name, output);
 		if (traversePackages) {
-			for (final IPackageCoverage p : bundleCoverage.getPackages()) {
-				check(p);
+			final Collection<IPackageCoverage> packages = bundleCoverage
+					.getPackages();
+			if (threads > 1 && packages.size() > 1) {
+				checkConcurrently(packages);
+			} else {
+				for (final IPackageCoverage p : packages) {
+					check(p, output);
+				}
 			}
 		}
 	}
 
-	private void check(final IPackageCoverage packageCoverage) {
+	/**
+	 * Stops the threads used for concurrent checks.
+	 */
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private void checkConcurrently(final Collection<IPackageCoverage> packages)
+			throws IOException {
+		if (executor == null) {
+			executor = ConcurrentTasks.newThreadPool(threads, "jacoco-check");
+		}
+		final List<Future<ViolationsBuffer>> results = new ArrayList<Future<ViolationsBuffer>>();
+		try {
+			for (final IPackageCoverage p : packages) {
+				results.add(executor.submit(new Callable<ViolationsBuffer>() {
+					public ViolationsBuffer call() {
+						final ViolationsBuffer buffer = new ViolationsBuffer();
+						check(p, buffer);
+						return buffer;
+					}
+				}));
+			}
+			for (final Future<ViolationsBuffer> result : results) {
+				ConcurrentTasks.getResult(result).replay(output);
+			}
+		} finally {
+			for (final Future<ViolationsBuffer> result : results) {
+				result.cancel(true);
+			}
+		}
+	}
+
+	private void check(final IPackageCoverage packageCoverage,
+			final IViolationsOutput out) {
 		final String name = names.getPackageName(packageCoverage.getName());
-		checkRules(packageCoverage, packageRules, "package", name);
+		checkRules(packageCoverage, packageRules, "package", name, out);
 		if (traverseClasses) {
 			for (final IClassCoverage c : packageCoverage.getClasses()) {
-				check(c);
+				check(c, out);
 			}
 		}
 		if (traverseSourceFiles) {
 			for (final ISourceFileCoverage s : packageCoverage
 					.getSourceFiles()) {
-				check(s);
+				check(s, out);
 			}
 		}
 	}
 
-	private void check(final IClassCoverage classCoverage) {
+	private void check(final IClassCoverage classCoverage,
+			final IViolationsOutput out) {
 		final String name = names
 				.getQualifiedClassName(classCoverage.getName());
-		checkRules(classCoverage, classRules, "class", name);
+		checkRules(classCoverage, classRules, "class", name, out);
 		if (traverseMethods) {
 			for (final IMethodCoverage m : classCoverage.getMethods()) {
-				check(m, classCoverage.getName());
+				check(m, classCoverage.getName(), out);
 			}
 		}
 	}
 
-	private void check(final ISourceFileCoverage sourceFile) {
+	private void check(final ISourceFileCoverage sourceFile,
+			final IViolationsOutput out) {
 		final String name = sourceFile.getPackageName() + "/"
 				+ sourceFile.getName();
-		checkRules(sourceFile, sourceFileRules, "source file", name);
+		checkRules(sourceFile, sourceFileRules, "source file", name, out);
 	}
 
-	private void check(final IMethodCoverage method, final String className) {
+	private void check(final IMethodCoverage method, final String className,
+			final IViolationsOutput out) {
 		final String name = names.getQualifiedMethodName(className,
 				method.getName(), method.getDesc(), method.getSignature());
-		checkRules(method, methodRules, "method", name);
+		checkRules(method, methodRules, "method", name, out);
 	}
 
-	private void checkRules(final ICoverageNode node,
-			final Collection<Rule> rules, final String typename,
-			final String elementname) {
-		for (final Rule rule : rules) {
-			if (rule.matches(elementname)) {
-				for (final Limit limit : rule.getLimits()) {
-					checkLimit(node, typename, elementname, rule, limit);
-				}
+	private void checkRules(final ICoverageNode node, final RuleIndex rules,
+			final String typename, final String elementname,
+			final IViolationsOutput out) {
+		if (rules.isEmpty()) {
+			return;
+		}
+		for (final Rule rule : rules.getMatchingRules(elementname)) {
+			for (final Limit limit : rule.getLimits()) {
+				checkLimit(node, typename, elementname, rule, limit, out);
 			}
 		}
 	}
 
 	private void checkLimit(final ICoverageNode node, final String elementtype,
-			final String elementname, final Rule rule, final Limit limit) {
+			final String elementname, final Rule rule, final Limit limit,
+			final IViolationsOutput out) {
 		final String message = limit.check(node);
 		if (message != null) {
-			output.onViolation(node, rule, limit,
+			out.onViolation(node, rule, limit,
 					String.format("Rule violated for %s %s: %s", elementtype,
 							elementname, message));
 		}
 	}
 
+	/**
+	 * Records violations of a single package to report them later in a
+	 * deterministic order.
+	 */
+	private static class ViolationsBuffer implements IViolationsOutput {
+
+		private final List<Violation> violations = new ArrayList<Violation>();
+
+		public void onViolation(final ICoverageNode node, final Rule rule,
+				final Limit limit, final String message) {
+			violations.add(new Violation(node, rule, limit, message));
+		}
+
+		void replay(final IViolationsOutput output) {
+			for (final Violation v : violations) {
+				output.onViolation(v.node, v.rule, v.limit, v.message);
+			}
+		}
+
+	}
+
+	private static class Violation {
+
+		final ICoverageNode node;
+		final Rule rule;
+		final Limit limit;
+		final String message;
+
+		Violation(final ICoverageNode node, final Rule rule, final Limit limit,
+				final String message) {
+			this.node = node;
+			this.rule = rule;
+			this.limit = limit;
+			this.message = message;
+		}
+
+	}
+
 }
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Internal index to quickly find the rules which apply to a given element
+ * name. Every include expression of a rule contributes the literal prefix up
+ * to its first wildcard character. Rules are stored in a prefix tree under
+ * these prefixes, so only rules whose prefix matches the element name have to
+ * be evaluated with {@link Rule#matches(String)}. Candidates are always
+ * returned in the original order of the rules.
+ */
+class RuleIndex {
+
+	private final Rule[] rules;
+
+	private final Node root;
+
+	/**
+	 * Creates a new index for the given rules.
+	 *
+	 * @param rules
+	 *            rules to index
+	 */
+	RuleIndex(final Collection<Rule> rules) {
+		this.rules = rules.toArray(new Rule[rules.size()]);
+		this.root = new Node();
+		for (int i = 0; i < this.rules.length; i++) {
+			for (final String part : this.rules[i].getIncludes()
+					.split("\\:")) {
+				root.add(literalPrefix(part), i);
+			}
+		}
+	}
+
+	private static String literalPrefix(final String expression) {
+		for (int i = 0; i < expression.length(); i++) {
+			final char c = expression.charAt(i);
+			if (c == '*' || c == '?') {
+				return expression.substring(0, i);
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * @return <code>true</code> if no rules are indexed
+	 */
+	boolean isEmpty() {
+		return rules.length == 0;
+	}
+
+	/**
+	 * Returns all rules which match the given element name in the original
+	 * order of the rules.
+	 *
+	 * @param name
+	 *            element name
+	 * @return matching rules
+	 */
+	List<Rule> getMatchingRules(final String name) {
+		if (rules.length == 0) {
+			return Collections.emptyList();
+		}
+		final int[] candidates = root.collect(name);
+		final List<Rule> result = new ArrayList<Rule>(candidates.length);
+		int last = -1;
+		for (final int idx : candidates) {
+			// A rule may be registered with multiple prefixes:
+			if (idx != last) {
+				final Rule rule = rules[idx];
+				if (rule.matches(name)) {
+					result.add(rule);
+				}
+				last = idx;
+			}
+		}
+		return result;
+	}
+
+	private static class Node {
+
+		private static final int[] EMPTY = new int[0];
+
+		private char[] keys = new char[0];
+
+		private Node[] children = new Node[0];
+
+		private int[] ruleIndices = EMPTY;
+
+		void add(final String prefix, final int ruleIndex) {
+			Node node = this;
+			for (int i = 0; i < prefix.length(); i++) {
+				node = node.getOrCreateChild(prefix.charAt(i));
+			}
+			final int size = node.ruleIndices.length;
+			final int[] newIndices = new int[size + 1];
+			System.arraycopy(node.ruleIndices, 0, newIndices, 0, size);
+			newIndices[size] = ruleIndex;
+			node.ruleIndices = newIndices;
+		}
+
+		int[] collect(final String name) {
+			int[] result = ruleIndices;
+			int count = result.length;
+			boolean copied = false;
+			Node node = this;
+			final int length = name.length();
+			for (int i = 0; i < length; i++) {
+				node = node.getChild(name.charAt(i));
+				if (node == null) {
+					break;
+				}
+				final int[] indices = node.ruleIndices;
+				if (indices.length > 0) {
+					if (count == 0) {
+						result = indices;
+					} else {
+						if (!copied || result.length < count + indices.length) {
+							final int[] newResult = new int[Math.max(
+									2 * (count + indices.length), 8)];
+							System.arraycopy(result, 0, newResult, 0, count);
+							result = newResult;
+							copied = true;
+						}
+						System.arraycopy(indices, 0, result, count,
+								indices.length);
+					}
+					count += indices.length;
+				}
+			}
+			if (copied) {
+				Arrays.sort(result, 0, count);
+				final int[] trimmed = new int[count];
+				System.arraycopy(result, 0, trimmed, 0, count);
+				return trimmed;
+			}
+			return result;
+		}
+
+		private Node getChild(final char c) {
+			final char[] k = keys;
+			for (int i = 0; i < k.length; i++) {
+				if (k[i] == c) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private Node getOrCreateChild(final char c) {
+			Node child = getChild(c);
+			if (child == null) {
+				final int size = keys.length;
+				final char[] newKeys = new char[size + 1];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				newKeys[size] = c;
+				final Node[] newChildren = new Node[size + 1];
+				System.arraycopy(children, 0, newChildren, 0, size);
+				child = new Node();
+				newChildren[size] = child;
+				keys = newKeys;
+				children = newChildren;
+			}
+			return child;
+		}
+
+	}
+
+}
@@ -34,6 +34,7 @@ public class RulesChecker {
 
 	private List<Rule> rules;
 	private ILanguageNames languageNames;
+	private int threads;
 
 	/**
 	 * New formatter instance.
@@ -41,6 +42,7 @@ public class RulesChecker {
 	public RulesChecker() {
 		this.rules = new ArrayList<Rule>();
 		this.setLanguageNames(new JavaNames());
+		this.threads = 1;
 	}
 
 	/**
@@ -64,6 +66,22 @@ public class RulesChecker {
 		this.languageNames = languageNames;
 	}
 
+	/**
+	 * Sets the number of threads used to check the packages of a bundle.
+	 * Violations are reported in the same order independently of this
+	 * setting. The default is a single thread.
+	 *
+	 * @param threads
+	 *            number of threads, must be at least 1
+	 */
+	public void setThreads(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Number of threads must be at least 1: " + threads);
+		}
+		this.threads = threads;
+	}
+
 	/**
 	 * Creates a new visitor to process the configured checks.
 	 *
@@ -73,7 +91,7 @@ public class RulesChecker {
 	 */
 	public IReportVisitor createVisitor(final IViolationsOutput output) {
 		final BundleChecker bundleChecker = new BundleChecker(rules,
-				languageNames, output);
+				languageNames, output, threads);
 		return new IReportVisitor() {
 
 			public IReportGroupVisitor visitGroup(final String name)
@@ -92,6 +110,7 @@ public class RulesChecker {
 			}
 
 			public void visitEnd() throws IOException {
+				bundleChecker.shutdown();
 			}
 		};
 	}
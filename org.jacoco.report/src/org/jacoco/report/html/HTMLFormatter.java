@@ -57,6 +57,10 @@ public class HTMLFormatter implements IHTMLReportContext {
 
 	private String outputEncoding = "UTF-8";
 
+	private boolean serverSideHighlighting;
+
+	private int tableDataThreshold;
+
 	private Resources resources;
 
 	private ElementIndex index;
@@ -113,6 +117,35 @@ public class HTMLFormatter implements IHTMLReportContext {
 		this.outputEncoding = outputEncoding;
 	}
 
+	/**
+	 * Determines whether source files are highlighted while the report is
+	 * created. Otherwise source pages are highlighted by a script in the
+	 * browser, which can be slow for large source files. Java and Kotlin
+	 * syntax is supported. Default is <code>false</code>.
+	 *
+	 * @param flag
+	 *            <code>true</code> if source files should be highlighted in
+	 *            the report
+	 */
+	public void setServerSideHighlighting(final boolean flag) {
+		this.serverSideHighlighting = flag;
+	}
+
+	/**
+	 * Sets the number of rows above which coverage tables are written to a
+	 * separate data file. Pages of such tables only contain the first rows,
+	 * all rows are displayed with client side virtual scrolling and sorting.
+	 * This keeps pages of packages with a huge number of classes usable. The
+	 * default is <code>0</code> which renders all rows into the page.
+	 *
+	 * @param threshold
+	 *            maximum number of rows rendered into a page or
+	 *            <code>0</code>
+	 */
+	public void setTableDataThreshold(final int threshold) {
+		this.tableDataThreshold = threshold;
+	}
+
 	// === IHTMLReportContext ===
 
 	public ILanguageNames getLanguageNames() {
@@ -132,6 +165,7 @@ public class HTMLFormatter implements IHTMLReportContext {
 
 	private Table createTable() {
 		final Table t = new Table();
+		t.setDataThreshold(tableDataThreshold);
 		t.add("Element", null, new LabelColumn(), false);
 		t.add("Missed Instructions", Styles.BAR,
 				new BarColumn(CounterEntity.INSTRUCTION, locale), true);
@@ -176,6 +210,10 @@ public class HTMLFormatter implements IHTMLReportContext {
 		return locale;
 	}
 
+	public boolean isServerSideHighlighting() {
+		return serverSideHighlighting;
+	}
+
 	/**
 	 * Creates a new visitor to write a report to the given output.
 	 *
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Internal utilities for tasks which are executed concurrently while a
+ * report is created.
+ */
+public final class ConcurrentTasks {
+
+	private ConcurrentTasks() {
+	}
+
+	/**
+	 * Creates a thread pool with a fixed number of daemon threads. Daemon
+	 * threads ensure that a pool which is not shut down properly never blocks
+	 * the termination of the VM.
+	 *
+	 * @param threads
+	 *            number of threads, must be at least 1
+	 * @param name
+	 *            name of the created threads
+	 * @return new thread pool
+	 */
+	public static ExecutorService newThreadPool(final int threads,
+			final String name) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Waits for the result of the given task. Exceptions thrown by the task
+	 * are re-thrown unchanged if they are {@link IOException}s or unchecked
+	 * exceptions.
+	 *
+	 * @param future
+	 *            task to wait for
+	 * @param <T>
+	 *            type of the task result
+	 * @return result of the task
+	 * @throws IOException
+	 *             if the task has thrown an {@link IOException} or the current
+	 *             thread has been interrupted
+	 */
+	public static <T> T getResult(final Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+}
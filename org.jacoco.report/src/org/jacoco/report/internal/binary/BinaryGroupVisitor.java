@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.internal.AbstractGroupVisitor;
+
+/**
+ * A {@link org.jacoco.report.IReportGroupVisitor} that writes all bundles to a
+ * {@link BinaryReportWriter}. Groups are flattened: Bundles are stored with
+ * the names of their enclosing groups as a slash separated prefix.
+ */
+public class BinaryGroupVisitor extends AbstractGroupVisitor {
+
+	private final BinaryReportWriter writer;
+
+	private final String prefix;
+
+	/**
+	 * New handler for a group with the given name.
+	 *
+	 * @param writer
+	 *            writer for the report
+	 * @param name
+	 *            name of the group
+	 * @param prefix
+	 *            prefix for all bundle names within this group
+	 */
+	public BinaryGroupVisitor(final BinaryReportWriter writer,
+			final String name, final String prefix) {
+		super(name);
+		this.writer = writer;
+		this.prefix = prefix;
+	}
+
+	@Override
+	protected void handleBundle(final IBundleCoverage bundle,
+			final ISourceFileLocator locator) throws IOException {
+		writer.bundle(prefix + bundle.getName(), bundle);
+	}
+
+	@Override
+	protected AbstractGroupVisitor handleGroup(final String name)
+			throws IOException {
+		return new BinaryGroupVisitor(writer, name, prefix + name + "/");
+	}
+
+	@Override
+	protected void handleEnd() throws IOException {
+		// nothing to do, group totals are not stored
+	}
+
+}
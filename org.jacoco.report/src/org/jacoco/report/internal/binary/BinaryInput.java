@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.io.IOException;
+
+/**
+ * Reads the encodings written by {@link BinaryOutput} from a byte array.
+ */
+public class BinaryInput {
+
+	private final byte[] buffer;
+
+	private int pos;
+
+	/**
+	 * Creates a new input for the given bytes.
+	 *
+	 * @param buffer
+	 *            bytes to read
+	 */
+	public BinaryInput(final byte[] buffer) {
+		this.buffer = buffer;
+		this.pos = 0;
+	}
+
+	/**
+	 * Reads a single byte.
+	 *
+	 * @return byte value in the range 0 to 255
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public int readByte() throws IOException {
+		if (pos == buffer.length) {
+			throw new IOException("Unexpected end of binary report.");
+		}
+		return buffer[pos++] & 0xFF;
+	}
+
+	/**
+	 * Reads the given number of bytes.
+	 *
+	 * @param length
+	 *            number of bytes
+	 * @return new array with the bytes
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public byte[] readBytes(final int length) throws IOException {
+		if (length < 0 || buffer.length - pos < length) {
+			throw new IOException("Unexpected end of binary report.");
+		}
+		final byte[] bytes = new byte[length];
+		System.arraycopy(buffer, pos, bytes, 0, length);
+		pos += length;
+		return bytes;
+	}
+
+	/**
+	 * Reads a value written with {@link BinaryOutput#writeVarInt(int)}.
+	 *
+	 * @return int value
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public int readVarInt() throws IOException {
+		return (int) readVarLong();
+	}
+
+	/**
+	 * Reads a value written with {@link BinaryOutput#writeVarLong(long)}.
+	 *
+	 * @return long value
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public long readVarLong() throws IOException {
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Reads a value written with {@link BinaryOutput#writeLong(long)}.
+	 *
+	 * @return long value
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public long readLong() throws IOException {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | readByte();
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a value written with {@link BinaryOutput#writeString(String)}.
+	 *
+	 * @return string value
+	 * @throws IOException
+	 *             if the end of the buffer is reached
+	 */
+	public String readString() throws IOException {
+		return new String(readBytes(readVarInt()), "UTF-8");
+	}
+
+}
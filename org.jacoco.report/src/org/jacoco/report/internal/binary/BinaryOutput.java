@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffered output for binary reports with variable length encoding of
+ * numbers. The output keeps track of the current position in the stream.
+ */
+public class BinaryOutput {
+
+	private static final int BUFFER_SIZE = 0x10000;
+
+	private final OutputStream out;
+
+	private final byte[] buffer;
+
+	private int pos;
+
+	private long flushed;
+
+	/**
+	 * Creates a new output for the given stream.
+	 *
+	 * @param out
+	 *            stream to write to
+	 */
+	public BinaryOutput(final OutputStream out) {
+		this.out = out;
+		this.buffer = new byte[BUFFER_SIZE];
+		this.pos = 0;
+		this.flushed = 0;
+	}
+
+	/**
+	 * @return number of bytes written so far
+	 */
+	public long getPosition() {
+		return flushed + pos;
+	}
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b
+	 *            byte value
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeByte(final int b) throws IOException {
+		if (pos == BUFFER_SIZE) {
+			flush();
+		}
+		buffer[pos++] = (byte) b;
+	}
+
+	/**
+	 * Writes the given bytes.
+	 *
+	 * @param bytes
+	 *            bytes to write
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeBytes(final byte[] bytes) throws IOException {
+		for (final byte b : bytes) {
+			writeByte(b);
+		}
+	}
+
+	/**
+	 * Writes a non-negative int value with a variable length encoding of 1 to
+	 * 5 bytes.
+	 *
+	 * @param value
+	 *            value to write
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeVarInt(final int value) throws IOException {
+		writeVarLong(value & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Writes a non-negative long value with a variable length encoding of 1
+	 * to 10 bytes.
+	 *
+	 * @param value
+	 *            value to write
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeVarLong(final long value) throws IOException {
+		long v = value;
+		while ((v & ~0x7FL) != 0) {
+			writeByte(0x80 | ((int) v & 0x7F));
+			v >>>= 7;
+		}
+		writeByte((int) v);
+	}
+
+	/**
+	 * Writes a long value with a fixed length of 8 bytes.
+	 *
+	 * @param value
+	 *            value to write
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeLong(final long value) throws IOException {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			writeByte((int) (value >>> shift));
+		}
+	}
+
+	/**
+	 * Writes a string as the length of its UTF-8 encoding in bytes followed by
+	 * the UTF-8 encoded characters.
+	 *
+	 * @param s
+	 *            string to write
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void writeString(final String s) throws IOException {
+		final byte[] bytes = s.getBytes("UTF-8");
+		writeVarInt(bytes.length);
+		writeBytes(bytes);
+	}
+
+	/**
+	 * Writes all buffered data to the underlying stream.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void flush() throws IOException {
+		out.write(buffer, 0, pos);
+		flushed += pos;
+		pos = 0;
+	}
+
+	/**
+	 * Flushes and closes the underlying stream.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void close() throws IOException {
+		flush();
+		out.close();
+	}
+
+}
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.LineImpl;
+
+/**
+ * Index of a binary report as written by {@link BinaryReportWriter}. The index
+ * provides the string table, session infos and bundle and package totals and
+ * decodes package blocks.
+ */
+public class BinaryReportIndex {
+
+	/**
+	 * Location and totals of a package block.
+	 */
+	public static class PackageEntry {
+
+		private final ICoverageNode totals;
+		private final long offset;
+		private final long length;
+
+		PackageEntry(final ICoverageNode totals, final long offset,
+				final long length) {
+			this.totals = totals;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * @return package totals
+		 */
+		public ICoverageNode getTotals() {
+			return totals;
+		}
+
+		/**
+		 * @return offset of the package block in the report
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * @return length of the package block in bytes
+		 */
+		public long getLength() {
+			return length;
+		}
+
+	}
+
+	private static class BundleEntry {
+
+		final ICoverageNode totals;
+		final Map<String, PackageEntry> packages = new LinkedHashMap<String, PackageEntry>();
+
+		BundleEntry(final ICoverageNode totals) {
+			this.totals = totals;
+		}
+
+	}
+
+	private final String[] strings;
+
+	private final List<SessionInfo> sessionInfos;
+
+	private final Map<String, BundleEntry> bundles;
+
+	/**
+	 * Parses the index from the given bytes.
+	 *
+	 * @param data
+	 *            bytes of the index without the trailer
+	 * @throws IOException
+	 *             if the data is not a valid index
+	 */
+	public BinaryReportIndex(final byte[] data) throws IOException {
+		final BinaryInput in = new BinaryInput(data);
+		strings = new String[count(in)];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readString();
+		}
+		final int sessionCount = count(in);
+		sessionInfos = new ArrayList<SessionInfo>(sessionCount);
+		for (int i = 0; i < sessionCount; i++) {
+			final String id = in.readString();
+			final long start = in.readLong();
+			final long dump = in.readLong();
+			sessionInfos.add(new SessionInfo(id, start, dump));
+		}
+		final int bundleCount = count(in);
+		bundles = new LinkedHashMap<String, BundleEntry>();
+		for (int i = 0; i < bundleCount; i++) {
+			final String bundleName = string(in);
+			final BundleEntry bundle = new BundleEntry(new CoverageNode(
+					ElementType.BUNDLE, bundleName, readCounters(in)));
+			final int packageCount = count(in);
+			for (int j = 0; j < packageCount; j++) {
+				final String packageName = string(in);
+				final long offset = in.readVarLong();
+				final long length = in.readVarLong();
+				bundle.packages.put(packageName,
+						new PackageEntry(new CoverageNode(ElementType.PACKAGE,
+								packageName, readCounters(in)), offset,
+								length));
+			}
+			if (bundles.put(bundleName, bundle) != null) {
+				throw new IOException(
+						"Duplicate bundle name " + bundleName + ".");
+			}
+		}
+	}
+
+	/**
+	 * @return session infos stored in the report
+	 */
+	public List<SessionInfo> getSessionInfos() {
+		return Collections.unmodifiableList(sessionInfos);
+	}
+
+	/**
+	 * @return totals of all bundles in the order of the report
+	 */
+	public List<ICoverageNode> getBundles() {
+		final List<ICoverageNode> result = new ArrayList<ICoverageNode>();
+		for (final BundleEntry b : bundles.values()) {
+			result.add(b.totals);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the totals of all packages of the given bundle.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @return package totals in the order of the report or <code>null</code>
+	 *         if there is no such bundle
+	 */
+	public List<ICoverageNode> getPackages(final String bundle) {
+		final BundleEntry b = bundles.get(bundle);
+		if (b == null) {
+			return null;
+		}
+		final List<ICoverageNode> result = new ArrayList<ICoverageNode>();
+		for (final PackageEntry p : b.packages.values()) {
+			result.add(p.totals);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the location of the given package.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @param packageName
+	 *            package name in VM notation
+	 * @return entry or <code>null</code> if there is no such package
+	 */
+	public PackageEntry getPackage(final String bundle,
+			final String packageName) {
+		final BundleEntry b = bundles.get(bundle);
+		return b == null ? null : b.packages.get(packageName);
+	}
+
+	/**
+	 * Creates a bundle with the totals from the index and the given packages.
+	 *
+	 * @param bundle
+	 *            bundle name
+	 * @param packages
+	 *            decoded packages of the bundle
+	 * @return bundle coverage
+	 */
+	public IBundleCoverage createBundle(final String bundle,
+			final Collection<IPackageCoverage> packages) {
+		final BundleEntry b = bundles.get(bundle);
+		return new BundleNode(bundle, counters(b.totals), packages);
+	}
+
+	/**
+	 * Decodes a package block.
+	 *
+	 * @param entry
+	 *            index entry of the package
+	 * @param block
+	 *            content of the package block
+	 * @return decoded package
+	 * @throws IOException
+	 *             if the block is not valid
+	 */
+	public IPackageCoverage readPackage(final PackageEntry entry,
+			final byte[] block) throws IOException {
+		final BinaryInput in = new BinaryInput(block);
+		final String packageName = entry.totals.getName();
+		final int classCount = count(in);
+		final List<IClassCoverage> classes = new ArrayList<IClassCoverage>(
+				classCount);
+		for (int i = 0; i < classCount; i++) {
+			classes.add(readClass(in));
+		}
+		final int sourceCount = count(in);
+		final List<ISourceFileCoverage> sources = new ArrayList<ISourceFileCoverage>(
+				sourceCount);
+		for (int i = 0; i < sourceCount; i++) {
+			sources.add(readSourceFile(in, packageName));
+		}
+		return new PackageNode(packageName, counters(entry.totals), classes,
+				sources);
+	}
+
+	private IClassCoverage readClass(final BinaryInput in) throws IOException {
+		final String name = string(in);
+		final long id = in.readLong();
+		final boolean noMatch = in.readByte() != 0;
+		final String signature = string(in);
+		final String superName = string(in);
+		final int interfaceCount = count(in);
+		String[] interfaces = null;
+		if (interfaceCount > 0) {
+			interfaces = new String[interfaceCount - 1];
+			for (int i = 0; i < interfaces.length; i++) {
+				interfaces[i] = string(in);
+			}
+		}
+		final String sourceFileName = string(in);
+		final int firstLine = in.readVarInt() - 1;
+		final int lastLine = in.readVarInt() - 1;
+		final ICounter[] counters = readCounters(in);
+		final int methodCount = count(in);
+		final List<IMethodCoverage> methods = new ArrayList<IMethodCoverage>(
+				methodCount);
+		for (int i = 0; i < methodCount; i++) {
+			final String methodName = string(in);
+			final String desc = string(in);
+			final String methodSignature = string(in);
+			final int methodFirst = in.readVarInt() - 1;
+			final int methodLast = in.readVarInt() - 1;
+			methods.add(new MethodNode(methodName, desc, methodSignature,
+					readCounters(in), methodFirst, methodLast));
+		}
+		return new ClassNode(name, id, noMatch, signature, superName,
+				interfaces, sourceFileName, counters, firstLine, lastLine,
+				methods);
+	}
+
+	private ISourceFileCoverage readSourceFile(final BinaryInput in,
+			final String packageName) throws IOException {
+		final String name = string(in);
+		final int firstLine = in.readVarInt() - 1;
+		final int lastLine = in.readVarInt() - 1;
+		final ICounter[] counters = readCounters(in);
+		ILine[] lines = null;
+		if (firstLine != ISourceNode.UNKNOWN_LINE) {
+			final int count = lastLine - firstLine + 1;
+			if (count < 1) {
+				throw new IOException("Invalid line range.");
+			}
+			final byte[] bitmap = in.readBytes((2 * count + 7) / 8);
+			lines = new ILine[count];
+			for (int i = 0; i < count; i++) {
+				final int bit = 2 * i;
+				final int status = (bitmap[bit / 8] >> (bit % 8)) & 0x03;
+				if (status == ICounter.EMPTY) {
+					lines[i] = LineImpl.EMPTY;
+				} else {
+					lines[i] = LineImpl.EMPTY.increment(readCounter(in),
+							readCounter(in));
+				}
+			}
+		}
+		return new SourceFileNode(name, packageName, counters, firstLine,
+				lastLine, lines);
+	}
+
+	private static ICounter[] readCounters(final BinaryInput in)
+			throws IOException {
+		final ICounter[] counters = new ICounter[BinaryReportWriter.COUNTER_ENTITIES.length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = readCounter(in);
+		}
+		return counters;
+	}
+
+	private static ICounter readCounter(final BinaryInput in)
+			throws IOException {
+		final int missed = in.readVarInt();
+		final int covered = in.readVarInt();
+		return CounterImpl.getInstance(missed, covered);
+	}
+
+	private static ICounter[] counters(final ICoverageNode node) {
+		final ICounter[] counters = new ICounter[BinaryReportWriter.COUNTER_ENTITIES.length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = node
+					.getCounter(BinaryReportWriter.COUNTER_ENTITIES[i]);
+		}
+		return counters;
+	}
+
+	private String string(final BinaryInput in) throws IOException {
+		final int ref = in.readVarInt();
+		if (ref == 0) {
+			return null;
+		}
+		if (ref < 0 || ref > strings.length) {
+			throw new IOException("Invalid string reference " + ref + ".");
+		}
+		return strings[ref - 1];
+	}
+
+	private static int count(final BinaryInput in) throws IOException {
+		final int count = in.readVarInt();
+		if (count < 0) {
+			throw new IOException("Invalid count " + count + ".");
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.SessionInfo;
+
+/**
+ * Writes coverage data in the binary report format. The format consists of
+ * <ul>
+ * <li>a header with {@link #MAGIC} and {@link #FORMAT_VERSION},</li>
+ * <li>one block per package with all classes, methods and source files,</li>
+ * <li>an index with the string table, session infos and for every bundle its
+ * totals and the totals, offset and length of every package block and</li>
+ * <li>a trailer with the fixed length offset of the index and
+ * {@link #MAGIC}.</li>
+ * </ul>
+ * Names are stored once in the string table and referenced by their index.
+ * All numbers except class ids and the index offset are encoded with a
+ * variable length. Line details of source files are prefixed with a bitmap
+ * holding the two bit status of every line.
+ */
+public class BinaryReportWriter {
+
+	/** Magic bytes at the beginning and the end of a binary report. */
+	public static final byte[] MAGIC = { 'J', 'C', 'R', 'B' };
+
+	/** File format version, incremented for each incompatible change. */
+	public static final int FORMAT_VERSION = 1;
+
+	/** Length of the trailer with index offset and magic bytes. */
+	public static final int TRAILER_LENGTH = 8 + 4;
+
+	static final CounterEntity[] COUNTER_ENTITIES = CounterEntity.values();
+
+	private final BinaryOutput out;
+
+	private final Map<String, Integer> stringIndex;
+
+	private final List<String> strings;
+
+	private final List<SessionInfo> sessionInfos;
+
+	private final List<BundleEntry> bundles;
+
+	private final Set<String> bundleNames;
+
+	private static class BundleEntry {
+		final int name;
+		final ICoverageNode totals;
+		final List<PackageEntry> packages = new ArrayList<PackageEntry>();
+
+		BundleEntry(final int name, final ICoverageNode totals) {
+			this.name = name;
+			this.totals = totals;
+		}
+	}
+
+	private static class PackageEntry {
+		final int name;
+		final ICoverageNode totals;
+		final long offset;
+		final long length;
+
+		PackageEntry(final int name, final ICoverageNode totals,
+				final long offset, final long length) {
+			this.name = name;
+			this.totals = totals;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Creates a new writer and writes the header.
+	 *
+	 * @param output
+	 *            stream to write the report to, will be closed with
+	 *            {@link #close()}
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public BinaryReportWriter(final OutputStream output) throws IOException {
+		this.out = new BinaryOutput(output);
+		this.stringIndex = new HashMap<String, Integer>();
+		this.strings = new ArrayList<String>();
+		this.sessionInfos = new ArrayList<SessionInfo>();
+		this.bundles = new ArrayList<BundleEntry>();
+		this.bundleNames = new HashSet<String>();
+		out.writeBytes(MAGIC);
+		out.writeVarInt(FORMAT_VERSION);
+	}
+
+	/**
+	 * Adds session infos to the report.
+	 *
+	 * @param infos
+	 *            session infos
+	 */
+	public void sessionInfos(final List<SessionInfo> infos) {
+		sessionInfos.addAll(infos);
+	}
+
+	/**
+	 * Writes the given bundle. Bundle names must be unique within a report.
+	 *
+	 * @param name
+	 *            name of the bundle in the report
+	 * @param bundle
+	 *            bundle to write
+	 * @throws IOException
+	 *             if a bundle with the same name has already been written or
+	 *             in case of problems with the underlying stream
+	 */
+	public void bundle(final String name, final IBundleCoverage bundle)
+			throws IOException {
+		if (!bundleNames.add(name)) {
+			throw new IOException("Duplicate bundle name " + name + ".");
+		}
+		final BundleEntry entry = new BundleEntry(ref(name),
+				bundle.getPlainCopy());
+		for (final IPackageCoverage p : bundle.getPackages()) {
+			final long offset = out.getPosition();
+			writePackage(p);
+			entry.packages.add(new PackageEntry(ref(p.getName()),
+					p.getPlainCopy(), offset, out.getPosition() - offset));
+		}
+		bundles.add(entry);
+	}
+
+	/**
+	 * Writes the index and the trailer and closes the underlying stream.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying stream
+	 */
+	public void close() throws IOException {
+		final long indexOffset = out.getPosition();
+		out.writeVarInt(strings.size());
+		for (final String s : strings) {
+			out.writeString(s);
+		}
+		out.writeVarInt(sessionInfos.size());
+		for (final SessionInfo info : sessionInfos) {
+			out.writeString(info.getId());
+			out.writeLong(info.getStartTimeStamp());
+			out.writeLong(info.getDumpTimeStamp());
+		}
+		out.writeVarInt(bundles.size());
+		for (final BundleEntry b : bundles) {
+			out.writeVarInt(b.name);
+			writeCounters(b.totals);
+			out.writeVarInt(b.packages.size());
+			for (final PackageEntry p : b.packages) {
+				out.writeVarInt(p.name);
+				out.writeVarLong(p.offset);
+				out.writeVarLong(p.length);
+				writeCounters(p.totals);
+			}
+		}
+		out.writeLong(indexOffset);
+		out.writeBytes(MAGIC);
+		out.close();
+	}
+
+	private void writePackage(final IPackageCoverage p) throws IOException {
+		out.writeVarInt(p.getClasses().size());
+		for (final IClassCoverage c : p.getClasses()) {
+			writeClass(c);
+		}
+		out.writeVarInt(p.getSourceFiles().size());
+		for (final ISourceFileCoverage s : p.getSourceFiles()) {
+			writeSourceFile(s);
+		}
+	}
+
+	private void writeClass(final IClassCoverage c) throws IOException {
+		out.writeVarInt(ref(c.getName()));
+		out.writeLong(c.getId());
+		out.writeByte(c.isNoMatch() ? 1 : 0);
+		out.writeVarInt(ref(c.getSignature()));
+		out.writeVarInt(ref(c.getSuperName()));
+		final String[] interfaces = c.getInterfaceNames();
+		if (interfaces == null) {
+			out.writeVarInt(0);
+		} else {
+			out.writeVarInt(interfaces.length + 1);
+			for (final String i : interfaces) {
+				out.writeVarInt(ref(i));
+			}
+		}
+		out.writeVarInt(ref(c.getSourceFileName()));
+		writeLineRange(c);
+		writeCounters(c);
+		out.writeVarInt(c.getMethods().size());
+		for (final IMethodCoverage m : c.getMethods()) {
+			out.writeVarInt(ref(m.getName()));
+			out.writeVarInt(ref(m.getDesc()));
+			out.writeVarInt(ref(m.getSignature()));
+			writeLineRange(m);
+			writeCounters(m);
+		}
+	}
+
+	private void writeSourceFile(final ISourceFileCoverage s)
+			throws IOException {
+		out.writeVarInt(ref(s.getName()));
+		writeLineRange(s);
+		writeCounters(s);
+		final int first = s.getFirstLine();
+		if (first == ISourceNode.UNKNOWN_LINE) {
+			return;
+		}
+		final int last = s.getLastLine();
+		final byte[] bitmap = new byte[(2 * (last - first + 1) + 7) / 8];
+		for (int nr = first; nr <= last; nr++) {
+			final int bit = 2 * (nr - first);
+			bitmap[bit / 8] |= s.getLine(nr).getStatus() << (bit % 8);
+		}
+		out.writeBytes(bitmap);
+		for (int nr = first; nr <= last; nr++) {
+			final ILine line = s.getLine(nr);
+			if (line.getStatus() != ICounter.EMPTY) {
+				writeCounter(line.getInstructionCounter());
+				writeCounter(line.getBranchCounter());
+			}
+		}
+	}
+
+	private void writeLineRange(final ISourceNode node) throws IOException {
+		out.writeVarInt(node.getFirstLine() + 1);
+		out.writeVarInt(node.getLastLine() + 1);
+	}
+
+	private void writeCounters(final ICoverageNode node) throws IOException {
+		for (final CounterEntity entity : COUNTER_ENTITIES) {
+			writeCounter(node.getCounter(entity));
+		}
+	}
+
+	private void writeCounter(final ICounter counter) throws IOException {
+		out.writeVarInt(counter.getMissedCount());
+		out.writeVarInt(counter.getCoveredCount());
+	}
+
+	/**
+	 * Returns the reference for the given string where 0 stands for
+	 * <code>null</code> and all other values are the index in the string
+	 * table plus one.
+	 */
+	private int ref(final String s) {
+		if (s == null) {
+			return 0;
+		}
+		Integer idx = stringIndex.get(s);
+		if (idx == null) {
+			strings.add(s);
+			idx = Integer.valueOf(strings.size());
+			stringIndex.put(s, idx);
+		}
+		return idx.intValue();
+	}
+
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.util.Collection;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IPackageCoverage;
+
+/**
+ * Immutable {@link IBundleCoverage} read from a binary report.
+ */
+class BundleNode extends CoverageNode implements IBundleCoverage {
+
+	private final Collection<IPackageCoverage> packages;
+
+	BundleNode(final String name, final ICounter[] counters,
+			final Collection<IPackageCoverage> packages) {
+		super(ElementType.BUNDLE, name, counters);
+		this.packages = packages;
+	}
+
+	public Collection<IPackageCoverage> getPackages() {
+		return packages;
+	}
+
+}
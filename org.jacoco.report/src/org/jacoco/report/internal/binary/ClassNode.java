@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.util.Collection;
+
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IMethodCoverage;
+
+/**
+ * Immutable {@link IClassCoverage} read from a binary report.
+ */
+class ClassNode extends SourceNode implements IClassCoverage {
+
+	private final long id;
+	private final boolean noMatch;
+	private final String signature;
+	private final String superName;
+	private final String[] interfaces;
+	private final String sourceFileName;
+	private final Collection<IMethodCoverage> methods;
+
+	ClassNode(final String name, final long id, final boolean noMatch,
+			final String signature, final String superName,
+			final String[] interfaces, final String sourceFileName,
+			final ICounter[] counters, final int firstLine, final int lastLine,
+			final Collection<IMethodCoverage> methods) {
+		super(ElementType.CLASS, name, counters, firstLine, lastLine, null);
+		this.id = id;
+		this.noMatch = noMatch;
+		this.signature = signature;
+		this.superName = superName;
+		this.interfaces = interfaces;
+		this.sourceFileName = sourceFileName;
+		this.methods = methods;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public boolean isNoMatch() {
+		return noMatch;
+	}
+
+	public String getSignature() {
+		return signature;
+	}
+
+	public String getSuperName() {
+		return superName;
+	}
+
+	public String[] getInterfaceNames() {
+		return interfaces;
+	}
+
+	public String getPackageName() {
+		final int pos = getName().lastIndexOf('/');
+		return pos == -1 ? "" : getName().substring(0, pos);
+	}
+
+	public String getSourceFileName() {
+		return sourceFileName;
+	}
+
+	public Collection<IMethodCoverage> getMethods() {
+		return methods;
+	}
+
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+
+/**
+ * Immutable {@link ICoverageNode} read from a binary report.
+ */
+class CoverageNode implements ICoverageNode {
+
+	private final ElementType elementType;
+
+	private final String name;
+
+	private final ICounter[] counters;
+
+	CoverageNode(final ElementType elementType, final String name,
+			final ICounter[] counters) {
+		this.elementType = elementType;
+		this.name = name;
+		this.counters = counters;
+	}
+
+	public ElementType getElementType() {
+		return elementType;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ICounter getInstructionCounter() {
+		return getCounter(CounterEntity.INSTRUCTION);
+	}
+
+	public ICounter getBranchCounter() {
+		return getCounter(CounterEntity.BRANCH);
+	}
+
+	public ICounter getLineCounter() {
+		return getCounter(CounterEntity.LINE);
+	}
+
+	public ICounter getComplexityCounter() {
+		return getCounter(CounterEntity.COMPLEXITY);
+	}
+
+	public ICounter getMethodCounter() {
+		return getCounter(CounterEntity.METHOD);
+	}
+
+	public ICounter getClassCounter() {
+		return getCounter(CounterEntity.CLASS);
+	}
+
+	public ICounter getCounter(final CounterEntity entity) {
+		return counters[entity.ordinal()];
+	}
+
+	public boolean containsCode() {
+		return getInstructionCounter().getTotalCount() != 0;
+	}
+
+	public ICoverageNode getPlainCopy() {
+		final CoverageNodeImpl copy = new CoverageNodeImpl(elementType, name);
+		copy.increment(this);
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [" + elementType + "]";
+	}
+
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IMethodCoverage;
+
+/**
+ * Immutable {@link IMethodCoverage} read from a binary report.
+ */
+class MethodNode extends SourceNode implements IMethodCoverage {
+
+	private final String desc;
+
+	private final String signature;
+
+	MethodNode(final String name, final String desc, final String signature,
+			final ICounter[] counters, final int firstLine,
+			final int lastLine) {
+		super(ElementType.METHOD, name, counters, firstLine, lastLine, null);
+		this.desc = desc;
+		this.signature = signature;
+	}
+
+	public String getDesc() {
+		return desc;
+	}
+
+	public String getSignature() {
+		return signature;
+	}
+
+}
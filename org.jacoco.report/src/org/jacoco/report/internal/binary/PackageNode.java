@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import java.util.Collection;
+
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+
+/**
+ * Immutable {@link IPackageCoverage} read from a binary report.
+ */
+class PackageNode extends CoverageNode implements IPackageCoverage {
+
+	private final Collection<IClassCoverage> classes;
+
+	private final Collection<ISourceFileCoverage> sourceFiles;
+
+	PackageNode(final String name, final ICounter[] counters,
+			final Collection<IClassCoverage> classes,
+			final Collection<ISourceFileCoverage> sourceFiles) {
+		super(ElementType.PACKAGE, name, counters);
+		this.classes = classes;
+		this.sourceFiles = sourceFiles;
+	}
+
+	public Collection<IClassCoverage> getClasses() {
+		return classes;
+	}
+
+	public Collection<ISourceFileCoverage> getSourceFiles() {
+		return sourceFiles;
+	}
+
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+
+/**
+ * Immutable {@link ISourceFileCoverage} read from a binary report.
+ */
+class SourceFileNode extends SourceNode implements ISourceFileCoverage {
+
+	private final String packageName;
+
+	SourceFileNode(final String name, final String packageName,
+			final ICounter[] counters, final int firstLine, final int lastLine,
+			final ILine[] lines) {
+		super(ElementType.SOURCEFILE, name, counters, firstLine, lastLine,
+				lines);
+		this.packageName = packageName;
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.binary;
+
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.internal.analysis.LineImpl;
+
+/**
+ * Immutable {@link ISourceNode} read from a binary report. Line details are
+ * only stored for source files, other nodes only provide their line range.
+ */
+class SourceNode extends CoverageNode implements ISourceNode {
+
+	private final int firstLine;
+
+	private final int lastLine;
+
+	private final ILine[] lines;
+
+	SourceNode(final ElementType elementType, final String name,
+			final ICounter[] counters, final int firstLine, final int lastLine,
+			final ILine[] lines) {
+		super(elementType, name, counters);
+		this.firstLine = firstLine;
+		this.lastLine = lastLine;
+		this.lines = lines;
+	}
+
+	public int getFirstLine() {
+		return firstLine;
+	}
+
+	public int getLastLine() {
+		return lastLine;
+	}
+
+	public ILine getLine(final int nr) {
+		if (lines == null || nr < firstLine || nr > lastLine) {
+			return LineImpl.EMPTY;
+		}
+		return lines[nr - firstLine];
+	}
+
+}
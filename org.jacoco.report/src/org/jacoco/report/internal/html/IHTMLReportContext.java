@@ -80,4 +80,12 @@ public interface IHTMLReportContext {
 	 */
 	Locale getLocale();
 
+	/**
+	 * Returns whether source files are highlighted while the report is
+	 * created instead of in the browser.
+	 *
+	 * @return <code>true</code> if source files are highlighted in the report
+	 */
+	boolean isServerSideHighlighting();
+
 }
@@ -61,6 +61,10 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 	@Override
 	protected void content(final HTMLElement body) throws IOException {
 		final SourceHighlighter hl = new SourceHighlighter(context.getLocale());
+		if (context.isServerSideHighlighting()) {
+			hl.setTokenizer(SourceTokenizer.forFile(getNode().getName()),
+					tabWidth);
+		}
 		hl.render(body, getNode(), sourceReader);
 		sourceReader.close();
 	}
@@ -70,12 +74,17 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 		super.head(head);
 		head.link("stylesheet", context.getResources().getLink(folder,
 				Resources.PRETTIFY_STYLESHEET), "text/css");
-		head.script(context.getResources().getLink(folder,
-				Resources.PRETTIFY_SCRIPT));
+		if (!context.isServerSideHighlighting()) {
+			head.script(context.getResources().getLink(folder,
+					Resources.PRETTIFY_SCRIPT));
+		}
 	}
 
 	@Override
 	protected String getOnload() {
+		if (context.isServerSideHighlighting()) {
+			return null;
+		}
 		return format("window['PR_TAB_WIDTH']=%d;prettyPrint()",
 				Integer.valueOf(tabWidth));
 	}
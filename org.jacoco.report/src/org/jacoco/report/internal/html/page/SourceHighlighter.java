@@ -32,6 +32,10 @@ final class SourceHighlighter {
 
 	private String lang;
 
+	private SourceTokenizer tokenizer;
+
+	private int tabWidth;
+
 	/**
 	 * Creates a new highlighter with default settings.
 	 *
@@ -54,6 +58,22 @@ final class SourceHighlighter {
 		this.lang = lang;
 	}
 
+	/**
+	 * Enables syntax highlighting with the given tokenizer. The result does
+	 * not require prettify.js and uses the token styles of prettify.css. By
+	 * default syntax highlighting is left to prettify.js.
+	 *
+	 * @param tokenizer
+	 *            tokenizer for the source language
+	 * @param tabWidth
+	 *            tab width in source files as number of blanks
+	 */
+	public void setTokenizer(final SourceTokenizer tokenizer,
+			final int tabWidth) {
+		this.tokenizer = tokenizer;
+		this.tabWidth = tabWidth;
+	}
+
 	/**
 	 * Highlights the given source file.
 	 *
@@ -68,6 +88,10 @@ final class SourceHighlighter {
 	 */
 	public void render(final HTMLElement parent, final ISourceNode source,
 			final Reader contents) throws IOException {
+		if (tokenizer != null) {
+			renderTokens(parent, source, contents);
+			return;
+		}
 		final HTMLElement pre = parent
 				.pre(Styles.SOURCE + " lang-" + lang + " linenums");
 		final BufferedReader lineBuffer = new BufferedReader(contents);
@@ -79,6 +103,41 @@ final class SourceHighlighter {
 		}
 	}
 
+	private void renderTokens(final HTMLElement parent,
+			final ISourceNode source, final Reader contents)
+			throws IOException {
+		final HTMLElement pre = parent.pre(Styles.SOURCE + " lang-" + lang);
+		final BufferedReader lineBuffer = new BufferedReader(contents);
+		String line;
+		int nr = 0;
+		while ((line = lineBuffer.readLine()) != null) {
+			nr++;
+			// Line numbers are added with a style sheet counter:
+			final HTMLElement span = pre.span(Styles.NR);
+			tokenizer.render(highlight(span, source.getLine(nr), nr),
+					expandTabs(line));
+			pre.text("\n");
+		}
+	}
+
+	private String expandTabs(final String line) {
+		if (tabWidth < 1 || line.indexOf('\t') == -1) {
+			return line;
+		}
+		final StringBuilder result = new StringBuilder();
+		for (int i = 0; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if (c == '\t') {
+				do {
+					result.append(' ');
+				} while (result.length() % tabWidth != 0);
+			} else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
 	private void renderCodeLine(final HTMLElement pre, final String linesrc,
 			final ILine line, final int lineNr) throws IOException {
 		highlight(pre, line, lineNr).text(linesrc);
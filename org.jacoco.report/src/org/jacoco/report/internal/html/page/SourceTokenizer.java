@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.page;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jacoco.report.internal.html.HTMLElement;
+
+/**
+ * Splits lines of Java or Kotlin source code into tokens for syntax
+ * highlighting. Tokens get the style names defined in prettify.css, so the
+ * output looks the same as source code highlighted by prettify.js in the
+ * browser. Comments and strings may span multiple lines, therefore all lines
+ * of a source file have to be passed in sequence to the same instance.
+ */
+final class SourceTokenizer {
+
+	private static final String KEYWORD = "kwd";
+
+	private static final String STRING = "str";
+
+	private static final String COMMENT = "com";
+
+	private static final String TYPE = "typ";
+
+	private static final String LITERAL = "lit";
+
+	private static final String PUNCTUATION = "pun";
+
+	private static final Set<String> JAVA_KEYWORDS = new HashSet<String>(
+			Arrays.asList("abstract", "assert", "boolean", "break", "byte",
+					"case", "catch", "char", "class", "const", "continue",
+					"default", "do", "double", "else", "enum", "extends",
+					"false", "final", "finally", "float", "for", "goto", "if",
+					"implements", "import", "instanceof", "int", "interface",
+					"long", "native", "new", "null", "package", "permits",
+					"private", "protected", "public", "record", "return",
+					"sealed", "short", "static", "strictfp", "super", "switch",
+					"synchronized", "this", "throw", "throws", "transient",
+					"true", "try", "var", "void", "volatile", "while",
+					"yield"));
+
+	private static final Set<String> KOTLIN_KEYWORDS = new HashSet<String>(
+			Arrays.asList("abstract", "actual", "annotation", "as", "break",
+					"by", "catch", "class", "companion", "const", "constructor",
+					"continue", "crossinline", "data", "do", "else", "enum",
+					"expect", "external", "false", "final", "finally", "for",
+					"fun", "if", "import", "in", "infix", "init", "inline",
+					"inner", "interface", "internal", "is", "lateinit",
+					"noinline", "null", "object", "open", "operator", "out",
+					"override", "package", "private", "protected", "public",
+					"reified", "return", "sealed", "super", "suspend",
+					"tailrec", "this", "throw", "true", "try", "typealias",
+					"typeof", "val", "var", "vararg", "when", "where",
+					"while"));
+
+	private final boolean kotlin;
+
+	private final Set<String> keywords;
+
+	/** Nesting depth of the current block comment, 0 outside of comments. */
+	private int commentDepth;
+
+	/** <code>true</code> within a text block or a raw string. */
+	private boolean textBlock;
+
+	/**
+	 * Creates a new tokenizer.
+	 *
+	 * @param kotlin
+	 *            <code>true</code> for Kotlin, <code>false</code> for Java
+	 *            source code
+	 */
+	SourceTokenizer(final boolean kotlin) {
+		this.kotlin = kotlin;
+		this.keywords = kotlin ? KOTLIN_KEYWORDS : JAVA_KEYWORDS;
+	}
+
+	/**
+	 * Creates a tokenizer for the language of the given source file. Files
+	 * with the extension <code>.kt</code> or <code>.kts</code> are considered
+	 * as Kotlin, all other files as Java.
+	 *
+	 * @param fileName
+	 *            name of the source file
+	 * @return tokenizer for the source file
+	 */
+	static SourceTokenizer forFile(final String fileName) {
+		return new SourceTokenizer(
+				fileName.endsWith(".kt") || fileName.endsWith(".kts"));
+	}
+
+	/**
+	 * Writes the tokens of the next line of the source file.
+	 *
+	 * @param parent
+	 *            element to write the tokens to
+	 * @param line
+	 *            content of the line without line terminator
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	void render(final HTMLElement parent, final String line)
+			throws IOException {
+		final int len = line.length();
+		int pos = 0;
+		while (pos < len) {
+			final int start = pos;
+			final String style;
+			final char c = line.charAt(pos);
+			if (commentDepth > 0) {
+				pos = endOfComment(line, pos);
+				style = COMMENT;
+			} else if (textBlock) {
+				pos = endOfTextBlock(line, pos);
+				style = STRING;
+			} else if (Character.isWhitespace(c)) {
+				pos = endOfWhitespace(line, pos);
+				style = null;
+			} else if (line.startsWith("//", pos)) {
+				pos = len;
+				style = COMMENT;
+			} else if (line.startsWith("/*", pos)) {
+				commentDepth = 1;
+				pos = endOfComment(line, pos + 2);
+				style = COMMENT;
+			} else if (line.startsWith("\"\"\"", pos)) {
+				textBlock = true;
+				pos = endOfTextBlock(line, pos + 3);
+				style = STRING;
+			} else if (c == '"' || c == '\'') {
+				pos = endOfQuote(line, pos + 1, c);
+				style = STRING;
+			} else if (isDigit(c) || (c == '.' && isDigit(line, pos + 1))) {
+				pos = endOfNumber(line, pos);
+				style = LITERAL;
+			} else if (Character.isJavaIdentifierStart(c)) {
+				pos = endOfIdentifier(line, pos);
+				style = getIdentifierStyle(line.substring(start, pos));
+			} else if (c == '@' && isIdentifierStart(line, pos + 1)) {
+				pos = endOfIdentifier(line, pos + 1);
+				style = TYPE;
+			} else if (c == '`' && kotlin) {
+				pos = endOfQuote(line, pos + 1, c);
+				style = null;
+			} else {
+				pos = endOfPunctuation(line, pos);
+				style = PUNCTUATION;
+			}
+			final String text = line.substring(start, pos);
+			if (style == null) {
+				parent.text(text);
+			} else {
+				parent.span(style).text(text);
+			}
+		}
+	}
+
+	private String getIdentifierStyle(final String identifier) {
+		if (keywords.contains(identifier)) {
+			return KEYWORD;
+		}
+		if (Character.isUpperCase(identifier.charAt(0))) {
+			return TYPE;
+		}
+		return null;
+	}
+
+	private int endOfComment(final String line, int pos) {
+		final int len = line.length();
+		while (pos < len) {
+			if (line.startsWith("*/", pos)) {
+				pos += 2;
+				if (--commentDepth == 0) {
+					return pos;
+				}
+			} else if (kotlin && line.startsWith("/*", pos)) {
+				// Kotlin supports nested block comments
+				pos += 2;
+				commentDepth++;
+			} else {
+				pos++;
+			}
+		}
+		return len;
+	}
+
+	private int endOfTextBlock(final String line, int pos) {
+		final int len = line.length();
+		while (pos < len) {
+			final char c = line.charAt(pos);
+			if (c == '\\' && !kotlin) {
+				pos += 2;
+			} else if (line.startsWith("\"\"\"", pos)) {
+				pos += 3;
+				// Additional quotes belong to the content of raw strings
+				while (pos < len && line.charAt(pos) == '"') {
+					pos++;
+				}
+				textBlock = false;
+				return pos;
+			} else {
+				pos++;
+			}
+		}
+		return len;
+	}
+
+	private static int endOfQuote(final String line, int pos,
+			final char quote) {
+		final int len = line.length();
+		while (pos < len) {
+			final char c = line.charAt(pos);
+			if (c == '\\' && quote != '`') {
+				pos += 2;
+			} else if (c == quote) {
+				return pos + 1;
+			} else {
+				pos++;
+			}
+		}
+		return len;
+	}
+
+	private static int endOfNumber(final String line, int pos) {
+		final int len = line.length();
+		final boolean hex = line.startsWith("0x", pos)
+				|| line.startsWith("0X", pos);
+		pos++;
+		while (pos < len) {
+			final char c = line.charAt(pos);
+			if (c == '.') {
+				// Kotlin range operator
+				if (line.startsWith("..", pos)) {
+					break;
+				}
+				pos++;
+			} else if (isExponent(c, hex) && pos + 1 < len
+					&& (line.charAt(pos + 1) == '+'
+							|| line.charAt(pos + 1) == '-')) {
+				pos += 2;
+			} else if (Character.isLetterOrDigit(c) || c == '_') {
+				pos++;
+			} else {
+				break;
+			}
+		}
+		return pos;
+	}
+
+	private static boolean isExponent(final char c, final boolean hex) {
+		if (hex) {
+			return c == 'p' || c == 'P';
+		}
+		return c == 'e' || c == 'E';
+	}
+
+	private static int endOfIdentifier(final String line, int pos) {
+		final int len = line.length();
+		while (pos < len && Character.isJavaIdentifierPart(line.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int endOfWhitespace(final String line, int pos) {
+		final int len = line.length();
+		while (pos < len && Character.isWhitespace(line.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int endOfPunctuation(final String line, int pos) {
+		final int len = line.length();
+		pos++;
+		while (pos < len && isPunctuation(line, pos)) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static boolean isPunctuation(final String line, final int pos) {
+		final char c = line.charAt(pos);
+		switch (c) {
+		case '"':
+		case '\'':
+		case '`':
+		case '@':
+			return false;
+		case '/':
+			return !line.startsWith("//", pos) && !line.startsWith("/*", pos);
+		case '.':
+			// A dot before digits starts a number unless it is a range operator
+			return line.charAt(pos - 1) == '.' || !isDigit(line, pos + 1);
+		default:
+			return !Character.isWhitespace(c) && !isDigit(c)
+					&& !Character.isJavaIdentifierStart(c);
+		}
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isDigit(final String line, final int pos) {
+		return pos < line.length() && isDigit(line.charAt(pos));
+	}
+
+	private static boolean isIdentifierStart(final String line,
+			final int pos) {
+		return pos < line.length()
+				&& Character.isJavaIdentifierStart(line.charAt(pos));
+	}
+
+}
@@ -22,6 +22,7 @@ import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.IHTMLReportContext;
 import org.jacoco.report.internal.html.resources.Resources;
 import org.jacoco.report.internal.html.table.ITableItem;
+import org.jacoco.report.internal.html.table.Table;
 
 /**
  * Report page that contains a table of items linked to other pages.
@@ -62,19 +63,40 @@ public abstract class TablePage<NodeType extends ICoverageNode>
 		items.add(item);
 	}
 
+	@Override
+	public void render() throws IOException {
+		super.render();
+		final Table table = context.getTable();
+		if (table.isDataTable(items.size())) {
+			// written after the page itself has been closed, as report
+			// outputs may only support one open file at a time:
+			table.renderData(folder.createFile(getDataFileName()), items,
+					context.getResources(), folder);
+		}
+		// free memory, otherwise we will keep the complete page tree:
+		items.clear();
+	}
+
 	@Override
 	protected void head(final HTMLElement head) throws IOException {
 		super.head(head);
 		head.script(
 				context.getResources().getLink(folder, Resources.SORT_SCRIPT));
+		if (context.getTable().isDataTable(items.size())) {
+			head.script(folder.getLink(folder, getDataFileName()));
+		}
+	}
+
+	private String getDataFileName() {
+		final String name = getFileName();
+		final int pos = name.lastIndexOf('.');
+		return (pos == -1 ? name : name.substring(0, pos)) + ".data.js";
 	}
 
 	@Override
 	protected void content(final HTMLElement body) throws IOException {
 		context.getTable().render(body, items, getNode(),
 				context.getResources(), folder);
-		// free memory, otherwise we will keep the complete page tree:
-		items.clear();
 	}
 
 }
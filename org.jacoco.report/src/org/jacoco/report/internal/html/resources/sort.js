@@ -22,6 +22,9 @@
    */
   function initialSort(linkelementids) {
     window.linkelementids = linkelementids;
+    if (window['jacocoTableData']) {
+      initVirtualTable(window['jacocoTableData']);
+    }
     var hash = window.location.hash;
     if (hash) {
       var m = hash.match(/up-./);
@@ -61,6 +64,11 @@
 
     resetSortedStyle(table);
 
+    if (window.virtualTable) {
+      sortVirtualTable(colidx, sortup, header);
+      return;
+    }
+
     var rows = body.rows;
     var sortedrows = [];
     for (var i = 0; i < rows.length; i++) {
@@ -87,6 +95,154 @@
     setHash(hash);
   }
 
+  /**
+   * Number of rows rendered above and below the visible area of a virtual
+   * table.
+   */
+  var OVERSCAN = 20;
+
+  /**
+   * Replaces the rows of the coverage table with rows which are rendered on
+   * demand from the given table data while scrolling.
+   */
+  function initVirtualTable(data) {
+    var table = window.document.getElementById('coveragetable');
+    var body = table.tBodies[0];
+    var order = [];
+    for (var i = 0; i < data.rows.length; i++) {
+      order[i] = i;
+    }
+    var styles = [];
+    var cells = body.rows[0].cells;
+    for (var c = 0; c < cells.length; c++) {
+      styles[c] = cells[c].className;
+    }
+    window.virtualTable = {
+      body : body,
+      data : data,
+      order : order,
+      styles : styles,
+      columns : cells.length,
+      rowHeight : body.rows[0].offsetHeight || 20,
+      first : -1
+    };
+    window.onscroll = function() {
+      renderVirtualTable(false);
+    };
+    window.onresize = function() {
+      renderVirtualTable(true);
+    };
+    renderVirtualTable(true);
+  }
+
+  /**
+   * Sorts the rows of the virtual table by the column with the given index.
+   */
+  function sortVirtualTable(colidx, sortup, header) {
+    var v = window.virtualTable;
+    var positions = v.data.sort[colidx];
+    for (var i = 0; i < positions.length; i++) {
+      v.order[sortup ? positions.length - 1 - positions[i] : positions[i]] = i;
+    }
+    header.className = (sortup ? 'up ' : 'down ') + header.className;
+    setHash((sortup ? 'up-' : 'dn-') + header.id);
+    renderVirtualTable(true);
+  }
+
+  /**
+   * Renders the rows of the virtual table which are currently visible. Rows
+   * outside the visible area are replaced by spacer rows.
+   */
+  function renderVirtualTable(force) {
+    var v = window.virtualTable;
+    var top = v.body.getBoundingClientRect().top;
+    var first = Math.max(0, Math.floor(-top / v.rowHeight) - OVERSCAN);
+    first = Math.min(first, v.order.length);
+    if (first == v.first && !force) {
+      return;
+    }
+    v.first = first;
+    var count = Math.ceil(window.innerHeight / v.rowHeight) + 2 * OVERSCAN;
+    var last = Math.min(v.order.length, first + count);
+    while (v.body.firstChild) {
+      v.body.removeChild(v.body.firstChild);
+    }
+    addSpacerRow(v, first * v.rowHeight);
+    for (var i = first; i < last; i++) {
+      v.body.appendChild(createVirtualRow(v, v.data.rows[v.order[i]]));
+    }
+    addSpacerRow(v, (v.order.length - last) * v.rowHeight);
+    var m = window.location.hash.match(/(up|dn)-./);
+    if (m && isLinkElement('coveragetable')) {
+      setHashOnAllLinks(v.body, m[0]);
+    }
+  }
+
+  function addSpacerRow(v, height) {
+    if (height > 0) {
+      var td = window.document.createElement('td');
+      td.colSpan = v.columns;
+      td.style.height = height + 'px';
+      td.style.padding = '0';
+      var tr = window.document.createElement('tr');
+      tr.appendChild(td);
+      v.body.appendChild(tr);
+    }
+  }
+
+  function createVirtualRow(v, row) {
+    var doc = window.document;
+    var tr = doc.createElement('tr');
+    for (var c = 0; c < row.length; c++) {
+      var td = doc.createElement('td');
+      if (v.styles[c]) {
+        td.className = v.styles[c];
+      }
+      var value = row[c];
+      if (typeof value == 'string') {
+        td.appendChild(doc.createTextNode(value));
+      } else if (value instanceof Array) {
+        var a = doc.createElement(value.length > 2 ? 'a' : 'span');
+        if (value.length > 2) {
+          a.href = value[2];
+        }
+        a.className = value[1];
+        a.appendChild(doc.createTextNode(value[0]));
+        td.appendChild(a);
+      } else {
+        var bar = value.bar;
+        if (bar.length > 0) {
+          addBarImage(td, v.data.redbar, bar[0], bar[1]);
+          addBarImage(td, v.data.greenbar, bar[2], bar[3]);
+        }
+      }
+      tr.appendChild(td);
+    }
+    return tr;
+  }
+
+  function addBarImage(td, src, width, title) {
+    if (width > 0) {
+      var img = window.document.createElement('img');
+      img.src = src;
+      img.width = width;
+      img.height = 10;
+      img.title = title;
+      img.alt = title;
+      td.appendChild(img);
+    }
+  }
+
+  function isLinkElement(id) {
+    var ids = window.linkelementids;
+    for (var i = 0; i < ids.length; i++) {
+      if (ids[i] == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Adds the sort indicator as a hash to the document URL and all links.
    */
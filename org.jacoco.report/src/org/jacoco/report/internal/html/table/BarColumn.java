@@ -93,10 +93,33 @@ public class BarColumn implements IColumnRenderer {
 		}
 	}
 
+	public void data(final TableDataWriter data, final ITableItem item,
+			final Resources resources, final ReportOutputFolder base)
+			throws IOException {
+		data.startObject();
+		data.key("bar");
+		data.startArray();
+		if (max > 0) {
+			final ICounter counter = item.getNode().getCounter(entity);
+			final int missed = counter.getMissedCount();
+			data.number(width(missed));
+			data.string(integerFormat.format(missed));
+			final int covered = counter.getCoveredCount();
+			data.number(width(covered));
+			data.string(integerFormat.format(covered));
+		}
+		data.endArray();
+		data.endObject();
+	}
+
+	private int width(final int count) {
+		return count * WIDTH / max;
+	}
+
 	private void bar(final HTMLElement td, final int count, final String image,
 			final Resources resources, final ReportOutputFolder base)
 			throws IOException {
-		final int width = count * WIDTH / max;
+		final int width = width(count);
 		if (width > 0) {
 			td.img(resources.getLink(base, image), width, 10,
 					integerFormat.format(count));
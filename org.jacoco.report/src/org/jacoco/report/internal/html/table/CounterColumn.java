@@ -139,10 +139,19 @@ public abstract class CounterColumn implements IColumnRenderer {
 		cell(td, item.getNode());
 	}
 
+	public void data(final TableDataWriter data, final ITableItem item,
+			final Resources resources, final ReportOutputFolder base)
+			throws IOException {
+		data.string(format(item.getNode()));
+	}
+
 	private void cell(final HTMLElement td, final ICoverageNode node)
 			throws IOException {
-		final int value = getValue(node.getCounter(entity));
-		td.text(integerFormat.format(value));
+		td.text(format(node));
+	}
+
+	private String format(final ICoverageNode node) {
+		return integerFormat.format(getValue(node.getCounter(entity)));
 	}
 
 	public Comparator<ITableItem> getComparator() {
@@ -23,8 +23,8 @@ import org.jacoco.report.internal.html.resources.Resources;
 
 /**
  * Renderer for a single column of a coverage table. The methods are always
- * called in the sequence <code>init header footer item*</code>. Implementations
- * might be stateful.
+ * called in the sequence <code>init header footer (item|data)*</code>.
+ * Implementations might be stateful.
  */
 public interface IColumnRenderer {
 
@@ -73,6 +73,27 @@ public interface IColumnRenderer {
 	void item(HTMLElement td, ITableItem item, Resources resources,
 			ReportOutputFolder base) throws IOException;
 
+	/**
+	 * Writes the content of a single item in this column as a JSON value to
+	 * the data file of a table. The value is either a string which is displayed
+	 * as text, an array <code>[label, style, link]</code> which is displayed as
+	 * a link or an object <code>{"bar": [missedWidth, missedTitle,
+	 * coveredWidth, coveredTitle]}</code> which is displayed as a bar.
+	 *
+	 * @param data
+	 *            writer for the data file
+	 * @param item
+	 *            the item to write
+	 * @param resources
+	 *            static resources that might be referenced
+	 * @param base
+	 *            base folder of the table
+	 * @throws IOException
+	 *             in case of IO problems with the data output
+	 */
+	void data(TableDataWriter data, ITableItem item, Resources resources,
+			ReportOutputFolder base) throws IOException;
+
 	/**
 	 * Returns the comparator to sort this table column.
 	 *
@@ -50,6 +50,19 @@ public class LabelColumn implements IColumnRenderer {
 		td.a(item, base);
 	}
 
+	public void data(final TableDataWriter data, final ITableItem item,
+			final Resources resources, final ReportOutputFolder base)
+			throws IOException {
+		data.startArray();
+		data.string(item.getLinkLabel());
+		data.string(item.getLinkStyle());
+		final String link = item.getLink(base);
+		if (link != null) {
+			data.string(link);
+		}
+		data.endArray();
+	}
+
 	public Comparator<ITableItem> getComparator() {
 		return COMPARATOR;
 	}
@@ -74,15 +74,24 @@ public class PercentageColumn implements IColumnRenderer {
 		cell(td, item.getNode());
 	}
 
+	public void data(final TableDataWriter data, final ITableItem item,
+			final Resources resources, final ReportOutputFolder base)
+			throws IOException {
+		data.string(text(item.getNode()));
+	}
+
 	private void cell(final HTMLElement td, final ICoverageNode node)
 			throws IOException {
+		td.text(text(node));
+	}
+
+	private String text(final ICoverageNode node) {
 		final ICounter counter = node.getCounter(entity);
 		final int total = counter.getTotalCount();
 		if (total == 0) {
-			td.text("n/a");
-		} else {
-			td.text(format(counter.getCoveredRatio()));
+			return "n/a";
 		}
+		return format(counter.getCoveredRatio());
 	}
 
 	/**
@@ -13,6 +13,7 @@
 package org.jacoco.report.internal.html.table;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -33,6 +34,8 @@ public class Table {
 
 	private Comparator<ITableItem> defaultComparator;
 
+	private int dataThreshold;
+
 	/**
 	 * Create a new table without any columns yet.
 	 */
@@ -69,7 +72,36 @@ public class Table {
 	}
 
 	/**
-	 * Renders a table for the given icon
+	 * Sets the number of items above which the rows of a table are written to
+	 * a separate data file. Only the first rows are rendered into the page,
+	 * all rows are rendered on demand with client side virtual scrolling and
+	 * sorting. The default is <code>0</code> which disables data files.
+	 *
+	 * @param threshold
+	 *            maximum number of items rendered into the page or
+	 *            <code>0</code>
+	 */
+	public void setDataThreshold(final int threshold) {
+		this.dataThreshold = threshold;
+	}
+
+	/**
+	 * Checks whether a table with the given number of items is written with a
+	 * separate data file.
+	 *
+	 * @param itemCount
+	 *            number of items
+	 * @return <code>true</code> if a data file is used
+	 */
+	public boolean isDataTable(final int itemCount) {
+		return dataThreshold > 0 && itemCount > dataThreshold;
+	}
+
+	/**
+	 * Renders a table for the given icon. If the number of items exceeds the
+	 * data threshold only the first rows are rendered, all rows have to be
+	 * written separately with
+	 * {@link #renderData(OutputStream, List, Resources, ReportOutputFolder)}.
 	 *
 	 * @param parent
 	 *            parent element in which the table is created
@@ -84,6 +116,7 @@ public class Table {
 	 *            base folder of the table
 	 * @throws IOException
 	 *             in case of IO problems with the element output
+	 * @see #setDataThreshold(int)
 	 */
 	public void render(final HTMLElement parent,
 			final List<? extends ITableItem> items, final ICoverageNode total,
@@ -94,7 +127,60 @@ public class Table {
 		table.attr("id", "coveragetable");
 		header(table, sortedItems, total);
 		footer(table, total, resources, base);
-		body(table, sortedItems, resources, base);
+		if (isDataTable(items.size())) {
+			body(table, sortedItems.subList(0, dataThreshold), resources,
+					base);
+		} else {
+			body(table, sortedItems, resources, base);
+		}
+	}
+
+	/**
+	 * Writes all rows of the table as a script to the given output. The
+	 * output is closed afterwards.
+	 *
+	 * @param output
+	 *            output for the data script
+	 * @param items
+	 *            items that will make the table rows
+	 * @param resources
+	 *            static resources that might be referenced
+	 * @param base
+	 *            base folder of the table
+	 * @throws IOException
+	 *             in case of IO problems with the output
+	 * @see #isDataTable(int)
+	 */
+	public void renderData(final OutputStream output,
+			final List<? extends ITableItem> items, final Resources resources,
+			final ReportOutputFolder base) throws IOException {
+		final List<? extends ITableItem> sortedItems = sort(items);
+		final TableDataWriter data = new TableDataWriter(output);
+		data.raw("window['jacocoTableData']=");
+		data.startObject();
+		data.key("redbar");
+		data.string(resources.getLink(base, Resources.REDBAR));
+		data.key("greenbar");
+		data.string(resources.getLink(base, Resources.GREENBAR));
+		data.key("rows");
+		data.startArray();
+		for (final ITableItem item : sortedItems) {
+			data.startArray();
+			for (final Column c : columns) {
+				c.data(data, item, resources, base);
+			}
+			data.endArray();
+		}
+		data.endArray();
+		data.key("sort");
+		data.startArray();
+		for (final Column c : columns) {
+			c.sort(data, sortedItems.size());
+		}
+		data.endArray();
+		data.endObject();
+		data.raw(";");
+		data.close();
 	}
 
 	private void header(final HTMLElement table,
@@ -192,6 +278,25 @@ public class Table {
 			}
 		}
 
+		void data(final TableDataWriter data, final ITableItem item,
+				final Resources resources, final ReportOutputFolder base)
+				throws IOException {
+			if (visible) {
+				renderer.data(data, item, resources, base);
+			}
+		}
+
+		void sort(final TableDataWriter data, final int itemCount)
+				throws IOException {
+			if (visible) {
+				data.startArray();
+				for (int idx = 0; idx < itemCount; idx++) {
+					data.number(index.getPosition(idx));
+				}
+				data.endArray();
+			}
+		}
+
 	}
 
 }
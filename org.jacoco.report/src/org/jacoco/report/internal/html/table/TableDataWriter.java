@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.table;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Minimal streaming writer for the JSON content of table data files. Commas
+ * between values of arrays and objects are inserted automatically.
+ */
+public class TableDataWriter {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Writer writer;
+
+	private boolean[] first;
+
+	private int depth;
+
+	/**
+	 * Creates a new writer for the given stream. The content is encoded as
+	 * UTF-8.
+	 *
+	 * @param output
+	 *            output stream will be closed if the writer is closed
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public TableDataWriter(final OutputStream output) throws IOException {
+		this.writer = new OutputStreamWriter(output, "UTF-8");
+		this.first = new boolean[8];
+		this.depth = 0;
+	}
+
+	/**
+	 * Writes unquoted text like a JavaScript statement prefix.
+	 *
+	 * @param text
+	 *            text to write
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void raw(final String text) throws IOException {
+		writer.write(text);
+	}
+
+	/**
+	 * Starts a JSON array.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void startArray() throws IOException {
+		start('[');
+	}
+
+	/**
+	 * Ends the current JSON array.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void endArray() throws IOException {
+		end(']');
+	}
+
+	/**
+	 * Starts a JSON object.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void startObject() throws IOException {
+		start('{');
+	}
+
+	/**
+	 * Ends the current JSON object.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void endObject() throws IOException {
+		end('}');
+	}
+
+	/**
+	 * Writes the key of the next member of the current object.
+	 *
+	 * @param key
+	 *            member name
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void key(final String key) throws IOException {
+		string(key);
+		writer.write(':');
+		// the following value belongs to this key:
+		first[depth - 1] = true;
+	}
+
+	/**
+	 * Writes a string value. <code>null</code> is written as JSON
+	 * <code>null</code>.
+	 *
+	 * @param value
+	 *            string value or <code>null</code>
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void string(final String value) throws IOException {
+		separator();
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		final int len = value.length();
+		for (int i = 0; i < len; i++) {
+			final char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				// Line separators are not allowed in JavaScript strings:
+				if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+					writer.write("\\u");
+					writer.write(HEX[(c >> 12) & 0xf]);
+					writer.write(HEX[(c >> 8) & 0xf]);
+					writer.write(HEX[(c >> 4) & 0xf]);
+					writer.write(HEX[c & 0xf]);
+				} else {
+					writer.write(c);
+				}
+				break;
+			}
+		}
+		writer.write('"');
+	}
+
+	/**
+	 * Writes a number value.
+	 *
+	 * @param value
+	 *            number value
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void number(final int value) throws IOException {
+		separator();
+		writer.write(Integer.toString(value));
+	}
+
+	/**
+	 * Flushes and closes the underlying stream.
+	 *
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void start(final char c) throws IOException {
+		separator();
+		writer.write(c);
+		if (depth == first.length) {
+			final boolean[] newFirst = new boolean[depth * 2];
+			System.arraycopy(first, 0, newFirst, 0, depth);
+			first = newFirst;
+		}
+		first[depth++] = true;
+	}
+
+	private void end(final char c) throws IOException {
+		if (depth == 0) {
+			throw new IOException("No open array or object.");
+		}
+		depth--;
+		writer.write(c);
+	}
+
+	private void separator() throws IOException {
+		if (depth > 0) {
+			if (first[depth - 1]) {
+				first[depth - 1] = false;
+			} else {
+				writer.write(',');
+			}
+		}
+	}
+
+}
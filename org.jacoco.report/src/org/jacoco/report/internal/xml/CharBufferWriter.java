@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2023 Mountainminds GmbH & Co. KG and Contributors
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Unsynchronized buffer in front of a {@link Writer}. In contrast to
+ * {@link java.io.BufferedWriter} single characters and short strings are
+ * copied into the buffer without any locking, the underlying writer only
+ * receives large chunks.
+ */
+final class CharBufferWriter extends Writer {
+
+	private static final int BUFFER_SIZE = 0x2000;
+
+	private final Writer out;
+
+	private final char[] buffer;
+
+	private int pos;
+
+	CharBufferWriter(final Writer out) {
+		this.out = out;
+		this.buffer = new char[BUFFER_SIZE];
+		this.pos = 0;
+	}
+
+	@Override
+	public void write(final int c) throws IOException {
+		if (pos == BUFFER_SIZE) {
+			flushBuffer();
+		}
+		buffer[pos++] = (char) c;
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len)
+			throws IOException {
+		if (len > BUFFER_SIZE - pos) {
+			flushBuffer();
+			if (len > BUFFER_SIZE) {
+				out.write(str, off, len);
+				return;
+			}
+		}
+		str.getChars(off, off + len, buffer, pos);
+		pos += len;
+	}
+
+	@Override
+	public void write(final String str) throws IOException {
+		write(str, 0, str.length());
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len)
+			throws IOException {
+		if (len > BUFFER_SIZE - pos) {
+			flushBuffer();
+			if (len > BUFFER_SIZE) {
+				out.write(cbuf, off, len);
+				return;
+			}
+		}
+		System.arraycopy(cbuf, off, buffer, pos, len);
+		pos += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flushBuffer();
+		out.close();
+	}
+
+	private void flushBuffer() throws IOException {
+		if (pos > 0) {
+			out.write(buffer, 0, pos);
+			pos = 0;
+		}
+	}
+
+}
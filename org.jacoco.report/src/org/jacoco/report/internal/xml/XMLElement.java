@@ -27,15 +27,6 @@ import java.io.Writer;
  */
 public class XMLElement {
 
-	/** XML header template */
-	private static final String HEADER = "<?xml version=\"1.0\" encoding=\"%s\"?>";
-
-	/** XML header template for standalone documents */
-	private static final String HEADER_STANDALONE = "<?xml version=\"1.0\" encoding=\"%s\" standalone=\"yes\"?>";
-
-	/** DOCTYPE declaration template */
-	private static final String DOCTYPE = "<!DOCTYPE %s PUBLIC \"%s\" \"%s\">";
-
 	/** Writer for content output */
 	protected final Writer writer;
 
@@ -81,14 +72,19 @@ public class XMLElement {
 			final String system, final boolean standalone,
 			final String encoding, final OutputStream output)
 			throws IOException {
-		this(new OutputStreamWriter(output, encoding), name, true);
-		if (standalone) {
-			writer.write(format(HEADER_STANDALONE, encoding));
-		} else {
-			writer.write(format(HEADER, encoding));
-		}
+		this(new CharBufferWriter(new OutputStreamWriter(output, encoding)),
+				name, true);
+		writer.write("<?xml version=\"1.0\" encoding=\"");
+		writer.write(encoding);
+		writer.write(standalone ? "\" standalone=\"yes\"?>" : "\"?>");
 		if (pubId != null) {
-			writer.write(format(DOCTYPE, name, pubId, system));
+			writer.write("<!DOCTYPE ");
+			writer.write(name);
+			writer.write(" PUBLIC \"");
+			writer.write(pubId);
+			writer.write("\" \"");
+			writer.write(system);
+			writer.write("\">");
 		}
 		writer.write('<');
 		writer.write(name);
@@ -134,26 +130,31 @@ public class XMLElement {
 
 	private void quote(final String text) throws IOException {
 		final int len = text.length();
+		int start = 0;
 		for (int i = 0; i < len; i++) {
-			final char c = text.charAt(i);
-			switch (c) {
+			final String entity;
+			switch (text.charAt(i)) {
 			case '<':
-				writer.write("&lt;");
+				entity = "&lt;";
 				break;
 			case '>':
-				writer.write("&gt;");
+				entity = "&gt;";
 				break;
 			case '"':
-				writer.write("&quot;");
+				entity = "&quot;";
 				break;
 			case '&':
-				writer.write("&amp;");
+				entity = "&amp;";
 				break;
 			default:
-				writer.write(c);
-				break;
+				continue;
 			}
+			// Write unescaped characters in bulk:
+			writer.write(text, start, i - start);
+			writer.write(entity);
+			start = i + 1;
 		}
+		writer.write(text, start, len - start);
 	}
 
 	/**